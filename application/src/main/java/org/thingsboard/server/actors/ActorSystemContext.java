@@ -104,6 +104,7 @@ import org.thingsboard.server.service.executors.DbCallbackExecutorService;
 import org.thingsboard.server.service.executors.ExternalCallExecutorService;
 import org.thingsboard.server.service.executors.NotificationExecutorService;
 import org.thingsboard.server.service.executors.PubSubRuleNodeExecutorProvider;
+import org.thingsboard.server.service.executors.ScriptBatchExecutorService;
 import org.thingsboard.server.service.executors.SharedEventLoopGroupService;
 import org.thingsboard.server.service.mail.MailExecutorService;
 import org.thingsboard.server.service.profile.TbAssetProfileCache;
@@ -325,6 +326,10 @@ public class ActorSystemContext {
     @Getter
     private NotificationExecutorService notificationExecutor;
 
+    @Autowired(required = false)
+    @Getter
+    private ScriptBatchExecutorService scriptBatchExecutor;
+
     @Lazy
     @Autowired
     @Getter
@@ -479,10 +484,22 @@ public class ActorSystemContext {
     @Getter
     private long ruleChainErrorPersistFrequency;
 
+    @Value("${actors.rule.chain.fused_execution.enabled:false}")
+    @Getter
+    private boolean ruleChainFusedExecutionEnabled;
+
+    @Value("${actors.rule.chain.fused_execution.max_chain_length:16}")
+    @Getter
+    private int ruleChainFusedExecutionMaxChainLength;
+
     @Value("${actors.rule.node.error_persist_frequency:3000}")
     @Getter
     private long ruleNodeErrorPersistFrequency;
 
+    @Value("${actors.rule.node.script_batch_size:1}")
+    @Getter
+    private int ruleNodeScriptBatchSize;
+
     @Value("${actors.statistics.enabled:true}")
     @Getter
     private boolean statisticsEnabled;
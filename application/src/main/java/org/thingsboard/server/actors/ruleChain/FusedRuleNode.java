@@ -0,0 +1,105 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors.ruleChain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.rule.engine.api.TbNode;
+import org.thingsboard.rule.engine.api.TbNodeConfiguration;
+import org.thingsboard.server.common.data.id.RuleNodeId;
+import org.thingsboard.server.common.data.rule.RuleNode;
+import org.thingsboard.server.common.msg.queue.RuleNodeInfo;
+
+import java.util.Objects;
+
+/**
+ * Instance of a synchronous rule node owned by the rule chain actor.
+ * Keeps the node statistics, since the messages processed inline never reach the rule node actor.
+ */
+@Slf4j
+final class FusedRuleNode {
+
+    @Getter
+    private final TbNode tbNode;
+    private final String type;
+    private final JsonNode configuration;
+    @Getter
+    private RuleNodeInfo info;
+    private long messagesProcessed;
+    private long errorsOccurred;
+
+    private FusedRuleNode(TbNode tbNode, String ruleChainName, RuleNode ruleNode) {
+        this.tbNode = tbNode;
+        this.type = ruleNode.getType();
+        this.configuration = ruleNode.getConfiguration();
+        this.info = new RuleNodeInfo(ruleNode.getId(), ruleChainName, ruleNode.getName());
+    }
+
+    static boolean isFusible(RuleNode ruleNode) {
+        if (ruleNode.isSingletonMode()) {
+            return false;
+        }
+        try {
+            var annotation = Class.forName(ruleNode.getType()).getAnnotation(org.thingsboard.rule.engine.api.RuleNode.class);
+            return annotation != null && annotation.synchronous();
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    static FusedRuleNode create(TbContext ctx, String ruleChainName, RuleNode ruleNode) throws Exception {
+        TbNode tbNode = (TbNode) Class.forName(ruleNode.getType()).getDeclaredConstructor().newInstance();
+        tbNode.init(ctx, new TbNodeConfiguration(ruleNode.getConfiguration()));
+        return new FusedRuleNode(tbNode, ruleChainName, ruleNode);
+    }
+
+    boolean isUpToDate(RuleNode ruleNode) {
+        return type.equals(ruleNode.getType()) && Objects.equals(configuration, ruleNode.getConfiguration());
+    }
+
+    void update(String ruleChainName, RuleNode ruleNode) {
+        this.info = new RuleNodeInfo(ruleNode.getId(), ruleChainName, ruleNode.getName());
+    }
+
+    void onMsgProcessed() {
+        messagesProcessed++;
+    }
+
+    void onError() {
+        errorsOccurred++;
+    }
+
+    FusedRuleNodeStatsMsg getAndResetStats() {
+        if (messagesProcessed == 0 && errorsOccurred == 0) {
+            return null;
+        }
+        FusedRuleNodeStatsMsg result = new FusedRuleNodeStatsMsg(messagesProcessed, errorsOccurred);
+        messagesProcessed = 0;
+        errorsOccurred = 0;
+        return result;
+    }
+
+    void destroy(RuleNodeId ruleNodeId) {
+        try {
+            tbNode.destroy();
+        } catch (Exception e) {
+            log.debug("[{}] Failed to destroy fused rule node", ruleNodeId, e);
+        }
+    }
+
+}
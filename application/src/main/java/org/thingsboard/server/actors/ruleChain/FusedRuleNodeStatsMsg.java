@@ -0,0 +1,41 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors.ruleChain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.thingsboard.server.common.msg.MsgType;
+import org.thingsboard.server.common.msg.TbActorMsg;
+
+/**
+ * Statistics of the messages processed inline by the rule chain actor,
+ * sent to the rule node actor to be persisted together with the statistics of the rule node actor.
+ */
+@AllArgsConstructor
+@Getter
+@ToString
+final class FusedRuleNodeStatsMsg implements TbActorMsg {
+
+    private final long messagesProcessed;
+    private final long errorsOccurred;
+
+    @Override
+    public MsgType getMsgType() {
+        return MsgType.FUSED_RULE_NODE_STATS_MSG;
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors.ruleChain;
+
+import org.thingsboard.rule.engine.api.TbNode;
+import org.thingsboard.server.actors.ActorSystemContext;
+import org.thingsboard.server.common.msg.TbMsg;
+
+/**
+ * Context of a rule node that is invoked inline by the rule chain actor.
+ * Results reported by the node while it is invoked on the rule chain actor thread
+ * are routed to the next nodes right away, without a round trip through the rule chain actor mailbox.
+ */
+class FusedTbContext extends DefaultTbContext {
+
+    private final RuleChainActorMessageProcessor chainProcessor;
+    private final Thread invoker;
+    private boolean invoking;
+
+    FusedTbContext(ActorSystemContext mainCtx, String ruleChainName, RuleNodeCtx nodeCtx, RuleChainActorMessageProcessor chainProcessor) {
+        super(mainCtx, ruleChainName, nodeCtx);
+        this.chainProcessor = chainProcessor;
+        this.invoker = Thread.currentThread();
+    }
+
+    void invoke(TbNode tbNode, TbMsg msg) {
+        invoking = true;
+        try {
+            tbNode.onMsg(this, msg);
+        } catch (Exception e) {
+            tellFailure(msg, e);
+        } finally {
+            invoking = false;
+        }
+    }
+
+    @Override
+    void tellChainActor(RuleNodeToRuleChainTellNextMsg msg) {
+        if (invoking && Thread.currentThread() == invoker) {
+            chainProcessor.onTellNext(msg);
+        } else {
+            super.tellChainActor(msg);
+        }
+    }
+
+}
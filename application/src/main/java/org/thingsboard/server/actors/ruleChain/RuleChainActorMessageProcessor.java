@@ -23,6 +23,7 @@ import org.thingsboard.server.actors.TbEntityActorId;
 import org.thingsboard.server.actors.service.DefaultActorService;
 import org.thingsboard.server.actors.shared.ComponentMsgProcessor;
 import org.thingsboard.server.cluster.TbClusterService;
+import org.thingsboard.server.common.data.ApiUsageRecordKey;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.RuleChainId;
@@ -74,11 +75,15 @@ public class RuleChainActorMessageProcessor extends ComponentMsgProcessor<RuleCh
     private final RuleChainService service;
     private final TbClusterService clusterService;
     private final TbApiUsageReportClient apiUsageClient;
+    private final Map<RuleNodeId, FusedRuleNode> fusedNodes;
+    private final boolean fusedExecutionEnabled;
+    private final int maxFusedChainLength;
     private String ruleChainName;
 
     private RuleNodeId firstId;
     private RuleNodeCtx firstNode;
     private boolean started;
+    private int fusedChainLength;
 
     RuleChainActorMessageProcessor(TenantId tenantId, RuleChain ruleChain, ActorSystemContext systemContext, TbActorRef parent, TbActorRef self) {
         super(systemContext, tenantId, ruleChain.getId());
@@ -88,6 +93,9 @@ public class RuleChainActorMessageProcessor extends ComponentMsgProcessor<RuleCh
         this.self = self;
         this.nodeActors = new HashMap<>();
         this.nodeRoutes = new HashMap<>();
+        this.fusedNodes = new HashMap<>();
+        this.fusedExecutionEnabled = systemContext.isRuleChainFusedExecutionEnabled();
+        this.maxFusedChainLength = systemContext.getRuleChainFusedExecutionMaxChainLength();
         this.service = systemContext.getRuleChainService();
         this.clusterService = systemContext.getClusterService();
     }
@@ -108,7 +116,9 @@ public class RuleChainActorMessageProcessor extends ComponentMsgProcessor<RuleCh
                 for (RuleNode ruleNode : ruleNodeList) {
                     log.trace("[{}][{}] Creating rule node [{}]: {}", entityId, ruleNode.getId(), ruleNode.getName(), ruleNode);
                     TbActorRef ruleNodeActor = createRuleNodeActor(context, ruleNode);
-                    nodeActors.put(ruleNode.getId(), new RuleNodeCtx(tenantId, self, ruleNodeActor, ruleNode));
+                    RuleNodeCtx ruleNodeCtx = new RuleNodeCtx(tenantId, self, ruleNodeActor, ruleNode);
+                    nodeActors.put(ruleNode.getId(), ruleNodeCtx);
+                    initFusedNode(ruleNodeCtx);
                 }
                 initRoutes(ruleChain, ruleNodeList);
                 started = true;
@@ -130,11 +140,14 @@ public class RuleChainActorMessageProcessor extends ComponentMsgProcessor<RuleCh
                 if (existing == null) {
                     log.trace("[{}][{}] Creating rule node [{}]: {}", entityId, ruleNode.getId(), ruleNode.getName(), ruleNode);
                     TbActorRef ruleNodeActor = createRuleNodeActor(context, ruleNode);
-                    nodeActors.put(ruleNode.getId(), new RuleNodeCtx(tenantId, self, ruleNodeActor, ruleNode));
+                    RuleNodeCtx ruleNodeCtx = new RuleNodeCtx(tenantId, self, ruleNodeActor, ruleNode);
+                    nodeActors.put(ruleNode.getId(), ruleNodeCtx);
+                    initFusedNode(ruleNodeCtx);
                 } else {
                     log.trace("[{}][{}] Updating rule node [{}]: {}", entityId, ruleNode.getId(), ruleNode.getName(), ruleNode);
                     existing.setSelf(ruleNode);
                     existing.getSelfActor().tellWithHighPriority(new RuleNodeUpdatedMsg(tenantId, existing.getSelf().getId()));
+                    initFusedNode(existing);
                 }
             }
 
@@ -143,6 +156,7 @@ public class RuleChainActorMessageProcessor extends ComponentMsgProcessor<RuleCh
             removedRules.forEach(ruleNodeId -> {
                 log.trace("[{}][{}] Removing rule node [{}]", tenantId, entityId, ruleNodeId);
                 RuleNodeCtx removed = nodeActors.remove(ruleNodeId);
+                destroyFusedNode(ruleNodeId);
                 removed.getSelfActor().tellWithHighPriority(new ComponentLifecycleMsg(tenantId, removed.getSelf().getId(), ComponentLifecycleEvent.DELETED));
             });
 
@@ -156,6 +170,8 @@ public class RuleChainActorMessageProcessor extends ComponentMsgProcessor<RuleCh
         nodeActors.values().stream().map(RuleNodeCtx::getSelfActor).map(TbActorRef::getActorId).forEach(ctx::stop);
         nodeActors.clear();
         nodeRoutes.clear();
+        fusedNodes.forEach((ruleNodeId, fusedNode) -> fusedNode.destroy(ruleNodeId));
+        fusedNodes.clear();
         started = false;
     }
 
@@ -165,6 +181,46 @@ public class RuleChainActorMessageProcessor extends ComponentMsgProcessor<RuleCh
         nodeActors.values().stream().map(RuleNodeCtx::getSelfActor).forEach(actorRef -> actorRef.tellWithHighPriority(msg));
     }
 
+    /*
+     * The statistics are merged into the statistics of the rule node actor,
+     * so that a single stats event is persisted per rule node.
+     */
+    void reportFusedNodeStats() {
+        fusedNodes.forEach((ruleNodeId, fusedNode) -> {
+            FusedRuleNodeStatsMsg statsMsg = fusedNode.getAndResetStats();
+            RuleNodeCtx nodeCtx = nodeActors.get(ruleNodeId);
+            if (statsMsg != null && nodeCtx != null) {
+                nodeCtx.getSelfActor().tell(statsMsg);
+            }
+        });
+    }
+
+    private void initFusedNode(RuleNodeCtx ruleNodeCtx) {
+        RuleNode ruleNode = ruleNodeCtx.getSelf();
+        FusedRuleNode existing = fusedNodes.get(ruleNode.getId());
+        if (existing != null) {
+            if (existing.isUpToDate(ruleNode)) {
+                existing.update(ruleChainName, ruleNode);
+                return;
+            }
+            destroyFusedNode(ruleNode.getId());
+        }
+        if (fusedExecutionEnabled && FusedRuleNode.isFusible(ruleNode)) {
+            try {
+                fusedNodes.put(ruleNode.getId(), FusedRuleNode.create(new DefaultTbContext(systemContext, ruleChainName, ruleNodeCtx), ruleChainName, ruleNode));
+            } catch (Exception e) {
+                log.debug("[{}][{}] Failed to init rule node [{}] for fused execution. Messages are going to be processed by the rule node actor", tenantId, entityId, ruleNode.getId(), e);
+            }
+        }
+    }
+
+    private void destroyFusedNode(RuleNodeId ruleNodeId) {
+        FusedRuleNode removed = fusedNodes.remove(ruleNodeId);
+        if (removed != null) {
+            removed.destroy(ruleNodeId);
+        }
+    }
+
     private TbActorRef createRuleNodeActor(TbActorCtx ctx, RuleNode ruleNode) {
         return ctx.getOrCreateChildActor(new TbEntityActorId(ruleNode.getId()),
                 () -> DefaultActorService.RULE_DISPATCHER_NAME,
@@ -390,13 +446,57 @@ public class RuleChainActorMessageProcessor extends ComponentMsgProcessor<RuleCh
 
     private void pushMsgToNode(RuleNodeCtx nodeCtx, TbMsg msg, String fromRelationType) {
         if (nodeCtx != null) {
-            nodeCtx.getSelfActor().tell(new RuleChainToRuleNodeMsg(new DefaultTbContext(systemContext, ruleChainName, nodeCtx), msg, fromRelationType));
+            FusedRuleNode fusedNode = fusedNodes.isEmpty() ? null : fusedNodes.get(nodeCtx.getSelf().getId());
+            if (fusedNode != null && fusedChainLength < maxFusedChainLength) {
+                invokeFusedNode(fusedNode, nodeCtx, msg, fromRelationType);
+            } else {
+                nodeCtx.getSelfActor().tell(new RuleChainToRuleNodeMsg(new DefaultTbContext(systemContext, ruleChainName, nodeCtx), msg, fromRelationType));
+            }
         } else {
             log.error("[{}][{}] RuleNodeCtx is empty", entityId, ruleChainName);
             msg.getCallback().onFailure(new RuleEngineException("Rule Node CTX is empty"));
         }
     }
 
+    /*
+     * Counts the processed messages and the errors the same way as RuleNodeActor.onRuleChainToRuleNodeMsg.
+     */
+    private void invokeFusedNode(FusedRuleNode fusedNode, RuleNodeCtx nodeCtx, TbMsg msg, String fromRelationType) {
+        try {
+            doInvokeFusedNode(fusedNode, nodeCtx, msg, fromRelationType);
+            fusedNode.onMsgProcessed();
+        } catch (Exception e) {
+            fusedNode.onError();
+            log.trace("[{}][{}] Failed to process msg by fused rule node [{}]", tenantId, entityId, nodeCtx.getSelf().getId(), e);
+            msg.getCallback().onFailure(new RuleNodeException(e.getMessage(), ruleChainName, nodeCtx.getSelf()));
+        }
+    }
+
+    /*
+     * Mirrors RuleNodeActorMessageProcessor.onRuleChainToRuleNodeMsg, but on the rule chain actor thread.
+     * The chain length is limited to bound the stack depth of the consecutive inline invocations.
+     */
+    private void doInvokeFusedNode(FusedRuleNode fusedNode, RuleNodeCtx nodeCtx, TbMsg msg, String fromRelationType) {
+        RuleNode ruleNode = nodeCtx.getSelf();
+        msg.getCallback().onProcessingStart(fusedNode.getInfo());
+        int ruleNodeCount = msg.getAndIncrementRuleNodeCounter();
+        int maxRuleNodeExecutionsPerMessage = getTenantProfileConfiguration().getMaxRuleNodeExecsPerMessage();
+        if (maxRuleNodeExecutionsPerMessage == 0 || ruleNodeCount < maxRuleNodeExecutionsPerMessage) {
+            apiUsageClient.report(tenantId, msg.getCustomerId(), ApiUsageRecordKey.RE_EXEC_COUNT);
+            if (ruleNode.isDebugMode()) {
+                systemContext.persistDebugInput(tenantId, ruleNode.getId(), msg, fromRelationType);
+            }
+            fusedChainLength++;
+            try {
+                new FusedTbContext(systemContext, ruleChainName, nodeCtx, this).invoke(fusedNode.getTbNode(), msg);
+            } finally {
+                fusedChainLength--;
+            }
+        } else {
+            msg.getCallback().onFailure(new RuleNodeException("Message is processed by more then " + maxRuleNodeExecutionsPerMessage + " rule nodes!", ruleChainName, ruleNode));
+        }
+    }
+
     @Override
     protected RuleNodeException getInactiveException() {
         RuleNode firstRuleNode = firstNode != null ? firstNode.getSelf() : null;
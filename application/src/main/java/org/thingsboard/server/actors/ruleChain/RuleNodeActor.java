@@ -65,6 +65,9 @@ public class RuleNodeActor extends RuleEngineComponentActor<RuleNodeId, RuleNode
             case STATS_PERSIST_TICK_MSG:
                 onStatsPersistTick(id);
                 break;
+            case FUSED_RULE_NODE_STATS_MSG:
+                onFusedRuleNodeStatsMsg((FusedRuleNodeStatsMsg) msg);
+                break;
             case PARTITION_CHANGE_MSG:
                 onClusterEventMsg((PartitionChangeMsg) msg);
                 break;
@@ -74,6 +77,10 @@ public class RuleNodeActor extends RuleEngineComponentActor<RuleNodeId, RuleNode
         return true;
     }
 
+    private void onFusedRuleNodeStatsMsg(FusedRuleNodeStatsMsg msg) {
+        addStats(msg.getMessagesProcessed(), msg.getErrorsOccurred());
+    }
+
     private void onRuleNodeToSelfMsg(RuleNodeToSelfMsg msg) {
         if (log.isDebugEnabled()) {
             log.debug("[{}][{}][{}] Going to process rule msg: {}", ruleChainId, id, processor.getComponentName(), msg.getMsg());
@@ -156,6 +156,11 @@ public abstract class ComponentActor<T extends EntityId, P extends ComponentMsgP
         messagesProcessed++;
     }
 
+    protected void addStats(long messagesProcessed, long errorsOccurred) {
+        this.messagesProcessed += messagesProcessed;
+        this.errorsOccurred += errorsOccurred;
+    }
+
     protected void logAndPersist(String method, Exception e) {
         logAndPersist(method, e, false);
     }
@@ -19,27 +19,38 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.thingsboard.common.util.ThingsBoardExecutors;
-import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.actors.ActorSystemContext;
 import org.thingsboard.server.actors.DefaultTbActorSystem;
+import org.thingsboard.server.actors.TbActorDispatcherStats;
+import org.thingsboard.server.actors.TbActorDispatcherType;
+import org.thingsboard.server.actors.TbActorMailboxOverflowPolicy;
+import org.thingsboard.server.actors.TbActorMailboxSettings;
+import org.thingsboard.server.actors.TbActorMailboxStats;
+import org.thingsboard.server.actors.TbActorMailboxType;
 import org.thingsboard.server.actors.TbActorRef;
+import org.thingsboard.server.actors.TbActorSchedulerSettings;
+import org.thingsboard.server.actors.TbActorSchedulerType;
 import org.thingsboard.server.actors.TbActorSystem;
 import org.thingsboard.server.actors.TbActorSystemSettings;
 import org.thingsboard.server.actors.app.AppActor;
 import org.thingsboard.server.actors.app.AppInitMsg;
 import org.thingsboard.server.actors.stats.StatsActor;
+import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.msg.queue.PartitionChangeMsg;
 import org.thingsboard.server.common.msg.queue.ServiceType;
+import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.queue.discovery.TbApplicationEventListener;
 import org.thingsboard.server.queue.discovery.event.PartitionChangeEvent;
 import org.thingsboard.server.queue.util.AfterStartUp;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Slf4j
@@ -50,9 +61,14 @@ public class DefaultActorService extends TbApplicationEventListener<PartitionCha
     public static final String DEVICE_DISPATCHER_NAME = "device-dispatcher";
     public static final String RULE_DISPATCHER_NAME = "rule-dispatcher";
 
+    private static final List<String> DISPATCHER_NAMES = List.of(APP_DISPATCHER_NAME, TENANT_DISPATCHER_NAME, DEVICE_DISPATCHER_NAME, RULE_DISPATCHER_NAME);
+
     @Autowired
     private ActorSystemContext actorContext;
 
+    @Autowired
+    private StatsFactory statsFactory;
+
     private TbActorSystem system;
 
     private TbActorRef appActor;
@@ -78,17 +94,59 @@ public class DefaultActorService extends TbApplicationEventListener<PartitionCha
     @Value("${actors.system.rule_dispatcher_pool_size:8}")
     private int ruleDispatcherSize;
 
+    @Value("${actors.system.app_dispatcher_type:work_stealing}")
+    private String appDispatcherType;
+
+    @Value("${actors.system.tenant_dispatcher_type:work_stealing}")
+    private String tenantDispatcherType;
+
+    @Value("${actors.system.device_dispatcher_type:work_stealing}")
+    private String deviceDispatcherType;
+
+    @Value("${actors.system.rule_dispatcher_type:work_stealing}")
+    private String ruleDispatcherType;
+
+    @Value("${actors.system.mailbox.type:unbounded}")
+    private String mailboxType;
+
+    @Value("${actors.system.mailbox.capacity:10000}")
+    private int mailboxCapacity;
+
+    @Value("${actors.system.mailbox.overflow_policy:reject}")
+    private String mailboxOverflowPolicy;
+
+    @Value("${actors.system.mailbox.backpressure_timeout_ms:1000}")
+    private long mailboxBackpressureTimeoutMs;
+
+    @Value("${actors.system.mailbox.dispatchers:rule-dispatcher}")
+    private String mailboxDispatchers;
+
+    @Value("${actors.system.scheduler.type:thread_pool}")
+    private String schedulerType;
+
+    @Value("${actors.system.scheduler.tick_ms:10}")
+    private long schedulerTickMs;
+
+    @Value("${actors.system.scheduler.wheel_size:512}")
+    private int schedulerWheelSize;
+
+    private final Map<String, DispatcherGauges> dispatcherGauges = new ConcurrentHashMap<>();
+
+    private AtomicLong pendingTimers;
+
     @PostConstruct
     public void initActorSystem() {
         log.info("Initializing actor system.");
         actorContext.setActorService(this);
         TbActorSystemSettings settings = new TbActorSystemSettings(actorThroughput, schedulerPoolSize, maxActorInitAttempts);
+        initMailboxSettings(settings);
+        initSchedulerSettings(settings);
         system = new DefaultTbActorSystem(settings);
 
-        system.createDispatcher(APP_DISPATCHER_NAME, initDispatcherExecutor(APP_DISPATCHER_NAME, appDispatcherSize));
-        system.createDispatcher(TENANT_DISPATCHER_NAME, initDispatcherExecutor(TENANT_DISPATCHER_NAME, tenantDispatcherSize));
-        system.createDispatcher(DEVICE_DISPATCHER_NAME, initDispatcherExecutor(DEVICE_DISPATCHER_NAME, deviceDispatcherSize));
-        system.createDispatcher(RULE_DISPATCHER_NAME, initDispatcherExecutor(RULE_DISPATCHER_NAME, ruleDispatcherSize));
+        initDispatcher(APP_DISPATCHER_NAME, appDispatcherType, appDispatcherSize);
+        initDispatcher(TENANT_DISPATCHER_NAME, tenantDispatcherType, tenantDispatcherSize);
+        initDispatcher(DEVICE_DISPATCHER_NAME, deviceDispatcherType, deviceDispatcherSize);
+        initDispatcher(RULE_DISPATCHER_NAME, ruleDispatcherType, ruleDispatcherSize);
 
         actorContext.setActorSystem(system);
 
@@ -98,19 +156,59 @@ public class DefaultActorService extends TbApplicationEventListener<PartitionCha
         TbActorRef statsActor = system.createRootActor(TENANT_DISPATCHER_NAME, new StatsActor.ActorCreator(actorContext, "StatsActor"));
         actorContext.setStatsActor(statsActor);
 
+        DISPATCHER_NAMES.forEach(dispatcherName -> dispatcherGauges.put(dispatcherName, new DispatcherGauges(dispatcherName)));
+        pendingTimers = statsFactory.createGauge("actors.scheduler.pendingTimers", new AtomicLong());
+
         log.info("Actor system initialized.");
     }
 
-    private ExecutorService initDispatcherExecutor(String dispatcherName, int poolSize) {
+    private void initMailboxSettings(TbActorSystemSettings settings) {
+        TbActorMailboxType type = TbActorMailboxType.valueOf(mailboxType.toUpperCase());
+        if (type == TbActorMailboxType.UNBOUNDED) {
+            return;
+        }
+        TbActorMailboxSettings mailboxSettings = TbActorMailboxSettings.bounded(mailboxCapacity,
+                TbActorMailboxOverflowPolicy.valueOf(mailboxOverflowPolicy.toUpperCase()), mailboxBackpressureTimeoutMs);
+        if (StringUtils.isBlank(mailboxDispatchers)) {
+            settings.setDefaultMailboxSettings(mailboxSettings);
+        } else {
+            for (String dispatcherName : mailboxDispatchers.split(",")) {
+                settings.setMailboxSettings(dispatcherName.trim(), mailboxSettings);
+            }
+        }
+        log.info("Using {} mailbox for dispatchers: {}", mailboxSettings, StringUtils.isBlank(mailboxDispatchers) ? "all" : mailboxDispatchers);
+    }
+
+    private void initSchedulerSettings(TbActorSystemSettings settings) {
+        TbActorSchedulerType type = TbActorSchedulerType.valueOf(schedulerType.toUpperCase());
+        if (type == TbActorSchedulerType.TIMING_WHEEL) {
+            settings.setSchedulerSettings(TbActorSchedulerSettings.timingWheel(schedulerTickMs, schedulerWheelSize));
+        }
+        log.info("Using {} actor system scheduler", settings.getSchedulerSettings());
+    }
+
+    @Scheduled(fixedDelayString = "${actors.system.stats_update_interval_ms:10000}")
+    public void updateDispatcherStats() {
+        if (system != null) {
+            dispatcherGauges.forEach((dispatcherName, gauges) -> {
+                TbActorDispatcherStats stats = system.getDispatcherStats(dispatcherName);
+                gauges.update(stats, system.getMailboxStats(dispatcherName));
+                log.debug("[{}] Processed {} msgs, avg processing time {} us, avg scheduling delay {} us, max scheduling delay {} us",
+                        dispatcherName, stats.getProcessedMsgs(), stats.getAvgProcessingTimeMicros(),
+                        stats.getAvgSchedulingDelayMicros(), stats.getMaxSchedulingDelayMicros());
+            });
+            pendingTimers.set(system.getPendingTimers());
+        }
+    }
+
+    private void initDispatcher(String dispatcherName, String dispatcherType, int poolSize) {
         if (poolSize == 0) {
             int cores = Runtime.getRuntime().availableProcessors();
             poolSize = Math.max(1, cores / 2);
         }
-        if (poolSize == 1) {
-            return Executors.newSingleThreadExecutor(ThingsBoardThreadFactory.forName(dispatcherName));
-        } else {
-            return ThingsBoardExecutors.newWorkStealingPool(poolSize, dispatcherName);
-        }
+        TbActorDispatcherType type = TbActorDispatcherType.valueOf(dispatcherType.toUpperCase());
+        log.info("[{}] Creating {} dispatcher with pool size {}", dispatcherName, type, poolSize);
+        system.createDispatcher(dispatcherName, type, poolSize);
     }
 
     @AfterStartUp(order = AfterStartUp.ACTOR_SYSTEM)
@@ -139,4 +237,39 @@ public class DefaultActorService extends TbApplicationEventListener<PartitionCha
         }
     }
 
+    private class DispatcherGauges {
+
+        private final AtomicLong processedMsgs;
+        private final AtomicLong avgProcessingTime;
+        private final AtomicLong avgSchedulingDelay;
+        private final AtomicLong maxSchedulingDelay;
+        private final AtomicLong queuedMsgs;
+        private final AtomicLong maxQueueSize;
+        private final AtomicLong droppedMsgs;
+        private final AtomicLong rejectedMsgs;
+
+        DispatcherGauges(String dispatcherName) {
+            processedMsgs = statsFactory.createGauge("actors.dispatcher.processedMsgs", new AtomicLong(), "dispatcher", dispatcherName);
+            avgProcessingTime = statsFactory.createGauge("actors.dispatcher.avgProcessingTimeUs", new AtomicLong(), "dispatcher", dispatcherName);
+            avgSchedulingDelay = statsFactory.createGauge("actors.dispatcher.avgSchedulingDelayUs", new AtomicLong(), "dispatcher", dispatcherName);
+            maxSchedulingDelay = statsFactory.createGauge("actors.dispatcher.maxSchedulingDelayUs", new AtomicLong(), "dispatcher", dispatcherName);
+            queuedMsgs = statsFactory.createGauge("actors.mailbox.queuedMsgs", new AtomicLong(), "dispatcher", dispatcherName);
+            maxQueueSize = statsFactory.createGauge("actors.mailbox.maxQueueSize", new AtomicLong(), "dispatcher", dispatcherName);
+            droppedMsgs = statsFactory.createGauge("actors.mailbox.droppedMsgs", new AtomicLong(), "dispatcher", dispatcherName);
+            rejectedMsgs = statsFactory.createGauge("actors.mailbox.rejectedMsgs", new AtomicLong(), "dispatcher", dispatcherName);
+        }
+
+        void update(TbActorDispatcherStats dispatcherStats, TbActorMailboxStats mailboxStats) {
+            processedMsgs.set(dispatcherStats.getProcessedMsgs());
+            avgProcessingTime.set(dispatcherStats.getAvgProcessingTimeMicros());
+            avgSchedulingDelay.set(dispatcherStats.getAvgSchedulingDelayMicros());
+            maxSchedulingDelay.set(dispatcherStats.getMaxSchedulingDelayMicros());
+            queuedMsgs.set(mailboxStats.getQueuedMsgs());
+            maxQueueSize.set(mailboxStats.getMaxQueueSize());
+            droppedMsgs.set(mailboxStats.getDroppedMsgs());
+            rejectedMsgs.set(mailboxStats.getRejectedMsgs());
+        }
+
+    }
+
 }
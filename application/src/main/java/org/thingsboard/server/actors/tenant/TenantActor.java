@@ -254,7 +254,7 @@ public class TenantActor extends RuleChainManagerActor {
                     return super.testEntityId(entityId) && !isMyPartition(entityId);
                 }
             });
-            deviceActorIds.forEach(id -> ctx.stop(id));
+            ctx.stopAll(deviceActorIds);
         }
     }
 
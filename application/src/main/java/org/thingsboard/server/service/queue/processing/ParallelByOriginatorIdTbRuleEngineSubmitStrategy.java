@@ -0,0 +1,194 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.queue.processing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.gen.transport.TransportProtos;
+import org.thingsboard.server.queue.common.TbProtoQueueMsg;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Distributes originators between a fixed number of lanes. Each lane keeps up to {@code windowSize} messages
+ * of different originators in progress, so messages of the same originator are processed in order
+ * while different originators progress in parallel.
+ * Messages with unknown originator are not ordered.
+ */
+@Slf4j
+public class ParallelByOriginatorIdTbRuleEngineSubmitStrategy extends AbstractTbRuleEngineSubmitStrategy {
+
+    private final int windowSize;
+    private final Lane[] lanes;
+    private final ConcurrentMap<UUID, Lane> msgToLaneMap = new ConcurrentHashMap<>();
+    private volatile BiConsumer<UUID, TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg>> msgConsumer;
+
+    public ParallelByOriginatorIdTbRuleEngineSubmitStrategy(String queueName, int windowSize, List<TbRuleEngineLaneStats> laneStats) {
+        super(queueName);
+        this.windowSize = windowSize;
+        this.lanes = new Lane[laneStats.size()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(laneStats.get(i));
+        }
+    }
+
+    @Override
+    public void init(List<TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg>> msgs) {
+        super.init(msgs);
+        initLanes();
+    }
+
+    @Override
+    public void update(ConcurrentMap<UUID, TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg>> reprocessMap) {
+        super.update(reprocessMap);
+        initLanes();
+    }
+
+    @Override
+    public void submitAttempt(BiConsumer<UUID, TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg>> msgConsumer) {
+        this.msgConsumer = msgConsumer;
+        for (Lane lane : lanes) {
+            submit(lane.submitNext(null));
+        }
+    }
+
+    @Override
+    protected void doOnSuccess(UUID id) {
+        Lane lane = msgToLaneMap.remove(id);
+        if (lane != null) {
+            submit(lane.submitNext(id));
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        for (Lane lane : lanes) {
+            lane.clear();
+        }
+    }
+
+    private void submit(List<Entry> entries) {
+        if (log.isTraceEnabled() && !entries.isEmpty()) {
+            log.trace("[{}] submitting [{}] messages to rule engine", queueName, entries.size());
+        }
+        for (Entry entry : entries) {
+            msgConsumer.accept(entry.pair.uuid, entry.pair.msg);
+        }
+    }
+
+    private void initLanes() {
+        msgToLaneMap.clear();
+        for (Lane lane : lanes) {
+            lane.clear();
+        }
+        for (IdMsgPair<TransportProtos.ToRuleEngineMsg> pair : orderedMsgList) {
+            EntityId originator = getOriginatorId(pair.msg.getValue());
+            Lane lane = lanes[originator != null ? Math.floorMod(originator.getId().hashCode(), lanes.length) : 0];
+            lane.add(new Entry(pair, originator));
+            msgToLaneMap.put(pair.uuid, lane);
+        }
+    }
+
+    private record Entry(IdMsgPair<TransportProtos.ToRuleEngineMsg> pair, EntityId originator) {}
+
+    private class Lane {
+
+        private final TbRuleEngineLaneStats stats;
+        // Messages that can be submitted right away: the earliest waiting message of each originator and the messages without originator
+        private final Queue<Entry> ready = new ArrayDeque<>();
+        // Messages that wait for the previous message of the same originator, present while the originator has a ready or in-flight message
+        private final Map<EntityId, Queue<Entry>> waitingByOriginator = new HashMap<>();
+        private final Map<UUID, Entry> inFlight = new HashMap<>();
+        private int waiting;
+
+        Lane(TbRuleEngineLaneStats stats) {
+            this.stats = stats;
+        }
+
+        synchronized void add(Entry entry) {
+            if (entry.originator == null) {
+                ready.add(entry);
+            } else {
+                Queue<Entry> originatorQueue = waitingByOriginator.get(entry.originator);
+                if (originatorQueue == null) {
+                    waitingByOriginator.put(entry.originator, new ArrayDeque<>());
+                    ready.add(entry);
+                } else {
+                    originatorQueue.add(entry);
+                }
+            }
+            waiting++;
+            stats.getWaiting().incrementAndGet();
+        }
+
+        /**
+         * Releases the slot of the processed message, if any, and moves the next ready messages to the in-flight window.
+         * The next message of the processed originator becomes ready, so each step costs O(1) regardless of the waiting messages.
+         */
+        synchronized List<Entry> submitNext(UUID processedId) {
+            if (processedId != null) {
+                Entry processed = inFlight.remove(processedId);
+                if (processed == null) {
+                    return List.of();
+                }
+                stats.getInFlight().decrementAndGet();
+                if (processed.originator != null) {
+                    Queue<Entry> originatorQueue = waitingByOriginator.get(processed.originator);
+                    Entry next = originatorQueue != null ? originatorQueue.poll() : null;
+                    if (next != null) {
+                        ready.add(next);
+                    } else {
+                        waitingByOriginator.remove(processed.originator);
+                    }
+                }
+            }
+            if (ready.isEmpty() || inFlight.size() >= windowSize) {
+                return List.of();
+            }
+            List<Entry> toSubmit = new ArrayList<>();
+            while (!ready.isEmpty() && inFlight.size() < windowSize) {
+                Entry entry = ready.poll();
+                inFlight.put(entry.pair.uuid, entry);
+                toSubmit.add(entry);
+            }
+            waiting -= toSubmit.size();
+            stats.getWaiting().addAndGet(-toSubmit.size());
+            stats.getInFlight().addAndGet(toSubmit.size());
+            return toSubmit;
+        }
+
+        synchronized void clear() {
+            stats.getWaiting().addAndGet(-waiting);
+            stats.getInFlight().addAndGet(-inFlight.size());
+            waiting = 0;
+            ready.clear();
+            waitingByOriginator.clear();
+            inFlight.clear();
+        }
+
+    }
+
+}
@@ -15,14 +15,25 @@
  */
 package org.thingsboard.server.service.queue.processing;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.thingsboard.server.common.data.queue.SubmitStrategy;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class TbRuleEngineSubmitStrategyFactory {
 
+    private final StatsFactory statsFactory;
+    private final ConcurrentMap<String, List<TbRuleEngineLaneStats>> laneStatsMap = new ConcurrentHashMap<>();
+
     public TbRuleEngineSubmitStrategy newInstance(String name, SubmitStrategy submitStrategy) {
         switch (submitStrategy.getType()) {
             case BURST:
@@ -35,9 +46,26 @@ public class TbRuleEngineSubmitStrategyFactory {
                 return new SequentialByTenantIdTbRuleEngineSubmitStrategy(name);
             case SEQUENTIAL:
                 return new SequentialTbRuleEngineSubmitStrategy(name);
+            case PARALLEL_BY_ORIGINATOR:
+                return new ParallelByOriginatorIdTbRuleEngineSubmitStrategy(name, Math.max(submitStrategy.getLaneWindowSize(), 1),
+                        getLaneStats(name, Math.max(submitStrategy.getLanes(), 1)));
             default:
                 throw new RuntimeException("TbRuleEngineProcessingStrategy with type " + submitStrategy.getType() + " is not supported!");
         }
     }
 
+    private List<TbRuleEngineLaneStats> getLaneStats(String queueName, int lanes) {
+        List<TbRuleEngineLaneStats> laneStats = laneStatsMap.computeIfAbsent(queueName, name -> new ArrayList<>());
+        synchronized (laneStats) {
+            while (laneStats.size() < lanes) {
+                String lane = Integer.toString(laneStats.size());
+                TbRuleEngineLaneStats stats = new TbRuleEngineLaneStats();
+                statsFactory.createGauge("ruleEngine.lane.waiting", stats.getWaiting(), "queue", queueName, "lane", lane);
+                statsFactory.createGauge("ruleEngine.lane.inFlight", stats.getInFlight(), "queue", queueName, "lane", lane);
+                laneStats.add(stats);
+            }
+            return new ArrayList<>(laneStats.subList(0, lanes));
+        }
+    }
+
 }
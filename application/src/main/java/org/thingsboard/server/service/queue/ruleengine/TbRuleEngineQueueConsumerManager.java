@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.service.queue.ruleengine;
 
+import com.google.protobuf.ByteString;
 import com.google.protobuf.ProtocolStringList;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +44,7 @@ import org.thingsboard.server.service.queue.processing.TbRuleEngineProcessingRes
 import org.thingsboard.server.service.queue.processing.TbRuleEngineProcessingStrategy;
 import org.thingsboard.server.service.queue.processing.TbRuleEngineSubmitStrategy;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -121,7 +123,7 @@ public class TbRuleEngineQueueConsumerManager extends MainQueueConsumerManager<T
                                Queue queue) throws Exception {
         TbRuleEngineSubmitStrategy submitStrategy = getSubmitStrategy(queue);
         TbRuleEngineProcessingStrategy ackStrategy = getProcessingStrategy(queue);
-        submitStrategy.init(msgs);
+        submitStrategy.init(unpackBatches(msgs));
         while (!stopped && !consumer.isStopped()) {
             TbMsgPackProcessingContext packCtx = new TbMsgPackProcessingContext(queue.getName(), submitStrategy, ackStrategy.isSkipTimeoutMsgs());
             submitStrategy.submitAttempt((id, msg) -> submitMessage(packCtx, id, msg));
@@ -154,6 +156,32 @@ public class TbRuleEngineQueueConsumerManager extends MainQueueConsumerManager<T
         }
     }
 
+    /*
+     * Transports may combine the messages of several devices that belong to the same partition into one queue message.
+     * Such batches are split back so that the submit and processing strategies handle each message separately.
+     */
+    static List<TbProtoQueueMsg<ToRuleEngineMsg>> unpackBatches(List<TbProtoQueueMsg<ToRuleEngineMsg>> msgs) {
+        if (msgs.stream().noneMatch(msg -> msg.getValue().getTbMsgBatchCount() > 0)) {
+            return msgs;
+        }
+        List<TbProtoQueueMsg<ToRuleEngineMsg>> result = new ArrayList<>(msgs.size());
+        for (TbProtoQueueMsg<ToRuleEngineMsg> msg : msgs) {
+            ToRuleEngineMsg toRuleEngineMsg = msg.getValue();
+            if (toRuleEngineMsg.getTbMsgBatchCount() == 0) {
+                result.add(msg);
+                continue;
+            }
+            for (ByteString tbMsg : toRuleEngineMsg.getTbMsgBatchList()) {
+                ToRuleEngineMsg unpacked = ToRuleEngineMsg.newBuilder(toRuleEngineMsg)
+                        .clearTbMsgBatch()
+                        .setTbMsg(tbMsg)
+                        .build();
+                result.add(new TbProtoQueueMsg<>(msg.getKey(), unpacked, msg.getHeaders()));
+            }
+        }
+        return result;
+    }
+
     private TbRuleEngineSubmitStrategy getSubmitStrategy(Queue queue) {
         return ctx.getSubmitStrategyFactory().newInstance(queue.getName(), queue.getSubmitStrategy());
     }
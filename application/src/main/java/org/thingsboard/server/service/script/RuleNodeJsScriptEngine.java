@@ -35,6 +35,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 
 @Slf4j
@@ -44,6 +45,10 @@ public class RuleNodeJsScriptEngine extends RuleNodeScriptEngine<JsInvokeService
         super(tenantId, scriptInvokeService, script, argNames);
     }
 
+    public RuleNodeJsScriptEngine(TenantId tenantId, JsInvokeService scriptInvokeService, int maxBatchSize, Executor batchExecutor, String script, String... argNames) {
+        super(tenantId, scriptInvokeService, maxBatchSize, batchExecutor, script, argNames);
+    }
+
     @Override
     public ListenableFuture<JsonNode> executeJsonAsync(TbMsg msg) {
         return executeScriptAsync(msg);
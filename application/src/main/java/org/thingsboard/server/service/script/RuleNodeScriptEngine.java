@@ -18,6 +18,7 @@ package org.thingsboard.server.service.script;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.rule.engine.api.ScriptEngine;
 import org.thingsboard.script.api.ScriptInvokeService;
@@ -27,10 +28,19 @@ import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.msg.TbMsg;
 
 import javax.script.ScriptException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 
 @Slf4j
@@ -41,9 +51,26 @@ public abstract class RuleNodeScriptEngine<T extends ScriptInvokeService, R> imp
     private final UUID scriptId;
     private final TenantId tenantId;
 
+    private final int maxBatchSize;
+    private final Executor batchExecutor;
+    private final Queue<PendingInvocation<R>> pendingInvocations = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
     public RuleNodeScriptEngine(TenantId tenantId, T scriptInvokeService, String script, String... argNames) {
+        this(tenantId, scriptInvokeService, 1, null, script, argNames);
+    }
+
+    /**
+     * @param maxBatchSize  if greater than 1, single invocations are queued and shipped to the script invoke service
+     *                      in batches of up to this size. Invocations that arrive while a batch is being submitted
+     *                      are coalesced into the next one, so no delay is added when the engine is not under load
+     * @param batchExecutor executor that submits the queued invocations
+     */
+    public RuleNodeScriptEngine(TenantId tenantId, T scriptInvokeService, int maxBatchSize, Executor batchExecutor, String script, String... argNames) {
         this.tenantId = tenantId;
         this.scriptInvokeService = scriptInvokeService;
+        this.maxBatchSize = batchExecutor != null ? maxBatchSize : 1;
+        this.batchExecutor = batchExecutor;
         try {
             this.scriptId = this.scriptInvokeService.eval(tenantId, ScriptType.RULE_NODE_SCRIPT, script, argNames).get();
         } catch (Exception e) {
@@ -65,6 +92,17 @@ public abstract class RuleNodeScriptEngine<T extends ScriptInvokeService, R> imp
                 MoreExecutors.directExecutor());
     }
 
+    @Override
+    public List<ListenableFuture<List<TbMsg>>> executeUpdateAsync(List<TbMsg> msgs) {
+        List<ListenableFuture<R>> results = executeScriptsAsync(msgs);
+        List<ListenableFuture<List<TbMsg>>> updates = new ArrayList<>(msgs.size());
+        for (int i = 0; i < msgs.size(); i++) {
+            TbMsg msg = msgs.get(i);
+            updates.add(Futures.transformAsync(results.get(i), json -> executeUpdateTransform(msg, json), MoreExecutors.directExecutor()));
+        }
+        return updates;
+    }
+
     protected abstract ListenableFuture<List<TbMsg>> executeUpdateTransform(TbMsg msg, R result);
 
     @Override
@@ -89,6 +127,13 @@ public abstract class RuleNodeScriptEngine<T extends ScriptInvokeService, R> imp
                 MoreExecutors.directExecutor());
     }
 
+    @Override
+    public List<ListenableFuture<Boolean>> executeFilterAsync(List<TbMsg> msgs) {
+        return executeScriptsAsync(msgs).stream()
+                .map(result -> Futures.transformAsync(result, this::executeFilterTransform, MoreExecutors.directExecutor()))
+                .collect(Collectors.toList());
+    }
+
     protected abstract ListenableFuture<String> executeToStringTransform(R result);
 
     protected abstract ListenableFuture<Boolean> executeFilterTransform(R result);
@@ -102,14 +147,88 @@ public abstract class RuleNodeScriptEngine<T extends ScriptInvokeService, R> imp
                 MoreExecutors.directExecutor()); //usually runs in a callbackExecutor
     }
 
+    @Override
+    public List<ListenableFuture<Set<String>>> executeSwitchAsync(List<TbMsg> msgs) {
+        return executeScriptsAsync(msgs).stream()
+                .map(result -> Futures.transformAsync(result, this::executeSwitchTransform, MoreExecutors.directExecutor()))
+                .collect(Collectors.toList());
+    }
+
     ListenableFuture<R> executeScriptAsync(TbMsg msg) {
         log.trace("execute script async, msg {}", msg);
+        if (maxBatchSize > 1) {
+            PendingInvocation<R> invocation = new PendingInvocation<>(msg, SettableFuture.create());
+            pendingInvocations.add(invocation);
+            scheduleFlush();
+            return invocation.result();
+        }
         Object[] inArgs = prepareArgs(msg);
         return executeScriptAsync(msg.getCustomerId(), inArgs[0], inArgs[1], inArgs[2]);
     }
 
     ListenableFuture<R> executeScriptAsync(CustomerId customerId, Object... args) {
-        return Futures.transformAsync(scriptInvokeService.invokeScript(tenantId, customerId, this.scriptId, args),
+        return convertResultAsync(scriptInvokeService.invokeScript(tenantId, customerId, this.scriptId, args));
+    }
+
+    List<ListenableFuture<R>> executeScriptsAsync(List<TbMsg> msgs) {
+        log.trace("execute script async, batch size {}", msgs.size());
+        List<ListenableFuture<R>> results = new ArrayList<>(Collections.nCopies(msgs.size(), null));
+        Map<CustomerId, List<Integer>> msgIdxByCustomer = new LinkedHashMap<>();
+        for (int i = 0; i < msgs.size(); i++) {
+            msgIdxByCustomer.computeIfAbsent(msgs.get(i).getCustomerId(), id -> new ArrayList<>()).add(i);
+        }
+        msgIdxByCustomer.forEach((customerId, msgIdx) -> {
+            List<Object[]> argsList = new ArrayList<>(msgIdx.size());
+            List<Integer> argsIdx = new ArrayList<>(msgIdx.size());
+            for (Integer idx : msgIdx) {
+                try {
+                    argsList.add(prepareArgs(msgs.get(idx)));
+                    argsIdx.add(idx);
+                } catch (Exception e) {
+                    results.set(idx, Futures.immediateFailedFuture(e));
+                }
+            }
+            if (!argsList.isEmpty()) {
+                List<ListenableFuture<Object>> invocations = scriptInvokeService.invokeScripts(tenantId, customerId, this.scriptId, argsList);
+                for (int i = 0; i < invocations.size(); i++) {
+                    results.set(argsIdx.get(i), convertResultAsync(invocations.get(i)));
+                }
+            }
+        });
+        return results;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            batchExecutor.execute(this::flushPendingInvocations);
+        }
+    }
+
+    private void flushPendingInvocations() {
+        flushScheduled.set(false);
+        List<PendingInvocation<R>> batch = new ArrayList<>(Math.min(maxBatchSize, pendingInvocations.size()));
+        PendingInvocation<R> invocation;
+        while (batch.size() < maxBatchSize && (invocation = pendingInvocations.poll()) != null) {
+            batch.add(invocation);
+        }
+        if (!pendingInvocations.isEmpty()) {
+            scheduleFlush();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<ListenableFuture<R>> results = executeScriptsAsync(batch.stream().map(PendingInvocation::msg).collect(Collectors.toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().setFuture(results.get(i));
+            }
+        } catch (Exception e) {
+            batch.forEach(pending -> pending.result().setException(e));
+        }
+    }
+
+    private ListenableFuture<R> convertResultAsync(ListenableFuture<Object> invocation) {
+        return Futures.transformAsync(invocation,
                 o -> {
                     try {
                         return Futures.immediateFuture(convertResult(o));
@@ -130,4 +249,8 @@ public abstract class RuleNodeScriptEngine<T extends ScriptInvokeService, R> imp
     }
 
     protected abstract R convertResult(Object result);
+
+    private record PendingInvocation<R>(TbMsg msg, SettableFuture<R> result) {
+    }
+
 }
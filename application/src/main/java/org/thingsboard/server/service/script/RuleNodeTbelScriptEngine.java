@@ -38,6 +38,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 
@@ -48,6 +49,10 @@ public class RuleNodeTbelScriptEngine extends RuleNodeScriptEngine<TbelInvokeSer
         super(tenantId, scriptInvokeService, script, argNames);
     }
 
+    public RuleNodeTbelScriptEngine(TenantId tenantId, TbelInvokeService scriptInvokeService, int maxBatchSize, Executor batchExecutor, String script, String... argNames) {
+        super(tenantId, scriptInvokeService, maxBatchSize, batchExecutor, script, argNames);
+    }
+
     @Override
     protected ListenableFuture<Boolean> executeFilterTransform(Object result) {
         if (result instanceof Boolean) {
@@ -0,0 +1,119 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.script;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+import org.thingsboard.rule.engine.action.TbClearAlarmNode;
+import org.thingsboard.rule.engine.action.TbCreateAlarmNode;
+import org.thingsboard.rule.engine.action.TbLogNode;
+import org.thingsboard.rule.engine.debug.TbMsgGeneratorNode;
+import org.thingsboard.rule.engine.filter.TbJsFilterNode;
+import org.thingsboard.rule.engine.filter.TbJsSwitchNode;
+import org.thingsboard.rule.engine.transform.TbTransformMsgNode;
+import org.thingsboard.script.api.tbel.TbelInvokeService;
+import org.thingsboard.server.common.data.page.PageDataIterable;
+import org.thingsboard.server.common.data.rule.RuleNode;
+import org.thingsboard.server.common.data.script.ScriptLanguage;
+import org.thingsboard.server.dao.rule.RuleChainService;
+import org.thingsboard.server.queue.util.AfterStartUp;
+import org.thingsboard.server.queue.util.TbRuleEngineComponent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Compiles the TBEL scripts of all rule nodes before the actor system starts the rule chains
+ * and the rule engine consumers start polling, so the first messages after a restart
+ * do not see the compilation latency.
+ */
+@Slf4j
+@Service
+@TbRuleEngineComponent
+@ConditionalOnExpression("${tbel.enabled:true} && ${tbel.warm_up.enabled:true}")
+@RequiredArgsConstructor
+public class TbelScriptsWarmUpService {
+
+    private static final List<String> SCRIPT_NODE_TYPES = List.of(
+            TbJsFilterNode.class.getName(),
+            TbJsSwitchNode.class.getName(),
+            TbTransformMsgNode.class.getName(),
+            TbMsgGeneratorNode.class.getName(),
+            TbLogNode.class.getName(),
+            TbCreateAlarmNode.class.getName(),
+            TbClearAlarmNode.class.getName()
+    );
+    private static final List<String> SCRIPT_FIELDS = List.of("tbelScript", "alarmDetailsBuildTbel");
+
+    private final RuleChainService ruleChainService;
+    private final TbelInvokeService tbelInvokeService;
+
+    @Value("${tbel.warm_up.max_scripts:1000}")
+    private int maxScripts;
+
+    @Value("${tbel.warm_up.timeout_sec:60}")
+    private long timeoutSec;
+
+    @AfterStartUp(order = AfterStartUp.SCRIPTS_WARM_UP)
+    public void warmUp() {
+        long startTs = System.currentTimeMillis();
+        Set<String> scripts = findScripts();
+        List<ListenableFuture<Boolean>> futures = new ArrayList<>(scripts.size());
+        scripts.forEach(script -> futures.add(tbelInvokeService.warmUp(script)));
+        try {
+            List<Boolean> results = Futures.successfulAsList(futures).get(timeoutSec, TimeUnit.SECONDS);
+            long compiled = results.stream().filter(Boolean.TRUE::equals).count();
+            log.info("Compiled [{}] of [{}] TBEL scripts in {} ms", compiled, scripts.size(), System.currentTimeMillis() - startTs);
+        } catch (TimeoutException e) {
+            log.warn("TBEL scripts warm up did not complete in {} sec", timeoutSec);
+        } catch (Exception e) {
+            log.warn("Failed to warm up TBEL scripts", e);
+        }
+    }
+
+    Set<String> findScripts() {
+        Set<String> scripts = new LinkedHashSet<>();
+        for (String type : SCRIPT_NODE_TYPES) {
+            for (RuleNode ruleNode : new PageDataIterable<>(link -> ruleChainService.findAllRuleNodesByType(type, link), 1024)) {
+                JsonNode configuration = ruleNode.getConfiguration();
+                if (configuration == null || !ScriptLanguage.TBEL.name().equals(configuration.path("scriptLang").asText())) {
+                    continue;
+                }
+                for (String field : SCRIPT_FIELDS) {
+                    String script = configuration.path(field).asText(null);
+                    if (script != null && !script.isBlank()) {
+                        scripts.add(script);
+                        if (scripts.size() >= maxScripts) {
+                            return scripts;
+                        }
+                    }
+                }
+            }
+        }
+        return scripts;
+    }
+
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors.ruleChain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.rule.engine.action.TbLogNode;
+import org.thingsboard.rule.engine.filter.TbMsgTypeFilterNode;
+import org.thingsboard.rule.engine.filter.TbMsgTypeSwitchNode;
+import org.thingsboard.server.actors.ActorSystemContext;
+import org.thingsboard.server.actors.TbActorCtx;
+import org.thingsboard.server.actors.TbActorId;
+import org.thingsboard.server.actors.TbActorRef;
+import org.thingsboard.server.actors.TbEntityActorId;
+import org.thingsboard.server.cluster.TbClusterService;
+import org.thingsboard.server.common.data.TenantProfile;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.RuleChainId;
+import org.thingsboard.server.common.data.id.RuleNodeId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.data.msg.TbNodeConnectionType;
+import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.rule.RuleChain;
+import org.thingsboard.server.common.data.rule.RuleChainType;
+import org.thingsboard.server.common.data.rule.RuleNode;
+import org.thingsboard.server.common.data.tenant.profile.DefaultTenantProfileConfiguration;
+import org.thingsboard.server.common.data.tenant.profile.TenantProfileData;
+import org.thingsboard.server.common.msg.TbActorMsg;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+import org.thingsboard.server.common.msg.queue.QueueToRuleEngineMsg;
+import org.thingsboard.server.common.msg.queue.RuleNodeException;
+import org.thingsboard.server.common.msg.queue.TbMsgCallback;
+import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
+import org.thingsboard.server.common.stats.TbApiUsageReportClient;
+import org.thingsboard.server.dao.rule.RuleChainService;
+import org.thingsboard.server.dao.tenant.TbTenantProfileCache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class RuleChainActorMessageProcessorTest {
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+    private final RuleChainId ruleChainId = new RuleChainId(UUID.randomUUID());
+    private final RuleNodeId switchNodeId = new RuleNodeId(UUID.randomUUID());
+    private final RuleNodeId filterNodeId = new RuleNodeId(UUID.randomUUID());
+    private final RuleNodeId logNodeId = new RuleNodeId(UUID.randomUUID());
+
+    private ActorSystemContext systemContext;
+    private TbActorRef statsActor;
+    private TbActorCtx chainActorCtx;
+    private final Map<TbActorId, TbActorRef> nodeActors = new HashMap<>();
+
+    @BeforeEach
+    public void setUp() {
+        systemContext = mock(ActorSystemContext.class);
+        statsActor = mock(TbActorRef.class);
+        chainActorCtx = mock(TbActorCtx.class);
+        RuleChainService ruleChainService = mock(RuleChainService.class);
+        TbTenantProfileCache tenantProfileCache = mock(TbTenantProfileCache.class);
+
+        TenantProfile tenantProfile = new TenantProfile();
+        TenantProfileData profileData = new TenantProfileData();
+        profileData.setConfiguration(new DefaultTenantProfileConfiguration());
+        tenantProfile.setProfileData(profileData);
+
+        given(systemContext.getRuleChainService()).willReturn(ruleChainService);
+        given(systemContext.getClusterService()).willReturn(mock(TbClusterService.class));
+        given(systemContext.getApiUsageClient()).willReturn(mock(TbApiUsageReportClient.class));
+        given(systemContext.getTenantProfileCache()).willReturn(tenantProfileCache);
+        given(systemContext.getStatsActor()).willReturn(statsActor);
+        given(systemContext.getRuleChainFusedExecutionMaxChainLength()).willReturn(16);
+        given(systemContext.resolve(any(), any(), any(), any()))
+                .willReturn(TopicPartitionInfo.builder().topic("tb_rule_engine.main").myPartition(true).build());
+        given(tenantProfileCache.get(tenantId)).willReturn(tenantProfile);
+
+        RuleChain ruleChain = new RuleChain(ruleChainId);
+        ruleChain.setTenantId(tenantId);
+        ruleChain.setName("Root");
+        ruleChain.setType(RuleChainType.CORE);
+        ruleChain.setFirstRuleNodeId(switchNodeId);
+        given(ruleChainService.findRuleChainById(tenantId, ruleChainId)).willReturn(ruleChain);
+        given(ruleChainService.getRuleChainNodes(tenantId, ruleChainId)).willReturn(List.of(
+                ruleNode(switchNodeId, TbMsgTypeSwitchNode.class.getName(), JacksonUtil.newObjectNode()),
+                ruleNode(filterNodeId, TbMsgTypeFilterNode.class.getName(),
+                        JacksonUtil.newObjectNode().set("messageTypes", JacksonUtil.newArrayNode().add(TbMsgType.POST_TELEMETRY_REQUEST.name()))),
+                ruleNode(logNodeId, TbLogNode.class.getName(), JacksonUtil.newObjectNode())
+        ));
+        given(ruleChainService.getRuleNodeRelations(TenantId.SYS_TENANT_ID, switchNodeId))
+                .willReturn(List.of(new EntityRelation(switchNodeId, filterNodeId, "Post telemetry")));
+        given(ruleChainService.getRuleNodeRelations(TenantId.SYS_TENANT_ID, filterNodeId))
+                .willReturn(List.of(new EntityRelation(filterNodeId, logNodeId, TbNodeConnectionType.TRUE)));
+        given(ruleChainService.getRuleNodeRelations(TenantId.SYS_TENANT_ID, logNodeId)).willReturn(Collections.emptyList());
+
+        willAnswer(invocation -> nodeActors.computeIfAbsent(invocation.getArgument(0), id -> mock(TbActorRef.class)))
+                .given(chainActorCtx).getOrCreateChildActor(any(), any(), any(), any());
+    }
+
+    @Test
+    public void givenFusedExecutionDisabled_whenMsgPushed_thenFirstNodeActorReceivesMsg() throws Exception {
+        RuleChainActorMessageProcessor processor = createProcessor(false);
+
+        processor.onQueueToRuleEngineMsg(new QueueToRuleEngineMsg(tenantId, newMsg(newCallback()), null, null));
+
+        verify(nodeActor(switchNodeId)).tell(any(RuleChainToRuleNodeMsg.class));
+        verifyNoInteractions(nodeActor(filterNodeId), nodeActor(logNodeId));
+    }
+
+    @Test
+    public void givenFusedExecutionEnabled_whenMsgPushed_thenSynchronousNodesInvokedInline() throws Exception {
+        RuleChainActorMessageProcessor processor = createProcessor(true);
+        TbMsgCallback callback = newCallback();
+
+        processor.onQueueToRuleEngineMsg(new QueueToRuleEngineMsg(tenantId, newMsg(callback), null, null));
+
+        verifyNoInteractions(nodeActor(switchNodeId), nodeActor(filterNodeId));
+        ArgumentCaptor<TbActorMsg> captor = ArgumentCaptor.forClass(TbActorMsg.class);
+        verify(nodeActor(logNodeId)).tell(captor.capture());
+        RuleChainToRuleNodeMsg logNodeMsg = (RuleChainToRuleNodeMsg) captor.getValue();
+        assertThat(logNodeMsg.getFromRelationType()).isEqualTo(TbNodeConnectionType.TRUE);
+        assertThat(logNodeMsg.getMsg().getAndIncrementRuleNodeCounter()).isEqualTo(2);
+        verify(callback, times(2)).onProcessingStart(any());
+        verify(callback).onProcessingEnd(switchNodeId);
+        verify(callback).onProcessingEnd(filterNodeId);
+        verify(callback, never()).onFailure(any());
+    }
+
+    @Test
+    public void givenFusedExecutionEnabled_whenDebugModeEnabled_thenDebugEventsPersistedPerNode() throws Exception {
+        RuleChainActorMessageProcessor processor = createProcessor(true);
+
+        processor.onQueueToRuleEngineMsg(new QueueToRuleEngineMsg(tenantId, newMsg(newCallback()), null, null));
+
+        verify(systemContext).persistDebugInput(eq(tenantId), eq(switchNodeId), any(TbMsg.class), eq(""));
+        verify(systemContext).persistDebugOutput(eq(tenantId), eq(switchNodeId), any(TbMsg.class), eq("Post telemetry"), eq(null));
+        verify(systemContext).persistDebugInput(eq(tenantId), eq(filterNodeId), any(TbMsg.class), eq("Post telemetry"));
+        verify(systemContext).persistDebugOutput(eq(tenantId), eq(filterNodeId), any(TbMsg.class), eq(TbNodeConnectionType.TRUE), eq(null));
+    }
+
+    @Test
+    public void givenMaxChainLengthReached_whenMsgPushed_thenNextNodeActorReceivesMsg() throws Exception {
+        given(systemContext.getRuleChainFusedExecutionMaxChainLength()).willReturn(1);
+        RuleChainActorMessageProcessor processor = createProcessor(true);
+
+        processor.onQueueToRuleEngineMsg(new QueueToRuleEngineMsg(tenantId, newMsg(newCallback()), null, null));
+
+        verifyNoInteractions(nodeActor(switchNodeId), nodeActor(logNodeId));
+        verify(nodeActor(filterNodeId)).tell(any(RuleChainToRuleNodeMsg.class));
+    }
+
+    @Test
+    public void givenFusedNodesProcessedMsgs_whenStatsReported_thenStatsSentToRuleNodeActors() throws Exception {
+        RuleChainActorMessageProcessor processor = createProcessor(true);
+
+        processor.onQueueToRuleEngineMsg(new QueueToRuleEngineMsg(tenantId, newMsg(newCallback()), null, null));
+        processor.onQueueToRuleEngineMsg(new QueueToRuleEngineMsg(tenantId, newMsg(newCallback()), null, null));
+        processor.reportFusedNodeStats();
+        processor.reportFusedNodeStats();
+
+        verifyNoInteractions(statsActor);
+        for (RuleNodeId ruleNodeId : List.of(switchNodeId, filterNodeId)) {
+            ArgumentCaptor<TbActorMsg> captor = ArgumentCaptor.forClass(TbActorMsg.class);
+            verify(nodeActor(ruleNodeId)).tell(captor.capture());
+            FusedRuleNodeStatsMsg statsMsg = (FusedRuleNodeStatsMsg) captor.getValue();
+            assertThat(statsMsg.getMessagesProcessed()).isEqualTo(2);
+            assertThat(statsMsg.getErrorsOccurred()).isZero();
+        }
+    }
+
+    @Test
+    public void givenFusedNodeFailed_whenStatsReported_thenErrorSentToRuleNodeActor() throws Exception {
+        RuleChainActorMessageProcessor processor = createProcessor(true);
+        willThrow(new RuntimeException("Failed to persist debug event"))
+                .given(systemContext).persistDebugInput(eq(tenantId), eq(filterNodeId), any(TbMsg.class), any());
+        TbMsgCallback callback = newCallback();
+
+        processor.onQueueToRuleEngineMsg(new QueueToRuleEngineMsg(tenantId, newMsg(callback), null, null));
+        processor.reportFusedNodeStats();
+
+        verify(callback).onFailure(any(RuleNodeException.class));
+        ArgumentCaptor<TbActorMsg> captor = ArgumentCaptor.forClass(TbActorMsg.class);
+        verify(nodeActor(filterNodeId)).tell(captor.capture());
+        FusedRuleNodeStatsMsg statsMsg = (FusedRuleNodeStatsMsg) captor.getValue();
+        assertThat(statsMsg.getMessagesProcessed()).isZero();
+        assertThat(statsMsg.getErrorsOccurred()).isEqualTo(1);
+    }
+
+    private RuleChainActorMessageProcessor createProcessor(boolean fusedExecutionEnabled) throws Exception {
+        given(systemContext.isRuleChainFusedExecutionEnabled()).willReturn(fusedExecutionEnabled);
+        RuleChainActorMessageProcessor processor = new RuleChainActorMessageProcessor(tenantId,
+                systemContext.getRuleChainService().findRuleChainById(tenantId, ruleChainId), systemContext, mock(TbActorRef.class), chainActorCtx);
+        processor.start(chainActorCtx);
+        return processor;
+    }
+
+    private TbActorRef nodeActor(RuleNodeId ruleNodeId) {
+        return nodeActors.get(new TbEntityActorId(ruleNodeId));
+    }
+
+    private RuleNode ruleNode(RuleNodeId id, String type, JsonNode configuration) {
+        RuleNode ruleNode = new RuleNode(id);
+        ruleNode.setRuleChainId(ruleChainId);
+        ruleNode.setName(type);
+        ruleNode.setType(type);
+        ruleNode.setDebugMode(true);
+        ruleNode.setConfiguration(configuration);
+        return ruleNode;
+    }
+
+    private TbMsgCallback newCallback() {
+        TbMsgCallback callback = mock(TbMsgCallback.class);
+        given(callback.isMsgValid()).willReturn(true);
+        return callback;
+    }
+
+    private TbMsg newMsg(TbMsgCallback callback) {
+        return TbMsg.newMsg(TbMsgType.POST_TELEMETRY_REQUEST, new DeviceId(UUID.randomUUID()), TbMsgMetaData.EMPTY, "{\"temperature\":42}", callback);
+    }
+
+}
@@ -394,6 +394,27 @@ public class HashPartitionServiceTest {
         });
     }
 
+    @Test
+    public void testResolveUsesPartitionTableUpdatedOnRecalculation() {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        QueueKey coreKey = new QueueKey(ServiceType.TB_CORE);
+        TopicPartitionInfo tpi = partitionService.resolve(ServiceType.TB_CORE, TenantId.SYS_TENANT_ID, deviceId);
+        assertThat(partitionService.resolve(ServiceType.TB_CORE, TenantId.SYS_TENANT_ID, deviceId)).isSameAs(tpi);
+        int partition = tpi.getPartition().get();
+        assertThat(partition).isEqualTo(partitionService.resolvePartitionIndex(deviceId.getId(), 10));
+        assertThat(tpi.isMyPartition()).isEqualTo(partitionService.getMyPartitions(coreKey).contains(partition));
+
+        ServiceInfo singleServer = ServiceInfo.newBuilder()
+                .setServiceId("tb-core-0")
+                .addAllServiceTypes(Collections.singletonList(ServiceType.TB_CORE.name()))
+                .build();
+        partitionService.recalculatePartitions(singleServer, Collections.emptyList());
+
+        TopicPartitionInfo newTpi = partitionService.resolve(ServiceType.TB_CORE, TenantId.SYS_TENANT_ID, deviceId);
+        assertThat(newTpi.getPartition()).contains(partition);
+        assertThat(newTpi.isMyPartition()).isTrue();
+    }
+
     private void verifyPartitionChangeEvent(Predicate<PartitionChangeEvent> predicate) {
         verify(applicationEventPublisher).publishEvent(argThat(event -> event instanceof PartitionChangeEvent && predicate.test((PartitionChangeEvent) event)));
     }
@@ -0,0 +1,172 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.queue.processing;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.msg.gen.MsgProtos;
+import org.thingsboard.server.gen.transport.TransportProtos;
+import org.thingsboard.server.queue.common.TbProtoQueueMsg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelByOriginatorIdTbRuleEngineSubmitStrategyTest {
+
+    private final UUID deviceA = UUID.randomUUID();
+    private final UUID deviceB = UUID.randomUUID();
+    private final UUID deviceC = UUID.randomUUID();
+
+    private List<TbRuleEngineLaneStats> laneStats;
+    private List<UUID> submitted;
+    private Map<UUID, UUID> originators;
+
+    @BeforeEach
+    public void setUp() {
+        laneStats = List.of(new TbRuleEngineLaneStats());
+        submitted = new ArrayList<>();
+        originators = new ConcurrentHashMap<>();
+    }
+
+    @Test
+    public void testMessagesOfSameOriginatorAreSubmittedInOrder() {
+        var strategy = new ParallelByOriginatorIdTbRuleEngineSubmitStrategy("Main", 10, laneStats);
+        strategy.init(List.of(msg(deviceA), msg(deviceA), msg(deviceB), msg(deviceA), msg(deviceC)));
+        strategy.submitAttempt(this::submit);
+
+        assertThat(submitted).hasSize(3);
+        assertThat(submitted).extracting(originators::get).containsExactly(deviceA, deviceB, deviceC);
+        assertThat(laneStats.get(0).getWaiting().get()).isEqualTo(2);
+        assertThat(laneStats.get(0).getInFlight().get()).isEqualTo(3);
+
+        strategy.onSuccess(submitted.get(1));
+        assertThat(submitted).hasSize(3);
+
+        strategy.onSuccess(submitted.get(0));
+        assertThat(submitted).hasSize(4);
+        assertThat(originators.get(submitted.get(3))).isEqualTo(deviceA);
+
+        strategy.onSuccess(submitted.get(3));
+        strategy.onSuccess(submitted.get(4));
+        strategy.onSuccess(submitted.get(2));
+        assertThat(submitted).hasSize(5);
+        assertThat(laneStats.get(0).getWaiting().get()).isZero();
+        assertThat(laneStats.get(0).getInFlight().get()).isZero();
+    }
+
+    @Test
+    public void testWindowLimitsMessagesInFlight() {
+        var strategy = new ParallelByOriginatorIdTbRuleEngineSubmitStrategy("Main", 2, laneStats);
+        strategy.init(List.of(msg(deviceA), msg(deviceB), msg(deviceC)));
+        strategy.submitAttempt(this::submit);
+
+        assertThat(submitted).extracting(originators::get).containsExactly(deviceA, deviceB);
+
+        strategy.onSuccess(submitted.get(0));
+        assertThat(submitted).extracting(originators::get).containsExactly(deviceA, deviceB, deviceC);
+    }
+
+    @Test
+    public void testBlockedOriginatorDoesNotDelayOtherOriginators() {
+        var strategy = new ParallelByOriginatorIdTbRuleEngineSubmitStrategy("Main", 2, laneStats);
+        List<TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg>> msgs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            msgs.add(msg(deviceA));
+        }
+        msgs.add(msg(deviceB));
+        msgs.add(msg(deviceC));
+        strategy.init(msgs);
+        strategy.submitAttempt(this::submit);
+
+        assertThat(submitted).extracting(originators::get).containsExactly(deviceA, deviceB);
+
+        strategy.onSuccess(submitted.get(1));
+        assertThat(submitted).extracting(originators::get).containsExactly(deviceA, deviceB, deviceC);
+
+        for (int i = 0; i < 99; i++) {
+            strategy.onSuccess(submitted.get(i == 0 ? 0 : submitted.size() - 1));
+        }
+        assertThat(submitted).hasSize(102);
+        assertThat(submitted.subList(3, 102)).extracting(originators::get).containsOnly(deviceA);
+        assertThat(laneStats.get(0).getWaiting().get()).isZero();
+        assertThat(laneStats.get(0).getInFlight().get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testOriginatorsAreDistributedBetweenLanes() {
+        laneStats = List.of(new TbRuleEngineLaneStats(), new TbRuleEngineLaneStats(), new TbRuleEngineLaneStats(), new TbRuleEngineLaneStats());
+        var strategy = new ParallelByOriginatorIdTbRuleEngineSubmitStrategy("Main", 1, laneStats);
+        List<TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg>> msgs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            msgs.add(msg(UUID.randomUUID()));
+        }
+        strategy.init(msgs);
+        strategy.submitAttempt(this::submit);
+
+        int inFlight = laneStats.stream().mapToInt(stats -> stats.getInFlight().get()).sum();
+        assertThat(submitted).hasSize(inFlight);
+        assertThat(inFlight).isGreaterThan(1).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    public void testUpdateResubmitsOnlyReprocessedMessages() {
+        var strategy = new ParallelByOriginatorIdTbRuleEngineSubmitStrategy("Main", 10, laneStats);
+        strategy.init(List.of(msg(deviceA), msg(deviceA), msg(deviceB)));
+        strategy.submitAttempt(this::submit);
+        strategy.onSuccess(submitted.get(0));
+
+        ConcurrentMap<UUID, TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg>> pendingMap = strategy.getPendingMap();
+        pendingMap.remove(submitted.get(0));
+        submitted.clear();
+        strategy.update(pendingMap);
+        strategy.submitAttempt(this::submit);
+
+        assertThat(submitted).hasSize(2);
+        assertThat(submitted).extracting(originators::get).containsExactly(deviceA, deviceB);
+        assertThat(laneStats.get(0).getInFlight().get()).isEqualTo(2);
+
+        strategy.stop();
+        assertThat(laneStats.get(0).getInFlight().get()).isZero();
+    }
+
+    private TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg> msg(UUID originator) {
+        MsgProtos.TbMsgProto tbMsg = MsgProtos.TbMsgProto.newBuilder()
+                .setEntityType(EntityType.DEVICE.name())
+                .setEntityIdMSB(originator.getMostSignificantBits())
+                .setEntityIdLSB(originator.getLeastSignificantBits())
+                .build();
+        return new TbProtoQueueMsg<>(UUID.randomUUID(), TransportProtos.ToRuleEngineMsg.newBuilder().setTbMsg(tbMsg.toByteString()).build());
+    }
+
+    private void submit(UUID id, TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg> msg) {
+        try {
+            MsgProtos.TbMsgProto tbMsg = MsgProtos.TbMsgProto.parseFrom(msg.getValue().getTbMsg());
+            originators.put(id, new UUID(tbMsg.getEntityIdMSB(), tbMsg.getEntityIdLSB()));
+        } catch (InvalidProtocolBufferException e) {
+            throw new RuntimeException(e);
+        }
+        submitted.add(id);
+    }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.queue.ruleengine;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+import org.thingsboard.server.common.msg.queue.TbMsgCallback;
+import org.thingsboard.server.gen.transport.TransportProtos.ToRuleEngineMsg;
+import org.thingsboard.server.queue.common.TbProtoQueueMsg;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TbRuleEngineQueueBatchUnpackTest {
+
+    @Test
+    public void givenBatchMsg_whenUnpackBatches_thenSplitIntoSingleMsgs() {
+        TenantId tenantId = new TenantId(UUID.randomUUID());
+        List<TbMsg> tbMsgs = IntStream.range(0, 3)
+                .mapToObj(i -> TbMsg.newMsg(TbMsgType.POST_TELEMETRY_REQUEST, new DeviceId(UUID.randomUUID()), new TbMsgMetaData(), "{}"))
+                .collect(Collectors.toList());
+        ToRuleEngineMsg.Builder batch = ToRuleEngineMsg.newBuilder()
+                .setTenantIdMSB(tenantId.getId().getMostSignificantBits())
+                .setTenantIdLSB(tenantId.getId().getLeastSignificantBits());
+        tbMsgs.subList(0, 2).forEach(tbMsg -> batch.addTbMsgBatch(TbMsg.toByteString(tbMsg)));
+        ToRuleEngineMsg single = ToRuleEngineMsg.newBuilder()
+                .setTenantIdMSB(tenantId.getId().getMostSignificantBits())
+                .setTenantIdLSB(tenantId.getId().getLeastSignificantBits())
+                .setTbMsg(TbMsg.toByteString(tbMsgs.get(2)))
+                .build();
+
+        List<TbProtoQueueMsg<ToRuleEngineMsg>> unpacked = TbRuleEngineQueueConsumerManager.unpackBatches(List.of(
+                new TbProtoQueueMsg<>(UUID.randomUUID(), batch.build()),
+                new TbProtoQueueMsg<>(UUID.randomUUID(), single)));
+
+        assertThat(unpacked).hasSize(3);
+        for (int i = 0; i < tbMsgs.size(); i++) {
+            ToRuleEngineMsg msg = unpacked.get(i).getValue();
+            assertThat(msg.getTbMsgBatchCount()).isZero();
+            assertThat(msg.getTenantIdMSB()).isEqualTo(tenantId.getId().getMostSignificantBits());
+            assertThat(TbMsg.fromBytes("Main", msg.getTbMsg().toByteArray(), TbMsgCallback.EMPTY).getId()).isEqualTo(tbMsgs.get(i).getId());
+        }
+    }
+
+}
@@ -133,7 +133,7 @@ public class TbRuleEngineQueueConsumerManagerTest {
     @BeforeEach
     public void beforeEach() {
         ruleEngineConsumerContext = new TbRuleEngineConsumerContext(
-                actorContext, statsFactory, spy(new TbRuleEngineSubmitStrategyFactory()),
+                actorContext, statsFactory, spy(new TbRuleEngineSubmitStrategyFactory(statsFactory)),
                 spy(new TbRuleEngineProcessingStrategyFactory()), queueFactory, statisticsService,
                 serviceInfoProvider, partitionService, producerProvider, queueAdmin
         );
@@ -25,6 +25,8 @@ import org.thingsboard.script.api.js.JsInvokeService;
 import org.thingsboard.server.common.data.id.CustomerId;
 import org.thingsboard.server.common.data.id.TenantId;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -44,6 +46,12 @@ public class MockJsInvokeService implements JsInvokeService {
         return Futures.immediateFuture("{}");
     }
 
+    @Override
+    public List<ListenableFuture<Object>> invokeScripts(TenantId tenantId, CustomerId customerId, UUID scriptId, List<Object[]> argsList) {
+        log.warn("invokeFunctions {} {} {} {}", tenantId, customerId, scriptId, argsList.size());
+        return Collections.nCopies(argsList.size(), Futures.immediateFuture("{}"));
+    }
+
     @Override
     public ListenableFuture<Void> release(UUID scriptId) {
         log.warn("release {}", scriptId);
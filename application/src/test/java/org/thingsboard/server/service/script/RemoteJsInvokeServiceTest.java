@@ -16,11 +16,13 @@
 package org.thingsboard.server.service.script;
 
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.thingsboard.script.api.ScriptType;
 import org.thingsboard.server.common.data.ApiUsageState;
 import org.thingsboard.server.common.data.id.TenantId;
@@ -40,6 +42,7 @@ import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doAnswer;
@@ -204,6 +207,42 @@ class RemoteJsInvokeServiceTest {
         assertThat(remoteJsInvokeService.scriptHashToBodysMap).isEmpty();
     }
 
+    @Test
+    public void whenInvokingFunctionsWithBatchEnabled_thenSendOneRequestWithAllArgs() throws Exception {
+        ReflectionTestUtils.setField(remoteJsInvokeService, "batchInvokeEnabled", true);
+        mockJsEvalResponse();
+        String scriptBody = "return { a: 'b'};";
+        UUID scriptId = remoteJsInvokeService.eval(TenantId.SYS_TENANT_ID, ScriptType.RULE_NODE_SCRIPT, scriptBody).get();
+        reset(jsRequestTemplate);
+
+        doReturn(Futures.immediateFuture(new TbProtoJsQueueMsg<>(UUID.randomUUID(), RemoteJsResponse.newBuilder()
+                .setInvokeResponse(JsInvokeProtos.JsInvokeResponse.newBuilder()
+                        .setSuccess(true)
+                        .addBatchResults(JsInvokeProtos.JsInvokeResponse.newBuilder()
+                                .setSuccess(true)
+                                .setResult("result1"))
+                        .addBatchResults(JsInvokeProtos.JsInvokeResponse.newBuilder()
+                                .setSuccess(false)
+                                .setErrorCode(JsInvokeProtos.JsInvokeErrorCode.RUNTIME_ERROR)
+                                .setErrorDetails("error2"))
+                        .build())
+                .build())))
+                .when(jsRequestTemplate).send(any());
+
+        ArgumentCaptor<TbProtoJsQueueMsg<RemoteJsRequest>> jsRequestCaptor = ArgumentCaptor.forClass(TbProtoJsQueueMsg.class);
+        List<ListenableFuture<Object>> results = remoteJsInvokeService.invokeScripts(TenantId.SYS_TENANT_ID, null, scriptId,
+                List.of(new Object[]{"{\"a\":1}"}, new Object[]{"{\"a\":2}"}));
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).get()).isEqualTo("result1");
+        assertThatThrownBy(() -> results.get(1).get()).hasMessageContaining("error2");
+        verify(jsRequestTemplate).send(jsRequestCaptor.capture());
+
+        JsInvokeProtos.JsInvokeRequest jsInvokeRequestMade = jsRequestCaptor.getValue().getValue().getInvokeRequest();
+        assertThat(jsInvokeRequestMade.getScriptHash()).isEqualTo(getScriptHash(scriptId));
+        assertThat(jsInvokeRequestMade.getArgsCount()).isZero();
+        assertThat(jsInvokeRequestMade.getBatchArgsList()).extracting(args -> args.getArgs(0)).containsExactly("{\"a\":1}", "{\"a\":2}");
+    }
+
     private String getScriptHash(UUID scriptUuid) {
         return remoteJsInvokeService.getScriptHash(scriptUuid);
     }
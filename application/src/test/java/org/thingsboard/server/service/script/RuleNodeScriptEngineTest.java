@@ -0,0 +1,119 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.script;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.script.api.tbel.TbelInvokeService;
+import org.thingsboard.server.common.data.id.CustomerId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RuleNodeScriptEngineTest {
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+    private final UUID scriptId = UUID.randomUUID();
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+
+    private TbelInvokeService invokeService;
+
+    @BeforeEach
+    void setUp() {
+        invokeService = mock(TbelInvokeService.class);
+        when(invokeService.eval(eq(tenantId), any(), any(), any(String[].class))).thenReturn(Futures.immediateFuture(scriptId));
+        when(invokeService.invokeScripts(eq(tenantId), any(), eq(scriptId), anyList())).thenAnswer(invocation -> {
+            List<Object[]> argsList = invocation.getArgument(3);
+            return argsList.stream()
+                    .map(args -> Futures.<Object>immediateFuture(args[2].equals("POST_TELEMETRY_REQUEST")))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    void givenBatchOfMessages_whenExecuteFilter_thenInvokeScriptsOncePerCustomer() throws Exception {
+        RuleNodeTbelScriptEngine engine = new RuleNodeTbelScriptEngine(tenantId, invokeService, "return msgType == 'POST_TELEMETRY_REQUEST';");
+        CustomerId customerId = new CustomerId(UUID.randomUUID());
+
+        List<ListenableFuture<Boolean>> results = engine.executeFilterAsync(List.of(
+                newMsg("POST_TELEMETRY_REQUEST", null),
+                newMsg("POST_ATTRIBUTES_REQUEST", customerId),
+                newMsg("POST_ATTRIBUTES_REQUEST", null)));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).get()).isTrue();
+        assertThat(results.get(1).get()).isFalse();
+        assertThat(results.get(2).get()).isFalse();
+        verify(invokeService).invokeScripts(eq(tenantId), isNull(), eq(scriptId), argThatHasSize(2));
+        verify(invokeService).invokeScripts(eq(tenantId), eq(customerId), eq(scriptId), argThatHasSize(1));
+        verify(invokeService, never()).invokeScript(any(), any(), any(), any(Object[].class));
+    }
+
+    @Test
+    void givenBatchingEnabled_whenExecuteFilterForEachMessage_thenCoalesceInvocations() throws Exception {
+        RuleNodeTbelScriptEngine engine = new RuleNodeTbelScriptEngine(tenantId, invokeService, 2, scheduledTasks::add,
+                "return msgType == 'POST_TELEMETRY_REQUEST';");
+
+        ListenableFuture<Boolean> result1 = engine.executeFilterAsync(newMsg("POST_TELEMETRY_REQUEST", null));
+        ListenableFuture<Boolean> result2 = engine.executeFilterAsync(newMsg("POST_ATTRIBUTES_REQUEST", null));
+        ListenableFuture<Boolean> result3 = engine.executeFilterAsync(newMsg("POST_TELEMETRY_REQUEST", null));
+        assertThat(scheduledTasks).hasSize(1);
+        assertThat(result1.isDone()).isFalse();
+
+        runScheduledTasks();
+
+        assertThat(result1.get()).isTrue();
+        assertThat(result2.get()).isFalse();
+        assertThat(result3.get()).isTrue();
+        verify(invokeService).invokeScripts(eq(tenantId), isNull(), eq(scriptId), argThatHasSize(2));
+        verify(invokeService).invokeScripts(eq(tenantId), isNull(), eq(scriptId), argThatHasSize(1));
+        verify(invokeService, never()).invokeScript(any(), any(), any(), any(Object[].class));
+    }
+
+    private void runScheduledTasks() {
+        while (!scheduledTasks.isEmpty()) {
+            scheduledTasks.remove(0).run();
+        }
+    }
+
+    private static List<Object[]> argThatHasSize(int size) {
+        return argThat(argsList -> argsList.size() == size);
+    }
+
+    private static TbMsg newMsg(String type, CustomerId customerId) {
+        return TbMsg.newMsg(type, new DeviceId(UUID.randomUUID()), customerId, TbMsgMetaData.EMPTY, "{\"temperature\":42}");
+    }
+
+}
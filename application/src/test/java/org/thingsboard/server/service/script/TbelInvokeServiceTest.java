@@ -33,8 +33,10 @@ import org.thingsboard.server.dao.service.DaoSqlTest;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
@@ -137,7 +139,50 @@ class TbelInvokeServiceTest extends AbstractControllerTest {
 
         assertThat(scriptsIds.stream().map(scriptIdToHash::get)).containsOnly(scriptHash);
         assertThat(scriptMap).containsKey(scriptHash);
-        assertThat(compiledScriptsCache.getIfPresent(scriptHash)).isNotNull();
+        assertThat(compiledScriptsCache.getIfPresent(scriptMap.get(scriptHash).getCompiledScriptHash())).isNotNull();
+    }
+
+    @Test
+    void givenScriptsWithSameBodyAndDifferentArgNames_thenShareCompiledScript() throws Exception {
+        String script = "return msg.temperature > 21;";
+        UUID scriptId = evalScript(script);
+        UUID otherScriptId = invokeService.eval(TenantId.SYS_TENANT_ID, ScriptType.RULE_NODE_SCRIPT, script, "msg", "prevMetadata", "prevMsgType").get();
+
+        Map<UUID, String> scriptIdToHash = getFieldValue(invokeService, "scriptIdToHash");
+        Map<String, TbelScript> scriptMap = getFieldValue(invokeService, "scriptMap");
+        Cache<String, Serializable> compiledScriptsCache = getFieldValue(invokeService, "compiledScriptsCache");
+
+        TbelScript tbelScript = scriptMap.get(scriptIdToHash.get(scriptId));
+        TbelScript otherTbelScript = scriptMap.get(scriptIdToHash.get(otherScriptId));
+        assertThat(tbelScript).isNotSameAs(otherTbelScript);
+        assertThat(tbelScript.getCompiledScriptHash()).isEqualTo(otherTbelScript.getCompiledScriptHash());
+
+        invokeService.release(scriptId);
+        assertThat(compiledScriptsCache.getIfPresent(otherTbelScript.getCompiledScriptHash())).isNotNull();
+        invokeService.release(otherScriptId);
+        assertThat(compiledScriptsCache.getIfPresent(otherTbelScript.getCompiledScriptHash())).isNull();
+    }
+
+    @Test
+    void givenWarmedUpScript_thenEvalReusesCompiledScript() throws Exception {
+        String script = "return msg.temperature > 22;";
+        Cache<String, Serializable> compiledScriptsCache = getFieldValue(invokeService, "compiledScriptsCache");
+        Set<String> cachedBefore = new HashSet<>(compiledScriptsCache.asMap().keySet());
+
+        assertThat(invokeService.warmUp(script).get()).isTrue();
+        assertThat(invokeService.warmUp("return msg.temperature >;").get()).isFalse();
+        Set<String> warmedUp = new HashSet<>(compiledScriptsCache.asMap().keySet());
+        warmedUp.removeAll(cachedBefore);
+        assertThat(warmedUp).hasSize(1);
+        String compiledScriptHash = warmedUp.iterator().next();
+        Serializable compiledScript = compiledScriptsCache.getIfPresent(compiledScriptHash);
+
+        UUID scriptId = evalScript(script);
+        Map<UUID, String> scriptIdToHash = getFieldValue(invokeService, "scriptIdToHash");
+        Map<String, TbelScript> scriptMap = getFieldValue(invokeService, "scriptMap");
+        assertThat(scriptMap.get(scriptIdToHash.get(scriptId)).getCompiledScriptHash()).isEqualTo(compiledScriptHash);
+        assertThat(compiledScriptsCache.getIfPresent(compiledScriptHash)).isSameAs(compiledScript);
+        assertThat(invokeScript(scriptId, "{ \"temperature\": 23 }")).isEqualTo("true");
     }
 
     @Test
@@ -161,11 +206,12 @@ class TbelInvokeServiceTest extends AbstractControllerTest {
             assertThat(scriptIdToHash).doesNotContainKey(scriptId);
         }
         assertThat(scriptMap).containsKey(scriptHash);
-        assertThat(compiledScriptsCache.getIfPresent(scriptHash)).isNotNull();
+        String compiledScriptHash = scriptMap.get(scriptHash).getCompiledScriptHash();
+        assertThat(compiledScriptsCache.getIfPresent(compiledScriptHash)).isNotNull();
 
         invokeService.release(scriptsIds.get(9));
         assertThat(scriptMap).doesNotContainKey(scriptHash);
-        assertThat(compiledScriptsCache.getIfPresent(scriptHash)).isNull();
+        assertThat(compiledScriptsCache.getIfPresent(compiledScriptHash)).isNull();
     }
 
     @Test
@@ -173,6 +219,7 @@ class TbelInvokeServiceTest extends AbstractControllerTest {
             "Tiny LFU which is the cause that the tests fail sometime: https://arxiv.org/pdf/1512.00727.pdf")
     public void whenCompiledScriptsCacheIsTooBig_thenRemoveRarelyUsedScripts() throws Exception {
         Map<UUID, String> scriptIdToHash = getFieldValue(invokeService, "scriptIdToHash");
+        Map<String, TbelScript> scriptMap = getFieldValue(invokeService, "scriptMap");
         Cache<String, Serializable> compiledScriptsCache = getFieldValue(invokeService, "compiledScriptsCache");
 
         List<UUID> scriptsIds = new ArrayList<>();
@@ -190,19 +237,20 @@ class TbelInvokeServiceTest extends AbstractControllerTest {
 
         for (int i = 0; i < 10; i++) { // iterating rarely used scripts
             UUID scriptId = scriptsIds.get(i);
-            String scriptHash = scriptIdToHash.get(scriptId);
+            String scriptHash = scriptMap.get(scriptIdToHash.get(scriptId)).getCompiledScriptHash();
             assertThat(cache).doesNotContainKey(scriptHash);
         }
         for (int i = 10; i < 110; i++) {
             UUID scriptId = scriptsIds.get(i);
-            String scriptHash = scriptIdToHash.get(scriptId);
+            String scriptHash = scriptMap.get(scriptIdToHash.get(scriptId)).getCompiledScriptHash();
             assertThat(cache).containsKey(scriptHash);
         }
 
         UUID scriptRemovedFromCache = scriptsIds.get(0);
-        assertThat(compiledScriptsCache.getIfPresent(scriptIdToHash.get(scriptRemovedFromCache))).isNull();
+        String removedScriptHash = scriptMap.get(scriptIdToHash.get(scriptRemovedFromCache)).getCompiledScriptHash();
+        assertThat(compiledScriptsCache.getIfPresent(removedScriptHash)).isNull();
         invokeScript(scriptRemovedFromCache, "{ \"temperature\": 12 }");
-        assertThat(compiledScriptsCache.getIfPresent(scriptIdToHash.get(scriptRemovedFromCache))).isNotNull();
+        assertThat(compiledScriptsCache.getIfPresent(removedScriptHash)).isNotNull();
     }
 
     private void assertThatScriptIsBlocked(UUID scriptId) {
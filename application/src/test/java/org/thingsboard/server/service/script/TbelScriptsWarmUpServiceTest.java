@@ -0,0 +1,107 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.script;
+
+import com.google.common.util.concurrent.Futures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.rule.engine.action.TbCreateAlarmNode;
+import org.thingsboard.rule.engine.filter.TbJsFilterNode;
+import org.thingsboard.rule.engine.transform.TbTransformMsgNode;
+import org.thingsboard.script.api.tbel.TbelInvokeService;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.page.PageLink;
+import org.thingsboard.server.common.data.rule.RuleNode;
+import org.thingsboard.server.dao.rule.RuleChainService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TbelScriptsWarmUpServiceTest {
+
+    @Mock
+    private RuleChainService ruleChainService;
+    @Mock
+    private TbelInvokeService tbelInvokeService;
+
+    private TbelScriptsWarmUpService warmUpService;
+
+    @BeforeEach
+    void setUp() {
+        warmUpService = new TbelScriptsWarmUpService(ruleChainService, tbelInvokeService);
+        ReflectionTestUtils.setField(warmUpService, "maxScripts", 100);
+        ReflectionTestUtils.setField(warmUpService, "timeoutSec", 10L);
+        lenient().when(ruleChainService.findAllRuleNodesByType(anyString(), any(PageLink.class))).thenReturn(PageData.emptyPageData());
+    }
+
+    @Test
+    void givenRuleNodesWithScripts_whenWarmUp_thenCompileDistinctTbelScriptsOnly() {
+        when(ruleChainService.findAllRuleNodesByType(eq(TbJsFilterNode.class.getName()), any(PageLink.class))).thenReturn(pageOf(
+                ruleNode("{\"scriptLang\":\"TBEL\",\"tbelScript\":\"return msg.temperature > 20;\",\"jsScript\":\"return true;\"}"),
+                ruleNode("{\"scriptLang\":\"JS\",\"tbelScript\":\"return msg.humidity > 20;\",\"jsScript\":\"return true;\"}")
+        ));
+        when(ruleChainService.findAllRuleNodesByType(eq(TbTransformMsgNode.class.getName()), any(PageLink.class))).thenReturn(pageOf(
+                ruleNode("{\"scriptLang\":\"TBEL\",\"tbelScript\":\"return msg.temperature > 20;\"}")
+        ));
+        when(ruleChainService.findAllRuleNodesByType(eq(TbCreateAlarmNode.class.getName()), any(PageLink.class))).thenReturn(pageOf(
+                ruleNode("{\"scriptLang\":\"TBEL\",\"alarmDetailsBuildTbel\":\"return {};\"}")
+        ));
+        when(tbelInvokeService.warmUp(anyString())).thenReturn(Futures.immediateFuture(true));
+
+        warmUpService.warmUp();
+
+        verify(tbelInvokeService).warmUp("return msg.temperature > 20;");
+        verify(tbelInvokeService).warmUp("return {};");
+        verify(tbelInvokeService, times(2)).warmUp(anyString());
+    }
+
+    @Test
+    void givenMoreScriptsThanLimit_whenFindScripts_thenReturnLimitedScripts() {
+        ReflectionTestUtils.setField(warmUpService, "maxScripts", 2);
+        when(ruleChainService.findAllRuleNodesByType(eq(TbJsFilterNode.class.getName()), any(PageLink.class))).thenReturn(pageOf(
+                ruleNode("{\"scriptLang\":\"TBEL\",\"tbelScript\":\"return 1;\"}"),
+                ruleNode("{\"scriptLang\":\"TBEL\",\"tbelScript\":\"return 2;\"}"),
+                ruleNode("{\"scriptLang\":\"TBEL\",\"tbelScript\":\"return 3;\"}")
+        ));
+
+        assertThat(warmUpService.findScripts()).containsExactly("return 1;", "return 2;");
+    }
+
+    private static PageData<RuleNode> pageOf(RuleNode... ruleNodes) {
+        return new PageData<>(List.of(ruleNodes), 1, ruleNodes.length, false);
+    }
+
+    private static RuleNode ruleNode(String configuration) {
+        RuleNode ruleNode = new RuleNode();
+        ruleNode.setConfiguration(JacksonUtil.toJsonNode(configuration));
+        return ruleNode;
+    }
+
+}
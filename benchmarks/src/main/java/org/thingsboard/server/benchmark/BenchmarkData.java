@@ -0,0 +1,29 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+final class BenchmarkData {
+
+    static final String TELEMETRY_JSON = "{\"temperature\":42.5,\"humidity\":71,\"active\":true,\"mode\":\"heating\"," +
+            "\"firmware\":\"1.2.7\",\"battery\":97,\"rssi\":-71,\"location\":{\"lat\":50.4501,\"lon\":30.5234}}";
+
+    static final String TS_TELEMETRY_JSON = "[{\"ts\":1704899727000,\"values\":{\"temperature\":42.5,\"humidity\":71}}," +
+            "{\"ts\":1704899728000,\"values\":{\"temperature\":42.7,\"humidity\":70,\"mode\":\"cooling\"}}]";
+
+    private BenchmarkData() {
+    }
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.thingsboard.server.cache.CaffeineTbTransactionalCache;
+import org.thingsboard.server.cache.TbCacheTransaction;
+import org.thingsboard.server.cache.TbCacheValueWrapper;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the transactional cache under 32 concurrent threads, the way the attribute and device caches are used:
+ * writers evict the keys on every update, while readers load the missing values within a cache transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class CaffeineTbTransactionalCacheBenchmark {
+
+    private static final String CACHE_NAME = "benchmark";
+
+    @Param({"1000", "100000"})
+    private int keys;
+
+    private BenchmarkCache cache;
+    private String[] keyValues;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().maximumSize(keys).build())));
+        cacheManager.initializeCaches();
+        cache = new BenchmarkCache(cacheManager);
+        keyValues = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyValues[i] = UUID.randomUUID().toString();
+        }
+    }
+
+    @Benchmark
+    public void evict() {
+        cache.evict(randomKey());
+    }
+
+    @Benchmark
+    public void put() {
+        String key = randomKey();
+        cache.put(key, key);
+    }
+
+    @Benchmark
+    public Object getOrFetch() {
+        String key = randomKey();
+        TbCacheValueWrapper<String> cached = cache.get(key);
+        if (cached != null) {
+            return cached.get();
+        }
+        TbCacheTransaction<String, String> transaction = cache.newTransactionForKey(key);
+        transaction.putIfAbsent(key, key);
+        return transaction.commit();
+    }
+
+    @Benchmark
+    public Object evictOrGetOrFetch() {
+        if (ThreadLocalRandom.current().nextInt(4) == 0) {
+            cache.evict(randomKey());
+            return null;
+        }
+        return getOrFetch();
+    }
+
+    private String randomKey() {
+        return keyValues[ThreadLocalRandom.current().nextInt(keys)];
+    }
+
+    private static class BenchmarkCache extends CaffeineTbTransactionalCache<String, String> {
+
+        BenchmarkCache(CacheManager cacheManager) {
+            super(cacheManager, CACHE_NAME);
+        }
+
+    }
+
+}
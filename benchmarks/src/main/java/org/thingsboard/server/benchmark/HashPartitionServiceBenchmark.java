@@ -0,0 +1,198 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.DataConstants;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.QueueId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.id.TenantProfileId;
+import org.thingsboard.server.common.data.queue.Queue;
+import org.thingsboard.server.common.msg.queue.ServiceType;
+import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
+import org.thingsboard.server.gen.transport.TransportProtos.ServiceInfo;
+import org.thingsboard.server.queue.discovery.HashPartitionService;
+import org.thingsboard.server.queue.discovery.QueueKey;
+import org.thingsboard.server.queue.discovery.QueueRoutingInfo;
+import org.thingsboard.server.queue.discovery.TbServiceInfoProvider;
+import org.thingsboard.server.queue.discovery.TenantRoutingInfo;
+import org.thingsboard.server.queue.discovery.TopicService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures partition resolution for a cluster of core and rule engine services,
+ * which is done for every message pushed to the queues.
+ * The baseline repeats the work of the resolution without the precomputed partition tables:
+ * hashing with the Guava hasher and building the topic partition info on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashPartitionServiceBenchmark {
+
+    private static final int ENTITIES = 1024;
+
+    @Param({"10", "100"})
+    private int partitions;
+
+    @Param({"1", "10"})
+    private int services;
+
+    private HashPartitionService partitionService;
+    private TenantId tenantId;
+    private DeviceId[] deviceIds;
+    private HashFunction hashFunction;
+    private List<Integer> myCorePartitions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ServiceInfo currentService = serviceInfo(0);
+        TenantProfileId tenantProfileId = new TenantProfileId(UUID.randomUUID());
+        TopicService topicService = new TopicService();
+        ReflectionTestUtils.setField(topicService, "prefix", "");
+
+        Queue mainQueue = new Queue();
+        mainQueue.setTenantId(TenantId.SYS_TENANT_ID);
+        mainQueue.setName(DataConstants.MAIN_QUEUE_NAME);
+        mainQueue.setTopic(DataConstants.MAIN_QUEUE_TOPIC);
+        mainQueue.setPartitions(partitions);
+        mainQueue.setId(new QueueId(UUID.randomUUID()));
+
+        partitionService = new HashPartitionService(new TbServiceInfoProvider() {
+            @Override
+            public String getServiceId() {
+                return currentService.getServiceId();
+            }
+
+            @Override
+            public String getServiceType() {
+                return "monolith";
+            }
+
+            @Override
+            public ServiceInfo getServiceInfo() {
+                return currentService;
+            }
+
+            @Override
+            public boolean isService(ServiceType serviceType) {
+                return true;
+            }
+
+            @Override
+            public ServiceInfo generateNewServiceInfoWithCurrentSystemInfo() {
+                return currentService;
+            }
+
+            @Override
+            public Set<UUID> getAssignedTenantProfiles() {
+                return Collections.emptySet();
+            }
+        }, tenantId -> new TenantRoutingInfo(tenantId, tenantProfileId, false),
+                event -> {},
+                () -> List.of(new QueueRoutingInfo(mainQueue)),
+                topicService);
+        ReflectionTestUtils.setField(partitionService, "coreTopic", "tb_core");
+        ReflectionTestUtils.setField(partitionService, "corePartitions", partitions);
+        ReflectionTestUtils.setField(partitionService, "vcTopic", "tb_version_control");
+        ReflectionTestUtils.setField(partitionService, "vcPartitions", 10);
+        ReflectionTestUtils.setField(partitionService, "hashFunctionName", "murmur3_128");
+        partitionService.init();
+        partitionService.partitionsInit();
+
+        List<ServiceInfo> otherServices = new ArrayList<>();
+        for (int i = 1; i < services; i++) {
+            otherServices.add(serviceInfo(i));
+        }
+        partitionService.recalculatePartitions(currentService, otherServices);
+
+        hashFunction = Hashing.murmur3_128();
+        myCorePartitions = partitionService.getMyPartitions(new QueueKey(ServiceType.TB_CORE));
+        tenantId = TenantId.fromUUID(UUID.randomUUID());
+        deviceIds = new DeviceId[ENTITIES];
+        for (int i = 0; i < ENTITIES; i++) {
+            deviceIds[i] = new DeviceId(UUID.randomUUID());
+        }
+    }
+
+    @Benchmark
+    public TopicPartitionInfo resolveCore() {
+        return partitionService.resolve(ServiceType.TB_CORE, tenantId, nextDeviceId());
+    }
+
+    @Benchmark
+    public TopicPartitionInfo resolveCoreBaseline() {
+        UUID entityId = nextDeviceId().getId();
+        int hash = hashFunction.newHasher()
+                .putLong(entityId.getMostSignificantBits())
+                .putLong(entityId.getLeastSignificantBits())
+                .hash().asInt();
+        int partition = Math.abs(hash % partitions);
+        return TopicPartitionInfo.builder()
+                .topic("tb_core")
+                .partition(partition)
+                .tenantId(TenantId.SYS_TENANT_ID)
+                .myPartition(myCorePartitions != null && myCorePartitions.contains(partition))
+                .build();
+    }
+
+    @Benchmark
+    public TopicPartitionInfo resolveRuleEngine() {
+        return partitionService.resolve(ServiceType.TB_RULE_ENGINE, DataConstants.MAIN_QUEUE_NAME, tenantId, nextDeviceId());
+    }
+
+    @Benchmark
+    public boolean isMyPartition() {
+        return partitionService.isMyPartition(ServiceType.TB_CORE, tenantId, nextDeviceId());
+    }
+
+    private DeviceId nextDeviceId() {
+        return deviceIds[ThreadLocalRandom.current().nextInt(ENTITIES)];
+    }
+
+    private static ServiceInfo serviceInfo(int idx) {
+        return ServiceInfo.newBuilder()
+                .setServiceId("tb-node-" + idx)
+                .addAllServiceTypes(List.of(ServiceType.TB_CORE.name(), ServiceType.TB_RULE_ENGINE.name()))
+                .build();
+    }
+
+}
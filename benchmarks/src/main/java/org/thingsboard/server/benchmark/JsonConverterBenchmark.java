@@ -0,0 +1,77 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.server.common.adaptor.JsonConverter;
+import org.thingsboard.server.common.data.kv.KvEntry;
+import org.thingsboard.server.gen.transport.TransportProtos;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonConverterBenchmark {
+
+    private JsonElement telemetry;
+    private JsonElement tsTelemetry;
+    private long ts;
+
+    @Setup
+    public void setup() {
+        telemetry = JsonParser.parseString(BenchmarkData.TELEMETRY_JSON);
+        tsTelemetry = JsonParser.parseString(BenchmarkData.TS_TELEMETRY_JSON);
+        ts = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public Map<Long, List<KvEntry>> convertToTelemetry() {
+        return JsonConverter.convertToTelemetry(telemetry, ts);
+    }
+
+    @Benchmark
+    public Map<Long, List<KvEntry>> convertTsToTelemetry() {
+        return JsonConverter.convertToTelemetry(tsTelemetry, ts);
+    }
+
+    @Benchmark
+    public Map<Long, List<KvEntry>> parseAndConvertToTelemetry() {
+        return JsonConverter.convertToTelemetry(JsonParser.parseString(BenchmarkData.TELEMETRY_JSON), ts);
+    }
+
+    @Benchmark
+    public TransportProtos.PostTelemetryMsg convertToTelemetryProto() {
+        return JsonConverter.convertToTelemetryProto(telemetry, ts);
+    }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.Device;
+import org.thingsboard.server.common.data.id.CustomerId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.DeviceProfileId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.util.ProtoUtils;
+import org.thingsboard.server.gen.transport.TransportProtos;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtoUtilsBenchmark {
+
+    private Device device;
+    private TransportProtos.DeviceProto deviceProto;
+    private byte[] deviceProtoBytes;
+
+    @Setup
+    public void setup() {
+        device = new Device(new DeviceId(UUID.randomUUID()));
+        device.setCreatedTime(System.currentTimeMillis());
+        device.setTenantId(TenantId.fromUUID(UUID.randomUUID()));
+        device.setCustomerId(new CustomerId(UUID.randomUUID()));
+        device.setDeviceProfileId(new DeviceProfileId(UUID.randomUUID()));
+        device.setName("Thermostat A1");
+        device.setType("thermostat");
+        device.setLabel("Building 7, floor 3");
+        device.setAdditionalInfo(JacksonUtil.toJsonNode("{\"gateway\":false,\"description\":\"Benchmark device\"}"));
+        deviceProto = ProtoUtils.toProto(device);
+        deviceProtoBytes = deviceProto.toByteArray();
+    }
+
+    @Benchmark
+    public TransportProtos.DeviceProto deviceToProto() {
+        return ProtoUtils.toProto(device);
+    }
+
+    @Benchmark
+    public Device deviceFromProto() {
+        return ProtoUtils.fromProto(deviceProto);
+    }
+
+    @Benchmark
+    public Device deviceFromBytes() throws InvalidProtocolBufferException {
+        return ProtoUtils.fromProto(TransportProtos.DeviceProto.parseFrom(deviceProtoBytes));
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.thingsboard.server.common.stats.DefaultMessagesStats;
+import org.thingsboard.server.common.stats.StatsCounter;
+import org.thingsboard.server.dao.sql.ScheduledLogExecutorComponent;
+import org.thingsboard.server.dao.sql.TbSqlBlockingQueue;
+import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures batching throughput of the SQL write queue with a save function that only consumes the batch,
+ * so the results show the overhead of the queue itself: enqueue, drain, sort and future completion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TbSqlBlockingQueueBenchmark {
+
+    private static final int ELEMENTS = 10_000;
+
+    @Param({"1000", "10000"})
+    private int batchSize;
+
+    @Param({"true", "false"})
+    private boolean batchSortEnabled;
+
+    @Param({"false", "true"})
+    private boolean adaptiveBatchEnabled;
+
+    private ScheduledLogExecutorComponent logExecutor;
+    private TbSqlBlockingQueue<Long> queue;
+
+    @Setup(Level.Trial)
+    public void setup(Blackhole blackhole) {
+        logExecutor = new ScheduledLogExecutorComponent();
+        logExecutor.init();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DefaultMessagesStats stats = new DefaultMessagesStats(
+                new StatsCounter(new AtomicInteger(), meterRegistry.counter("total"), "total"),
+                new StatsCounter(new AtomicInteger(), meterRegistry.counter("successful"), "successful"),
+                new StatsCounter(new AtomicInteger(), meterRegistry.counter("failed"), "failed"));
+        TbSqlBlockingQueueParams params = TbSqlBlockingQueueParams.builder()
+                .logName("Benchmark")
+                .batchSize(batchSize)
+                .maxDelay(1)
+                .statsPrintIntervalMs(TimeUnit.HOURS.toMillis(1))
+                .statsNamePrefix("benchmark")
+                .batchSortEnabled(batchSortEnabled)
+                .adaptiveBatchEnabled(adaptiveBatchEnabled)
+                .adaptiveBatchMinSize(100)
+                .adaptiveBatchTargetLatencyMs(50)
+                .build();
+        queue = new TbSqlBlockingQueue<>(params, stats);
+        queue.init(logExecutor, (List<Long> batch) -> blackhole.consume(batch), Comparator.naturalOrder(), 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        queue.destroy();
+        logExecutor.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void addAndSave() throws Exception {
+        ListenableFuture<Void> last = null;
+        for (long i = ELEMENTS; i > 0; i--) {
+            last = queue.add(i);
+        }
+        last.get();
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.script.api.ScriptType;
+import org.thingsboard.script.api.tbel.DefaultTbelInvokeService;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.msg.session.SessionMsgType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures TBEL script invocation through the invoke service, the way the script rule nodes call it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TbelInvokeBenchmark {
+
+    private static final String FILTER_SCRIPT = "return msg.temperature > 20;";
+    private static final String TRANSFORM_SCRIPT = "msg.temperatureF = msg.temperature * 1.8 + 32;\n" +
+            "metadata.converted = 'true';\n" +
+            "return {msg: msg, metadata: metadata, msgType: msgType};";
+
+    private DefaultTbelInvokeService invokeService;
+    private UUID filterScriptId;
+    private UUID transformScriptId;
+    private String msgType;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        invokeService = new DefaultTbelInvokeService(Optional.empty(), Optional.empty()) {};
+        ReflectionTestUtils.setField(invokeService, "maxTotalArgsSize", 100000L);
+        ReflectionTestUtils.setField(invokeService, "maxResultSize", 300000L);
+        ReflectionTestUtils.setField(invokeService, "maxScriptBodySize", 50000L);
+        ReflectionTestUtils.setField(invokeService, "maxErrors", 3);
+        ReflectionTestUtils.setField(invokeService, "maxBlackListDurationSec", 60);
+        ReflectionTestUtils.setField(invokeService, "threadPoolSize", Runtime.getRuntime().availableProcessors());
+        ReflectionTestUtils.setField(invokeService, "maxMemoryLimitMb", 8L);
+        ReflectionTestUtils.setField(invokeService, "compiledScriptsCacheSize", 1000);
+        invokeService.init();
+        filterScriptId = eval(FILTER_SCRIPT);
+        transformScriptId = eval(TRANSFORM_SCRIPT);
+        msgType = SessionMsgType.POST_TELEMETRY_REQUEST.name();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        invokeService.stop();
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        return invokeService.invokeScript(TenantId.SYS_TENANT_ID, null, filterScriptId, newMsg(), newMetadata(), msgType).get();
+    }
+
+    @Benchmark
+    public Object transform() throws Exception {
+        return invokeService.invokeScript(TenantId.SYS_TENANT_ID, null, transformScriptId, newMsg(), newMetadata(), msgType).get();
+    }
+
+    private UUID eval(String script) throws Exception {
+        return invokeService.eval(TenantId.SYS_TENANT_ID, ScriptType.RULE_NODE_SCRIPT, script, "msg", "metadata", "msgType").get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> newMsg() {
+        return JacksonUtil.fromString(BenchmarkData.TELEMETRY_JSON, Map.class);
+    }
+
+    private static Map<String, String> newMetadata() {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("deviceName", "Thermostat A");
+        metadata.put("deviceType", "thermostat");
+        return metadata;
+    }
+
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import org.thingsboard.server.common.msg.TbActorMsg;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Array-backed ring buffer with a sequence number per slot (D. Vyukov's bounded queue).
+ * Producers claim a slot with a CAS on the tail and publish the message by advancing the slot sequence,
+ * so enqueue does not allocate. Consumer side is also CAS based: besides the mailbox processing thread,
+ * the producer may poll the oldest message when the mailbox uses {@link TbActorMailboxOverflowPolicy#DROP_OLDEST}.
+ * <p>
+ * The ring starts small and doubles when it is full, up to the configured capacity, so idle actors do not hold
+ * the memory of the whole capacity. Offer and poll share the read side of a lock and stay lock-free between each other;
+ * only the resize takes the write side.
+ */
+class BoundedTbActorMsgQueue implements TbActorMsgQueue {
+
+    static final int INITIAL_CAPACITY = 16;
+
+    private final int maxCapacity;
+    private final StampedLock resizeLock = new StampedLock();
+    private volatile Ring ring;
+
+    BoundedTbActorMsgQueue(int capacity) {
+        this.maxCapacity = capacity > 1 ? Integer.highestOneBit(capacity - 1) << 1 : 1;
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("Mailbox capacity is too large: " + capacity);
+        }
+        this.ring = new Ring(Math.min(INITIAL_CAPACITY, maxCapacity));
+    }
+
+    @Override
+    public boolean offer(TbActorMsg msg) {
+        while (true) {
+            Ring current;
+            long stamp = resizeLock.readLock();
+            try {
+                current = ring;
+                if (current.offer(msg)) {
+                    return true;
+                }
+            } finally {
+                resizeLock.unlockRead(stamp);
+            }
+            if (current.capacity() >= maxCapacity) {
+                return false;
+            }
+            grow(current);
+        }
+    }
+
+    @Override
+    public TbActorMsg poll() {
+        long stamp = resizeLock.readLock();
+        try {
+            return ring.poll();
+        } finally {
+            resizeLock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        return ring.size();
+    }
+
+    int capacity() {
+        return ring.capacity();
+    }
+
+    int maxCapacity() {
+        return maxCapacity;
+    }
+
+    private void grow(Ring current) {
+        long stamp = resizeLock.writeLock();
+        try {
+            if (ring == current) {
+                Ring grown = new Ring(Math.min(current.capacity() << 1, maxCapacity));
+                TbActorMsg msg;
+                while ((msg = current.poll()) != null) {
+                    grown.offer(msg);
+                }
+                ring = grown;
+            }
+        } finally {
+            resizeLock.unlockWrite(stamp);
+        }
+    }
+
+    private static class Ring {
+
+        private final int mask;
+        private final AtomicReferenceArray<TbActorMsg> buffer;
+        private final AtomicLongArray sequences;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+
+        Ring(int size) {
+            this.mask = size - 1;
+            this.buffer = new AtomicReferenceArray<>(size);
+            this.sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        boolean offer(TbActorMsg msg) {
+            long pos = tail.get();
+            while (true) {
+                int idx = (int) (pos & mask);
+                long diff = sequences.get(idx) - pos;
+                if (diff == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        buffer.lazySet(idx, msg);
+                        sequences.set(idx, pos + 1);
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if (diff < 0) {
+                    return false;
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        TbActorMsg poll() {
+            long pos = head.get();
+            while (true) {
+                int idx = (int) (pos & mask);
+                long diff = sequences.get(idx) - (pos + 1);
+                if (diff == 0) {
+                    if (head.compareAndSet(pos, pos + 1)) {
+                        TbActorMsg msg = buffer.get(idx);
+                        buffer.lazySet(idx, null);
+                        sequences.set(idx, pos + mask + 1);
+                        return msg;
+                    }
+                    pos = head.get();
+                } else if (diff < 0) {
+                    return null;
+                } else {
+                    pos = head.get();
+                }
+            }
+        }
+
+        int size() {
+            long size = tail.get() - head.get();
+            return (int) Math.max(0, Math.min(size, mask + 1));
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+    }
+
+}
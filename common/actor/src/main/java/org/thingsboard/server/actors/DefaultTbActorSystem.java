@@ -18,9 +18,12 @@ package org.thingsboard.server.actors;
 import lombok.Data;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.common.msg.TbActorMsg;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -29,6 +32,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -43,6 +47,7 @@ public class DefaultTbActorSystem implements TbActorSystem {
     private final ConcurrentMap<TbActorId, TbActorMailbox> actors = new ConcurrentHashMap<>();
     private final ConcurrentMap<TbActorId, ReentrantLock> actorCreationLocks = new ConcurrentHashMap<>();
     private final ConcurrentMap<TbActorId, Set<TbActorId>> parentChildMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TbActorId, TbActorId> childParentMap = new ConcurrentHashMap<>();
 
     @Getter
     private final TbActorSystemSettings settings;
@@ -51,22 +56,82 @@ public class DefaultTbActorSystem implements TbActorSystem {
 
     public DefaultTbActorSystem(TbActorSystemSettings settings) {
         this.settings = settings;
-        this.scheduler = Executors.newScheduledThreadPool(settings.getSchedulerPoolSize(), ThingsBoardThreadFactory.forName("actor-system-scheduler"));
+        this.scheduler = createScheduler(settings);
+    }
+
+    private static ScheduledExecutorService createScheduler(TbActorSystemSettings settings) {
+        TbActorSchedulerSettings schedulerSettings = settings.getSchedulerSettings();
+        if (schedulerSettings.getType() == TbActorSchedulerType.TIMING_WHEEL) {
+            return new TbTimingWheelScheduler("actor-system-scheduler", settings.getSchedulerPoolSize(),
+                    schedulerSettings.getTickMs(), schedulerSettings.getWheelSize());
+        }
+        return Executors.newScheduledThreadPool(settings.getSchedulerPoolSize(), ThingsBoardThreadFactory.forName("actor-system-scheduler"));
+    }
+
+    @Override
+    public int getPendingTimers() {
+        if (scheduler instanceof TbTimingWheelScheduler timingWheel) {
+            return timingWheel.getPendingTimers();
+        } else if (scheduler instanceof ScheduledThreadPoolExecutor threadPool) {
+            return threadPool.getQueue().size();
+        }
+        return 0;
     }
 
     @Override
     public void createDispatcher(String dispatcherId, ExecutorService executor) {
-        Dispatcher current = dispatchers.putIfAbsent(dispatcherId, new Dispatcher(dispatcherId, executor));
-        if (current != null) {
+        registerDispatcher(new Dispatcher(dispatcherId, executor));
+    }
+
+    @Override
+    public void createDispatcher(String dispatcherId, TbActorDispatcherType type, int poolSize) {
+        if (dispatchers.containsKey(dispatcherId)) {
             throw new RuntimeException("Dispatcher with id [" + dispatcherId + "] is already registered!");
         }
+        switch (type) {
+            case PINNED:
+                List<ExecutorService> executors = new ArrayList<>(poolSize);
+                for (int i = 0; i < poolSize; i++) {
+                    executors.add(Executors.newSingleThreadExecutor(ThingsBoardThreadFactory.forName(dispatcherId + "-" + i)));
+                }
+                registerDispatcher(new Dispatcher(dispatcherId, executors));
+                break;
+            case VIRTUAL:
+                ExecutorService executor;
+                try {
+                    executor = ThingsBoardExecutors.newVirtualThreadPerTaskExecutor(dispatcherId);
+                } catch (UnsupportedOperationException e) {
+                    log.warn("[{}] Virtual threads are not supported by the current JVM, using work stealing dispatcher", dispatcherId);
+                    executor = newWorkStealingExecutor(dispatcherId, poolSize);
+                }
+                registerDispatcher(new Dispatcher(dispatcherId, executor));
+                break;
+            default:
+                registerDispatcher(new Dispatcher(dispatcherId, newWorkStealingExecutor(dispatcherId, poolSize)));
+        }
+    }
+
+    private static ExecutorService newWorkStealingExecutor(String dispatcherId, int poolSize) {
+        if (poolSize == 1) {
+            return Executors.newSingleThreadExecutor(ThingsBoardThreadFactory.forName(dispatcherId));
+        } else {
+            return ThingsBoardExecutors.newWorkStealingPool(poolSize, dispatcherId);
+        }
+    }
+
+    private void registerDispatcher(Dispatcher dispatcher) {
+        Dispatcher current = dispatchers.putIfAbsent(dispatcher.getDispatcherId(), dispatcher);
+        if (current != null) {
+            dispatcher.shutdownNow();
+            throw new RuntimeException("Dispatcher with id [" + dispatcher.getDispatcherId() + "] is already registered!");
+        }
     }
 
     @Override
     public void destroyDispatcher(String dispatcherId) {
         Dispatcher dispatcher = dispatchers.remove(dispatcherId);
         if (dispatcher != null) {
-            dispatcher.getExecutor().shutdownNow();
+            dispatcher.shutdownNow();
         } else {
             throw new RuntimeException("Dispatcher with id [" + dispatcherId + "] is not registered!");
         }
@@ -119,6 +184,7 @@ public class DefaultTbActorSystem implements TbActorSystem {
                     actorMailbox = mailbox;
                     if (parent != null) {
                         parentChildMap.computeIfAbsent(parent, id -> ConcurrentHashMap.newKeySet()).add(actorId);
+                        childParentMap.put(actorId, parent);
                     }
                 } else {
                     log.debug("Actor with id [{}] is already registered!", actorId);
@@ -192,6 +258,26 @@ public class DefaultTbActorSystem implements TbActorSystem {
         }
     }
 
+    @Override
+    public TbActorMailboxStats getMailboxStats(String dispatcherId) {
+        TbActorMailboxStats stats = new TbActorMailboxStats(dispatcherId);
+        actors.values().forEach(mailbox -> {
+            if (dispatcherId.equals(mailbox.getDispatcher().getDispatcherId())) {
+                stats.add(mailbox);
+            }
+        });
+        return stats;
+    }
+
+    @Override
+    public TbActorDispatcherStats getDispatcherStats(String dispatcherId) {
+        Dispatcher dispatcher = dispatchers.get(dispatcherId);
+        if (dispatcher == null) {
+            throw new RuntimeException("Dispatcher with id [" + dispatcherId + "] is not registered!");
+        }
+        return dispatcher.getAndResetStats();
+    }
+
     @Override
     public void stop(TbActorRef actorRef) {
         stop(actorRef.getActorId());
@@ -205,7 +291,13 @@ public class DefaultTbActorSystem implements TbActorSystem {
                 stop(child);
             }
         }
-        parentChildMap.values().forEach(parentChildren -> parentChildren.remove(actorId));
+        TbActorId parent = childParentMap.remove(actorId);
+        if (parent != null) {
+            Set<TbActorId> parentChildren = parentChildMap.get(parent);
+            if (parentChildren != null) {
+                parentChildren.remove(actorId);
+            }
+        }
 
         TbActorMailbox mailbox = actors.remove(actorId);
         if (mailbox != null) {
@@ -213,12 +305,17 @@ public class DefaultTbActorSystem implements TbActorSystem {
         }
     }
 
+    @Override
+    public void stopAll(Collection<TbActorId> actorIds) {
+        actorIds.forEach(this::stop);
+    }
+
     @Override
     public void stop() {
         dispatchers.values().forEach(dispatcher -> {
-            dispatcher.getExecutor().shutdown();
+            dispatcher.shutdown();
             try {
-                dispatcher.getExecutor().awaitTermination(3, TimeUnit.SECONDS);
+                dispatcher.awaitTermination(3, TimeUnit.SECONDS);
             } catch (InterruptedException e) {
                 log.warn("[{}] Failed to stop dispatcher", dispatcher.getDispatcherId(), e);
             }
@@ -15,14 +15,76 @@
  */
 package org.thingsboard.server.actors;
 
-import lombok.Data;
+import lombok.Getter;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
-@Data
 class Dispatcher {
 
+    @Getter
     private final String dispatcherId;
-    private final ExecutorService executor;
+    @Getter
+    private final List<ExecutorService> executors;
+
+    private final LongAdder processedMsgs = new LongAdder();
+    private final LongAdder processingTimeNanos = new LongAdder();
+    private final LongAdder scheduledTasks = new LongAdder();
+    private final LongAdder schedulingDelayNanos = new LongAdder();
+    private final LongAccumulator maxSchedulingDelayNanos = new LongAccumulator(Math::max, 0);
+
+    Dispatcher(String dispatcherId, ExecutorService executor) {
+        this(dispatcherId, List.of(executor));
+    }
+
+    /**
+     * Each actor is pinned to one of the executors by the hash of its id.
+     * Used with single threaded executors to process the messages of the actor on the same thread.
+     */
+    Dispatcher(String dispatcherId, List<ExecutorService> executors) {
+        this.dispatcherId = dispatcherId;
+        this.executors = executors;
+    }
+
+    ExecutorService getExecutor(TbActorId actorId) {
+        if (executors.size() == 1) {
+            return executors.get(0);
+        }
+        return executors.get(Math.floorMod(actorId.hashCode(), executors.size()));
+    }
+
+    void onMailboxProcessingStarted(long schedulingDelay) {
+        scheduledTasks.increment();
+        schedulingDelayNanos.add(schedulingDelay);
+        maxSchedulingDelayNanos.accumulate(schedulingDelay);
+    }
+
+    void onMailboxProcessed(int msgs, long processingTime) {
+        processedMsgs.add(msgs);
+        processingTimeNanos.add(processingTime);
+    }
+
+    TbActorDispatcherStats getAndResetStats() {
+        return new TbActorDispatcherStats(dispatcherId, processedMsgs.sumThenReset(), processingTimeNanos.sumThenReset(),
+                scheduledTasks.sumThenReset(), schedulingDelayNanos.sumThenReset(), maxSchedulingDelayNanos.getThenReset());
+    }
+
+    void shutdown() {
+        executors.forEach(ExecutorService::shutdown);
+    }
+
+    void shutdownNow() {
+        executors.forEach(ExecutorService::shutdownNow);
+    }
+
+    void awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ExecutorService executor : executors) {
+            executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
 
 }
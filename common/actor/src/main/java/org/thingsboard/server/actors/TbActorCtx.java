@@ -18,6 +18,7 @@ package org.thingsboard.server.actors;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.msg.TbActorMsg;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -32,6 +33,8 @@ public interface TbActorCtx extends TbActorRef {
 
     void stop(TbActorId target);
 
+    void stopAll(Collection<TbActorId> targets);
+
     TbActorRef getOrCreateChildActor(TbActorId actorId, Supplier<String> dispatcher, Supplier<TbActorCreator> creator, Supplier<Boolean> createCondition);
 
     void broadcastToChildren(TbActorMsg msg);
@@ -0,0 +1,48 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatcher statistics since the previous request of the stats.
+ * Scheduling delay is the time between submission of the mailbox to the executor and the start of processing.
+ */
+@Data
+public class TbActorDispatcherStats {
+
+    private final String dispatcherId;
+    private final long processedMsgs;
+    private final long processingTimeNanos;
+    private final long scheduledTasks;
+    private final long schedulingDelayNanos;
+    private final long maxSchedulingDelayNanos;
+
+    public long getAvgProcessingTimeMicros() {
+        return processedMsgs > 0 ? TimeUnit.NANOSECONDS.toMicros(processingTimeNanos / processedMsgs) : 0;
+    }
+
+    public long getAvgSchedulingDelayMicros() {
+        return scheduledTasks > 0 ? TimeUnit.NANOSECONDS.toMicros(schedulingDelayNanos / scheduledTasks) : 0;
+    }
+
+    public long getMaxSchedulingDelayMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxSchedulingDelayNanos);
+    }
+
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+public enum TbActorDispatcherType {
+
+    /**
+     * Work stealing pool shared by all actors of the dispatcher. Single thread executor if the pool size is 1.
+     */
+    WORK_STEALING,
+    /**
+     * Starts a virtual thread to process each portion of the actor messages.
+     * Suitable for actors that block on I/O. Falls back to {@link #WORK_STEALING} if the JVM does not support virtual threads.
+     */
+    VIRTUAL,
+    /**
+     * Pool of single thread executors. Each actor is always processed by the same thread for better cache locality.
+     */
+    PINNED
+
+}
@@ -16,7 +16,6 @@
 package org.thingsboard.server.actors;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.msg.MsgType;
@@ -24,16 +23,19 @@ import org.thingsboard.server.common.msg.TbActorError;
 import org.thingsboard.server.common.msg.TbActorMsg;
 import org.thingsboard.server.common.msg.TbActorStopReason;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 @Slf4j
 @Getter
-@RequiredArgsConstructor
 public final class TbActorMailbox implements TbActorCtx {
     private static final boolean HIGH_PRIORITY = true;
     private static final boolean NORMAL_PRIORITY = false;
@@ -44,21 +46,41 @@ public final class TbActorMailbox implements TbActorCtx {
     private static final boolean NOT_READY = false;
     private static final boolean READY = true;
 
+    private static final long BACKPRESSURE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final ThreadLocal<Dispatcher> PROCESSING_DISPATCHER = new ThreadLocal<>();
+
     private final TbActorSystem system;
     private final TbActorSystemSettings settings;
     private final TbActorId selfId;
     private final TbActorRef parentRef;
     private final TbActor actor;
     private final Dispatcher dispatcher;
+    private final ExecutorService executor;
+    private final TbActorMailboxSettings mailboxSettings;
     private final ConcurrentLinkedQueue<TbActorMsg> highPriorityMsgs = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<TbActorMsg> normalPriorityMsgs = new ConcurrentLinkedQueue<>();
+    private final TbActorMsgQueue normalPriorityMsgs;
+    private final AtomicLong droppedMsgs = new AtomicLong();
+    private final AtomicLong rejectedMsgs = new AtomicLong();
     private final AtomicBoolean busy = new AtomicBoolean(FREE);
     private final AtomicBoolean ready = new AtomicBoolean(NOT_READY);
     private final AtomicBoolean destroyInProgress = new AtomicBoolean();
     private volatile TbActorStopReason stopReason;
+    private volatile long processingScheduledTime;
+
+    public TbActorMailbox(TbActorSystem system, TbActorSystemSettings settings, TbActorId selfId, TbActorRef parentRef, TbActor actor, Dispatcher dispatcher) {
+        this.system = system;
+        this.settings = settings;
+        this.selfId = selfId;
+        this.parentRef = parentRef;
+        this.actor = actor;
+        this.dispatcher = dispatcher;
+        this.executor = dispatcher.getExecutor(selfId);
+        this.mailboxSettings = settings.getMailboxSettings(dispatcher.getDispatcherId());
+        this.normalPriorityMsgs = TbActorMsgQueue.create(mailboxSettings);
+    }
 
     public void initActor() {
-        dispatcher.getExecutor().execute(() -> tryInit(1));
+        executor.execute(() -> tryInit(1));
     }
 
     private void tryInit(int attempt) {
@@ -87,11 +109,11 @@ public final class TbActorMailbox implements TbActorCtx {
             } else if (strategy.getRetryDelay() > 0) {
                 log.info("[{}] Failed to init actor, attempt {}, going to retry in attempts in {}ms", selfId, attempt, strategy.getRetryDelay());
                 log.debug("[{}] Error", selfId, t);
-                system.getScheduler().schedule(() -> dispatcher.getExecutor().execute(() -> tryInit(attemptIdx)), strategy.getRetryDelay(), TimeUnit.MILLISECONDS);
+                system.getScheduler().schedule(() -> executor.execute(() -> tryInit(attemptIdx)), strategy.getRetryDelay(), TimeUnit.MILLISECONDS);
             } else {
                 log.info("[{}] Failed to init actor, attempt {}, going to retry immediately", selfId, attempt);
                 log.debug("[{}] Error", selfId, t);
-                dispatcher.getExecutor().execute(() -> tryInit(attemptIdx));
+                executor.execute(() -> tryInit(attemptIdx));
             }
         }
     }
@@ -107,8 +129,8 @@ public final class TbActorMailbox implements TbActorCtx {
         if (!destroyInProgress.get()) {
             if (highPriority) {
                 highPriorityMsgs.add(msg);
-            } else {
-                normalPriorityMsgs.add(msg);
+            } else if (!normalPriorityMsgs.offer(msg) && !offerOnOverflow(msg)) {
+                return;
             }
             tryProcessQueue(true);
         } else {
@@ -128,11 +150,51 @@ public final class TbActorMailbox implements TbActorCtx {
         }
     }
 
+    private boolean offerOnOverflow(TbActorMsg msg) {
+        switch (mailboxSettings.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                do {
+                    TbActorMsg oldest = normalPriorityMsgs.poll();
+                    if (oldest != null) {
+                        droppedMsgs.incrementAndGet();
+                        log.debug("[{}] Mailbox is full, dropping oldest message: {}", selfId, oldest);
+                        oldest.onTbActorStopped(TbActorStopReason.MAILBOX_OVERFLOW);
+                    }
+                } while (!normalPriorityMsgs.offer(msg));
+                return true;
+            case BACKPRESSURE:
+                if (PROCESSING_DISPATCHER.get() == dispatcher) {
+                    // Blocking a thread of the target dispatcher may stall the very mailbox we wait for
+                    log.debug("[{}] Mailbox is full, backpressure is not applied to the sender from the same dispatcher", selfId);
+                    break;
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(mailboxSettings.getBackpressureTimeoutMs());
+                do {
+                    tryProcessQueue(false);
+                    LockSupport.parkNanos(BACKPRESSURE_PARK_NANOS);
+                    if (normalPriorityMsgs.offer(msg)) {
+                        return true;
+                    }
+                } while (System.nanoTime() < deadline && !destroyInProgress.get());
+                break;
+            default:
+                break;
+        }
+        rejectedMsgs.incrementAndGet();
+        log.debug("[{}] Mailbox is full, rejecting message: {}", selfId, msg);
+        msg.onTbActorStopped(TbActorStopReason.MAILBOX_OVERFLOW);
+        return false;
+    }
+
+    public int getQueueSize() {
+        return highPriorityMsgs.size() + normalPriorityMsgs.size();
+    }
+
     private void tryProcessQueue(boolean newMsg) {
         if (ready.get() == READY) {
             if (newMsg || !highPriorityMsgs.isEmpty() || !normalPriorityMsgs.isEmpty()) {
                 if (busy.compareAndSet(FREE, BUSY)) {
-                    dispatcher.getExecutor().execute(this::processMailbox);
+                    scheduleProcessing();
                 } else {
                     log.trace("[{}] MessageBox is busy, new msg: {}", selfId, newMsg);
                 }
@@ -144,37 +206,52 @@ public final class TbActorMailbox implements TbActorCtx {
         }
     }
 
+    private void scheduleProcessing() {
+        processingScheduledTime = System.nanoTime();
+        executor.execute(this::processMailbox);
+    }
+
     private void processMailbox() {
+        long startTime = System.nanoTime();
+        dispatcher.onMailboxProcessingStarted(startTime - processingScheduledTime);
         boolean noMoreElements = false;
-        for (int i = 0; i < settings.getActorThroughput(); i++) {
-            TbActorMsg msg = highPriorityMsgs.poll();
-            if (msg == null) {
-                msg = normalPriorityMsgs.poll();
-            }
-            if (msg != null) {
-                try {
-                    log.debug("[{}] Going to process message: {}", selfId, msg);
-                    actor.process(msg);
-                } catch (TbRuleNodeUpdateException updateException) {
-                    stopReason = TbActorStopReason.INIT_FAILED;
-                    destroy(updateException.getCause());
-                } catch (Throwable t) {
-                    log.debug("[{}] Failed to process message: {}", selfId, msg, t);
-                    ProcessFailureStrategy strategy = actor.onProcessFailure(msg, t);
-                    if (strategy.isStop()) {
-                        system.stop(selfId);
+        int processed = 0;
+        PROCESSING_DISPATCHER.set(dispatcher);
+        try {
+            for (int i = 0; i < settings.getActorThroughput(); i++) {
+                TbActorMsg msg = highPriorityMsgs.poll();
+                if (msg == null) {
+                    msg = normalPriorityMsgs.poll();
+                }
+                if (msg != null) {
+                    processed++;
+                    try {
+                        log.debug("[{}] Going to process message: {}", selfId, msg);
+                        actor.process(msg);
+                    } catch (TbRuleNodeUpdateException updateException) {
+                        stopReason = TbActorStopReason.INIT_FAILED;
+                        destroy(updateException.getCause());
+                    } catch (Throwable t) {
+                        log.debug("[{}] Failed to process message: {}", selfId, msg, t);
+                        ProcessFailureStrategy strategy = actor.onProcessFailure(msg, t);
+                        if (strategy.isStop()) {
+                            system.stop(selfId);
+                        }
                     }
+                } else {
+                    noMoreElements = true;
+                    break;
                 }
-            } else {
-                noMoreElements = true;
-                break;
             }
+        } finally {
+            PROCESSING_DISPATCHER.remove();
         }
+        dispatcher.onMailboxProcessed(processed, System.nanoTime() - startTime);
         if (noMoreElements) {
             busy.set(FREE);
-            dispatcher.getExecutor().execute(() -> tryProcessQueue(false));
+            executor.execute(() -> tryProcessQueue(false));
         } else {
-            dispatcher.getExecutor().execute(this::processMailbox);
+            scheduleProcessing();
         }
     }
 
@@ -218,6 +295,11 @@ public final class TbActorMailbox implements TbActorCtx {
         system.stop(target);
     }
 
+    @Override
+    public void stopAll(Collection<TbActorId> targets) {
+        system.stopAll(targets);
+    }
+
     @Override
     public TbActorRef getOrCreateChildActor(TbActorId actorId, Supplier<String> dispatcher, Supplier<TbActorCreator> creator, Supplier<Boolean> createCondition) {
         TbActorRef actorRef = system.getActor(actorId);
@@ -233,12 +315,15 @@ public final class TbActorMailbox implements TbActorCtx {
             stopReason = TbActorStopReason.STOPPED;
         }
         destroyInProgress.set(true);
-        dispatcher.getExecutor().execute(() -> {
+        executor.execute(() -> {
             try {
                 ready.set(NOT_READY);
                 actor.destroy(stopReason, cause);
                 highPriorityMsgs.forEach(msg -> msg.onTbActorStopped(stopReason));
-                normalPriorityMsgs.forEach(msg -> msg.onTbActorStopped(stopReason));
+                TbActorMsg msg;
+                while ((msg = normalPriorityMsgs.poll()) != null) {
+                    msg.onTbActorStopped(stopReason);
+                }
             } catch (Throwable t) {
                 log.warn("[{}] Failed to destroy actor: {}", selfId, t);
             }
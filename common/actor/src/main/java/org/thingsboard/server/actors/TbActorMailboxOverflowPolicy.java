@@ -0,0 +1,37 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+public enum TbActorMailboxOverflowPolicy {
+
+    /**
+     * Removes the oldest message from the mailbox to free space for the new one.
+     * The removed message is notified via {@link org.thingsboard.server.common.msg.TbActorMsg#onTbActorStopped}.
+     */
+    DROP_OLDEST,
+    /**
+     * Rejects the new message and notifies it via {@link org.thingsboard.server.common.msg.TbActorMsg#onTbActorStopped}.
+     */
+    REJECT,
+    /**
+     * Blocks the sender until the mailbox has free space or the backpressure timeout expires.
+     * The message is rejected on timeout.
+     * The sender is not blocked when it is an actor of the same dispatcher (including the target actor itself),
+     * because parking a thread of that dispatcher may stall the mailbox it waits for: the message is rejected right away.
+     */
+    BACKPRESSURE
+
+}
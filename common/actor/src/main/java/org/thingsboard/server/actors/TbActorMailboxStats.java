@@ -0,0 +1,42 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import lombok.Data;
+
+/**
+ * Snapshot of the mailboxes of all actors that belong to the dispatcher.
+ */
+@Data
+public class TbActorMailboxStats {
+
+    private final String dispatcherId;
+    private int actors;
+    private long queuedMsgs;
+    private int maxQueueSize;
+    private long droppedMsgs;
+    private long rejectedMsgs;
+
+    void add(TbActorMailbox mailbox) {
+        int queueSize = mailbox.getQueueSize();
+        actors++;
+        queuedMsgs += queueSize;
+        maxQueueSize = Math.max(maxQueueSize, queueSize);
+        droppedMsgs += mailbox.getDroppedMsgs().get();
+        rejectedMsgs += mailbox.getRejectedMsgs().get();
+    }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import org.thingsboard.server.common.msg.TbActorMsg;
+
+/**
+ * Storage for the messages of a single actor mailbox.
+ * Many threads may add messages while the mailbox is processed by one thread at a time.
+ */
+interface TbActorMsgQueue {
+
+    /**
+     * @return false if the queue is full
+     */
+    boolean offer(TbActorMsg msg);
+
+    /**
+     * @return the oldest message or null if the queue is empty
+     */
+    TbActorMsg poll();
+
+    boolean isEmpty();
+
+    int size();
+
+    static TbActorMsgQueue create(TbActorMailboxSettings settings) {
+        switch (settings.getType()) {
+            case BOUNDED:
+                return new BoundedTbActorMsgQueue(settings.getCapacity());
+            case UNBOUNDED:
+                return new UnboundedTbActorMsgQueue();
+            default:
+                throw new IllegalArgumentException("Unsupported mailbox type: " + settings.getType());
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import lombok.Data;
+
+@Data
+public class TbActorSchedulerSettings {
+
+    public static final TbActorSchedulerSettings THREAD_POOL =
+            new TbActorSchedulerSettings(TbActorSchedulerType.THREAD_POOL, 0, 0);
+
+    private final TbActorSchedulerType type;
+    private final long tickMs;
+    private final int wheelSize;
+
+    public static TbActorSchedulerSettings timingWheel(long tickMs, int wheelSize) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("Timing wheel tick duration must be positive!");
+        }
+        if (wheelSize < 2) {
+            throw new IllegalArgumentException("Timing wheel size must be at least 2!");
+        }
+        return new TbActorSchedulerSettings(TbActorSchedulerType.TIMING_WHEEL, tickMs, wheelSize);
+    }
+
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+public enum TbActorSchedulerType {
+
+    /**
+     * {@link java.util.concurrent.ScheduledThreadPoolExecutor} backed by a binary heap.
+     * Scheduling and cancellation cost O(log n) under a shared lock.
+     */
+    THREAD_POOL,
+    /**
+     * {@link TbTimingWheelScheduler}. Scheduling and cancellation cost O(1), timers expire in batches once per tick.
+     */
+    TIMING_WHEEL
+
+}
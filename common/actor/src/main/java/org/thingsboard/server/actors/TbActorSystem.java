@@ -17,6 +17,7 @@ package org.thingsboard.server.actors;
 
 import org.thingsboard.server.common.msg.TbActorMsg;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -26,8 +27,15 @@ public interface TbActorSystem {
 
     ScheduledExecutorService getScheduler();
 
+    /**
+     * Returns the number of timers scheduled with {@link #getScheduler()} that are neither expired nor cancelled yet.
+     */
+    int getPendingTimers();
+
     void createDispatcher(String dispatcherId, ExecutorService executor);
 
+    void createDispatcher(String dispatcherId, TbActorDispatcherType type, int poolSize);
+
     void destroyDispatcher(String dispatcherId);
 
     TbActorRef getActor(TbActorId actorId);
@@ -44,6 +52,8 @@ public interface TbActorSystem {
 
     void stop(TbActorId actorId);
 
+    void stopAll(Collection<TbActorId> actorIds);
+
     void stop();
 
     void broadcastToChildren(TbActorId parent, TbActorMsg msg);
@@ -53,4 +63,11 @@ public interface TbActorSystem {
     void broadcastToChildren(TbActorId parent, Predicate<TbActorId> childFilter, TbActorMsg msg);
 
     List<TbActorId> filterChildren(TbActorId parent, Predicate<TbActorId> childFilter);
+
+    TbActorMailboxStats getMailboxStats(String dispatcherId);
+
+    /**
+     * Returns the throughput and latency stats of the dispatcher collected since the previous call.
+     */
+    TbActorDispatcherStats getDispatcherStats(String dispatcherId);
 }
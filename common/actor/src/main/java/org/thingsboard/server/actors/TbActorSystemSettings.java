@@ -17,11 +17,25 @@ package org.thingsboard.server.actors;
 
 import lombok.Data;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Data
 public class TbActorSystemSettings {
 
     private final int actorThroughput;
     private final int schedulerPoolSize;
     private final int maxActorInitAttempts;
+    private final Map<String, TbActorMailboxSettings> dispatcherMailboxSettings = new ConcurrentHashMap<>();
+    private TbActorMailboxSettings defaultMailboxSettings = TbActorMailboxSettings.UNBOUNDED;
+    private TbActorSchedulerSettings schedulerSettings = TbActorSchedulerSettings.THREAD_POOL;
+
+    public void setMailboxSettings(String dispatcherId, TbActorMailboxSettings mailboxSettings) {
+        dispatcherMailboxSettings.put(dispatcherId, mailboxSettings);
+    }
+
+    public TbActorMailboxSettings getMailboxSettings(String dispatcherId) {
+        return dispatcherMailboxSettings.getOrDefault(dispatcherId, defaultMailboxSettings);
+    }
 
 }
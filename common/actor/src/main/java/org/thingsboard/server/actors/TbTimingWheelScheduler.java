@@ -0,0 +1,431 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed hierarchical timing wheel behind the {@link ScheduledExecutorService} API.
+ * <p>
+ * A single timer thread advances the wheel once per tick. Level N of the wheel has {@code wheelSize} buckets
+ * of {@code tickMs * wheelSize^N} milliseconds each; upper levels are created on demand and their buckets
+ * are cascaded to the lower levels when the clock reaches them. Buckets are intrusive doubly linked lists,
+ * so both scheduling and cancellation are O(1) and never contend on a shared heap lock: callers only append
+ * to lock-free queues that the timer thread drains on the next tick.
+ * <p>
+ * All timers that expire within the same tick are handed to the executor pool in batches, one batch per pool thread.
+ * The resolution of the timers is one tick, so the delay may be up to {@code tickMs} longer than requested.
+ */
+@Slf4j
+public class TbTimingWheelScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private static final long MAX_DELAY_NANOS = Long.MAX_VALUE >> 1;
+
+    private final long tickNanos;
+    private final int wheelSize;
+    private final int mask;
+    private final int poolSize;
+    private final ExecutorService executor;
+    private final Thread timerThread;
+    private final long startNanos;
+
+    private final Queue<TimerTask<?>> scheduledTimers = new ConcurrentLinkedQueue<>();
+    private final Queue<TimerTask<?>> cancelledTimers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTimers = new AtomicInteger();
+    private final AtomicLong expiredTimers = new AtomicLong();
+
+    // Accessed by the timer thread only
+    private final List<Bucket[]> levels = new ArrayList<>();
+    private long currentTick;
+
+    private volatile boolean stopped;
+
+    public TbTimingWheelScheduler(String name, int poolSize, long tickMs, int wheelSize) {
+        if (tickMs <= 0 || wheelSize < 2 || poolSize <= 0) {
+            throw new IllegalArgumentException("Invalid timing wheel configuration!");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.wheelSize = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.mask = this.wheelSize - 1;
+        this.poolSize = poolSize;
+        this.executor = Executors.newFixedThreadPool(poolSize, ThingsBoardThreadFactory.forName(name));
+        this.startNanos = System.nanoTime();
+        this.levels.add(newLevel());
+        this.timerThread = ThingsBoardThreadFactory.forName(name + "-timer").newThread(this::runTimer);
+        this.timerThread.start();
+    }
+
+    /**
+     * Returns the number of timers that are scheduled and neither expired nor cancelled yet.
+     */
+    public int getPendingTimers() {
+        return pendingTimers.get();
+    }
+
+    /**
+     * Returns the total number of timers that expired since the start of the scheduler.
+     */
+    public long getExpiredTimers() {
+        return expiredTimers.get();
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return schedule(new TimerTask<Void>(command, null, triggerTime(delay, unit), 0));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return schedule(new TimerTask<>(callable, triggerTime(delay, unit)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive!");
+        }
+        return schedule(new TimerTask<Void>(command, null, triggerTime(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Delay must be positive!");
+        }
+        return schedule(new TimerTask<Void>(command, null, triggerTime(initialDelay, unit), -unit.toNanos(delay)));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @Override
+    public void shutdown() {
+        stopped = true;
+        LockSupport.unpark(timerThread);
+        executor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        stopped = true;
+        timerThread.interrupt();
+        return executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return stopped;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return stopped && !timerThread.isAlive() && executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        timerThread.join(Math.max(1, unit.toMillis(timeout)));
+        return executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) && !timerThread.isAlive();
+    }
+
+    private long triggerTime(long delay, TimeUnit unit) {
+        long delayNanos = Math.max(0, unit.toNanos(delay));
+        return System.nanoTime() + Math.min(delayNanos, MAX_DELAY_NANOS);
+    }
+
+    private <V> ScheduledFuture<V> schedule(TimerTask<V> task) {
+        if (stopped) {
+            throw new RejectedExecutionException("Scheduler is stopped!");
+        }
+        pendingTimers.incrementAndGet();
+        scheduledTimers.add(task);
+        return task;
+    }
+
+    private void reschedule(TimerTask<?> task) {
+        if (!stopped) {
+            pendingTimers.incrementAndGet();
+            scheduledTimers.add(task);
+        }
+    }
+
+    private void runTimer() {
+        List<TimerTask<?>> expired = new ArrayList<>();
+        while (!stopped) {
+            long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+            while (currentTick < targetTick) {
+                currentTick++;
+                advance(expired);
+            }
+            processCancelledTimers();
+            processScheduledTimers(expired);
+            dispatch(expired);
+            long sleepNanos = startNanos + (currentTick + 1) * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+        }
+        log.debug("Timing wheel stopped with {} pending timers", pendingTimers.get());
+    }
+
+    private void advance(List<TimerTask<?>> expired) {
+        long unit = 1;
+        int cascadeLevel = 0;
+        for (int level = 1; level < levels.size(); level++) {
+            unit *= wheelSize;
+            if (currentTick % unit != 0) {
+                break;
+            }
+            cascadeLevel = level;
+        }
+        for (int level = cascadeLevel; level > 0; level--) {
+            long levelUnit = levelUnit(level);
+            Bucket bucket = levels.get(level)[(int) ((currentTick / levelUnit) & mask)];
+            for (TimerTask<?> task : bucket.drain()) {
+                place(task, expired);
+            }
+        }
+        Bucket bucket = levels.get(0)[(int) (currentTick & mask)];
+        for (TimerTask<?> task : bucket.drain()) {
+            place(task, expired);
+        }
+    }
+
+    private void processCancelledTimers() {
+        TimerTask<?> task;
+        while ((task = cancelledTimers.poll()) != null) {
+            if (task.bucket != null) {
+                task.bucket.remove(task);
+                pendingTimers.decrementAndGet();
+            }
+        }
+    }
+
+    private void processScheduledTimers(List<TimerTask<?>> expired) {
+        TimerTask<?> task;
+        while ((task = scheduledTimers.poll()) != null) {
+            if (task.isCancelled()) {
+                pendingTimers.decrementAndGet();
+                continue;
+            }
+            task.deadlineTick = toTick(task.deadlineNanos);
+            place(task, expired);
+        }
+    }
+
+    private void place(TimerTask<?> task, List<TimerTask<?>> expired) {
+        long delta = task.deadlineTick - currentTick;
+        if (delta <= 0) {
+            expired.add(task);
+            return;
+        }
+        int level = 0;
+        long unit = 1;
+        while (unit <= delta / wheelSize) {
+            level++;
+            unit *= wheelSize;
+        }
+        while (levels.size() <= level) {
+            levels.add(newLevel());
+        }
+        levels.get(level)[(int) ((task.deadlineTick / unit) & mask)].add(task);
+    }
+
+    private void dispatch(List<TimerTask<?>> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+        int size = expired.size();
+        pendingTimers.addAndGet(-size);
+        expiredTimers.addAndGet(size);
+        int batches = Math.min(poolSize, size);
+        int batchSize = (size + batches - 1) / batches;
+        for (int from = 0; from < size; from += batchSize) {
+            List<TimerTask<?>> batch = new ArrayList<>(expired.subList(from, Math.min(size, from + batchSize)));
+            try {
+                executor.execute(() -> batch.forEach(TimerTask::run));
+            } catch (RejectedExecutionException e) {
+                log.debug("Failed to execute {} expired timers", batch.size(), e);
+            }
+        }
+        expired.clear();
+    }
+
+    private long toTick(long nanos) {
+        long elapsed = nanos - startNanos;
+        return elapsed <= 0 ? 0 : (elapsed + tickNanos - 1) / tickNanos;
+    }
+
+    private long levelUnit(int level) {
+        long unit = 1;
+        for (int i = 0; i < level; i++) {
+            unit *= wheelSize;
+        }
+        return unit;
+    }
+
+    private Bucket[] newLevel() {
+        Bucket[] buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket();
+        }
+        return buckets;
+    }
+
+    private static class Bucket {
+
+        private TimerTask<?> head;
+        private TimerTask<?> tail;
+
+        void add(TimerTask<?> task) {
+            task.bucket = this;
+            task.prev = tail;
+            task.next = null;
+            if (tail == null) {
+                head = task;
+            } else {
+                tail.next = task;
+            }
+            tail = task;
+        }
+
+        void remove(TimerTask<?> task) {
+            if (task.prev == null) {
+                head = task.next;
+            } else {
+                task.prev.next = task.next;
+            }
+            if (task.next == null) {
+                tail = task.prev;
+            } else {
+                task.next.prev = task.prev;
+            }
+            task.bucket = null;
+            task.prev = null;
+            task.next = null;
+        }
+
+        List<TimerTask<?>> drain() {
+            if (head == null) {
+                return Collections.emptyList();
+            }
+            List<TimerTask<?>> tasks = new ArrayList<>();
+            TimerTask<?> task = head;
+            while (task != null) {
+                TimerTask<?> next = task.next;
+                task.bucket = null;
+                task.prev = null;
+                task.next = null;
+                tasks.add(task);
+                task = next;
+            }
+            head = null;
+            tail = null;
+            return tasks;
+        }
+
+    }
+
+    private class TimerTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /**
+         * Zero for one-shot timers, positive for fixed-rate and negative for fixed-delay timers.
+         */
+        private final long periodNanos;
+        private volatile long deadlineNanos;
+
+        // Accessed by the timer thread only
+        private long deadlineTick;
+        private Bucket bucket;
+        private TimerTask<?> prev;
+        private TimerTask<?> next;
+
+        TimerTask(Runnable runnable, V result, long deadlineNanos, long periodNanos) {
+            super(runnable, result);
+            this.deadlineNanos = deadlineNanos;
+            this.periodNanos = periodNanos;
+        }
+
+        TimerTask(Callable<V> callable, long deadlineNanos) {
+            super(callable);
+            this.deadlineNanos = deadlineNanos;
+            this.periodNanos = 0;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return periodNanos != 0;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                cancelledTimers.add(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (super.runAndReset()) {
+                deadlineNanos = periodNanos > 0 ? deadlineNanos + periodNanos : System.nanoTime() - periodNanos;
+                reschedule(this);
+            }
+        }
+
+    }
+
+}
@@ -24,11 +24,13 @@ import org.junit.jupiter.api.Test;
 import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.msg.TbActorStopReason;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -217,6 +219,122 @@ public class ActorSystemTest {
         Assertions.assertTrue(testCtx1.getLatch().await(3, TimeUnit.SECONDS));
     }
 
+    @Test
+    public void testStopAllChildren() {
+        executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
+        actorSystem.createDispatcher(ROOT_DISPATCHER, executor);
+        TbActorId parentId = new TbEntityActorId(new DeviceId(UUID.randomUUID()));
+        actorSystem.createRootActor(ROOT_DISPATCHER, new TestRootActor.TestRootActorCreator(parentId, getActorTestCtx(1)));
+        List<TbActorId> childIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            TbActorId childId = new TbEntityActorId(new DeviceId(UUID.randomUUID()));
+            actorSystem.createChildActor(ROOT_DISPATCHER, new TestRootActor.TestRootActorCreator(childId, getActorTestCtx(1)), parentId);
+            childIds.add(childId);
+        }
+
+        actorSystem.stopAll(childIds.subList(0, 5));
+
+        assertThat(actorSystem.filterChildren(parentId, id -> true)).containsExactlyInAnyOrderElementsOf(childIds.subList(5, 10));
+        childIds.subList(0, 5).forEach(id -> assertThat(actorSystem.getActor(id)).isNull());
+        childIds.subList(5, 10).forEach(id -> assertThat(actorSystem.getActor(id)).isNotNull());
+
+        actorSystem.stop(parentId);
+
+        assertThat(actorSystem.filterChildren(parentId, id -> true)).isEmpty();
+        childIds.forEach(id -> assertThat(actorSystem.getActor(id)).isNull());
+        assertThat(((DefaultTbActorSystem) actorSystem).getChildParentMap()).isEmpty();
+    }
+
+    @Test
+    public void test1KActorsAnd1KMessagesPinnedDispatcher() throws InterruptedException {
+        actorSystem.createDispatcher(ROOT_DISPATCHER, TbActorDispatcherType.PINNED, parallelism);
+        testActorsAndMessages(1000, 1000, 1);
+        awaitProcessedMsgs(1000 * 1000);
+        assertThat(actorSystem.getDispatcherStats(ROOT_DISPATCHER).getProcessedMsgs()).isZero();
+    }
+
+    @Test
+    public void test1KActorsAnd1KMessagesVirtualDispatcher() throws InterruptedException {
+        actorSystem.createDispatcher(ROOT_DISPATCHER, TbActorDispatcherType.VIRTUAL, parallelism);
+        testActorsAndMessages(1000, 1000, 1);
+        awaitProcessedMsgs(1000 * 1000);
+    }
+
+    private void awaitProcessedMsgs(long expected) {
+        AtomicLong processedMsgs = new AtomicLong();
+        AtomicLong scheduledTasks = new AtomicLong();
+        Awaitility.await().atMost(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS).until(() -> {
+            TbActorDispatcherStats stats = actorSystem.getDispatcherStats(ROOT_DISPATCHER);
+            scheduledTasks.addAndGet(stats.getScheduledTasks());
+            return processedMsgs.addAndGet(stats.getProcessedMsgs()) == expected;
+        });
+        assertThat(scheduledTasks.get()).isPositive();
+    }
+
+    @Test
+    public void testBoundedMailboxWithBackpressure() throws InterruptedException {
+        executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
+        actorSystem.createDispatcher(ROOT_DISPATCHER, executor);
+        setMailboxSettings(TbActorMailboxSettings.bounded(16, TbActorMailboxOverflowPolicy.BACKPRESSURE, TimeUnit.SECONDS.toMillis(TIMEOUT_AWAIT_MAX_SEC)));
+        testActorsAndMessages(10, _100K, 1);
+        TbActorMailboxStats stats = actorSystem.getMailboxStats(ROOT_DISPATCHER);
+        assertThat(stats.getActors()).isEqualTo(10);
+        assertThat(stats.getRejectedMsgs()).isZero();
+        assertThat(stats.getDroppedMsgs()).isZero();
+    }
+
+    @Test
+    public void testBoundedMailboxRejectsNewMessages() throws InterruptedException {
+        executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
+        actorSystem.createDispatcher(ROOT_DISPATCHER, executor);
+        setMailboxSettings(TbActorMailboxSettings.bounded(4, TbActorMailboxOverflowPolicy.REJECT, 0));
+        ActorTestCtx testCtx = getActorTestCtx(4);
+        TbActorRef actorRef = actorSystem.createRootActor(ROOT_DISPATCHER, new SlowInitActor.SlowInitActorCreator(
+                new TbEntityActorId(new DeviceId(UUID.randomUUID())), testCtx));
+
+        List<Integer> overflowed = tellWhileInitializing(actorRef, 10);
+
+        Assertions.assertTrue(testCtx.getLatch().await(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS));
+        assertThat(testCtx.getActual().get()).isEqualTo(1 + 2 + 3 + 4);
+        assertThat(overflowed).containsExactly(5, 6, 7, 8, 9, 10);
+        assertThat(actorSystem.getMailboxStats(ROOT_DISPATCHER).getRejectedMsgs()).isEqualTo(6);
+    }
+
+    @Test
+    public void testBoundedMailboxDropsOldestMessages() throws InterruptedException {
+        executor = ThingsBoardExecutors.newWorkStealingPool(parallelism, getClass());
+        actorSystem.createDispatcher(ROOT_DISPATCHER, executor);
+        setMailboxSettings(TbActorMailboxSettings.bounded(4, TbActorMailboxOverflowPolicy.DROP_OLDEST, 0));
+        ActorTestCtx testCtx = getActorTestCtx(4);
+        TbActorRef actorRef = actorSystem.createRootActor(ROOT_DISPATCHER, new SlowInitActor.SlowInitActorCreator(
+                new TbEntityActorId(new DeviceId(UUID.randomUUID())), testCtx));
+
+        List<Integer> overflowed = tellWhileInitializing(actorRef, 10);
+
+        Assertions.assertTrue(testCtx.getLatch().await(TIMEOUT_AWAIT_MAX_SEC, TimeUnit.SECONDS));
+        assertThat(testCtx.getActual().get()).isEqualTo(7 + 8 + 9 + 10);
+        assertThat(overflowed).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(actorSystem.getMailboxStats(ROOT_DISPATCHER).getDroppedMsgs()).isEqualTo(6);
+    }
+
+    private void setMailboxSettings(TbActorMailboxSettings mailboxSettings) {
+        ((DefaultTbActorSystem) actorSystem).getSettings().setMailboxSettings(ROOT_DISPATCHER, mailboxSettings);
+    }
+
+    private List<Integer> tellWhileInitializing(TbActorRef actorRef, int msgCount) {
+        List<Integer> overflowed = new CopyOnWriteArrayList<>();
+        for (int i = 1; i <= msgCount; i++) {
+            actorRef.tell(new IntTbActorMsg(i) {
+                @Override
+                public void onTbActorStopped(TbActorStopReason reason) {
+                    assertThat(reason).isEqualTo(TbActorStopReason.MAILBOX_OVERFLOW);
+                    overflowed.add(getValue());
+                }
+            });
+        }
+        return overflowed;
+    }
+
 
     public void testActorsAndMessages(int actorsCount, int msgNumber, int times) throws InterruptedException {
         Random random = new Random();
@@ -0,0 +1,110 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.msg.TbActorMsg;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedTbActorMsgQueueTest {
+
+    @Test
+    public void testCapacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new BoundedTbActorMsgQueue(1).maxCapacity()).isEqualTo(1);
+        assertThat(new BoundedTbActorMsgQueue(5).maxCapacity()).isEqualTo(8);
+        assertThat(new BoundedTbActorMsgQueue(1024).maxCapacity()).isEqualTo(1024);
+    }
+
+    @Test
+    public void testRingGrowsUpToCapacity() {
+        BoundedTbActorMsgQueue queue = new BoundedTbActorMsgQueue(100);
+        assertThat(queue.capacity()).isEqualTo(BoundedTbActorMsgQueue.INITIAL_CAPACITY);
+
+        for (int i = 0; i < 128; i++) {
+            assertThat(queue.offer(new IntTbActorMsg(i))).isTrue();
+        }
+        assertThat(queue.offer(new IntTbActorMsg(128))).isFalse();
+        assertThat(queue.capacity()).isEqualTo(128);
+        assertThat(queue.size()).isEqualTo(128);
+
+        for (int i = 0; i < 128; i++) {
+            assertThat(((IntTbActorMsg) queue.poll()).getValue()).isEqualTo(i);
+        }
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    public void testFifoOrderAndOverflow() {
+        BoundedTbActorMsgQueue queue = new BoundedTbActorMsgQueue(4);
+        assertThat(queue.isEmpty()).isTrue();
+        for (int i = 0; i < 4; i++) {
+            assertThat(queue.offer(new IntTbActorMsg(i))).isTrue();
+        }
+        assertThat(queue.offer(new IntTbActorMsg(4))).isFalse();
+        assertThat(queue.size()).isEqualTo(4);
+
+        assertThat(((IntTbActorMsg) queue.poll()).getValue()).isEqualTo(0);
+        assertThat(queue.offer(new IntTbActorMsg(4))).isTrue();
+        for (int i = 1; i <= 4; i++) {
+            assertThat(((IntTbActorMsg) queue.poll()).getValue()).isEqualTo(i);
+        }
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int msgsPerProducer = 10_000;
+        BoundedTbActorMsgQueue queue = new BoundedTbActorMsgQueue(64);
+        CountDownLatch latch = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= msgsPerProducer; i++) {
+                    TbActorMsg msg = new IntTbActorMsg(i);
+                    while (!queue.offer(msg)) {
+                        Thread.yield();
+                    }
+                }
+                latch.countDown();
+            });
+            thread.start();
+        }
+
+        long sum = 0;
+        int count = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (count < producers * msgsPerProducer && System.nanoTime() < deadline) {
+            TbActorMsg msg = queue.poll();
+            if (msg != null) {
+                sum += ((IntTbActorMsg) msg).getValue();
+                count++;
+            } else {
+                Thread.yield();
+            }
+        }
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(count).isEqualTo(producers * msgsPerProducer);
+        assertThat(sum).isEqualTo((long) producers * msgsPerProducer * (msgsPerProducer + 1) / 2);
+        assertThat(queue.poll()).isNull();
+    }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.actors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+public class TbTimingWheelSchedulerTest {
+
+    // Small wheel to make the timers cascade through several levels
+    private final TbTimingWheelScheduler scheduler = new TbTimingWheelScheduler("timing-wheel-test", 2, 5, 4);
+
+    @AfterEach
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testTimersExpireInOrderAcrossLevels() throws Exception {
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(4);
+        long start = System.nanoTime();
+        for (int delayMs : new int[]{400, 10, 150, 40}) {
+            scheduler.schedule(() -> {
+                assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(delayMs);
+                expired.add(delayMs);
+                latch.countDown();
+            }, delayMs, TimeUnit.MILLISECONDS);
+        }
+        assertThat(scheduler.getPendingTimers()).isEqualTo(4);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(expired).containsExactly(10, 40, 150, 400);
+        await().atMost(1, TimeUnit.SECONDS).until(() -> scheduler.getPendingTimers() == 0);
+        assertThat(scheduler.getExpiredTimers()).isEqualTo(4);
+    }
+
+    @Test
+    public void testCancelledTimerIsRemoved() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        ScheduledFuture<?> cancelled = scheduler.schedule(executions::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+        ScheduledFuture<String> future = scheduler.schedule(() -> "done", 1000, TimeUnit.MILLISECONDS);
+
+        assertThat(cancelled.cancel(false)).isTrue();
+        await().pollInterval(10, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> scheduler.getPendingTimers() == 1);
+
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(executions.get()).isZero();
+        assertThat(cancelled.isCancelled()).isTrue();
+        await().atMost(1, TimeUnit.SECONDS).until(() -> scheduler.getPendingTimers() == 0);
+    }
+
+    @Test
+    public void testPeriodicTimers() {
+        AtomicInteger fixedRate = new AtomicInteger();
+        AtomicInteger fixedDelay = new AtomicInteger();
+        ScheduledFuture<?> fixedRateFuture = scheduler.scheduleAtFixedRate(fixedRate::incrementAndGet, 0, 20, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> fixedDelayFuture = scheduler.scheduleWithFixedDelay(fixedDelay::incrementAndGet, 10, 20, TimeUnit.MILLISECONDS);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> fixedRate.get() >= 5 && fixedDelay.get() >= 5);
+        assertThat(scheduler.getPendingTimers()).isLessThanOrEqualTo(2);
+
+        fixedRateFuture.cancel(false);
+        fixedDelayFuture.cancel(false);
+        await().atMost(1, TimeUnit.SECONDS).until(() -> scheduler.getPendingTimers() == 0);
+        int executions = fixedRate.get();
+        await().pollDelay(100, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> true);
+        assertThat(fixedRate.get()).isLessThanOrEqualTo(executions + 1);
+    }
+
+    @Test
+    public void testShutdownRejectsNewTimers() throws InterruptedException {
+        scheduler.shutdown();
+        assertThat(scheduler.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(scheduler.isTerminated()).isTrue();
+        assertThatThrownBy(() -> scheduler.schedule(() -> {}, 1, TimeUnit.MILLISECONDS))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+}
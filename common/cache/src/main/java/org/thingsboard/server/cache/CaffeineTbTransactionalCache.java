@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.cache;
 
+import com.google.common.util.concurrent.Striped;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.CacheManager;
@@ -22,25 +23,32 @@ import org.springframework.cache.CacheManager;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Transactions and writes are synchronized per key: every key is guarded by one of {@link #LOCK_STRIPES} locks,
+ * and the transaction locks the stripes of all its keys (in the stripes order) on registration and commit.
+ * The per-key sets of transactions are only accessed under the stripe lock of the key.
+ */
 @RequiredArgsConstructor
 public abstract class CaffeineTbTransactionalCache<K extends Serializable, V extends Serializable> implements TbTransactionalCache<K, V> {
 
+    static final int LOCK_STRIPES = 256;
+
     private final CacheManager cacheManager;
     @Getter
     private final String cacheName;
 
-    private final Lock lock = new ReentrantLock();
-    private final Map<K, Set<UUID>> objectTransactions = new HashMap<>();
-    private final Map<UUID, CaffeineTbCacheTransaction<K, V>> transactions = new HashMap<>();
+    private final Striped<Lock> locks = Striped.lock(LOCK_STRIPES);
+    private final ConcurrentMap<K, Set<UUID>> objectTransactions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, CaffeineTbCacheTransaction<K, V>> transactions = new ConcurrentHashMap<>();
 
     @Override
     public TbCacheValueWrapper<V> get(K key) {
@@ -49,6 +57,7 @@ public abstract class CaffeineTbTransactionalCache<K extends Serializable, V ext
 
     @Override
     public void put(K key, V value) {
+        Lock lock = locks.get(key);
         lock.lock();
         try {
             failAllTransactionsByKey(key);
@@ -60,6 +69,7 @@ public abstract class CaffeineTbTransactionalCache<K extends Serializable, V ext
 
     @Override
     public void putIfAbsent(K key, V value) {
+        Lock lock = locks.get(key);
         lock.lock();
         try {
             failAllTransactionsByKey(key);
@@ -71,6 +81,7 @@ public abstract class CaffeineTbTransactionalCache<K extends Serializable, V ext
 
     @Override
     public void evict(K key) {
+        Lock lock = locks.get(key);
         lock.lock();
         try {
             failAllTransactionsByKey(key);
@@ -82,14 +93,14 @@ public abstract class CaffeineTbTransactionalCache<K extends Serializable, V ext
 
     @Override
     public void evict(Collection<K> keys) {
-        lock.lock();
+        Iterable<Lock> keyLocks = lockAll(keys);
         try {
-            keys.forEach(key -> {
+            for (K key : keys) {
                 failAllTransactionsByKey(key);
                 doEvict(key);
-            });
+            }
         } finally {
-            lock.unlock();
+            unlockAll(keyLocks);
         }
     }
 
@@ -118,31 +129,31 @@ public abstract class CaffeineTbTransactionalCache<K extends Serializable, V ext
     }
 
     TbCacheTransaction<K, V> newTransaction(List<K> keys) {
-        lock.lock();
+        var transaction = new CaffeineTbCacheTransaction<>(this, keys);
+        var transactionId = transaction.getId();
+        transactions.put(transactionId, transaction);
+        Iterable<Lock> keyLocks = lockAll(keys);
         try {
-            var transaction = new CaffeineTbCacheTransaction<>(this, keys);
-            var transactionId = transaction.getId();
             for (K key : keys) {
                 objectTransactions.computeIfAbsent(key, k -> new HashSet<>()).add(transactionId);
             }
-            transactions.put(transactionId, transaction);
-            return transaction;
         } finally {
-            lock.unlock();
+            unlockAll(keyLocks);
         }
+        return transaction;
     }
 
     public boolean commit(UUID trId, Map<Object, Object> pendingPuts) {
-        lock.lock();
+        var tr = transactions.get(trId);
+        Iterable<Lock> keyLocks = lockAll(tr.getKeys());
         try {
-            var tr = transactions.get(trId);
             var success = !tr.isFailed();
             if (success) {
                 for (K key : tr.getKeys()) {
                     Set<UUID> otherTransactions = objectTransactions.get(key);
                     if (otherTransactions != null) {
                         for (UUID otherTrId : otherTransactions) {
-                            if (trId == null || !trId.equals(otherTrId)) {
+                            if (!trId.equals(otherTrId)) {
                                 transactions.get(otherTrId).setFailed(true);
                             }
                         }
@@ -150,25 +161,42 @@ public abstract class CaffeineTbTransactionalCache<K extends Serializable, V ext
                 }
                 pendingPuts.forEach(this::doPutIfAbsent);
             }
-            removeTransaction(trId);
+            removeTransaction(tr);
             return success;
         } finally {
-            lock.unlock();
+            unlockAll(keyLocks);
         }
     }
 
     void rollback(UUID id) {
-        lock.lock();
-        try {
-            removeTransaction(id);
-        } finally {
+        var tr = transactions.get(id);
+        if (tr != null) {
+            Iterable<Lock> keyLocks = lockAll(tr.getKeys());
+            try {
+                removeTransaction(tr);
+            } finally {
+                unlockAll(keyLocks);
+            }
+        }
+    }
+
+    private Iterable<Lock> lockAll(Collection<K> keys) {
+        Iterable<Lock> keyLocks = keys.size() == 1 ? List.of(locks.get(keys.iterator().next())) : locks.bulkGet(keys);
+        for (Lock lock : keyLocks) {
+            lock.lock();
+        }
+        return keyLocks;
+    }
+
+    private static void unlockAll(Iterable<Lock> keyLocks) {
+        for (Lock lock : keyLocks) {
             lock.unlock();
         }
     }
 
-    private void removeTransaction(UUID id) {
-        CaffeineTbCacheTransaction<K, V> transaction = transactions.remove(id);
-        if (transaction != null) {
+    private void removeTransaction(CaffeineTbCacheTransaction<K, V> transaction) {
+        UUID id = transaction.getId();
+        if (transactions.remove(id) != null) {
             for (var key : transaction.getKeys()) {
                 Set<UUID> transactions = objectTransactions.get(key);
                 if (transactions != null) {
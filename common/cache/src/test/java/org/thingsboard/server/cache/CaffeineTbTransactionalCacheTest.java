@@ -0,0 +1,167 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CaffeineTbTransactionalCacheTest {
+
+    private static final String CACHE_NAME = "test";
+
+    private TestCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().build())));
+        cacheManager.initializeCaches();
+        cache = new TestCache(cacheManager);
+    }
+
+    @Test
+    public void givenTransaction_whenCommit_thenValueIsCached() {
+        var tr = cache.newTransactionForKey("a");
+        tr.putIfAbsent("a", "1");
+        assertThat(tr.commit()).isTrue();
+        assertThat(cache.get("a").get()).isEqualTo("1");
+    }
+
+    @Test
+    public void givenTransaction_whenKeyIsEvicted_thenCommitFails() {
+        var tr = cache.newTransactionForKeys(List.of("a", "b"));
+        tr.putIfAbsent("a", "1");
+        cache.evict("b");
+        assertThat(tr.commit()).isFalse();
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    public void givenTwoTransactions_whenFirstCommits_thenSecondFails() {
+        var first = cache.newTransactionForKey("a");
+        var second = cache.newTransactionForKeys(List.of("b", "a"));
+        first.putIfAbsent("a", "1");
+        second.putIfAbsent("a", "2");
+        assertThat(first.commit()).isTrue();
+        assertThat(second.commit()).isFalse();
+        assertThat(cache.get("a").get()).isEqualTo("1");
+    }
+
+    @Test
+    public void givenRolledBackTransaction_whenKeyIsUpdated_thenNewTransactionCommits() {
+        cache.newTransactionForKey("a").rollback();
+        cache.put("a", "1");
+        cache.evict("a");
+        var tr = cache.newTransactionForKey("a");
+        tr.putIfAbsent("a", "2");
+        assertThat(tr.commit()).isTrue();
+        assertThat(cache.get("a").get()).isEqualTo("2");
+    }
+
+    @Test
+    public void givenEvictOfSeveralKeys_whenTransactionUsesAnyOfThem_thenCommitFails() {
+        cache.put("a", "1");
+        cache.put("c", "3");
+        var tr = cache.newTransactionForKey("b");
+        tr.putIfAbsent("b", "2");
+        cache.evict(List.of("a", "b", "c"));
+        assertThat(tr.commit()).isFalse();
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNull();
+    }
+
+    /*
+     * Writers update the "database" version of the keys and then evict them, as the DAO services do.
+     * Readers register the transaction, read the current version and commit it.
+     * A commit that succeeds after a concurrent update would leave an outdated version in the cache.
+     */
+    @Test
+    public void givenConcurrentUpdatesAndTransactions_thenNoOutdatedValueIsCommitted() throws Exception {
+        int threads = 8;
+        int iterations = 2000;
+        List<String> keys = List.of("a", "b", "c", "d");
+        Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+        keys.forEach(key -> versions.put(key, new AtomicLong()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        String key = keys.get((thread + i) % keys.size());
+                        String otherKey = keys.get((thread + i + 1) % keys.size());
+                        if (thread % 4 == 0) {
+                            versions.get(key).incrementAndGet();
+                            cache.evict(key);
+                        } else if (thread % 4 == 1) {
+                            versions.get(key).incrementAndGet();
+                            versions.get(otherKey).incrementAndGet();
+                            cache.evict(List.of(key, otherKey));
+                        } else {
+                            var tr = cache.newTransactionForKeys(List.of(key, otherKey));
+                            tr.putIfAbsent(key, String.valueOf(versions.get(key).get()));
+                            tr.putIfAbsent(otherKey, String.valueOf(versions.get(otherKey).get()));
+                            tr.commit();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (String key : keys) {
+            var cached = cache.get(key);
+            if (cached != null) {
+                assertThat(cached.get()).as("cached version of %s", key).isEqualTo(String.valueOf(versions.get(key).get()));
+            }
+        }
+    }
+
+    private static class TestCache extends CaffeineTbTransactionalCache<String, String> {
+
+        TestCache(CacheManager cacheManager) {
+            super(cacheManager, CACHE_NAME);
+        }
+
+    }
+
+}
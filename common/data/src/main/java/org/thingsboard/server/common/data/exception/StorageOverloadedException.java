@@ -0,0 +1,29 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.data.exception;
+
+/**
+ * Thrown when the storage layer can't accept more writes for now, e.g. the SQL write queue is full.
+ * The write was not applied and may be retried later.
+ */
+public class StorageOverloadedException extends RuntimeException {
+
+    public StorageOverloadedException(String message) {
+        // thrown on every rejected write during the overload, so the stack trace is not collected
+        super(message, null, false, false);
+    }
+
+}
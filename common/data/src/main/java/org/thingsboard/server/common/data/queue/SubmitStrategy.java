@@ -26,4 +26,12 @@ public class SubmitStrategy implements Serializable {
 
     private SubmitStrategyType type;
     private int batchSize;
+    /**
+     * PARALLEL_BY_ORIGINATOR only: number of lanes the originators are distributed between.
+     */
+    private int lanes;
+    /**
+     * PARALLEL_BY_ORIGINATOR only: max number of messages of different originators in progress within a lane.
+     */
+    private int laneWindowSize;
 }
\ No newline at end of file
@@ -117,6 +117,12 @@ public enum MsgType {
 
     STATS_PERSIST_MSG,
 
+    /**
+     * Message that is sent by the Rule Chain Actor to the Rule Node Actor
+     * with the statistics of the messages that the rule chain actor processed inline.
+     */
+    FUSED_RULE_NODE_STATS_MSG,
+
     /**
      * Message that is sent by TransportRuleEngineService to Device Actor. Represents messages from the device itself.
      */
@@ -16,12 +16,18 @@
 package org.thingsboard.server.common.msg;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.data.id.CustomerId;
@@ -29,11 +35,21 @@ import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.EntityIdFactory;
 import org.thingsboard.server.common.data.id.RuleChainId;
 import org.thingsboard.server.common.data.id.RuleNodeId;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
+import org.thingsboard.server.common.data.kv.DataType;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.JsonDataEntry;
+import org.thingsboard.server.common.data.kv.KvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
 import org.thingsboard.server.common.data.msg.TbMsgType;
 import org.thingsboard.server.common.msg.gen.MsgProtos;
 import org.thingsboard.server.common.msg.queue.TbMsgCallback;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -48,6 +64,14 @@ public final class TbMsg implements Serializable {
     public static final String EMPTY_JSON_ARRAY = "[]";
     public static final String EMPTY_STRING = "";
 
+    private static final DataType[] KV_DATA_TYPES = new DataType[DataType.values().length];
+
+    static {
+        for (DataType dataType : DataType.values()) {
+            KV_DATA_TYPES[dataType.getProtoNumber()] = dataType;
+        }
+    }
+
     private final String queueName;
     private final UUID id;
     private final long ts;
@@ -57,7 +81,19 @@ public final class TbMsg implements Serializable {
     private final CustomerId customerId;
     private final TbMsgMetaData metaData;
     private final TbMsgDataType dataType;
-    private final String data;
+    @Getter(value = AccessLevel.NONE)
+    @Setter(value = AccessLevel.NONE)
+    private volatile String data;
+    //Parsed data shared by the copies of the message within the JVM. Never modified once assigned
+    @Getter(value = AccessLevel.NONE)
+    @Setter(value = AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @JsonIgnore
+    transient private volatile JsonNode dataNode;
+    //Typed key-value data of the KV_LIST messages. Never modified once assigned
+    @Getter(value = AccessLevel.NONE)
+    private final List<KvEntry> kvData;
     private final RuleChainId ruleChainId;
     private final RuleNodeId ruleNodeId;
     @Getter(value = AccessLevel.NONE)
@@ -99,7 +135,7 @@ public final class TbMsg implements Serializable {
     @Deprecated(since = "3.6.0")
     public static TbMsg newMsg(String queueName, String type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, String data, RuleChainId ruleChainId, RuleNodeId ruleNodeId) {
         return new TbMsg(queueName, UUID.randomUUID(), System.currentTimeMillis(), null, type, originator, customerId,
-                metaData.copy(), TbMsgDataType.JSON, data, ruleChainId, ruleNodeId, null, TbMsgCallback.EMPTY);
+                metaData.copy(), TbMsgDataType.JSON, data, null, ruleChainId, ruleNodeId, null, TbMsgCallback.EMPTY);
     }
 
     @Deprecated(since = "3.6.0", forRemoval = true)
@@ -110,7 +146,7 @@ public final class TbMsg implements Serializable {
     @Deprecated(since = "3.6.0", forRemoval = true)
     public static TbMsg newMsg(String type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, String data) {
         return new TbMsg(null, UUID.randomUUID(), System.currentTimeMillis(), null, type, originator, customerId,
-                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, TbMsgCallback.EMPTY);
+                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, null, TbMsgCallback.EMPTY);
     }
 
     public static TbMsg newMsg(String queueName, TbMsgType type, EntityId originator, TbMsgMetaData metaData, String data, RuleChainId ruleChainId, RuleNodeId ruleNodeId) {
@@ -119,7 +155,7 @@ public final class TbMsg implements Serializable {
 
     public static TbMsg newMsg(String queueName, TbMsgType type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, String data, RuleChainId ruleChainId, RuleNodeId ruleNodeId) {
         return new TbMsg(queueName, UUID.randomUUID(), System.currentTimeMillis(), type, originator, customerId,
-                metaData.copy(), TbMsgDataType.JSON, data, ruleChainId, ruleNodeId, null, TbMsgCallback.EMPTY);
+                metaData.copy(), TbMsgDataType.JSON, data, null, ruleChainId, ruleNodeId, null, TbMsgCallback.EMPTY);
     }
 
     public static TbMsg newMsg(TbMsgType type, EntityId originator, TbMsgMetaData metaData, String data) {
@@ -128,12 +164,12 @@ public final class TbMsg implements Serializable {
 
     public static TbMsg newMsg(TbMsgType type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, String data) {
         return new TbMsg(null, UUID.randomUUID(), System.currentTimeMillis(), type, originator, customerId,
-                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, TbMsgCallback.EMPTY);
+                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, null, TbMsgCallback.EMPTY);
     }
 
     public static TbMsg newMsg(TbMsgType type, EntityId originator, TbMsgMetaData metaData, String data, long ts) {
         return new TbMsg(null, UUID.randomUUID(), ts, type, originator, null,
-                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, TbMsgCallback.EMPTY);
+                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, null, TbMsgCallback.EMPTY);
     }
 
     // REALLY NEW MSG
@@ -177,13 +213,24 @@ public final class TbMsg implements Serializable {
     @Deprecated(since = "3.6.0")
     public static TbMsg newMsg(String queueName, String type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, String data) {
         return new TbMsg(queueName, UUID.randomUUID(), System.currentTimeMillis(), null, type, originator, customerId,
-                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, TbMsgCallback.EMPTY);
+                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, null, TbMsgCallback.EMPTY);
+    }
+
+    /**
+     * Creates a new message with the {@link TbMsgDataType#KV_LIST} data. Used for the telemetry received from the transports,
+     * so it reaches the rule nodes that save the telemetry without the serialization to JSON.
+     *
+     * @param kvData the key-value entries of the flat JSON object that represents the message data
+     */
+    public static TbMsg newMsg(String queueName, TbMsgType type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, List<KvEntry> kvData, RuleChainId ruleChainId, RuleNodeId ruleNodeId) {
+        return new TbMsg(queueName, UUID.randomUUID(), System.currentTimeMillis(), type, type.name(), originator, customerId,
+                metaData.copy(), TbMsgDataType.KV_LIST, null, null, List.copyOf(kvData), ruleChainId, ruleNodeId, null, TbMsgCallback.EMPTY);
     }
 
     @Deprecated(since = "3.6.0", forRemoval = true)
     public static TbMsg newMsg(String type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, TbMsgDataType dataType, String data) {
         return new TbMsg(null, UUID.randomUUID(), System.currentTimeMillis(), null, type, originator, customerId,
-                metaData.copy(), dataType, data, null, null, null, TbMsgCallback.EMPTY);
+                metaData.copy(), dataType, data, null, null, null, null, TbMsgCallback.EMPTY);
     }
 
     /**
@@ -212,12 +259,12 @@ public final class TbMsg implements Serializable {
 
     public static TbMsg newMsg(String queueName, TbMsgType type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, String data) {
         return new TbMsg(queueName, UUID.randomUUID(), System.currentTimeMillis(), type, originator, customerId,
-                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, TbMsgCallback.EMPTY);
+                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, null, TbMsgCallback.EMPTY);
     }
 
     public static TbMsg newMsg(TbMsgType type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, TbMsgDataType dataType, String data) {
         return new TbMsg(null, UUID.randomUUID(), System.currentTimeMillis(), type, originator, customerId,
-                metaData.copy(), dataType, data, null, null, null, TbMsgCallback.EMPTY);
+                metaData.copy(), dataType, data, null, null, null, null, TbMsgCallback.EMPTY);
     }
 
     public static TbMsg newMsg(TbMsgType type, EntityId originator, TbMsgMetaData metaData, TbMsgDataType dataType, String data) {
@@ -229,13 +276,13 @@ public final class TbMsg implements Serializable {
     @Deprecated(since = "3.6.0", forRemoval = true)
     public static TbMsg newMsg(String type, EntityId originator, TbMsgMetaData metaData, TbMsgDataType dataType, String data, RuleChainId ruleChainId, RuleNodeId ruleNodeId) {
         return new TbMsg(null, UUID.randomUUID(), System.currentTimeMillis(), null, type, originator, null,
-                metaData.copy(), dataType, data, ruleChainId, ruleNodeId, null, TbMsgCallback.EMPTY);
+                metaData.copy(), dataType, data, null, ruleChainId, ruleNodeId, null, TbMsgCallback.EMPTY);
     }
 
     @Deprecated(since = "3.6.0", forRemoval = true)
     public static TbMsg newMsg(String type, EntityId originator, TbMsgMetaData metaData, String data, TbMsgCallback callback) {
         return new TbMsg(null, UUID.randomUUID(), System.currentTimeMillis(), null, type, originator, null,
-                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, callback);
+                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, null, callback);
     }
 
     /**
@@ -257,77 +304,101 @@ public final class TbMsg implements Serializable {
     @Deprecated(since = "3.6.0")
     public static TbMsg transformMsg(TbMsg tbMsg, String type, EntityId originator, TbMsgMetaData metaData, String data) {
         return new TbMsg(tbMsg.queueName, tbMsg.id, tbMsg.ts, null, type, originator, tbMsg.customerId, metaData.copy(), tbMsg.dataType,
-                data, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.callback);
+                data, null, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.callback);
     }
 
     public static TbMsg newMsg(TbMsgType type, EntityId originator, TbMsgMetaData metaData, TbMsgDataType dataType, String data, RuleChainId ruleChainId, RuleNodeId ruleNodeId) {
         return new TbMsg(null, UUID.randomUUID(), System.currentTimeMillis(), type, originator, null,
-                metaData.copy(), dataType, data, ruleChainId, ruleNodeId, null, TbMsgCallback.EMPTY);
+                metaData.copy(), dataType, data, null, ruleChainId, ruleNodeId, null, TbMsgCallback.EMPTY);
     }
 
     public static TbMsg newMsg(TbMsgType type, EntityId originator, TbMsgMetaData metaData, String data, TbMsgCallback callback) {
         return new TbMsg(null, UUID.randomUUID(), System.currentTimeMillis(), type, originator, null,
-                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, callback);
+                metaData.copy(), TbMsgDataType.JSON, data, null, null, null, null, callback);
     }
 
     public static TbMsg transformMsg(TbMsg tbMsg, TbMsgType type, EntityId originator, TbMsgMetaData metaData, String data) {
         return new TbMsg(tbMsg.queueName, tbMsg.id, tbMsg.ts, type, originator, tbMsg.customerId, metaData.copy(), tbMsg.dataType,
-                data, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.callback);
+                data, null, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.callback);
     }
 
     public static TbMsg transformMsgOriginator(TbMsg tbMsg, EntityId originatorId) {
         return new TbMsg(tbMsg.queueName, tbMsg.id, tbMsg.ts, tbMsg.internalType, tbMsg.type, originatorId, tbMsg.getCustomerId(), tbMsg.metaData, tbMsg.dataType,
-                tbMsg.data, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
+                tbMsg.data, tbMsg.dataNode, tbMsg.kvData, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
     }
 
     public static TbMsg transformMsgData(TbMsg tbMsg, String data) {
         return new TbMsg(tbMsg.queueName, tbMsg.id, tbMsg.ts, tbMsg.internalType, tbMsg.type, tbMsg.originator, tbMsg.customerId, tbMsg.metaData, tbMsg.dataType,
-                data, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
+                data, null, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
+    }
+
+    /**
+     * Same as {@link #transformMsgData(TbMsg, String)}, but keeps the parsed data, so the next rule nodes don't need to parse it again.
+     * The data is serialized to string only when requested, e.g. when the message is pushed to the queue.
+     * The data node must not be modified after the call.
+     */
+    public static TbMsg transformMsgData(TbMsg tbMsg, JsonNode data) {
+        return new TbMsg(tbMsg.queueName, tbMsg.id, tbMsg.ts, tbMsg.internalType, tbMsg.type, tbMsg.originator, tbMsg.customerId, tbMsg.metaData, tbMsg.dataType,
+                data == tbMsg.dataNode ? tbMsg.data : null, data, data == tbMsg.dataNode ? tbMsg.kvData : null, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
     }
 
     public static TbMsg transformMsgMetadata(TbMsg tbMsg, TbMsgMetaData metadata) {
         return new TbMsg(tbMsg.queueName, tbMsg.id, tbMsg.ts, tbMsg.internalType, tbMsg.type, tbMsg.originator, tbMsg.customerId, metadata.copy(), tbMsg.dataType,
-                tbMsg.data, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
+                tbMsg.data, tbMsg.dataNode, tbMsg.kvData, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
     }
 
     public static TbMsg transformMsg(TbMsg tbMsg, TbMsgMetaData metadata, String data) {
         return new TbMsg(tbMsg.queueName, tbMsg.id, tbMsg.ts, tbMsg.internalType, tbMsg.type, tbMsg.originator, tbMsg.customerId, metadata, tbMsg.dataType,
-                data, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
+                data, null, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
+    }
+
+    /**
+     * Same as {@link #transformMsg(TbMsg, TbMsgMetaData, String)}, but keeps the parsed data.
+     * The data node must not be modified after the call.
+     */
+    public static TbMsg transformMsg(TbMsg tbMsg, TbMsgMetaData metadata, JsonNode data) {
+        return new TbMsg(tbMsg.queueName, tbMsg.id, tbMsg.ts, tbMsg.internalType, tbMsg.type, tbMsg.originator, tbMsg.customerId, metadata, tbMsg.dataType,
+                data == tbMsg.dataNode ? tbMsg.data : null, data, data == tbMsg.dataNode ? tbMsg.kvData : null, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
     }
 
     public static TbMsg transformMsgCustomerId(TbMsg tbMsg, CustomerId customerId) {
         return new TbMsg(tbMsg.queueName, tbMsg.id, tbMsg.ts, tbMsg.internalType, tbMsg.type, tbMsg.originator, customerId, tbMsg.metaData, tbMsg.dataType,
-                tbMsg.data, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
+                tbMsg.data, tbMsg.dataNode, tbMsg.kvData, tbMsg.ruleChainId, tbMsg.ruleNodeId, tbMsg.ctx.copy(), tbMsg.getCallback());
     }
 
     public static TbMsg transformMsgRuleChainId(TbMsg tbMsg, RuleChainId ruleChainId) {
         return new TbMsg(tbMsg.queueName, tbMsg.id, tbMsg.ts, tbMsg.internalType, tbMsg.type, tbMsg.originator, tbMsg.customerId, tbMsg.metaData, tbMsg.dataType,
-                tbMsg.data, ruleChainId, null, tbMsg.ctx.copy(), tbMsg.getCallback());
+                tbMsg.data, tbMsg.dataNode, tbMsg.kvData, ruleChainId, null, tbMsg.ctx.copy(), tbMsg.getCallback());
     }
 
     public static TbMsg transformMsgQueueName(TbMsg tbMsg, String queueName) {
         return new TbMsg(queueName, tbMsg.id, tbMsg.ts, tbMsg.internalType, tbMsg.type, tbMsg.originator, tbMsg.customerId, tbMsg.metaData, tbMsg.dataType,
-                tbMsg.data, tbMsg.getRuleChainId(), null, tbMsg.ctx.copy(), tbMsg.getCallback());
+                tbMsg.data, tbMsg.dataNode, tbMsg.kvData, tbMsg.getRuleChainId(), null, tbMsg.ctx.copy(), tbMsg.getCallback());
     }
 
     public static TbMsg transformMsg(TbMsg tbMsg, RuleChainId ruleChainId, String queueName) {
         return new TbMsg(queueName, tbMsg.id, tbMsg.ts, tbMsg.internalType, tbMsg.type, tbMsg.originator, tbMsg.customerId, tbMsg.metaData, tbMsg.dataType,
-                tbMsg.data, ruleChainId, null, tbMsg.ctx.copy(), tbMsg.getCallback());
+                tbMsg.data, tbMsg.dataNode, tbMsg.kvData, ruleChainId, null, tbMsg.ctx.copy(), tbMsg.getCallback());
     }
 
     //used for enqueueForTellNext
     public static TbMsg newMsg(TbMsg tbMsg, String queueName, RuleChainId ruleChainId, RuleNodeId ruleNodeId) {
         return new TbMsg(queueName, UUID.randomUUID(), tbMsg.getTs(), tbMsg.getInternalType(), tbMsg.getType(), tbMsg.getOriginator(), tbMsg.customerId, tbMsg.getMetaData().copy(),
-                tbMsg.getDataType(), tbMsg.getData(), ruleChainId, ruleNodeId, tbMsg.ctx.copy(), TbMsgCallback.EMPTY);
+                tbMsg.getDataType(), tbMsg.data, tbMsg.dataNode, tbMsg.kvData, ruleChainId, ruleNodeId, tbMsg.ctx.copy(), TbMsgCallback.EMPTY);
     }
 
-    private TbMsg(String queueName, UUID id, long ts, TbMsgType internalType, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, TbMsgDataType dataType, String data,
+    private TbMsg(String queueName, UUID id, long ts, TbMsgType internalType, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, TbMsgDataType dataType, String data, JsonNode dataNode,
                   RuleChainId ruleChainId, RuleNodeId ruleNodeId, TbMsgProcessingCtx ctx, TbMsgCallback callback) {
-        this(queueName, id, ts, internalType, internalType.name(), originator, customerId, metaData, dataType, data, ruleChainId, ruleNodeId, ctx, callback);
+        this(queueName, id, ts, internalType, internalType.name(), originator, customerId, metaData, dataType, data, dataNode, null, ruleChainId, ruleNodeId, ctx, callback);
     }
 
-    private TbMsg(String queueName, UUID id, long ts, TbMsgType internalType, String type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, TbMsgDataType dataType, String data,
+    private TbMsg(String queueName, UUID id, long ts, TbMsgType internalType, String type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, TbMsgDataType dataType, String data, JsonNode dataNode,
                   RuleChainId ruleChainId, RuleNodeId ruleNodeId, TbMsgProcessingCtx ctx, TbMsgCallback callback) {
+        this(queueName, id, ts, internalType, type, originator, customerId, metaData, dataType, data, dataNode, null, ruleChainId, ruleNodeId, ctx, callback);
+    }
+
+    private TbMsg(String queueName, UUID id, long ts, TbMsgType internalType, String type, EntityId originator, CustomerId customerId, TbMsgMetaData metaData, TbMsgDataType dataType, String data, JsonNode dataNode,
+                  List<KvEntry> kvData, RuleChainId ruleChainId, RuleNodeId ruleNodeId, TbMsgProcessingCtx ctx, TbMsgCallback callback) {
         this.id = id;
         this.queueName = queueName;
         if (ts > 0) {
@@ -348,8 +419,11 @@ public final class TbMsg implements Serializable {
             this.customerId = customerId;
         }
         this.metaData = metaData;
-        this.dataType = dataType;
+        // The data is replaced with JSON when the key-value list is not carried over
+        this.dataType = dataType == TbMsgDataType.KV_LIST && kvData == null ? TbMsgDataType.JSON : dataType;
         this.data = data;
+        this.dataNode = dataNode;
+        this.kvData = kvData;
         this.ruleChainId = ruleChainId;
         this.ruleNodeId = ruleNodeId;
         this.ctx = ctx != null ? ctx : new TbMsgProcessingCtx();
@@ -389,7 +463,11 @@ public final class TbMsg implements Serializable {
         }
 
         builder.setDataType(msg.getDataType().ordinal());
-        builder.setData(msg.getData());
+        if (msg.kvData != null) {
+            msg.kvData.forEach(kv -> builder.addKvData(toKvProto(kv)));
+        } else {
+            builder.setData(msg.getData());
+        }
 
         builder.setCtx(msg.ctx.toProto());
         return builder.build().toByteArray();
@@ -422,8 +500,14 @@ public final class TbMsg implements Serializable {
             }
 
             TbMsgDataType dataType = TbMsgDataType.values()[proto.getDataType()];
+            List<KvEntry> kvData = null;
+            String msgData = proto.getData();
+            if (dataType == TbMsgDataType.KV_LIST) {
+                kvData = proto.getKvDataList().stream().map(TbMsg::fromKvProto).toList();
+                msgData = null;
+            }
             return new TbMsg(queueName, UUID.fromString(proto.getId()), proto.getTs(), null, proto.getType(), entityId, customerId,
-                    metaData, dataType, proto.getData(), ruleChainId, ruleNodeId, ctx, callback);
+                    metaData, dataType, msgData, null, kvData, ruleChainId, ruleNodeId, ctx, callback);
         } catch (InvalidProtocolBufferException e) {
             throw new IllegalStateException("Could not parse protobuf for TbMsg", e);
         }
@@ -435,17 +519,57 @@ public final class TbMsg implements Serializable {
 
     public TbMsg copyWithRuleChainId(RuleChainId ruleChainId, UUID msgId) {
         return new TbMsg(this.queueName, msgId, this.ts, this.internalType, this.type, this.originator, this.customerId,
-                this.metaData, this.dataType, this.data, ruleChainId, null, this.ctx, callback);
+                this.metaData, this.dataType, this.data, this.dataNode, this.kvData, ruleChainId, null, this.ctx, callback);
     }
 
     public TbMsg copyWithRuleNodeId(RuleChainId ruleChainId, RuleNodeId ruleNodeId, UUID msgId) {
         return new TbMsg(this.queueName, msgId, this.ts, this.internalType, this.type, this.originator, this.customerId,
-                this.metaData, this.dataType, this.data, ruleChainId, ruleNodeId, this.ctx, callback);
+                this.metaData, this.dataType, this.data, this.dataNode, this.kvData, ruleChainId, ruleNodeId, this.ctx, callback);
     }
 
     public TbMsg copyWithNewCtx() {
         return new TbMsg(this.queueName, this.id, this.ts, this.internalType, this.type, this.originator, this.customerId,
-                this.metaData, this.dataType, this.data, ruleChainId, ruleNodeId, this.ctx.copy(), TbMsgCallback.EMPTY);
+                this.metaData, this.dataType, this.data, this.dataNode, this.kvData, ruleChainId, ruleNodeId, this.ctx.copy(), TbMsgCallback.EMPTY);
+    }
+
+    public String getData() {
+        String data = this.data;
+        if (data == null) {
+            JsonNode dataNode = kvData != null ? getDataAsJson() : this.dataNode;
+            if (dataNode != null) {
+                data = JacksonUtil.toString(dataNode);
+                this.data = data;
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Returns the typed key-value data of the {@link TbMsgDataType#KV_LIST} message,
+     * so the rule nodes may process it without the JSON serialization and parsing.
+     *
+     * @return unmodifiable list of the key-value entries or {@code null} if the message has a different data type
+     */
+    @JsonIgnore
+    public List<KvEntry> getKvData() {
+        return kvData;
+    }
+
+    /**
+     * Returns the message data parsed as JSON. The data is parsed once and the result is shared by the copies of the message,
+     * so it must not be modified. Use {@link JsonNode#deepCopy()} and {@link #transformMsgData(TbMsg, JsonNode)} to change the data.
+     *
+     * @return parsed message data or {@code null} if the data is empty
+     * @throws IllegalArgumentException if the data is not a valid JSON
+     */
+    @JsonIgnore
+    public JsonNode getDataAsJson() {
+        JsonNode dataNode = this.dataNode;
+        if (dataNode == null) {
+            dataNode = kvData != null ? toJson(kvData) : JacksonUtil.toJsonNode(data);
+            this.dataNode = dataNode;
+        }
+        return dataNode;
     }
 
     public TbMsgCallback getCallback() {
@@ -480,6 +604,49 @@ public final class TbMsg implements Serializable {
         return ts;
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getData();
+        out.defaultWriteObject();
+    }
+
+    private static JsonNode toJson(List<KvEntry> kvData) {
+        ObjectNode json = JacksonUtil.newObjectNode();
+        for (KvEntry kv : kvData) {
+            switch (kv.getDataType()) {
+                case BOOLEAN -> kv.getBooleanValue().ifPresent(value -> json.put(kv.getKey(), value));
+                case LONG -> kv.getLongValue().ifPresent(value -> json.put(kv.getKey(), value));
+                case DOUBLE -> kv.getDoubleValue().ifPresent(value -> json.put(kv.getKey(), value));
+                case STRING -> kv.getStrValue().ifPresent(value -> json.put(kv.getKey(), value));
+                case JSON -> kv.getJsonValue().ifPresent(value -> json.set(kv.getKey(), JacksonUtil.toJsonNode(value)));
+            }
+        }
+        return json;
+    }
+
+    private static MsgProtos.TbMsgKvProto toKvProto(KvEntry kv) {
+        MsgProtos.TbMsgKvProto.Builder builder = MsgProtos.TbMsgKvProto.newBuilder()
+                .setKey(kv.getKey())
+                .setType(kv.getDataType().getProtoNumber());
+        switch (kv.getDataType()) {
+            case BOOLEAN -> kv.getBooleanValue().ifPresent(builder::setBoolV);
+            case LONG -> kv.getLongValue().ifPresent(builder::setLongV);
+            case DOUBLE -> kv.getDoubleValue().ifPresent(builder::setDoubleV);
+            case STRING -> kv.getStrValue().ifPresent(builder::setStringV);
+            case JSON -> kv.getJsonValue().ifPresent(builder::setJsonV);
+        }
+        return builder.build();
+    }
+
+    private static KvEntry fromKvProto(MsgProtos.TbMsgKvProto proto) {
+        return switch (KV_DATA_TYPES[proto.getType()]) {
+            case BOOLEAN -> new BooleanDataEntry(proto.getKey(), proto.getBoolV());
+            case LONG -> new LongDataEntry(proto.getKey(), proto.getLongV());
+            case DOUBLE -> new DoubleDataEntry(proto.getKey(), proto.getDoubleV());
+            case STRING -> new StringDataEntry(proto.getKey(), proto.getStringV());
+            case JSON -> new JsonDataEntry(proto.getKey(), proto.getJsonV());
+        };
+    }
+
     private TbMsgType getInternalType(String type) {
         try {
             return TbMsgType.valueOf(type);
@@ -21,6 +21,11 @@ package org.thingsboard.server.common.msg;
 public enum TbMsgDataType {
 
     // Do not change ordering. We use ordinal to save some bytes on serialization
-    JSON, TEXT, BINARY;
+    JSON, TEXT, BINARY,
+    /**
+     * Flat JSON object stored as a typed key-value list and serialized as protobuf.
+     * The JSON representation is materialized lazily, when the message data is requested as text or JSON.
+     */
+    KV_LIST;
 
 }
@@ -0,0 +1,121 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.msg;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.JsonDataEntry;
+import org.thingsboard.server.common.data.kv.KvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.msg.queue.TbMsgCallback;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TbMsgTest {
+
+    private static final String DATA = "{\"temperature\":42,\"humidity\":77}";
+
+    private final TbMsg msg = TbMsg.newMsg(TbMsgType.POST_TELEMETRY_REQUEST, new DeviceId(UUID.randomUUID()), TbMsgMetaData.EMPTY, DATA);
+
+    @Test
+    public void givenJsonData_whenGetDataAsJson_thenParsedOnceAndSharedWithCopies() {
+        JsonNode dataNode = msg.getDataAsJson();
+
+        assertThat(dataNode).isEqualTo(JacksonUtil.toJsonNode(DATA));
+        assertThat(msg.getDataAsJson()).isSameAs(dataNode);
+        assertThat(msg.copyWithNewCtx().getDataAsJson()).isSameAs(dataNode);
+        assertThat(TbMsg.transformMsgMetadata(msg, new TbMsgMetaData()).getDataAsJson()).isSameAs(dataNode);
+    }
+
+    @Test
+    public void givenTransformedJsonData_whenGetData_thenSerializedOnDemand() {
+        ObjectNode newData = msg.getDataAsJson().deepCopy();
+        newData.put("pressure", 1000);
+
+        TbMsg transformed = TbMsg.transformMsgData(msg, newData);
+
+        assertThat(transformed.getDataAsJson()).isSameAs(newData);
+        assertThat(transformed.getData()).isEqualTo("{\"temperature\":42,\"humidity\":77,\"pressure\":1000}");
+        assertThat(msg.getData()).isEqualTo(DATA);
+    }
+
+    @Test
+    public void givenUnchangedJsonData_whenTransformMsg_thenOriginalDataReused() {
+        TbMsg transformed = TbMsg.transformMsg(msg, new TbMsgMetaData(), msg.getDataAsJson());
+
+        assertThat(transformed.getData()).isSameAs(msg.getData());
+    }
+
+    @Test
+    public void givenTransformedJsonData_whenSerializedToBytes_thenDataPreserved() {
+        ObjectNode newData = JacksonUtil.newObjectNode().put("temperature", 43);
+        TbMsg transformed = TbMsg.transformMsgData(msg, newData);
+
+        TbMsg restored = TbMsg.fromBytes("Main", TbMsg.toByteArray(transformed), TbMsgCallback.EMPTY);
+
+        assertThat(restored.getData()).isEqualTo("{\"temperature\":43}");
+        assertThat(restored.getDataAsJson()).isEqualTo(newData);
+    }
+
+    @Test
+    public void givenInvalidJsonData_whenGetDataAsJson_thenIllegalArgumentException() {
+        TbMsg invalidMsg = TbMsg.transformMsgData(msg, "{temperature");
+
+        assertThatThrownBy(invalidMsg::getDataAsJson).isInstanceOf(IllegalArgumentException.class);
+        assertThat(invalidMsg.getData()).isEqualTo("{temperature");
+    }
+
+    @Test
+    public void givenKvListData_whenSerializedToBytes_thenKvDataPreservedWithoutJson() {
+        List<KvEntry> kvData = List.of(new LongDataEntry("temperature", 42L), new DoubleDataEntry("humidity", 77.5),
+                new BooleanDataEntry("active", true), new StringDataEntry("status", "ok"), new JsonDataEntry("location", "{\"lat\":1.5}"));
+        TbMsg kvMsg = TbMsg.newMsg("Main", TbMsgType.POST_TELEMETRY_REQUEST, new DeviceId(UUID.randomUUID()), null, TbMsgMetaData.EMPTY, kvData, null, null);
+
+        TbMsg restored = TbMsg.fromBytes("Main", TbMsg.toByteArray(kvMsg), TbMsgCallback.EMPTY);
+
+        assertThat(restored.getDataType()).isEqualTo(TbMsgDataType.KV_LIST);
+        assertThat(restored.getKvData()).containsExactlyElementsOf(kvData);
+        assertThat(restored.getKvData()).extracting(KvEntry::getValue).containsExactlyElementsOf(kvData.stream().map(KvEntry::getValue).toList());
+        assertThat(restored.getData()).isEqualTo("{\"temperature\":42,\"humidity\":77.5,\"active\":true,\"status\":\"ok\",\"location\":{\"lat\":1.5}}");
+        assertThat(restored.getDataAsJson().get("temperature").isLong()).isTrue();
+    }
+
+    @Test
+    public void givenKvListData_whenTransformMsgData_thenJsonDataType() {
+        TbMsg kvMsg = TbMsg.newMsg("Main", TbMsgType.POST_TELEMETRY_REQUEST, new DeviceId(UUID.randomUUID()), null, TbMsgMetaData.EMPTY,
+                List.of(new LongDataEntry("temperature", 42L)), null, null);
+
+        assertThat(TbMsg.transformMsgMetadata(kvMsg, new TbMsgMetaData()).getKvData()).isSameAs(kvMsg.getKvData());
+        assertThat(TbMsg.transformMsgData(kvMsg, kvMsg.getDataAsJson()).getDataType()).isEqualTo(TbMsgDataType.KV_LIST);
+
+        TbMsg transformed = TbMsg.transformMsgData(kvMsg, "{\"temperature\":43}");
+        assertThat(transformed.getDataType()).isEqualTo(TbMsgDataType.JSON);
+        assertThat(transformed.getKvData()).isNull();
+        assertThat(TbMsg.fromBytes("Main", TbMsg.toByteArray(transformed), TbMsgCallback.EMPTY).getData()).isEqualTo("{\"temperature\":43}");
+    }
+
+}
@@ -77,6 +77,11 @@ public class HashPartitionService implements PartitionService {
 
     private final ConcurrentMap<QueueKey, String> partitionTopicsMap = new ConcurrentHashMap<>();
     private final ConcurrentMap<QueueKey, Integer> partitionSizesMap = new ConcurrentHashMap<>();
+    /**
+     * Immutable topic partition infos of each queue, indexed by partition. Rebuilt on any change of the queues or of the partitions
+     * assigned to the current service, so that resolving the partition of the entity doesn't need to build them on every message.
+     */
+    private volatile ConcurrentMap<QueueKey, TopicPartitionInfo[]> partitionTables = new ConcurrentHashMap<>();
 
     private final ConcurrentMap<TenantId, TenantRoutingInfo> tenantRoutingInfoMap = new ConcurrentHashMap<>();
 
@@ -85,6 +90,7 @@ public class HashPartitionService implements PartitionService {
     private volatile Map<TenantProfileId, List<ServiceInfo>> responsibleServices = Collections.emptyMap();
 
     private HashFunction hashFunction;
+    private boolean murmur3_128;
 
     public HashPartitionService(TbServiceInfoProvider serviceInfoProvider,
                                 TenantRoutingInfoService tenantRoutingInfoService,
@@ -101,13 +107,16 @@ public class HashPartitionService implements PartitionService {
     @PostConstruct
     public void init() {
         this.hashFunction = forName(hashFunctionName);
+        this.murmur3_128 = "murmur3_128".equals(hashFunctionName);
         QueueKey coreKey = new QueueKey(ServiceType.TB_CORE);
         partitionSizesMap.put(coreKey, corePartitions);
         partitionTopicsMap.put(coreKey, coreTopic);
+        updatePartitionTable(coreKey);
 
         QueueKey vcKey = new QueueKey(ServiceType.TB_VC_EXECUTOR);
         partitionSizesMap.put(vcKey, vcPartitions);
         partitionTopicsMap.put(vcKey, vcTopic);
+        updatePartitionTable(vcKey);
 
         if (!isTransport(serviceInfoProvider.getServiceType())) {
             doInitRuleEnginePartitions();
@@ -132,6 +141,7 @@ public class HashPartitionService implements PartitionService {
             QueueKey queueKey = new QueueKey(ServiceType.TB_RULE_ENGINE, queue);
             partitionTopicsMap.put(queueKey, queue.getQueueTopic());
             partitionSizesMap.put(queueKey, queue.getPartitions());
+            updatePartitionTable(queueKey);
         });
     }
 
@@ -178,6 +188,7 @@ public class HashPartitionService implements PartitionService {
             QueueKey queueKey = new QueueKey(ServiceType.TB_RULE_ENGINE, queueUpdateMsg.getQueueName(), tenantId);
             partitionTopicsMap.put(queueKey, queueUpdateMsg.getQueueTopic());
             partitionSizesMap.put(queueKey, queueUpdateMsg.getPartitions());
+            updatePartitionTable(queueKey);
             if (!tenantId.isSysTenantId()) {
                 tenantRoutingInfoMap.remove(tenantId);
             }
@@ -196,6 +207,7 @@ public class HashPartitionService implements PartitionService {
             myPartitions.remove(queueKey);
             partitionTopicsMap.remove(queueKey);
             partitionSizesMap.remove(queueKey);
+            removePartitionTable(queueKey);
             evictTenantInfo(queueKey.getTenantId());
         });
         if (serviceInfoProvider.isService(ServiceType.TB_RULE_ENGINE)) {
@@ -213,6 +225,7 @@ public class HashPartitionService implements PartitionService {
             myPartitions.remove(queueKey);
             partitionTopicsMap.remove(queueKey);
             partitionSizesMap.remove(queueKey);
+            removePartitionTable(queueKey);
         });
         evictTenantInfo(tenantId);
     }
@@ -289,15 +302,15 @@ public class HashPartitionService implements PartitionService {
     }
 
     private TopicPartitionInfo resolve(QueueKey queueKey, EntityId entityId) {
-        Integer partitionSize = partitionSizesMap.get(queueKey);
-        if (partitionSize == null) {
+        TopicPartitionInfo[] partitionTable = partitionTables.get(queueKey);
+        if (partitionTable == null) {
             throw new IllegalStateException("Partitions info for queue " + queueKey + " is missing");
         }
 
         int hash = hash(entityId.getId());
-        int partition = Math.abs(hash % partitionSize);
+        int partition = Math.abs(hash % partitionTable.length);
 
-        return buildTopicPartitionInfo(queueKey, partition);
+        return partitionTable[partition];
     }
 
     @Override
@@ -333,7 +346,10 @@ public class HashPartitionService implements PartitionService {
         this.responsibleServices = responsibleServices;
 
         final ConcurrentMap<QueueKey, List<Integer>> oldPartitions = myPartitions;
+        final ConcurrentMap<QueueKey, TopicPartitionInfo[]> newPartitionTables = new ConcurrentHashMap<>();
+        partitionSizesMap.forEach((queueKey, size) -> newPartitionTables.put(queueKey, buildPartitionTable(queueKey, size, newPartitions)));
         myPartitions = newPartitions;
+        partitionTables = newPartitionTables;
 
         Map<QueueKey, Set<TopicPartitionInfo>> changedPartitionsMap = new HashMap<>();
 
@@ -477,7 +493,30 @@ public class HashPartitionService implements PartitionService {
         return currentMap;
     }
 
+    private synchronized void updatePartitionTable(QueueKey queueKey) {
+        Integer partitionSize = partitionSizesMap.get(queueKey);
+        if (partitionSize != null) {
+            partitionTables.put(queueKey, buildPartitionTable(queueKey, partitionSize, myPartitions));
+        }
+    }
+
+    private synchronized void removePartitionTable(QueueKey queueKey) {
+        partitionTables.remove(queueKey);
+    }
+
+    private TopicPartitionInfo[] buildPartitionTable(QueueKey queueKey, int partitionSize, Map<QueueKey, List<Integer>> myPartitions) {
+        TopicPartitionInfo[] partitionTable = new TopicPartitionInfo[partitionSize];
+        for (int partition = 0; partition < partitionSize; partition++) {
+            partitionTable[partition] = buildTopicPartitionInfo(queueKey, partition, myPartitions);
+        }
+        return partitionTable;
+    }
+
     private TopicPartitionInfo buildTopicPartitionInfo(QueueKey queueKey, int partition) {
+        return buildTopicPartitionInfo(queueKey, partition, myPartitions);
+    }
+
+    private TopicPartitionInfo buildTopicPartitionInfo(QueueKey queueKey, int partition, Map<QueueKey, List<Integer>> myPartitions) {
         TopicPartitionInfo.TopicPartitionInfoBuilder tpi = TopicPartitionInfo.builder();
         tpi.topic(topicService.buildTopicName(partitionTopicsMap.get(queueKey)));
         tpi.partition(partition);
@@ -509,7 +548,11 @@ public class HashPartitionService implements PartitionService {
     }
 
     private TenantRoutingInfo getRoutingInfo(TenantId tenantId) {
-        return tenantRoutingInfoMap.computeIfAbsent(tenantId, tenantRoutingInfoService::getRoutingInfo);
+        TenantRoutingInfo routingInfo = tenantRoutingInfoMap.get(tenantId);
+        if (routingInfo == null) {
+            routingInfo = tenantRoutingInfoMap.computeIfAbsent(tenantId, tenantRoutingInfoService::getRoutingInfo);
+        }
+        return routingInfo;
     }
 
     protected TenantId getIsolatedOrSystemTenantId(ServiceType serviceType, TenantId tenantId) {
@@ -596,6 +639,9 @@ public class HashPartitionService implements PartitionService {
     }
 
     private int hash(UUID key) {
+        if (murmur3_128) {
+            return UuidMurmur3Hash.hash(key);
+        }
         return hashFunction.newHasher()
                 .putLong(key.getMostSignificantBits())
                 .putLong(key.getLeastSignificantBits())
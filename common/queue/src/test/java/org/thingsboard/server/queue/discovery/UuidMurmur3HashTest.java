@@ -0,0 +1,49 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.discovery;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidMurmur3HashTest {
+
+    private final HashFunction hashFunction = Hashing.murmur3_128();
+
+    @Test
+    void testHashIsSameAsGuavaMurmur3_128() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 100000; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            assertThat(UuidMurmur3Hash.hash(uuid)).as(uuid.toString()).isEqualTo(guavaHash(uuid));
+        }
+        UUID nullUuid = new UUID(0, 0);
+        assertThat(UuidMurmur3Hash.hash(nullUuid)).isEqualTo(guavaHash(nullUuid));
+    }
+
+    private int guavaHash(UUID uuid) {
+        return hashFunction.newHasher()
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .hash().asInt();
+    }
+
+}
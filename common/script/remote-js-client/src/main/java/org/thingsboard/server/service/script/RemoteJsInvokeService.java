@@ -39,6 +39,9 @@ import org.thingsboard.server.queue.common.TbProtoQueueMsg;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -67,6 +70,9 @@ public class RemoteJsInvokeService extends AbstractJsInvokeService {
     @Value("${queue.js.max_exec_requests_timeout:2000}")
     private long maxExecRequestsTimeout;
 
+    @Value("${js.remote.batch_invoke_enabled:false}")
+    private boolean batchInvokeEnabled;
+
     @Getter
     @Value("${js.remote.max_errors}")
     private int maxErrors;
@@ -190,6 +196,74 @@ public class RemoteJsInvokeService extends AbstractJsInvokeService {
         }, callbackExecutor);
     }
 
+    @Override
+    protected List<ListenableFuture<Object>> doInvokeFunctions(UUID scriptId, JsScriptInfo jsInfo, List<Object[]> argsList) {
+        if (!batchInvokeEnabled) {
+            return super.doInvokeFunctions(scriptId, jsInfo, argsList);
+        }
+        var scriptHash = jsInfo.getHash();
+        String scriptBody = scriptHashToBodysMap.get(scriptHash);
+        if (scriptBody == null) {
+            return Collections.nCopies(argsList.size(), Futures.immediateFailedFuture(new RuntimeException("No script body found for script hash [" + scriptHash + "] (script id: [" + scriptId + "])")));
+        }
+
+        UUID requestKey = UUID.randomUUID();
+        ListenableFuture<JsInvokeProtos.JsInvokeResponse> batchFuture = sendBatchInvokeRequest(requestKey, scriptId, jsInfo, argsList, scriptBody, false);
+        List<ListenableFuture<Object>> results = new ArrayList<>(argsList.size());
+        for (int i = 0; i < argsList.size(); i++) {
+            int idx = i;
+            results.add(Futures.transformAsync(batchFuture, batchResult -> {
+                if (!batchResult.getSuccess()) {
+                    return handleInvokeError(requestKey, scriptId, jsInfo, batchResult.getErrorCode(), batchResult.getErrorDetails(), null, argsList.get(idx));
+                }
+                if (batchResult.getBatchResultsCount() != argsList.size()) {
+                    throw new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, scriptBody,
+                            new RuntimeException("Remote JS executor does not support batch invocation"));
+                }
+                JsInvokeProtos.JsInvokeResponse invokeResult = batchResult.getBatchResults(idx);
+                if (invokeResult.getSuccess()) {
+                    return Futures.immediateFuture(invokeResult.getResult());
+                } else {
+                    return handleInvokeError(requestKey, scriptId, jsInfo, invokeResult.getErrorCode(), invokeResult.getErrorDetails(), scriptBody, argsList.get(idx));
+                }
+            }, MoreExecutors.directExecutor()));
+        }
+        return results;
+    }
+
+    private ListenableFuture<JsInvokeProtos.JsInvokeResponse> sendBatchInvokeRequest(UUID requestKey, UUID scriptId, JsScriptInfo jsInfo, List<Object[]> argsList,
+                                                                                   String scriptBody, boolean includeScriptBody) {
+        JsInvokeProtos.JsInvokeRequest.Builder jsRequestBuilder = JsInvokeProtos.JsInvokeRequest.newBuilder()
+                .setScriptHash(jsInfo.getHash())
+                .setFunctionName(jsInfo.getFunctionName())
+                .setTimeout((int) maxExecRequestsTimeout);
+        if (includeScriptBody) {
+            jsRequestBuilder.setScriptBody(scriptBody);
+        }
+        for (Object[] args : argsList) {
+            JsInvokeProtos.JsInvokeArgs.Builder argsBuilder = JsInvokeProtos.JsInvokeArgs.newBuilder();
+            for (Object arg : args) {
+                argsBuilder.addArgs(arg.toString());
+            }
+            jsRequestBuilder.addBatchArgs(argsBuilder);
+        }
+        JsInvokeProtos.RemoteJsRequest jsRequestWrapper = JsInvokeProtos.RemoteJsRequest.newBuilder()
+                .setInvokeRequest(jsRequestBuilder.build())
+                .build();
+
+        log.trace("[{}] Post batch invoke request of {} invocations (hash: {})", scriptId, argsList.size(), jsInfo.getHash());
+        ListenableFuture<TbProtoQueueMsg<JsInvokeProtos.RemoteJsResponse>> future = requestTemplate.send(new TbProtoJsQueueMsg<>(requestKey, jsRequestWrapper));
+        return Futures.transformAsync(future, response -> {
+            JsInvokeProtos.JsInvokeResponse invokeResult = response.getValue().getInvokeResponse();
+            if (!invokeResult.getSuccess() && !includeScriptBody
+                    && JsInvokeProtos.JsInvokeErrorCode.NOT_FOUND_ERROR.equals(invokeResult.getErrorCode())) {
+                log.debug("[{}] Remote JS executor couldn't find the script, sending batch invoke request again with script body", scriptId);
+                return sendBatchInvokeRequest(requestKey, scriptId, jsInfo, argsList, scriptBody, true);
+            }
+            return Futures.immediateFuture(invokeResult);
+        }, callbackExecutor);
+    }
+
     private JsInvokeProtos.RemoteJsRequest buildJsInvokeRequest(JsScriptInfo jsInfo, Object[] args, boolean includeScriptBody, String scriptBody) {
         JsInvokeProtos.JsInvokeRequest.Builder jsRequestBuilder = JsInvokeProtos.JsInvokeRequest.newBuilder()
                 .setScriptHash(jsInfo.getHash())
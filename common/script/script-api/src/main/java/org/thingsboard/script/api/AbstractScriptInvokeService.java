@@ -26,6 +26,9 @@ import org.thingsboard.server.common.data.ApiUsageRecordKey;
 import org.thingsboard.server.common.data.id.CustomerId;
 import org.thingsboard.server.common.data.id.TenantId;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -84,6 +87,18 @@ public abstract class AbstractScriptInvokeService implements ScriptInvokeService
 
     protected abstract TbScriptExecutionTask doInvokeFunction(UUID scriptId, Object[] args);
 
+    /**
+     * Invokes the script once per element of the args list. Implementations may override it
+     * to execute the whole batch as a single task or a single remote request.
+     */
+    protected List<? extends TbScriptExecutionTask> doInvokeFunctions(UUID scriptId, List<Object[]> argsList) {
+        List<TbScriptExecutionTask> tasks = new ArrayList<>(argsList.size());
+        for (Object[] args : argsList) {
+            tasks.add(doInvokeFunction(scriptId, args));
+        }
+        return tasks;
+    }
+
     protected abstract void doRelease(UUID scriptId) throws Exception;
 
     public void init() {
@@ -129,42 +144,85 @@ public abstract class AbstractScriptInvokeService implements ScriptInvokeService
 
     @Override
     public ListenableFuture<Object> invokeScript(TenantId tenantId, CustomerId customerId, UUID scriptId, Object... args) {
-        if (isExecEnabled(tenantId)) {
-            if (!isScriptPresent(scriptId)) {
-                return error("No compiled script found for scriptId: [" + scriptId + "]!");
-            }
-            if (!isDisabled(scriptId)) {
-                if (argsSizeExceeded(args)) {
-                    TbScriptException t = new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, null, new IllegalArgumentException(
-                            format("Script input arguments exceed maximum allowed total args size of %s symbols", getMaxTotalArgsSize())
-                    ));
-                    return Futures.immediateFailedFuture(handleScriptException(scriptId, null, t));
-                }
-                reportExecution(tenantId, customerId);
-                pushedMsgs.incrementAndGet();
-                log.trace("[{}] InvokeScript uuid {} with timeout {}ms", tenantId, scriptId, getMaxInvokeRequestsTimeout());
-                var task = doInvokeFunction(scriptId, args);
-
-                var resultFuture = Futures.transform(task.getResultFuture(), output -> {
-                    String result = JacksonUtil.toString(output);
-                    if (resultSizeExceeded(result)) {
-                        throw new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, null, new RuntimeException(
-                                format("Script invocation result exceeds maximum allowed size of %s symbols", getMaxResultSize())
-                        ));
-                    }
-                    return output;
-                }, MoreExecutors.directExecutor());
-
-                return withTimeoutAndStatsCallback(scriptId, task, resultFuture, invokeCallback, getMaxInvokeRequestsTimeout());
+        ListenableFuture<Object> rejected = checkInvocationAllowed(tenantId, scriptId);
+        if (rejected != null) {
+            return rejected;
+        }
+        if (argsSizeExceeded(args)) {
+            return argsSizeExceededError(scriptId);
+        }
+        reportExecution(tenantId, customerId);
+        pushedMsgs.incrementAndGet();
+        log.trace("[{}] InvokeScript uuid {} with timeout {}ms", tenantId, scriptId, getMaxInvokeRequestsTimeout());
+        return toResultFuture(scriptId, doInvokeFunction(scriptId, args));
+    }
+
+    @Override
+    public List<ListenableFuture<Object>> invokeScripts(TenantId tenantId, CustomerId customerId, UUID scriptId, List<Object[]> argsList) {
+        ListenableFuture<Object> rejected = checkInvocationAllowed(tenantId, scriptId);
+        if (rejected != null) {
+            return Collections.nCopies(argsList.size(), rejected);
+        }
+        List<ListenableFuture<Object>> results = new ArrayList<>(Collections.nCopies(argsList.size(), null));
+        List<Object[]> validArgs = new ArrayList<>(argsList.size());
+        List<Integer> validArgsIdx = new ArrayList<>(argsList.size());
+        for (int i = 0; i < argsList.size(); i++) {
+            Object[] args = argsList.get(i);
+            if (argsSizeExceeded(args)) {
+                results.set(i, argsSizeExceededError(scriptId));
             } else {
-                String message = "Script invocation is blocked due to maximum error count "
-                        + getMaxErrors() + ", scriptId " + scriptId + "!";
-                log.warn("[{}] " + message, tenantId);
-                return error(message);
+                validArgs.add(args);
+                validArgsIdx.add(i);
             }
-        } else {
+        }
+        if (!validArgs.isEmpty()) {
+            validArgs.forEach(args -> reportExecution(tenantId, customerId));
+            pushedMsgs.addAndGet(validArgs.size());
+            log.trace("[{}] InvokeScripts uuid {}, batch size {} with timeout {}ms", tenantId, scriptId, validArgs.size(), getMaxInvokeRequestsTimeout());
+            List<? extends TbScriptExecutionTask> tasks = validArgs.size() == 1 ?
+                    Collections.singletonList(doInvokeFunction(scriptId, validArgs.get(0))) : doInvokeFunctions(scriptId, validArgs);
+            for (int i = 0; i < tasks.size(); i++) {
+                results.set(validArgsIdx.get(i), toResultFuture(scriptId, tasks.get(i)));
+            }
+        }
+        return results;
+    }
+
+    private ListenableFuture<Object> checkInvocationAllowed(TenantId tenantId, UUID scriptId) {
+        if (!isExecEnabled(tenantId)) {
             return error("Script execution is disabled due to API limits!");
         }
+        if (!isScriptPresent(scriptId)) {
+            return error("No compiled script found for scriptId: [" + scriptId + "]!");
+        }
+        if (isDisabled(scriptId)) {
+            String message = "Script invocation is blocked due to maximum error count "
+                    + getMaxErrors() + ", scriptId " + scriptId + "!";
+            log.warn("[{}] " + message, tenantId);
+            return error(message);
+        }
+        return null;
+    }
+
+    private ListenableFuture<Object> argsSizeExceededError(UUID scriptId) {
+        TbScriptException t = new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, null, new IllegalArgumentException(
+                format("Script input arguments exceed maximum allowed total args size of %s symbols", getMaxTotalArgsSize())
+        ));
+        return Futures.immediateFailedFuture(handleScriptException(scriptId, null, t));
+    }
+
+    private ListenableFuture<Object> toResultFuture(UUID scriptId, TbScriptExecutionTask task) {
+        var resultFuture = Futures.transform(task.getResultFuture(), output -> {
+            String result = JacksonUtil.toString(output);
+            if (resultSizeExceeded(result)) {
+                throw new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, null, new RuntimeException(
+                        format("Script invocation result exceeds maximum allowed size of %s symbols", getMaxResultSize())
+                ));
+            }
+            return output;
+        }, MoreExecutors.directExecutor());
+
+        return withTimeoutAndStatsCallback(scriptId, task, resultFuture, invokeCallback, getMaxInvokeRequestsTimeout());
     }
 
     private <T extends V, V> ListenableFuture<T> withTimeoutAndStatsCallback(UUID scriptId, TbScriptExecutionTask task, ListenableFuture<T> future, FutureCallback<V> statsCallback, long timeout) {
@@ -247,7 +305,7 @@ public abstract class AbstractScriptInvokeService implements ScriptInvokeService
         }
     }
 
-    private boolean scriptBodySizeExceeded(String scriptBody) {
+    protected boolean scriptBodySizeExceeded(String scriptBody) {
         if (getMaxScriptBodySize() <= 0) return false;
         return scriptBody.length() > getMaxScriptBodySize();
     }
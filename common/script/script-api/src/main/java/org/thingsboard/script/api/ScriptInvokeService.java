@@ -20,6 +20,7 @@ import org.thingsboard.server.common.data.id.CustomerId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.script.ScriptLanguage;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface ScriptInvokeService {
@@ -28,6 +29,14 @@ public interface ScriptInvokeService {
 
     ListenableFuture<Object> invokeScript(TenantId tenantId, CustomerId customerId, UUID scriptId, Object... args);
 
+    /**
+     * Invokes the script for each element of the args list, shipping the whole batch
+     * in one execution task or remote request where the implementation supports it.
+     *
+     * @return result futures in the order of the args list
+     */
+    List<ListenableFuture<Object>> invokeScripts(TenantId tenantId, CustomerId customerId, UUID scriptId, List<Object[]> argsList);
+
     ListenableFuture<Void> release(UUID scriptId);
 
     ScriptLanguage getLanguage();
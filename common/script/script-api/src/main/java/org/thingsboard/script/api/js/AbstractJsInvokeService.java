@@ -29,10 +29,12 @@ import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.stats.TbApiUsageReportClient;
 import org.thingsboard.server.common.stats.TbApiUsageStateClient;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Created by ashvayka on 26.09.18.
@@ -79,6 +81,13 @@ public abstract class AbstractJsInvokeService extends AbstractScriptInvokeServic
         return new JsScriptExecutionTask(doInvokeFunction(scriptId, scriptInfoMap.get(scriptId), args));
     }
 
+    @Override
+    protected List<JsScriptExecutionTask> doInvokeFunctions(UUID scriptId, List<Object[]> argsList) {
+        return doInvokeFunctions(scriptId, scriptInfoMap.get(scriptId), argsList).stream()
+                .map(JsScriptExecutionTask::new)
+                .collect(Collectors.toList());
+    }
+
     @Override
     protected ListenableFuture<UUID> doEvalScript(TenantId tenantId, ScriptType scriptType, String scriptBody, UUID scriptId, String[] argNames) {
         String scriptHash = hash(tenantId, scriptBody);
@@ -96,6 +105,12 @@ public abstract class AbstractJsInvokeService extends AbstractScriptInvokeServic
 
     protected abstract ListenableFuture<Object> doInvokeFunction(UUID scriptId, JsScriptInfo jsInfo, Object[] args);
 
+    protected List<ListenableFuture<Object>> doInvokeFunctions(UUID scriptId, JsScriptInfo jsInfo, List<Object[]> argsList) {
+        return argsList.stream()
+                .map(args -> doInvokeFunction(scriptId, jsInfo, args))
+                .collect(Collectors.toList());
+    }
+
     protected abstract void doRelease(UUID scriptId, JsScriptInfo scriptInfo) throws Exception;
 
     private String generateJsScript(ScriptType scriptType, String functionName, String scriptBody, String... argNames) {
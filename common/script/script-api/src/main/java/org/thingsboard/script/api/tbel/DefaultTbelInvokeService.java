@@ -19,9 +19,11 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -50,14 +52,20 @@ import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -68,8 +76,20 @@ public class DefaultTbelInvokeService extends AbstractScriptInvokeService implem
 
     protected final Map<UUID, String> scriptIdToHash = new ConcurrentHashMap<>();
     protected final Map<String, TbelScript> scriptMap = new ConcurrentHashMap<>();
+    // Number of script ids per script hash and number of scripts per compiled script hash, guarded by the lock
+    private final Map<String, Integer> scriptRefs = new HashMap<>();
+    private final Map<String, Integer> compiledScriptRefs = new HashMap<>();
+    /**
+     * Compiled scripts keyed by the hash of the script body only, so identical bodies
+     * evaluated with different argument names or by different tenants share one compiled artifact.
+     */
     protected Cache<String, Serializable> compiledScriptsCache;
 
+    private final AtomicInteger compiledScriptsLookups = new AtomicInteger(0);
+    private final AtomicInteger compiledScriptsMisses = new AtomicInteger(0);
+    private final AtomicInteger compilations = new AtomicInteger(0);
+    private final AtomicLong compilationTimeNanos = new AtomicLong(0);
+
     private SandboxedParserConfiguration parserConfig;
     private final Optional<TbApiUsageStateClient> apiUsageStateClient;
     private final Optional<TbApiUsageReportClient> apiUsageReportClient;
@@ -121,6 +141,17 @@ public class DefaultTbelInvokeService extends AbstractScriptInvokeService implem
     @Scheduled(fixedDelayString = "${tbel.stats.print_interval_ms:10000}")
     public void printStats() {
         super.printStats();
+        if (isStatsEnabled()) {
+            int lookups = compiledScriptsLookups.getAndSet(0);
+            int misses = compiledScriptsMisses.getAndSet(0);
+            int compiled = compilations.getAndSet(0);
+            long compileTimeMs = TimeUnit.NANOSECONDS.toMillis(compilationTimeNanos.getAndSet(0));
+            if (lookups > 0 || compiled > 0) {
+                log.info("TBEL Compiled Scripts Stats: lookups [{}] hits [{}] misses [{}] hit rate [{}%] compiled [{}] avg compile time [{}ms] cached [{}]",
+                        lookups, lookups - misses, misses, lookups > 0 ? (lookups - misses) * 100 / lookups : 0,
+                        compiled, compiled > 0 ? compileTimeMs / compiled : 0, compiledScriptsCache.estimatedSize());
+            }
+        }
     }
 
     @SneakyThrows
@@ -187,11 +218,20 @@ public class DefaultTbelInvokeService extends AbstractScriptInvokeService implem
         return executor.submit(() -> {
             try {
                 String scriptHash = hash(scriptBody, argNames);
-                compiledScriptsCache.get(scriptHash, k -> compileScript(scriptBody));
+                String compiledScriptHash = hash(scriptBody);
+                getOrCompileScript(compiledScriptHash, scriptBody);
                 lock.lock();
                 try {
-                    scriptIdToHash.put(scriptId, scriptHash);
-                    scriptMap.computeIfAbsent(scriptHash, k -> new TbelScript(scriptBody, argNames));
+                    String previousHash = scriptIdToHash.put(scriptId, scriptHash);
+                    if (!scriptHash.equals(previousHash)) {
+                        if (previousHash != null) {
+                            releaseScript(previousHash);
+                        }
+                        if (scriptRefs.merge(scriptHash, 1, Integer::sum) == 1) {
+                            scriptMap.put(scriptHash, new TbelScript(scriptBody, argNames, compiledScriptHash));
+                            compiledScriptRefs.merge(compiledScriptHash, 1, Integer::sum);
+                        }
+                    }
                 } finally {
                     lock.unlock();
                 }
@@ -211,7 +251,7 @@ public class DefaultTbelInvokeService extends AbstractScriptInvokeService implem
                 throw new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, null, new RuntimeException("Script not found!"));
             }
             TbelScript script = scriptMap.get(scriptHash);
-            Serializable compiledScript = compiledScriptsCache.get(scriptHash, k -> compileScript(script.getScriptBody()));
+            Serializable compiledScript = getOrCompileScript(script.getCompiledScriptHash(), script.getScriptBody());
             try {
                 return MVEL.executeTbExpression(compiledScript, executionContext, script.createVars(args));
             } catch (ScriptMemoryOverflowException e) {
@@ -223,25 +263,104 @@ public class DefaultTbelInvokeService extends AbstractScriptInvokeService implem
     }
 
     @Override
-    protected void doRelease(UUID scriptId) {
-        String scriptHash = scriptIdToHash.remove(scriptId);
-        if (scriptHash != null) {
-            lock.lock();
+    protected List<TbelScriptExecutionTask> doInvokeFunctions(UUID scriptId, List<Object[]> argsList) {
+        List<TbelScriptExecutionTask> tasks = new ArrayList<>(argsList.size());
+        List<SettableFuture<Object>> results = new ArrayList<>(argsList.size());
+        for (int i = 0; i < argsList.size(); i++) {
+            SettableFuture<Object> result = SettableFuture.create();
+            results.add(result);
+            tasks.add(new TbelScriptExecutionTask(new ExecutionContext(this.parserConfig, maxMemoryLimitMb * 1024 * 1024), result));
+        }
+        executor.execute(() -> {
+            String scriptHash = scriptIdToHash.get(scriptId);
+            TbelScript script = scriptHash != null ? scriptMap.get(scriptHash) : null;
+            if (script == null) {
+                results.forEach(result -> result.setException(new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, null, new RuntimeException("Script not found!"))));
+                return;
+            }
+            Serializable compiledScript;
             try {
-                if (!scriptIdToHash.containsValue(scriptHash)) {
-                    scriptMap.remove(scriptHash);
-                    compiledScriptsCache.invalidate(scriptHash);
+                compiledScript = getOrCompileScript(script.getCompiledScriptHash(), script.getScriptBody());
+            } catch (Exception e) {
+                results.forEach(result -> result.setException(new TbScriptException(scriptId, TbScriptException.ErrorCode.COMPILATION, script.getScriptBody(), e)));
+                return;
+            }
+            for (int i = 0; i < argsList.size(); i++) {
+                SettableFuture<Object> result = results.get(i);
+                if (result.isDone()) {
+                    continue;
+                }
+                try {
+                    result.set(MVEL.executeTbExpression(compiledScript, tasks.get(i).getContext(), script.createVars(argsList.get(i))));
+                } catch (ScriptMemoryOverflowException e) {
+                    result.setException(new TbScriptException(scriptId, TbScriptException.ErrorCode.OTHER, script.getScriptBody(), new RuntimeException("Script memory overflow!")));
+                } catch (Exception e) {
+                    result.setException(new TbScriptException(scriptId, TbScriptException.ErrorCode.RUNTIME, script.getScriptBody(), e));
                 }
-            } finally {
-                lock.unlock();
             }
+        });
+        return tasks;
+    }
+
+    @Override
+    protected void doRelease(UUID scriptId) {
+        lock.lock();
+        try {
+            String scriptHash = scriptIdToHash.remove(scriptId);
+            if (scriptHash != null) {
+                releaseScript(scriptHash);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
+    private void releaseScript(String scriptHash) {
+        if (scriptRefs.computeIfPresent(scriptHash, (hash, refs) -> refs > 1 ? refs - 1 : null) == null) {
+            TbelScript script = scriptMap.remove(scriptHash);
+            if (script != null && compiledScriptRefs.computeIfPresent(script.getCompiledScriptHash(), (hash, refs) -> refs > 1 ? refs - 1 : null) == null) {
+                compiledScriptsCache.invalidate(script.getCompiledScriptHash());
+            }
+        }
+    }
+
+    @Override
+    public ListenableFuture<Boolean> warmUp(String scriptBody) {
+        if (scriptBodySizeExceeded(scriptBody)) {
+            return Futures.immediateFuture(false);
+        }
+        return executor.submit(() -> {
+            try {
+                getOrCompileScript(hash(scriptBody), scriptBody);
+                return true;
+            } catch (Exception e) {
+                log.debug("Failed to compile script during warm up: {}", scriptBody, e);
+                return false;
+            }
+        });
+    }
+
+    private Serializable getOrCompileScript(String compiledScriptHash, String scriptBody) {
+        compiledScriptsLookups.incrementAndGet();
+        return compiledScriptsCache.get(compiledScriptHash, k -> {
+            compiledScriptsMisses.incrementAndGet();
+            long startTs = System.nanoTime();
+            Serializable compiledScript = compileScript(scriptBody);
+            compilationTimeNanos.addAndGet(System.nanoTime() - startTs);
+            compilations.incrementAndGet();
+            return compiledScript;
+        });
+    }
+
     private Serializable compileScript(String scriptBody) {
         return MVEL.compileExpression(scriptBody, new ParserContext());
     }
 
+    @SuppressWarnings("UnstableApiUsage")
+    protected String hash(String scriptBody) {
+        return Hashing.murmur3_128().newHasher().putUnencodedChars(scriptBody).hash().toString();
+    }
+
     @SuppressWarnings("UnstableApiUsage")
     protected String hash(String scriptBody, String[] argNames) {
         Hasher hasher = Hashing.murmur3_128().newHasher();
@@ -15,6 +15,7 @@
  */
 package org.thingsboard.script.api.tbel;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import org.thingsboard.script.api.ScriptInvokeService;
 import org.thingsboard.server.common.data.script.ScriptLanguage;
 
@@ -25,4 +26,12 @@ public interface TbelInvokeService extends ScriptInvokeService {
         return ScriptLanguage.TBEL;
     }
 
+    /**
+     * Compiles the script body into the shared compiled scripts cache without registering a script id,
+     * so that the following eval of the same body does not pay the compilation cost.
+     *
+     * @return future that completes with false if the script could not be compiled
+     */
+    ListenableFuture<Boolean> warmUp(String scriptBody);
+
 }
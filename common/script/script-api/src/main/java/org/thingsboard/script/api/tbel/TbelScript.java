@@ -25,6 +25,7 @@ public class TbelScript {
 
     private final String scriptBody;
     private final String[] argNames;
+    private final String compiledScriptHash;
 
     public Map createVars(Object[] args) {
         if (args == null || args.length != argNames.length) {
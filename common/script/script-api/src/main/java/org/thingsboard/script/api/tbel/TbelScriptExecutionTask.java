@@ -16,12 +16,14 @@
 package org.thingsboard.script.api.tbel;
 
 import com.google.common.util.concurrent.ListenableFuture;
+import lombok.Getter;
 import org.mvel2.ExecutionContext;
 import org.thingsboard.script.api.TbScriptExecutionTask;
 
 
 public class TbelScriptExecutionTask extends TbScriptExecutionTask {
 
+    @Getter
     private final ExecutionContext context;
 
     public TbelScriptExecutionTask(ExecutionContext context, ListenableFuture<Object> resultFuture) {
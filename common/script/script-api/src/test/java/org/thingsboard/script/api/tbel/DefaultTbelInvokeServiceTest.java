@@ -0,0 +1,122 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.script.api.tbel;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.script.api.ScriptType;
+import org.thingsboard.server.common.data.id.TenantId;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DefaultTbelInvokeServiceTest {
+
+    private DefaultTbelInvokeService invokeService;
+
+    @BeforeEach
+    void setUp() {
+        invokeService = new DefaultTbelInvokeService(Optional.empty(), Optional.empty());
+        ReflectionTestUtils.setField(invokeService, "maxScriptBodySize", 50000L);
+        ReflectionTestUtils.setField(invokeService, "maxErrors", 3);
+        ReflectionTestUtils.setField(invokeService, "threadPoolSize", 2);
+        ReflectionTestUtils.setField(invokeService, "maxMemoryLimitMb", 8L);
+        ReflectionTestUtils.setField(invokeService, "compiledScriptsCacheSize", 100);
+        invokeService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        invokeService.stop();
+    }
+
+    @Test
+    void givenBatchOfArgs_whenInvokeScripts_thenReturnResultPerArgs() throws Exception {
+        UUID scriptId = evalScript("return msg.items[msg.idx];");
+
+        List<ListenableFuture<Object>> results = invokeService.invokeScripts(TenantId.SYS_TENANT_ID, null, scriptId, List.of(
+                args(Map.of("items", List.of(1, 2, 3), "idx", 0)),
+                args(Map.of("items", List.of(1, 2, 3), "idx", 5)),
+                args(Map.of("items", List.of(1, 2, 3), "idx", 2))));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).get()).isEqualTo(1);
+        assertThatThrownBy(() -> results.get(1).get()).isInstanceOf(Exception.class);
+        assertThat(results.get(2).get()).isEqualTo(3);
+    }
+
+    @Test
+    void givenUnknownScript_whenInvokeScripts_thenFailAllInvocations() {
+        List<ListenableFuture<Object>> results = invokeService.invokeScripts(TenantId.SYS_TENANT_ID, null, UUID.randomUUID(),
+                List.of(args(Map.of()), args(Map.of())));
+
+        assertThat(results).hasSize(2).allSatisfy(result ->
+                assertThatThrownBy(result::get).hasMessageContaining("No compiled script found"));
+    }
+
+    @Test
+    void givenWarmedUpScript_whenEval_thenReuseCompiledScript() throws Exception {
+        String script = "return msg.temperature > 20;";
+        assertThat(invokeService.warmUp(script).get()).isTrue();
+        assertThat(invokeService.compiledScriptsCache.estimatedSize()).isEqualTo(1);
+
+        UUID scriptId = evalScript(script);
+        UUID otherScriptId = invokeService.eval(TenantId.SYS_TENANT_ID, ScriptType.RULE_NODE_SCRIPT, script, "msg", "prevMetadata", "prevMsgType").get();
+
+        assertThat(invokeService.scriptMap).hasSize(2);
+        assertThat(invokeService.compiledScriptsCache.estimatedSize()).isEqualTo(1);
+        assertThat(invokeService.invokeScript(TenantId.SYS_TENANT_ID, null, otherScriptId, args(Map.of("temperature", 21))).get()).isEqualTo(true);
+
+        invokeService.release(scriptId).get();
+        assertThat(invokeService.compiledScriptsCache.estimatedSize()).isEqualTo(1);
+        invokeService.release(otherScriptId).get();
+        assertThat(invokeService.compiledScriptsCache.asMap()).isEmpty();
+    }
+
+    @Test
+    void givenIdenticalScripts_whenReleaseOne_thenScriptIsKeptUntilLastRelease() throws Exception {
+        String script = "return msg.temperature;";
+        UUID scriptId = evalScript(script);
+        UUID sameScriptId = evalScript(script);
+        assertThat(invokeService.scriptMap).hasSize(1);
+
+        invokeService.release(scriptId).get();
+        assertThat(invokeService.scriptMap).hasSize(1);
+        assertThat(invokeService.invokeScript(TenantId.SYS_TENANT_ID, null, sameScriptId, args(Map.of("temperature", 21))).get()).isEqualTo(21);
+
+        invokeService.release(sameScriptId).get();
+        assertThat(invokeService.scriptMap).isEmpty();
+        assertThat(invokeService.compiledScriptsCache.asMap()).isEmpty();
+    }
+
+    private UUID evalScript(String script) throws Exception {
+        return invokeService.eval(TenantId.SYS_TENANT_ID, ScriptType.RULE_NODE_SCRIPT, script, "msg", "metadata", "msgType").get();
+    }
+
+    private static Object[] args(Map<String, Object> msg) {
+        return new Object[]{new HashMap<>(msg), new HashMap<>(), "POST_TELEMETRY_REQUEST"};
+    }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.mqtt;
+
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the number of open connections and the task queueing latency of each worker event loop,
+ * which shows whether the connections and the load are evenly spread between the loops.
+ */
+@Slf4j
+public class MqttEventLoopStats {
+
+    static final String CONNECTIONS_KEY = "transport.mqtt.eventLoop.connections";
+    static final String LATENCY_KEY = "transport.mqtt.eventLoop.latency";
+    static final String EVENT_LOOP_TAG = "eventLoop";
+
+    private final Map<EventExecutor, AtomicInteger> connections = new IdentityHashMap<>();
+    private final Map<EventExecutor, Timer> latencies = new IdentityHashMap<>();
+
+    public MqttEventLoopStats(EventLoopGroup eventLoopGroup, StatsFactory statsFactory) {
+        int idx = 0;
+        for (EventExecutor eventLoop : eventLoopGroup) {
+            String eventLoopName = String.valueOf(idx++);
+            connections.put(eventLoop, statsFactory.createGauge(CONNECTIONS_KEY, new AtomicInteger(), EVENT_LOOP_TAG, eventLoopName));
+            latencies.put(eventLoop, statsFactory.createTimer(LATENCY_KEY, EVENT_LOOP_TAG, eventLoopName));
+        }
+    }
+
+    public void onChannelRegistered(EventExecutor eventLoop) {
+        AtomicInteger counter = connections.get(eventLoop);
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    public void onChannelUnregistered(EventExecutor eventLoop) {
+        AtomicInteger counter = connections.get(eventLoop);
+        if (counter != null) {
+            counter.decrementAndGet();
+        }
+    }
+
+    public int getConnections(EventExecutor eventLoop) {
+        AtomicInteger counter = connections.get(eventLoop);
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * Submits a probe task to every event loop and records how long it waited before the execution.
+     */
+    public void probeLatency() {
+        latencies.forEach((eventLoop, timer) -> {
+            long submitTs = System.nanoTime();
+            try {
+                eventLoop.execute(() -> timer.record(System.nanoTime() - submitTs, TimeUnit.NANOSECONDS));
+            } catch (RejectedExecutionException e) {
+                log.trace("Event loop is shutting down, skipping latency probe", e);
+            }
+        });
+    }
+
+}
@@ -16,6 +16,7 @@
 package org.thingsboard.server.transport.mqtt;
 
 import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.EventExecutor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -23,9 +24,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
+import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.common.transport.TransportContext;
 import org.thingsboard.server.transport.mqtt.adaptors.JsonMqttAdaptor;
 import org.thingsboard.server.transport.mqtt.adaptors.ProtoMqttAdaptor;
+import org.thingsboard.server.transport.mqtt.limits.ConnectAdmissionController;
 
 import jakarta.annotation.PostConstruct;
 import java.net.InetSocketAddress;
@@ -75,20 +78,51 @@ public class MqttTransportContext extends TransportContext {
     @Value("${transport.mqtt.proxy_enabled:false}")
     private boolean proxyEnabled;
 
+    @Value("${transport.mqtt.connect_admission.enabled:false}")
+    private boolean connectAdmissionEnabled;
+
+    @Value("${transport.mqtt.connect_admission.max_in_flight:1000}")
+    private int connectAdmissionMaxInFlight;
+
+    @Value("${transport.mqtt.connect_admission.max_queue_size:10000}")
+    private int connectAdmissionMaxQueueSize;
+
+    @Autowired
+    private StatsFactory statsFactory;
+
+    @Getter
+    private ConnectAdmissionController connectAdmissionController;
+
     private final AtomicInteger connectionsCounter = new AtomicInteger();
 
+    @Setter
+    private volatile MqttEventLoopStats eventLoopStats;
+
     @PostConstruct
     public void init() {
         super.init();
         transportService.createGaugeStats("openConnections", connectionsCounter);
+        connectAdmissionController = new ConnectAdmissionController(connectAdmissionEnabled, connectAdmissionMaxInFlight, connectAdmissionMaxQueueSize, statsFactory);
+        if (connectAdmissionEnabled) {
+            transportService.createGaugeStats("mqttConnectsInFlight", connectAdmissionController.getInFlight());
+            transportService.createGaugeStats("mqttConnectsQueued", connectAdmissionController.getQueued());
+        }
     }
 
-    public void channelRegistered() {
+    public void channelRegistered(EventExecutor eventLoop) {
         connectionsCounter.incrementAndGet();
+        MqttEventLoopStats stats = eventLoopStats;
+        if (stats != null) {
+            stats.onChannelRegistered(eventLoop);
+        }
     }
 
-    public void channelUnregistered() {
+    public void channelUnregistered(EventExecutor eventLoop) {
         connectionsCounter.decrementAndGet();
+        MqttEventLoopStats stats = eventLoopStats;
+        if (stats != null) {
+            stats.onChannelUnregistered(eventLoop);
+        }
     }
 
     public boolean checkAddress(InetSocketAddress address) {
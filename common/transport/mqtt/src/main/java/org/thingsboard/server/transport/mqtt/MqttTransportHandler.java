@@ -104,6 +104,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -152,6 +153,7 @@ public class MqttTransportHandler extends ChannelInboundHandlerAdapter implement
     private final ConcurrentHashMap<String, String> otaPackSessions;
     private final ConcurrentHashMap<String, Integer> chunkSizes;
     private final ConcurrentMap<Integer, TransportProtos.ToDeviceRpcRequestMsg> rpcAwaitingAck;
+    private final AtomicBoolean connectAdmitted = new AtomicBoolean();
 
     private TopicType attrSubTopicType;
     private TopicType rpcSubTopicType;
@@ -174,13 +176,13 @@ public class MqttTransportHandler extends ChannelInboundHandlerAdapter implement
     @Override
     public void channelRegistered(ChannelHandlerContext ctx) throws Exception {
         super.channelRegistered(ctx);
-        context.channelRegistered();
+        context.channelRegistered(ctx.channel().eventLoop());
     }
 
     @Override
     public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
         super.channelUnregistered(ctx);
-        context.channelUnregistered();
+        context.channelUnregistered(ctx.channel().eventLoop());
     }
 
     @Override
@@ -919,13 +921,26 @@ public class MqttTransportHandler extends ChannelInboundHandlerAdapter implement
         if (DataConstants.PROVISION.equals(userName) || DataConstants.PROVISION.equals(clientId)) {
             deviceSessionCtx.setProvisionOnly(true);
             ctx.writeAndFlush(createMqttConnAckMsg(ReturnCode.SUCCESS, msg));
+        } else if (!context.getConnectAdmissionController().submit(ctx.executor(), () -> ctx.channel().isActive(), () -> processCredentialsConnect(ctx, msg))) {
+            log.debug("[{}][{}] Connect admission queue is full, rejecting client: {}", address, sessionId, clientId);
+            ctx.writeAndFlush(createMqttConnAckMsg(ReturnCode.SERVER_BUSY, msg));
+            closeCtx(ctx);
+        }
+    }
+
+    private void processCredentialsConnect(ChannelHandlerContext ctx, MqttConnectMessage msg) {
+        connectAdmitted.set(true);
+        X509Certificate cert;
+        if (sslHandler != null && (cert = getX509Certificate()) != null) {
+            processX509CertConnect(ctx, cert, msg);
         } else {
-            X509Certificate cert;
-            if (sslHandler != null && (cert = getX509Certificate()) != null) {
-                processX509CertConnect(ctx, cert, msg);
-            } else {
-                processAuthTokenConnect(ctx, msg);
-            }
+            processAuthTokenConnect(ctx, msg);
+        }
+    }
+
+    private void releaseConnectAdmission() {
+        if (connectAdmitted.compareAndSet(true, false)) {
+            context.getConnectAdmissionController().release();
         }
     }
 
@@ -946,12 +961,14 @@ public class MqttTransportHandler extends ChannelInboundHandlerAdapter implement
                 new TransportServiceCallback<>() {
                     @Override
                     public void onSuccess(ValidateDeviceCredentialsResponse msg) {
+                        releaseConnectAdmission();
                         onValidateDeviceResponse(msg, ctx, connectMessage);
                     }
 
                     @Override
                     public void onError(Throwable e) {
                         log.trace("[{}] Failed to process credentials: {}", address, userName, e);
+                        releaseConnectAdmission();
                         ctx.writeAndFlush(createMqttConnAckMsg(ReturnCode.SERVER_UNAVAILABLE_5, connectMessage));
                         closeCtx(ctx);
                     }
@@ -969,17 +986,20 @@ public class MqttTransportHandler extends ChannelInboundHandlerAdapter implement
                     new TransportServiceCallback<>() {
                         @Override
                         public void onSuccess(ValidateDeviceCredentialsResponse msg) {
+                            releaseConnectAdmission();
                             onValidateDeviceResponse(msg, ctx, connectMessage);
                         }
 
                         @Override
                         public void onError(Throwable e) {
                             log.trace("[{}] Failed to process credentials: {}", address, sha3Hash, e);
+                            releaseConnectAdmission();
                             ctx.writeAndFlush(createMqttConnAckMsg(ReturnCode.SERVER_UNAVAILABLE_5, connectMessage));
                             closeCtx(ctx);
                         }
                     });
         } catch (Exception e) {
+            releaseConnectAdmission();
             context.onAuthFailure(address);
             ctx.writeAndFlush(createMqttConnAckMsg(ReturnCode.NOT_AUTHORIZED_5, connectMessage));
             log.trace("[{}] X509 auth failure: {}", sessionId, address, e);
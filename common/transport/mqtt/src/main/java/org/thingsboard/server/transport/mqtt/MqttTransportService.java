@@ -19,6 +19,10 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.AttributeKey;
@@ -30,10 +34,15 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Service;
 import org.thingsboard.server.common.data.DataConstants;
 import org.thingsboard.server.common.data.TbTransportService;
+import org.thingsboard.server.common.stats.StatsFactory;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Andrew Shvayka
@@ -66,14 +75,23 @@ public class MqttTransportService implements TbTransportService {
     private Integer workerGroupThreadCount;
     @Value("${transport.mqtt.netty.so_keep_alive}")
     private boolean keepAlive;
+    @Value("${transport.mqtt.netty.native_transport:NIO}")
+    private NettyTransportType nativeTransport;
+    @Value("${transport.mqtt.netty.so_reuseport:false}")
+    private boolean reusePort;
+    @Value("${transport.mqtt.netty.event_loop_stats_interval:10000}")
+    private long eventLoopStatsInterval;
 
     @Autowired
     private MqttTransportContext context;
 
-    private Channel serverChannel;
-    private Channel sslServerChannel;
+    @Autowired
+    private StatsFactory statsFactory;
+
+    private final List<Channel> serverChannels = new ArrayList<>();
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
+    private ScheduledFuture<?> eventLoopStatsFuture;
 
     @PostConstruct
     public void init() throws Exception {
@@ -81,33 +99,69 @@ public class MqttTransportService implements TbTransportService {
         ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.valueOf(leakDetectorLevel.toUpperCase()));
 
         log.info("Starting MQTT transport...");
-        bossGroup = new NioEventLoopGroup(bossGroupThreadCount);
-        workerGroup = new NioEventLoopGroup(workerGroupThreadCount);
+        boolean epoll = isEpollEnabled();
+        log.info("Using {} transport", epoll ? "native epoll" : "NIO");
+        bossGroup = epoll ? new EpollEventLoopGroup(bossGroupThreadCount) : new NioEventLoopGroup(bossGroupThreadCount);
+        workerGroup = epoll ? new EpollEventLoopGroup(workerGroupThreadCount) : new NioEventLoopGroup(workerGroupThreadCount);
+
+        MqttEventLoopStats eventLoopStats = new MqttEventLoopStats(workerGroup, statsFactory);
+        context.setEventLoopStats(eventLoopStats);
+        if (eventLoopStatsInterval > 0) {
+            eventLoopStatsFuture = context.getScheduler().scheduleAtFixedRate(eventLoopStats::probeLatency,
+                    eventLoopStatsInterval, eventLoopStatsInterval, TimeUnit.MILLISECONDS);
+        }
+
+        bind(epoll, host, port, false);
+        if (sslEnabled) {
+            bind(epoll, sslHost, sslPort, true);
+        }
+        log.info("Mqtt transport started!");
+    }
+
+    /*
+     * With SO_REUSEPORT the kernel spreads the incoming connections between several listening sockets,
+     * so each boss thread gets its own acceptor instead of sharing a single one.
+     */
+    private void bind(boolean epoll, String host, int port, boolean ssl) throws InterruptedException {
         ServerBootstrap b = new ServerBootstrap();
         b.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
-                .childHandler(new MqttTransportServerInitializer(context, false))
+                .channel(epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class)
+                .childHandler(new MqttTransportServerInitializer(context, ssl))
                 .childOption(ChannelOption.SO_KEEPALIVE, keepAlive);
+        int acceptors = 1;
+        if (epoll && reusePort) {
+            b.option(EpollChannelOption.SO_REUSEPORT, true);
+            acceptors = Math.max(bossGroupThreadCount, 1);
+        }
+        for (int i = 0; i < acceptors; i++) {
+            serverChannels.add(b.bind(host, port).sync().channel());
+        }
+    }
 
-        serverChannel = b.bind(host, port).sync().channel();
-        if (sslEnabled) {
-            b = new ServerBootstrap();
-            b.group(bossGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
-                    .childHandler(new MqttTransportServerInitializer(context, true))
-                    .childOption(ChannelOption.SO_KEEPALIVE, keepAlive);
-            sslServerChannel = b.bind(sslHost, sslPort).sync().channel();
+    private boolean isEpollEnabled() {
+        if (nativeTransport == NettyTransportType.NIO) {
+            return false;
         }
-        log.info("Mqtt transport started!");
+        if (Epoll.isAvailable()) {
+            return true;
+        }
+        if (nativeTransport == NettyTransportType.EPOLL) {
+            log.warn("Native epoll transport is not available, falling back to NIO", Epoll.unavailabilityCause());
+        } else {
+            log.debug("Native epoll transport is not available, using NIO", Epoll.unavailabilityCause());
+        }
+        return false;
     }
 
     @PreDestroy
     public void shutdown() throws InterruptedException {
         log.info("Stopping MQTT transport!");
+        if (eventLoopStatsFuture != null) {
+            eventLoopStatsFuture.cancel(false);
+        }
         try {
-            serverChannel.close().sync();
-            if (sslEnabled) {
-                sslServerChannel.close().sync();
+            for (Channel serverChannel : serverChannels) {
+                serverChannel.close().sync();
             }
         } finally {
             workerGroup.shutdownGracefully();
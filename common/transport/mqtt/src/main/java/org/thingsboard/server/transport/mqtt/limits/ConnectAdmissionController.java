@@ -0,0 +1,134 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.mqtt.limits;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limits the number of the CONNECT requests that are authenticated concurrently.
+ * The requests above the limit wait in a FIFO queue and are rejected once the queue is full,
+ * so a mass reconnect of the clients does not flood the core services with the credentials validation requests.
+ */
+@Slf4j
+public class ConnectAdmissionController {
+
+    static final String ADMISSION_KEY = "transport.mqtt.connect.admission";
+    static final String QUEUE_WAIT_KEY = "transport.mqtt.connect.queueWait";
+    static final String RESULT_TAG = "result";
+
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final int maxQueueSize;
+
+    private final Lock lock = new ReentrantLock();
+    private final Queue<PendingConnect> queue = new ArrayDeque<>();
+    @Getter
+    private final AtomicInteger inFlight = new AtomicInteger();
+    @Getter
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final DefaultCounter acceptedCounter;
+    private final DefaultCounter queuedCounter;
+    private final DefaultCounter rejectedCounter;
+    private final Timer queueWaitTimer;
+
+    public ConnectAdmissionController(boolean enabled, int maxInFlight, int maxQueueSize, StatsFactory statsFactory) {
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        this.maxQueueSize = maxQueueSize;
+        this.acceptedCounter = statsFactory.createDefaultCounter(ADMISSION_KEY, RESULT_TAG, "accepted");
+        this.queuedCounter = statsFactory.createDefaultCounter(ADMISSION_KEY, RESULT_TAG, "queued");
+        this.rejectedCounter = statsFactory.createDefaultCounter(ADMISSION_KEY, RESULT_TAG, "rejected");
+        this.queueWaitTimer = statsFactory.createTimer(QUEUE_WAIT_KEY);
+    }
+
+    /**
+     * Runs the connect task right away if there is a free slot, otherwise puts it into the queue.
+     * The queued task is executed by the executor once a slot is released, unless the connection is no longer active.
+     * Every executed task must call {@link #release()} when the authentication is completed.
+     *
+     * @return false if the queue is full and the connection should be rejected
+     */
+    public boolean submit(Executor executor, BooleanSupplier isActive, Runnable connectTask) {
+        if (!enabled) {
+            connectTask.run();
+            return true;
+        }
+        lock.lock();
+        try {
+            if (inFlight.get() >= maxInFlight || !queue.isEmpty()) {
+                if (queue.size() >= maxQueueSize) {
+                    rejectedCounter.increment();
+                    return false;
+                }
+                queue.add(new PendingConnect(executor, isActive, connectTask, System.nanoTime()));
+                queued.set(queue.size());
+                queuedCounter.increment();
+                return true;
+            }
+            inFlight.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        acceptedCounter.increment();
+        connectTask.run();
+        return true;
+    }
+
+    public void release() {
+        if (!enabled) {
+            return;
+        }
+        PendingConnect next;
+        lock.lock();
+        try {
+            do {
+                next = queue.poll();
+            } while (next != null && !next.isActive().getAsBoolean());
+            queued.set(queue.size());
+            if (next == null) {
+                inFlight.decrementAndGet();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        queueWaitTimer.record(System.nanoTime() - next.submitTs(), TimeUnit.NANOSECONDS);
+        acceptedCounter.increment();
+        try {
+            next.executor().execute(next.connectTask());
+        } catch (Exception e) {
+            log.debug("Failed to execute queued connect task", e);
+            release();
+        }
+    }
+
+    private record PendingConnect(Executor executor, BooleanSupplier isActive, Runnable connectTask, long submitTs) {}
+
+}
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -69,9 +70,11 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
@@ -370,30 +373,17 @@ public abstract class AbstractGatewaySessionHandler<T extends AbstractGatewayDev
         JsonElement json = JsonMqttAdaptor.validateJsonPayload(sessionId, payload);
         if (json.isJsonObject()) {
             JsonObject jsonObj = json.getAsJsonObject();
+            List<ListenableFuture<TransportProtos.DevicePostTelemetryMsg>> deviceMsgFutures = new ArrayList<>(jsonObj.size());
             for (Map.Entry<String, JsonElement> deviceEntry : jsonObj.entrySet()) {
                 String deviceName = deviceEntry.getKey();
-                Futures.addCallback(checkDeviceConnected(deviceName),
-                        new FutureCallback<>() {
-                            @Override
-                            public void onSuccess(@Nullable T deviceCtx) {
-                                if (!deviceEntry.getValue().isJsonArray()) {
-                                    throw new JsonSyntaxException(CAN_T_PARSE_VALUE + json);
-                                }
-                                try {
-                                    TransportProtos.PostTelemetryMsg postTelemetryMsg = JsonConverter.convertToTelemetryProto(deviceEntry.getValue().getAsJsonArray());
-                                    processPostTelemetryMsg(deviceCtx, postTelemetryMsg, deviceName, msgId);
-                                } catch (Throwable e) {
-                                    log.warn("[{}][{}][{}] Failed to convert telemetry: [{}]", gateway.getTenantId(), gateway.getDeviceId(), deviceName, deviceEntry.getValue(), e);
-                                    channel.close();
-                                }
-                            }
-
-                            @Override
-                            public void onFailure(Throwable t) {
-                                log.debug("[{}][{}][{}] Failed to process device telemetry command: [{}]", gateway.getTenantId(), gateway.getDeviceId(), sessionId, deviceName, t);
-                            }
-                        }, context.getExecutor());
+                deviceMsgFutures.add(toDevicePostTelemetryMsg(deviceName, deviceEntry.getValue(), () -> {
+                    if (!deviceEntry.getValue().isJsonArray()) {
+                        throw new JsonSyntaxException(CAN_T_PARSE_VALUE + json);
+                    }
+                    return JsonConverter.convertToTelemetryProto(deviceEntry.getValue().getAsJsonArray());
+                }));
             }
+            processPostTelemetryBatchMsg(deviceMsgFutures, msgId);
         } else {
             throw new JsonSyntaxException(CAN_T_PARSE_VALUE + json);
         }
@@ -404,28 +394,13 @@ public abstract class AbstractGatewaySessionHandler<T extends AbstractGatewayDev
             TransportApiProtos.GatewayTelemetryMsg telemetryMsgProto = TransportApiProtos.GatewayTelemetryMsg.parseFrom(getBytes(payload));
             List<TransportApiProtos.TelemetryMsg> deviceMsgList = telemetryMsgProto.getMsgList();
             if (!CollectionUtils.isEmpty(deviceMsgList)) {
+                List<ListenableFuture<TransportProtos.DevicePostTelemetryMsg>> deviceMsgFutures = new ArrayList<>(deviceMsgList.size());
                 deviceMsgList.forEach(telemetryMsg -> {
                     String deviceName = checkDeviceName(telemetryMsg.getDeviceName());
-                    Futures.addCallback(checkDeviceConnected(deviceName),
-                            new FutureCallback<>() {
-                                @Override
-                                public void onSuccess(@Nullable T deviceCtx) {
-                                    TransportProtos.PostTelemetryMsg msg = telemetryMsg.getMsg();
-                                    try {
-                                        TransportProtos.PostTelemetryMsg postTelemetryMsg = ProtoConverter.validatePostTelemetryMsg(msg.toByteArray());
-                                        processPostTelemetryMsg(deviceCtx, postTelemetryMsg, deviceName, msgId);
-                                    } catch (Throwable e) {
-                                        log.warn("[{}][{}][{}] Failed to convert telemetry: [{}]", gateway.getTenantId(), gateway.getDeviceId(), deviceName, msg, e);
-                                        channel.close();
-                                    }
-                                }
-
-                                @Override
-                                public void onFailure(Throwable t) {
-                                    log.debug("[{}][{}][{}] Failed to process device telemetry command: [{}]", gateway.getTenantId(), gateway.getDeviceId(), sessionId, deviceName, t);
-                                }
-                            }, context.getExecutor());
+                    TransportProtos.PostTelemetryMsg msg = telemetryMsg.getMsg();
+                    deviceMsgFutures.add(toDevicePostTelemetryMsg(deviceName, msg, () -> ProtoConverter.validatePostTelemetryMsg(msg.toByteArray())));
                 });
+                processPostTelemetryBatchMsg(deviceMsgFutures, msgId);
             } else {
                 log.debug("[{}][{}][{}] Devices telemetry messages is empty", gateway.getTenantId(), gateway.getDeviceId(), sessionId);
                 throw new IllegalArgumentException("[" + sessionId + "] Devices telemetry messages is empty for [" + gateway.getDeviceId() + "]");
@@ -435,6 +410,50 @@ public abstract class AbstractGatewaySessionHandler<T extends AbstractGatewayDev
         }
     }
 
+    private ListenableFuture<TransportProtos.DevicePostTelemetryMsg> toDevicePostTelemetryMsg(String deviceName, Object payload,
+                                                                                           Callable<TransportProtos.PostTelemetryMsg> converter) {
+        ListenableFuture<TransportProtos.DevicePostTelemetryMsg> deviceMsgFuture = Futures.transform(checkDeviceConnected(deviceName), deviceCtx -> {
+            try {
+                return TransportProtos.DevicePostTelemetryMsg.newBuilder()
+                        .setSessionInfo(deviceCtx.getSessionInfo())
+                        .setMsg(converter.call())
+                        .build();
+            } catch (Throwable e) {
+                log.warn("[{}][{}][{}] Failed to convert telemetry: [{}]", gateway.getTenantId(), gateway.getDeviceId(), deviceName, payload, e);
+                channel.close();
+                return null;
+            }
+        }, context.getExecutor());
+        return Futures.catching(deviceMsgFuture, Throwable.class, t -> {
+            log.debug("[{}][{}][{}] Failed to process device telemetry command: [{}]", gateway.getTenantId(), gateway.getDeviceId(), sessionId, deviceName, t);
+            return null;
+        }, MoreExecutors.directExecutor());
+    }
+
+    /*
+     * Sends the telemetry of all sub-devices from one gateway publish as a single batch, acknowledged with one PUBACK.
+     * Devices that failed to connect or whose payload failed to convert are skipped.
+     */
+    private void processPostTelemetryBatchMsg(List<ListenableFuture<TransportProtos.DevicePostTelemetryMsg>> deviceMsgFutures, int msgId) {
+        Futures.addCallback(Futures.allAsList(deviceMsgFutures), new FutureCallback<>() {
+            @Override
+            public void onSuccess(List<TransportProtos.DevicePostTelemetryMsg> deviceMsgs) {
+                TransportProtos.PostTelemetryBatchMsg.Builder batchMsg = TransportProtos.PostTelemetryBatchMsg.newBuilder();
+                deviceMsgs.stream().filter(Objects::nonNull).forEach(batchMsg::addMsgs);
+                if (batchMsg.getMsgsCount() > 0) {
+                    TransportProtos.PostTelemetryBatchMsg postTelemetryBatchMsg = batchMsg.build();
+                    transportService.process(deviceSessionCtx.getSessionInfo(), postTelemetryBatchMsg,
+                            getPubAckCallback(channel, gateway.getDeviceName(), msgId, postTelemetryBatchMsg));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                log.debug("[{}][{}][{}] Failed to process devices telemetry command", gateway.getTenantId(), gateway.getDeviceId(), sessionId, t);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
     public void processPostTelemetryMsg(MqttDeviceAwareSessionContext deviceCtx, TransportProtos.PostTelemetryMsg postTelemetryMsg, String deviceName, int msgId) {
         transportService.process(deviceCtx.getSessionInfo(), postTelemetryMsg, getPubAckCallback(channel, deviceName, msgId, postTelemetryMsg));
     }
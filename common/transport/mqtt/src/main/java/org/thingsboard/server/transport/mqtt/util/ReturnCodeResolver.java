@@ -30,6 +30,7 @@ public class ReturnCodeResolver {
                 case NOT_AUTHORIZED_5:
                     return MqttConnectReturnCode.CONNECTION_REFUSED_NOT_AUTHORIZED;
                 case SERVER_UNAVAILABLE_5:
+                case SERVER_BUSY:
                     return MqttConnectReturnCode.CONNECTION_REFUSED_SERVER_UNAVAILABLE;
                 case CLIENT_IDENTIFIER_NOT_VALID:
                     return MqttConnectReturnCode.CONNECTION_REFUSED_IDENTIFIER_REJECTED;
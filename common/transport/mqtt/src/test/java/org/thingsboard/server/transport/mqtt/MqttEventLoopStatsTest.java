@@ -0,0 +1,84 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.mqtt;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.EventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.AdditionalAnswers.returnsSecondArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MqttEventLoopStatsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NioEventLoopGroup eventLoopGroup;
+    private MqttEventLoopStats stats;
+
+    @BeforeEach
+    void setUp() {
+        StatsFactory statsFactory = mock(StatsFactory.class);
+        when(statsFactory.createGauge(anyString(), any(), any(String[].class))).then(returnsSecondArg());
+        when(statsFactory.createTimer(eq(MqttEventLoopStats.LATENCY_KEY), any(String[].class)))
+                .then(invocation -> Timer.builder(MqttEventLoopStats.LATENCY_KEY)
+                        .tags(MqttEventLoopStats.EVENT_LOOP_TAG, (String) invocation.getArgument(2))
+                        .register(meterRegistry));
+        eventLoopGroup = new NioEventLoopGroup(2);
+        stats = new MqttEventLoopStats(eventLoopGroup, statsFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void givenChannelsRegistered_whenGetConnections_thenCountedPerEventLoop() {
+        EventLoop first = eventLoopGroup.next();
+        EventLoop second = eventLoopGroup.next();
+
+        stats.onChannelRegistered(first);
+        stats.onChannelRegistered(first);
+        stats.onChannelRegistered(second);
+        stats.onChannelUnregistered(first);
+
+        assertThat(stats.getConnections(first)).isEqualTo(1);
+        assertThat(stats.getConnections(second)).isEqualTo(1);
+    }
+
+    @Test
+    void givenProbe_whenExecuted_thenLatencyRecordedForEachEventLoop() {
+        stats.probeLatency();
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(meterRegistry.find(MqttEventLoopStats.LATENCY_KEY).timers())
+                .hasSize(2)
+                .allSatisfy(timer -> assertThat(timer.count()).isEqualTo(1)));
+    }
+
+}
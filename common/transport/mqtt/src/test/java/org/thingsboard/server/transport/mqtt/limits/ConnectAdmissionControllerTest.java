@@ -0,0 +1,122 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.mqtt.limits;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConnectAdmissionControllerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Executor executor = Runnable::run;
+    private final List<Integer> executed = new ArrayList<>();
+    private StatsFactory statsFactory;
+
+    @BeforeEach
+    void setUp() {
+        statsFactory = mock(StatsFactory.class);
+        when(statsFactory.createDefaultCounter(anyString(), any(String[].class))).then(invocation ->
+                new DefaultCounter(new AtomicInteger(), meterRegistry.counter(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2))));
+        when(statsFactory.createTimer(anyString(), any(String[].class))).then(invocation -> meterRegistry.timer(invocation.getArgument(0)));
+    }
+
+    @Test
+    void givenFreeSlots_whenSubmit_thenExecutedRightAway() {
+        ConnectAdmissionController controller = new ConnectAdmissionController(true, 2, 10, statsFactory);
+
+        assertThat(controller.submit(executor, () -> true, () -> executed.add(1))).isTrue();
+        assertThat(controller.submit(executor, () -> true, () -> executed.add(2))).isTrue();
+
+        assertThat(executed).containsExactly(1, 2);
+        assertThat(controller.getInFlight().get()).isEqualTo(2);
+        assertThat(controller.getQueued().get()).isZero();
+    }
+
+    @Test
+    void givenNoFreeSlots_whenReleased_thenQueuedExecutedInOrder() {
+        ConnectAdmissionController controller = new ConnectAdmissionController(true, 1, 10, statsFactory);
+
+        controller.submit(executor, () -> true, () -> executed.add(1));
+        controller.submit(executor, () -> true, () -> executed.add(2));
+        controller.submit(executor, () -> true, () -> executed.add(3));
+        assertThat(executed).containsExactly(1);
+        assertThat(controller.getQueued().get()).isEqualTo(2);
+
+        controller.release();
+        assertThat(executed).containsExactly(1, 2);
+        controller.release();
+        assertThat(executed).containsExactly(1, 2, 3);
+        controller.release();
+
+        assertThat(controller.getInFlight().get()).isZero();
+        assertThat(controller.getQueued().get()).isZero();
+        assertThat(meterRegistry.timer(ConnectAdmissionController.QUEUE_WAIT_KEY).count()).isEqualTo(2);
+        assertThat(meterRegistry.counter(ConnectAdmissionController.ADMISSION_KEY, ConnectAdmissionController.RESULT_TAG, "accepted").count()).isEqualTo(3);
+    }
+
+    @Test
+    void givenQueueFull_whenSubmit_thenRejected() {
+        ConnectAdmissionController controller = new ConnectAdmissionController(true, 1, 1, statsFactory);
+
+        assertThat(controller.submit(executor, () -> true, () -> executed.add(1))).isTrue();
+        assertThat(controller.submit(executor, () -> true, () -> executed.add(2))).isTrue();
+        assertThat(controller.submit(executor, () -> true, () -> executed.add(3))).isFalse();
+
+        assertThat(executed).containsExactly(1);
+        assertThat(meterRegistry.counter(ConnectAdmissionController.ADMISSION_KEY, ConnectAdmissionController.RESULT_TAG, "rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenQueuedConnectionClosed_whenReleased_thenSkipped() {
+        ConnectAdmissionController controller = new ConnectAdmissionController(true, 1, 10, statsFactory);
+
+        controller.submit(executor, () -> true, () -> executed.add(1));
+        controller.submit(executor, () -> false, () -> executed.add(2));
+        controller.submit(executor, () -> true, () -> executed.add(3));
+        controller.release();
+
+        assertThat(executed).containsExactly(1, 3);
+        assertThat(controller.getInFlight().get()).isEqualTo(1);
+        assertThat(controller.getQueued().get()).isZero();
+    }
+
+    @Test
+    void givenDisabled_whenSubmit_thenAlwaysExecuted() {
+        ConnectAdmissionController controller = new ConnectAdmissionController(false, 1, 0, statsFactory);
+
+        assertThat(controller.submit(executor, () -> true, () -> executed.add(1))).isTrue();
+        assertThat(controller.submit(executor, () -> true, () -> executed.add(2))).isTrue();
+        controller.release();
+
+        assertThat(executed).containsExactly(1, 2);
+        assertThat(controller.getInFlight().get()).isZero();
+    }
+
+}
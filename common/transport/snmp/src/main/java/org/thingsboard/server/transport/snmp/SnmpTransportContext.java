@@ -20,6 +20,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.thingsboard.common.util.DonAsynchron;
 import org.thingsboard.server.common.data.Device;
 import org.thingsboard.server.common.data.DeviceProfile;
 import org.thingsboard.server.common.data.DeviceTransportType;
@@ -88,8 +89,8 @@ public class SnmpTransportContext extends TransportContext {
                     .map(id -> new DeviceId(UUID.fromString(id)))
                     .peek(allSnmpDevicesIds::add)
                     .filter(deviceId -> balancingService.isManagedByCurrentTransport(deviceId.getId()))
-                    .map(protoEntityService::getDeviceById)
-                    .forEach(device -> getExecutor().execute(() -> establishDeviceSession(device)));
+                    .forEach(deviceId -> DonAsynchron.withCallback(protoEntityService.getDeviceByIdAsync(deviceId), this::establishDeviceSession,
+                            e -> log.warn("[{}] Failed to fetch SNMP device", deviceId, e), getExecutor()));
 
             nextBatchExists = snmpDevicesResponse.getHasNextPage();
             batchIndex++;
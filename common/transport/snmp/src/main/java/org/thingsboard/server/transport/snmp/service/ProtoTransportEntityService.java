@@ -15,6 +15,9 @@
  */
 package org.thingsboard.server.transport.snmp.service;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.thingsboard.common.util.JacksonUtil;
@@ -38,11 +41,21 @@ public class ProtoTransportEntityService {
     private final TransportService transportService;
 
     public Device getDeviceById(DeviceId id) {
-        TransportProtos.GetDeviceResponseMsg deviceProto = transportService.getDevice(TransportProtos.GetDeviceRequestMsg.newBuilder()
+        return toDevice(id, transportService.getDevice(toDeviceRequestMsg(id)));
+    }
+
+    public ListenableFuture<Device> getDeviceByIdAsync(DeviceId id) {
+        return Futures.transform(transportService.getDeviceAsync(toDeviceRequestMsg(id)), deviceProto -> toDevice(id, deviceProto), MoreExecutors.directExecutor());
+    }
+
+    private TransportProtos.GetDeviceRequestMsg toDeviceRequestMsg(DeviceId id) {
+        return TransportProtos.GetDeviceRequestMsg.newBuilder()
                 .setDeviceIdMSB(id.getId().getMostSignificantBits())
                 .setDeviceIdLSB(id.getId().getLeastSignificantBits())
-                .build());
+                .build();
+    }
 
+    private Device toDevice(DeviceId id, TransportProtos.GetDeviceResponseMsg deviceProto) {
         if (deviceProto == null) {
             return null;
         }
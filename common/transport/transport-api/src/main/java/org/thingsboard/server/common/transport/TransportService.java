@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.common.transport;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import org.thingsboard.server.common.data.DeviceProfile;
 import org.thingsboard.server.common.data.DeviceTransportType;
 import org.thingsboard.server.common.data.id.DeviceId;
@@ -73,6 +74,8 @@ public interface TransportService {
 
     GetEntityProfileResponseMsg getEntityProfile(GetEntityProfileRequestMsg msg);
 
+    ListenableFuture<GetEntityProfileResponseMsg> getEntityProfileAsync(GetEntityProfileRequestMsg msg);
+
     List<TransportProtos.GetQueueRoutingInfoResponseMsg> getQueueRoutingInfo(TransportProtos.GetAllQueueRoutingInfoRequestMsg msg);
 
     GetResourceResponseMsg getResource(GetResourceRequestMsg msg);
@@ -81,6 +84,8 @@ public interface TransportService {
 
     GetDeviceResponseMsg getDevice(GetDeviceRequestMsg requestMsg);
 
+    ListenableFuture<GetDeviceResponseMsg> getDeviceAsync(GetDeviceRequestMsg requestMsg);
+
     GetDeviceCredentialsResponseMsg getDeviceCredentials(GetDeviceCredentialsRequestMsg requestMsg);
 
     void process(DeviceTransportType transportType, ValidateDeviceTokenRequestMsg msg,
@@ -115,6 +120,8 @@ public interface TransportService {
 
     void process(SessionInfoProto sessionInfo, PostTelemetryMsg msg, TbMsgMetaData md, TransportServiceCallback<Void> callback);
 
+    void process(SessionInfoProto sessionInfo, TransportProtos.PostTelemetryBatchMsg msg, TransportServiceCallback<Void> callback);
+
     void process(SessionInfoProto sessionInfo, PostAttributeMsg msg, TransportServiceCallback<Void> callback);
 
     void process(SessionInfoProto sessionInfo, PostAttributeMsg msg, TbMsgMetaData md, TransportServiceCallback<Void> callback);
@@ -0,0 +1,137 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.transport.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thingsboard.server.common.data.DeviceTransportType;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.DeviceProfileId;
+import org.thingsboard.server.common.transport.TransportDeviceCredentialsCache;
+import org.thingsboard.server.common.transport.auth.ValidateDeviceCredentialsResponse;
+import org.thingsboard.server.queue.util.TbTransportComponent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the successful access token validations so that the stateless requests (HTTP, CoAP)
+ * do not need a round-trip to the core service per request.
+ * The tokens are stored as SHA-256 hashes only.
+ */
+@Slf4j
+@Component
+@TbTransportComponent
+public class DefaultTransportDeviceCredentialsCache implements TransportDeviceCredentialsCache {
+
+    private final boolean enabled;
+    private final Cache<HashCode, ValidateDeviceCredentialsResponse> cache;
+    private final ConcurrentMap<DeviceId, Set<HashCode>> keysByDevice = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public DefaultTransportDeviceCredentialsCache(@Value("${transport.credentials_cache.enabled:true}") boolean enabled,
+                                                  @Value("${transport.credentials_cache.ttl:60000}") long ttl,
+                                                  @Value("${transport.credentials_cache.max_size:100000}") long maxSize) {
+        this.enabled = enabled && ttl > 0 && maxSize > 0;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Math.max(ttl, 0), TimeUnit.MILLISECONDS)
+                .maximumSize(Math.max(maxSize, 0))
+                .<HashCode, ValidateDeviceCredentialsResponse>removalListener((key, response, cause) -> {
+                    if (key != null && response != null && cause != RemovalCause.REPLACED) {
+                        keysByDevice.computeIfPresent(response.getDeviceInfo().getDeviceId(), (deviceId, keys) -> {
+                            keys.remove(key);
+                            return keys.isEmpty() ? null : keys;
+                        });
+                    }
+                })
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public ValidateDeviceCredentialsResponse get(DeviceTransportType transportType, String token) {
+        return enabled ? cache.getIfPresent(toKey(transportType, token)) : null;
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void put(DeviceTransportType transportType, String token, ValidateDeviceCredentialsResponse response, long version) {
+        if (!enabled || !response.hasDeviceInfo()) {
+            return;
+        }
+        HashCode key = toKey(transportType, token);
+        DeviceId deviceId = response.getDeviceInfo().getDeviceId();
+        cache.put(key, response);
+        // Indexed after the put, since the put may notify the removal of an expired entry with the same key.
+        // The add is atomic with the removal listener, so the set can't be dropped from the map in between
+        keysByDevice.compute(deviceId, (id, keys) -> {
+            if (keys == null) {
+                keys = ConcurrentHashMap.newKeySet();
+            }
+            keys.add(key);
+            return keys;
+        });
+        if (this.version.get() != version) {
+            // the device or its credentials might have been changed while the validation request was in flight
+            cache.invalidate(key);
+        }
+    }
+
+    @Override
+    public void evict(DeviceId deviceId) {
+        version.incrementAndGet();
+        Set<HashCode> keys = keysByDevice.remove(deviceId);
+        if (keys != null) {
+            log.trace("[{}] Evicting {} cached credentials", deviceId, keys.size());
+            cache.invalidateAll(keys);
+        }
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void evict(DeviceProfileId deviceProfileId) {
+        version.incrementAndGet();
+        cache.asMap().values().removeIf(response -> deviceProfileId.equals(response.getDeviceInfo().getDeviceProfileId()));
+        version.incrementAndGet();
+    }
+
+    private static HashCode toKey(DeviceTransportType transportType, String token) {
+        return Hashing.sha256().newHasher()
+                .putInt(transportType.ordinal())
+                .putString(token, StandardCharsets.UTF_8)
+                .hash();
+    }
+
+}
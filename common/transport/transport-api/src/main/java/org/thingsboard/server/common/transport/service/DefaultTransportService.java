@@ -16,6 +16,7 @@
 package org.thingsboard.server.common.transport.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
@@ -51,6 +52,7 @@ import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.RuleChainId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.id.TenantProfileId;
+import org.thingsboard.server.common.data.kv.KvEntry;
 import org.thingsboard.server.common.data.limit.LimitedApi;
 import org.thingsboard.server.common.data.msg.TbMsgType;
 import org.thingsboard.server.common.data.notification.rule.trigger.RateLimitsTrigger;
@@ -70,6 +72,7 @@ import org.thingsboard.server.common.transport.DeviceDeletedEvent;
 import org.thingsboard.server.common.transport.DeviceProfileUpdatedEvent;
 import org.thingsboard.server.common.transport.DeviceUpdatedEvent;
 import org.thingsboard.server.common.transport.SessionMsgListener;
+import org.thingsboard.server.common.transport.TransportDeviceCredentialsCache;
 import org.thingsboard.server.common.transport.TransportDeviceProfileCache;
 import org.thingsboard.server.common.transport.TransportResourceCache;
 import org.thingsboard.server.common.transport.TransportService;
@@ -82,6 +85,7 @@ import org.thingsboard.server.common.transport.limits.EntityLimitKey;
 import org.thingsboard.server.common.transport.limits.EntityLimitsCache;
 import org.thingsboard.server.common.transport.limits.TransportRateLimitService;
 import org.thingsboard.server.common.transport.util.JsonUtils;
+import org.thingsboard.server.common.util.KvProtoUtil;
 import org.thingsboard.server.common.util.ProtoUtils;
 import org.thingsboard.server.gen.transport.TransportProtos;
 import org.thingsboard.server.gen.transport.TransportProtos.ProvisionDeviceRequestMsg;
@@ -109,6 +113,8 @@ import org.thingsboard.server.queue.scheduler.SchedulerComponent;
 import org.thingsboard.server.queue.util.AfterStartUp;
 import org.thingsboard.server.queue.util.TbTransportComponent;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -153,6 +159,14 @@ public class DefaultTransportService extends TransportActivityManager implements
     private int notificationsPollDuration;
     @Value("${transport.stats.enabled:false}")
     private boolean statsEnabled;
+    @Value("${transport.telemetry.binary_payload_enabled:false}")
+    private boolean telemetryBinaryPayloadEnabled;
+    @Value("${transport.telemetry.gateway_batch_enabled:false}")
+    private boolean gatewayBatchEnabled;
+    @Value("${transport.telemetry.gateway_batch_max_size:100}")
+    private int gatewayBatchMaxSize;
+    @Value("${transport.api_requests.coalescing_enabled:true}")
+    private boolean apiRequestsCoalescingEnabled;
 
     @Autowired
     @Lazy
@@ -176,8 +190,10 @@ public class DefaultTransportService extends TransportActivityManager implements
     private final TransportResourceCache transportResourceCache;
     private final NotificationRuleProcessor notificationRuleProcessor;
     private final EntityLimitsCache entityLimitsCache;
+    private final TransportDeviceCredentialsCache credentialsCache;
 
     protected TbQueueRequestTemplate<TbProtoQueueMsg<TransportApiRequestMsg>, TbProtoQueueMsg<TransportApiResponseMsg>> transportApiRequestTemplate;
+    protected TransportApiRequestCoalescer transportApiRequestCoalescer;
     protected TbQueueProducer<TbProtoQueueMsg<ToRuleEngineMsg>> ruleEngineMsgProducer;
     protected TbQueueProducer<TbProtoQueueMsg<ToCoreMsg>> tbCoreMsgProducer;
     protected QueueConsumerManager<TbProtoQueueMsg<ToTransportMsg>> transportNotificationsConsumer;
@@ -202,7 +218,7 @@ public class DefaultTransportService extends TransportActivityManager implements
                                    TransportRateLimitService rateLimitService,
                                    SchedulerComponent scheduler, TransportResourceCache transportResourceCache,
                                    ApplicationEventPublisher eventPublisher, NotificationRuleProcessor notificationRuleProcessor,
-                                   EntityLimitsCache entityLimitsCache) {
+                                   EntityLimitsCache entityLimitsCache, TransportDeviceCredentialsCache credentialsCache) {
         this.partitionService = partitionService;
         this.serviceInfoProvider = serviceInfoProvider;
         this.queueProvider = queueProvider;
@@ -217,6 +233,7 @@ public class DefaultTransportService extends TransportActivityManager implements
         this.eventPublisher = eventPublisher;
         this.notificationRuleProcessor = notificationRuleProcessor;
         this.entityLimitsCache = entityLimitsCache;
+        this.credentialsCache = credentialsCache;
     }
 
     @PostConstruct
@@ -229,6 +246,8 @@ public class DefaultTransportService extends TransportActivityManager implements
         this.scheduler.scheduleAtFixedRate(this::invalidateRateLimits, new Random().nextInt((int) sessionReportTimeout), sessionReportTimeout, TimeUnit.MILLISECONDS);
         transportApiRequestTemplate = queueProvider.createTransportApiRequestTemplate();
         transportApiRequestTemplate.setMessagesStats(transportApiStats);
+        transportApiRequestCoalescer = new TransportApiRequestCoalescer(transportApiRequestTemplate, apiRequestsCoalescingEnabled,
+                statsFactory.createDefaultCounter(StatsType.TRANSPORT.getName() + ".coalescedApiRequests"));
         ruleEngineMsgProducer = producerProvider.getRuleEngineMsgProducer();
         tbCoreMsgProducer = producerProvider.getTbCoreMsgProducer();
         transportApiRequestTemplate.init();
@@ -287,22 +306,27 @@ public class DefaultTransportService extends TransportActivityManager implements
 
     @Override
     public TransportProtos.GetEntityProfileResponseMsg getEntityProfile(TransportProtos.GetEntityProfileRequestMsg msg) {
-        TbProtoQueueMsg<TransportApiRequestMsg> protoMsg =
-                new TbProtoQueueMsg<>(UUID.randomUUID(), TransportApiRequestMsg.newBuilder().setEntityProfileRequestMsg(msg).build());
         try {
-            TbProtoQueueMsg<TransportApiResponseMsg> response = transportApiRequestTemplate.send(protoMsg).get();
-            return response.getValue().getEntityProfileResponseMsg();
+            return getEntityProfileAsync(msg).get();
         } catch (InterruptedException | ExecutionException e) {
             throw new RuntimeException(e);
         }
     }
 
+    @Override
+    public ListenableFuture<TransportProtos.GetEntityProfileResponseMsg> getEntityProfileAsync(TransportProtos.GetEntityProfileRequestMsg msg) {
+        TbProtoQueueMsg<TransportApiRequestMsg> protoMsg =
+                new TbProtoQueueMsg<>(UUID.randomUUID(), TransportApiRequestMsg.newBuilder().setEntityProfileRequestMsg(msg).build());
+        return Futures.transform(transportApiRequestCoalescer.send(protoMsg),
+                response -> response.getValue().getEntityProfileResponseMsg(), MoreExecutors.directExecutor());
+    }
+
     @Override
     public List<TransportProtos.GetQueueRoutingInfoResponseMsg> getQueueRoutingInfo(TransportProtos.GetAllQueueRoutingInfoRequestMsg msg) {
         TbProtoQueueMsg<TransportApiRequestMsg> protoMsg =
                 new TbProtoQueueMsg<>(UUID.randomUUID(), TransportApiRequestMsg.newBuilder().setGetAllQueueRoutingInfoRequestMsg(msg).build());
         try {
-            TbProtoQueueMsg<TransportApiResponseMsg> response = transportApiRequestTemplate.send(protoMsg).get();
+            TbProtoQueueMsg<TransportApiResponseMsg> response = transportApiRequestCoalescer.send(protoMsg).get();
             return response.getValue().getGetQueueRoutingInfoResponseMsgsList();
         } catch (InterruptedException | ExecutionException e) {
             throw new RuntimeException(e);
@@ -314,7 +338,7 @@ public class DefaultTransportService extends TransportActivityManager implements
         TbProtoQueueMsg<TransportApiRequestMsg> protoMsg =
                 new TbProtoQueueMsg<>(UUID.randomUUID(), TransportApiRequestMsg.newBuilder().setResourceRequestMsg(msg).build());
         try {
-            TbProtoQueueMsg<TransportApiResponseMsg> response = transportApiRequestTemplate.send(protoMsg).get();
+            TbProtoQueueMsg<TransportApiResponseMsg> response = transportApiRequestCoalescer.send(protoMsg).get();
             return response.getValue().getResourceResponseMsg();
         } catch (InterruptedException | ExecutionException e) {
             throw new RuntimeException(e);
@@ -330,7 +354,7 @@ public class DefaultTransportService extends TransportActivityManager implements
         );
 
         try {
-            TbProtoQueueMsg<TransportApiResponseMsg> response = transportApiRequestTemplate.send(protoMsg).get();
+            TbProtoQueueMsg<TransportApiResponseMsg> response = transportApiRequestCoalescer.send(protoMsg).get();
             return response.getValue().getSnmpDevicesResponseMsg();
         } catch (InterruptedException | ExecutionException e) {
             throw new RuntimeException(e);
@@ -339,22 +363,25 @@ public class DefaultTransportService extends TransportActivityManager implements
 
     @Override
     public TransportProtos.GetDeviceResponseMsg getDevice(TransportProtos.GetDeviceRequestMsg requestMsg) {
+        try {
+            return getDeviceAsync(requestMsg).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public ListenableFuture<TransportProtos.GetDeviceResponseMsg> getDeviceAsync(TransportProtos.GetDeviceRequestMsg requestMsg) {
         TbProtoQueueMsg<TransportApiRequestMsg> protoMsg = new TbProtoQueueMsg<>(
                 UUID.randomUUID(), TransportApiRequestMsg.newBuilder()
                 .setDeviceRequestMsg(requestMsg)
                 .build()
         );
 
-        try {
-            TransportApiResponseMsg response = transportApiRequestTemplate.send(protoMsg).get().getValue();
-            if (response.hasDeviceResponseMsg()) {
-                return response.getDeviceResponseMsg();
-            } else {
-                return null;
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
-        }
+        return Futures.transform(transportApiRequestCoalescer.send(protoMsg), tmp -> {
+            TransportApiResponseMsg response = tmp.getValue();
+            return response.hasDeviceResponseMsg() ? response.getDeviceResponseMsg() : null;
+        }, MoreExecutors.directExecutor());
     }
 
     @Override
@@ -366,7 +393,7 @@ public class DefaultTransportService extends TransportActivityManager implements
         );
 
         try {
-            TbProtoQueueMsg<TransportApiResponseMsg> response = transportApiRequestTemplate.send(protoMsg).get();
+            TbProtoQueueMsg<TransportApiResponseMsg> response = transportApiRequestCoalescer.send(protoMsg).get();
             return response.getValue().getDeviceCredentialsResponseMsg();
         } catch (InterruptedException | ExecutionException e) {
             throw new RuntimeException(e);
@@ -377,9 +404,20 @@ public class DefaultTransportService extends TransportActivityManager implements
     public void process(DeviceTransportType transportType, TransportProtos.ValidateDeviceTokenRequestMsg msg,
                         TransportServiceCallback<ValidateDeviceCredentialsResponse> callback) {
         log.trace("Processing msg: {}", msg);
+        if (credentialsCache.isEnabled()) {
+            ValidateDeviceCredentialsResponse cached = credentialsCache.get(transportType, msg.getToken());
+            if (cached != null) {
+                transportCallbackExecutor.submit(() -> callback.onSuccess(cached));
+                return;
+            }
+        }
         TbProtoQueueMsg<TransportApiRequestMsg> protoMsg = new TbProtoQueueMsg<>(UUID.randomUUID(),
                 TransportApiRequestMsg.newBuilder().setValidateTokenRequestMsg(msg).build());
-        doProcess(transportType, protoMsg, callback);
+        if (credentialsCache.isEnabled()) {
+            doProcess(transportType, protoMsg, new CachingCredentialsCallback(transportType, msg.getToken(), credentialsCache.getVersion(), callback));
+        } else {
+            doProcess(transportType, protoMsg, callback);
+        }
     }
 
     @Override
@@ -428,7 +466,7 @@ public class DefaultTransportService extends TransportActivityManager implements
 
     private void doProcess(DeviceTransportType transportType, TbProtoQueueMsg<TransportApiRequestMsg> protoMsg,
                            TransportServiceCallback<ValidateDeviceCredentialsResponse> callback) {
-        ListenableFuture<ValidateDeviceCredentialsResponse> response = Futures.transform(transportApiRequestTemplate.send(protoMsg), tmp -> {
+        ListenableFuture<ValidateDeviceCredentialsResponse> response = Futures.transform(transportApiRequestCoalescer.send(protoMsg), tmp -> {
             TransportProtos.ValidateDeviceCredentialsResponseMsg msg = tmp.getValue().getValidateCredResponseMsg();
             ValidateDeviceCredentialsResponse.ValidateDeviceCredentialsResponseBuilder result = ValidateDeviceCredentialsResponse.builder();
             if (msg.hasDeviceInfo()) {
@@ -458,7 +496,7 @@ public class DefaultTransportService extends TransportActivityManager implements
         if (entityLimitsCache.get(key)) {
             transportCallbackExecutor.submit(() -> callback.onError(new RuntimeException(DataConstants.MAXIMUM_NUMBER_OF_DEVICES_REACHED)));
         } else {
-            ListenableFuture<GetOrCreateDeviceFromGatewayResponse> response = Futures.transform(transportApiRequestTemplate.send(protoMsg), tmp -> {
+            ListenableFuture<GetOrCreateDeviceFromGatewayResponse> response = Futures.transform(transportApiRequestCoalescer.send(protoMsg), tmp -> {
                 TransportProtos.GetOrCreateDeviceFromGatewayResponseMsg msg = tmp.getValue().getGetOrCreateDeviceResponseMsg();
                 GetOrCreateDeviceFromGatewayResponse.GetOrCreateDeviceFromGatewayResponseBuilder result = GetOrCreateDeviceFromGatewayResponse.builder();
                 if (msg.hasDeviceInfo()) {
@@ -558,25 +596,97 @@ public class DefaultTransportService extends TransportActivityManager implements
 
     @Override
     public void process(TransportProtos.SessionInfoProto sessionInfo, TransportProtos.PostTelemetryMsg msg, TbMsgMetaData md, TransportServiceCallback<Void> callback) {
-        int dataPoints = 0;
-        for (TransportProtos.TsKvListProto tsKv : msg.getTsKvListList()) {
-            dataPoints += tsKv.getKvCount();
-        }
+        int dataPoints = getDataPoints(msg);
         if (checkLimits(sessionInfo, msg, callback, dataPoints)) {
             recordActivityInternal(sessionInfo);
             TenantId tenantId = getTenantId(sessionInfo);
-            DeviceId deviceId = new DeviceId(new UUID(sessionInfo.getDeviceIdMSB(), sessionInfo.getDeviceIdLSB()));
             CustomerId customerId = getCustomerId(sessionInfo);
             MsgPackCallback packCallback = new MsgPackCallback(msg.getTsKvListCount(), new ApiStatsProxyCallback<>(tenantId, customerId, dataPoints, callback));
-            for (TransportProtos.TsKvListProto tsKv : msg.getTsKvListList()) {
-                TbMsgMetaData metaData = md != null ? md.copy() : new TbMsgMetaData();
-                metaData.putValue("deviceName", sessionInfo.getDeviceName());
-                metaData.putValue("deviceType", sessionInfo.getDeviceType());
-                metaData.putValue("ts", tsKv.getTs() + "");
+            for (TbMsg tbMsg : toTelemetryTbMsgs(sessionInfo, msg, md)) {
+                sendToRuleEngine(tenantId, tbMsg, packCallback);
+            }
+        }
+    }
+
+    @Override
+    public void process(TransportProtos.SessionInfoProto sessionInfo, TransportProtos.PostTelemetryBatchMsg msg, TransportServiceCallback<Void> callback) {
+        TenantId tenantId = getTenantId(sessionInfo);
+        Map<CustomerId, int[]> usageByCustomer = new HashMap<>();
+        List<TbMsg> tbMsgs = new ArrayList<>();
+        EntityType rateLimitedEntityType = null;
+        for (TransportProtos.DevicePostTelemetryMsg deviceMsg : msg.getMsgsList()) {
+            TransportProtos.SessionInfoProto deviceSessionInfo = deviceMsg.getSessionInfo();
+            int dataPoints = getDataPoints(deviceMsg.getMsg());
+            EntityType limitedEntityType = checkRateLimits(deviceSessionInfo, deviceMsg.getMsg(), dataPoints);
+            if (limitedEntityType == EntityType.TENANT) {
+                callback.onError(new TbRateLimitsException(limitedEntityType));
+                return;
+            } else if (limitedEntityType != null) {
+                // The other devices are still forwarded, but the batch is not acknowledged, so the gateway re-sends the dropped data
+                log.debug("[{}][{}] Skipping telemetry of rate-limited device from the batch", tenantId, deviceSessionInfo.getDeviceName());
+                rateLimitedEntityType = limitedEntityType;
+                continue;
+            }
+            recordActivityInternal(deviceSessionInfo);
+            int[] usage = usageByCustomer.computeIfAbsent(getCustomerId(deviceSessionInfo), customerId -> new int[2]);
+            usage[0]++;
+            usage[1] += dataPoints;
+            tbMsgs.addAll(toTelemetryTbMsgs(deviceSessionInfo, deviceMsg.getMsg(), null));
+        }
+        TransportServiceCallback<Void> statsCallback = rateLimitedEntityType != null ? new RateLimitedBatchCallback(rateLimitedEntityType, callback) : callback;
+        for (Map.Entry<CustomerId, int[]> entry : usageByCustomer.entrySet()) {
+            statsCallback = new ApiStatsProxyCallback<>(tenantId, entry.getKey(), entry.getValue()[0], entry.getValue()[1], statsCallback);
+        }
+        if (tbMsgs.isEmpty()) {
+            TransportServiceCallback<Void> emptyCallback = statsCallback;
+            transportCallbackExecutor.submit(() -> emptyCallback.onSuccess(null));
+        } else if (gatewayBatchEnabled) {
+            Map<TopicPartitionInfo, List<TbMsg>> msgsByPartition = new LinkedHashMap<>();
+            for (TbMsg tbMsg : tbMsgs) {
+                TopicPartitionInfo tpi = partitionService.resolve(ServiceType.TB_RULE_ENGINE, tbMsg.getQueueName(), tenantId, tbMsg.getOriginator());
+                msgsByPartition.computeIfAbsent(tpi, k -> new ArrayList<>()).add(tbMsg);
+            }
+            List<Map.Entry<TopicPartitionInfo, List<TbMsg>>> batches = new ArrayList<>();
+            msgsByPartition.forEach((tpi, partitionMsgs) -> Lists.partition(partitionMsgs, Math.max(gatewayBatchMaxSize, 1))
+                    .forEach(batch -> batches.add(Map.entry(tpi, batch))));
+            MsgPackCallback packCallback = new MsgPackCallback(batches.size(), statsCallback);
+            batches.forEach(batch -> sendToRuleEngine(tenantId, batch.getKey(), batch.getValue(), packCallback));
+        } else {
+            MsgPackCallback packCallback = new MsgPackCallback(tbMsgs.size(), statsCallback);
+            tbMsgs.forEach(tbMsg -> sendToRuleEngine(tenantId, tbMsg, packCallback));
+        }
+    }
+
+    private int getDataPoints(TransportProtos.PostTelemetryMsg msg) {
+        int dataPoints = 0;
+        for (TransportProtos.TsKvListProto tsKv : msg.getTsKvListList()) {
+            dataPoints += tsKv.getKvCount();
+        }
+        return dataPoints;
+    }
+
+    private List<TbMsg> toTelemetryTbMsgs(TransportProtos.SessionInfoProto sessionInfo, TransportProtos.PostTelemetryMsg msg, TbMsgMetaData md) {
+        DeviceId deviceId = getDeviceId(sessionInfo);
+        CustomerId customerId = getCustomerId(sessionInfo);
+        DeviceProfile deviceProfile = getDeviceProfile(sessionInfo);
+        RuleChainId ruleChainId = deviceProfile != null ? deviceProfile.getDefaultRuleChainId() : null;
+        String queueName = deviceProfile != null ? deviceProfile.getDefaultQueueName() : null;
+        List<TbMsg> tbMsgs = new ArrayList<>(msg.getTsKvListCount());
+        for (TransportProtos.TsKvListProto tsKv : msg.getTsKvListList()) {
+            TbMsgMetaData metaData = md != null ? md.copy() : new TbMsgMetaData();
+            metaData.putValue("deviceName", sessionInfo.getDeviceName());
+            metaData.putValue("deviceType", sessionInfo.getDeviceType());
+            metaData.putValue("ts", tsKv.getTs() + "");
+            if (telemetryBinaryPayloadEnabled) {
+                List<KvEntry> kvData = new ArrayList<>(tsKv.getKvCount());
+                tsKv.getKvList().forEach(kv -> kvData.add(KvProtoUtil.fromTsKvProto(kv)));
+                tbMsgs.add(TbMsg.newMsg(queueName, TbMsgType.POST_TELEMETRY_REQUEST, deviceId, customerId, metaData, kvData, ruleChainId, null));
+            } else {
                 JsonObject json = JsonUtils.getJsonObject(tsKv.getKvList());
-                sendToRuleEngine(tenantId, deviceId, customerId, sessionInfo, json, metaData, TbMsgType.POST_TELEMETRY_REQUEST, packCallback);
+                tbMsgs.add(TbMsg.newMsg(queueName, TbMsgType.POST_TELEMETRY_REQUEST, deviceId, customerId, metaData, gson.toJson(json), ruleChainId, null));
             }
         }
+        return tbMsgs;
     }
 
     @Override
@@ -847,6 +957,18 @@ public class DefaultTransportService extends TransportActivityManager implements
     }
 
     private boolean checkLimits(TransportProtos.SessionInfoProto sessionInfo, Object msg, TransportServiceCallback<?> callback, int dataPoints) {
+        EntityType rateLimitedEntityType = checkRateLimits(sessionInfo, msg, dataPoints);
+        if (rateLimitedEntityType == null) {
+            return true;
+        } else {
+            if (callback != null) {
+                callback.onError(new TbRateLimitsException(rateLimitedEntityType));
+            }
+            return false;
+        }
+    }
+
+    private EntityType checkRateLimits(TransportProtos.SessionInfoProto sessionInfo, Object msg, int dataPoints) {
         if (log.isTraceEnabled()) {
             log.trace("[{}] Processing msg: {}", toSessionId(sessionInfo), msg);
         }
@@ -854,12 +976,7 @@ public class DefaultTransportService extends TransportActivityManager implements
         DeviceId deviceId = new DeviceId(new UUID(sessionInfo.getDeviceIdMSB(), sessionInfo.getDeviceIdLSB()));
 
         EntityType rateLimitedEntityType = rateLimitService.checkLimits(tenantId, deviceId, dataPoints);
-        if (rateLimitedEntityType == null) {
-            return true;
-        } else {
-            if (callback != null) {
-                callback.onError(new TbRateLimitsException(rateLimitedEntityType));
-            }
+        if (rateLimitedEntityType != null) {
             if (rateLimitedEntityType == EntityType.DEVICE || rateLimitedEntityType == EntityType.TENANT) {
                 notificationRuleProcessor.process(RateLimitsTrigger.builder()
                         .tenantId(tenantId)
@@ -868,8 +985,8 @@ public class DefaultTransportService extends TransportActivityManager implements
                         .limitLevelEntityName(rateLimitedEntityType == EntityType.DEVICE ? sessionInfo.getDeviceName() : null)
                         .build());
             }
-            return false;
         }
+        return rateLimitedEntityType;
     }
 
     protected void processToTransportMsg(ToTransportMsg toSessionMsg) {
@@ -913,6 +1030,7 @@ public class DefaultTransportService extends TransportActivityManager implements
                 UUID entityUuid = new UUID(msg.getEntityIdMSB(), msg.getEntityIdLSB());
                 if (EntityType.DEVICE_PROFILE.equals(entityType)) {
                     deviceProfileCache.evict(new DeviceProfileId(new UUID(msg.getEntityIdMSB(), msg.getEntityIdLSB())));
+                    credentialsCache.evict(new DeviceProfileId(entityUuid));
                 } else if (EntityType.TENANT_PROFILE.equals(entityType)) {
                     tenantProfileCache.remove(new TenantProfileId(entityUuid));
                 } else if (EntityType.TENANT.equals(entityType)) {
@@ -944,6 +1062,9 @@ public class DefaultTransportService extends TransportActivityManager implements
                     log.warn("ResourceDelete - [{}] [{}]", id, mdRez);
                     transportCallbackExecutor.submit(() -> mdRez.getListener().onResourceDelete(msg));
                 });
+            } else if (toSessionMsg.hasDeviceCredentialsChangeMsg()) {
+                TransportProtos.DeviceCredentialsChangeMsg msg = toSessionMsg.getDeviceCredentialsChangeMsg();
+                credentialsCache.evict(new DeviceId(new UUID(msg.getDeviceIdMSB(), msg.getDeviceIdLSB())));
             } else if (toSessionMsg.getQueueUpdateMsgsCount() > 0) {
                 partitionService.updateQueues(toSessionMsg.getQueueUpdateMsgsList());
             } else if (toSessionMsg.getQueueDeleteMsgsCount() > 0) {
@@ -982,6 +1103,7 @@ public class DefaultTransportService extends TransportActivityManager implements
             case DEVICEPROFILE:
                 DeviceProfile deviceProfile = deviceProfileCache.put(msg.getDeviceProfile());
                 log.debug("On device profile update: {}", deviceProfile);
+                credentialsCache.evict(deviceProfile.getId());
                 onProfileUpdate(deviceProfile);
                 break;
             case TENANTPROFILE:
@@ -1009,6 +1131,7 @@ public class DefaultTransportService extends TransportActivityManager implements
     }
 
     private void onDeviceUpdate(Device device) {
+        credentialsCache.evict(device.getId());
         long deviceIdMSB = device.getId().getId().getMostSignificantBits();
         long deviceIdLSB = device.getId().getId().getLeastSignificantBits();
         long deviceProfileIdMSB = device.getDeviceProfileId().getId().getMostSignificantBits();
@@ -1045,6 +1168,7 @@ public class DefaultTransportService extends TransportActivityManager implements
     }
 
     private void onDeviceDeleted(DeviceId deviceId) {
+        credentialsCache.evict(deviceId);
         sessions.forEach((id, md) -> {
             DeviceId sessionDeviceId = new DeviceId(new UUID(md.getSessionInfo().getDeviceIdMSB(), md.getSessionInfo().getDeviceIdLSB()));
             if (sessionDeviceId.equals(deviceId)) {
@@ -1116,22 +1240,38 @@ public class DefaultTransportService extends TransportActivityManager implements
 
     private void sendToRuleEngine(TenantId tenantId, DeviceId deviceId, CustomerId customerId, TransportProtos.SessionInfoProto sessionInfo, JsonObject json,
                                   TbMsgMetaData metaData, TbMsgType tbMsgType, TbQueueCallback callback) {
+        DeviceProfile deviceProfile = getDeviceProfile(sessionInfo);
+        RuleChainId ruleChainId = deviceProfile != null ? deviceProfile.getDefaultRuleChainId() : null;
+        String queueName = deviceProfile != null ? deviceProfile.getDefaultQueueName() : null;
+
+        TbMsg tbMsg = TbMsg.newMsg(queueName, tbMsgType, deviceId, customerId, metaData, gson.toJson(json), ruleChainId, null);
+        sendToRuleEngine(tenantId, tbMsg, callback);
+    }
+
+    private void sendToRuleEngine(TenantId tenantId, TopicPartitionInfo tpi, List<TbMsg> tbMsgs, TbQueueCallback callback) {
+        if (log.isTraceEnabled()) {
+            log.trace("[{}] Pushing to topic {} batch of {} messages", tenantId, tpi.getFullTopicName(), tbMsgs.size());
+        }
+        ToRuleEngineMsg.Builder msg = ToRuleEngineMsg.newBuilder()
+                .setTenantIdMSB(tenantId.getId().getMostSignificantBits())
+                .setTenantIdLSB(tenantId.getId().getLeastSignificantBits());
+        if (tbMsgs.size() == 1) {
+            msg.setTbMsg(TbMsg.toByteString(tbMsgs.get(0)));
+        } else {
+            tbMsgs.forEach(tbMsg -> msg.addTbMsgBatch(TbMsg.toByteString(tbMsg)));
+        }
+        ruleEngineProducerStats.incrementTotal();
+        StatsCallback wrappedCallback = new StatsCallback(callback, ruleEngineProducerStats);
+        ruleEngineMsgProducer.send(tpi, new TbProtoQueueMsg<>(tbMsgs.get(0).getId(), msg.build()), wrappedCallback);
+    }
+
+    private DeviceProfile getDeviceProfile(TransportProtos.SessionInfoProto sessionInfo) {
         DeviceProfileId deviceProfileId = new DeviceProfileId(new UUID(sessionInfo.getDeviceProfileIdMSB(), sessionInfo.getDeviceProfileIdLSB()));
         DeviceProfile deviceProfile = deviceProfileCache.get(deviceProfileId);
-        RuleChainId ruleChainId;
-        String queueName;
-
         if (deviceProfile == null) {
             log.warn("[{}] Device profile is null!", deviceProfileId);
-            ruleChainId = null;
-            queueName = null;
-        } else {
-            ruleChainId = deviceProfile.getDefaultRuleChainId();
-            queueName = deviceProfile.getDefaultQueueName();
         }
-
-        TbMsg tbMsg = TbMsg.newMsg(queueName, tbMsgType, deviceId, customerId, metaData, gson.toJson(json), ruleChainId, null);
-        sendToRuleEngine(tenantId, tbMsg, callback);
+        return deviceProfile;
     }
 
     private class TransportTbQueueCallback implements TbQueueCallback {
@@ -1201,12 +1341,18 @@ public class DefaultTransportService extends TransportActivityManager implements
     private class ApiStatsProxyCallback<T> implements TransportServiceCallback<T> {
         private final TenantId tenantId;
         private final CustomerId customerId;
+        private final int msgCount;
         private final int dataPoints;
         private final TransportServiceCallback<T> callback;
 
         public ApiStatsProxyCallback(TenantId tenantId, CustomerId customerId, int dataPoints, TransportServiceCallback<T> callback) {
+            this(tenantId, customerId, 1, dataPoints, callback);
+        }
+
+        public ApiStatsProxyCallback(TenantId tenantId, CustomerId customerId, int msgCount, int dataPoints, TransportServiceCallback<T> callback) {
             this.tenantId = tenantId;
             this.customerId = customerId;
+            this.msgCount = msgCount;
             this.dataPoints = dataPoints;
             this.callback = callback;
         }
@@ -1214,7 +1360,7 @@ public class DefaultTransportService extends TransportActivityManager implements
         @Override
         public void onSuccess(T msg) {
             try {
-                apiUsageClient.report(tenantId, customerId, ApiUsageRecordKey.TRANSPORT_MSG_COUNT, 1);
+                apiUsageClient.report(tenantId, customerId, ApiUsageRecordKey.TRANSPORT_MSG_COUNT, msgCount);
                 apiUsageClient.report(tenantId, customerId, ApiUsageRecordKey.TRANSPORT_DP_COUNT, dataPoints);
             } finally {
                 callback.onSuccess(msg);
@@ -1227,6 +1373,52 @@ public class DefaultTransportService extends TransportActivityManager implements
         }
     }
 
+    private static class RateLimitedBatchCallback implements TransportServiceCallback<Void> {
+        private final EntityType rateLimitedEntityType;
+        private final TransportServiceCallback<Void> callback;
+
+        private RateLimitedBatchCallback(EntityType rateLimitedEntityType, TransportServiceCallback<Void> callback) {
+            this.rateLimitedEntityType = rateLimitedEntityType;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onSuccess(Void msg) {
+            callback.onError(new TbRateLimitsException(rateLimitedEntityType));
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            callback.onError(e);
+        }
+    }
+
+    private class CachingCredentialsCallback implements TransportServiceCallback<ValidateDeviceCredentialsResponse> {
+        private final DeviceTransportType transportType;
+        private final String token;
+        private final long version;
+        private final TransportServiceCallback<ValidateDeviceCredentialsResponse> callback;
+
+        private CachingCredentialsCallback(DeviceTransportType transportType, String token, long version,
+                                           TransportServiceCallback<ValidateDeviceCredentialsResponse> callback) {
+            this.transportType = transportType;
+            this.token = token;
+            this.version = version;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onSuccess(ValidateDeviceCredentialsResponse msg) {
+            credentialsCache.put(transportType, token, msg, version);
+            callback.onSuccess(msg);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            callback.onError(e);
+        }
+    }
+
     @Override
     public ExecutorService getCallbackExecutor() {
         return transportCallbackExecutor;
@@ -0,0 +1,77 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.transport.service;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.gen.transport.TransportProtos.TransportApiRequestMsg;
+import org.thingsboard.server.gen.transport.TransportProtos.TransportApiResponseMsg;
+import org.thingsboard.server.queue.TbQueueRequestTemplate;
+import org.thingsboard.server.queue.common.TbProtoQueueMsg;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Sends a single transport API request for the identical requests that are issued while the first one is still in flight.
+ * All the callers share the response, so a reconnect of many devices costs one request per unique device.
+ * Only the requests without side effects (or idempotent get-or-create requests) should be sent through the coalescer.
+ */
+@Slf4j
+public class TransportApiRequestCoalescer {
+
+    private final TbQueueRequestTemplate<TbProtoQueueMsg<TransportApiRequestMsg>, TbProtoQueueMsg<TransportApiResponseMsg>> requestTemplate;
+    private final boolean enabled;
+    private final ConcurrentMap<TransportApiRequestMsg, ListenableFuture<TbProtoQueueMsg<TransportApiResponseMsg>>> inFlightRequests = new ConcurrentHashMap<>();
+    private final DefaultCounter coalescedRequests;
+
+    public TransportApiRequestCoalescer(TbQueueRequestTemplate<TbProtoQueueMsg<TransportApiRequestMsg>, TbProtoQueueMsg<TransportApiResponseMsg>> requestTemplate,
+                                        boolean enabled, DefaultCounter coalescedRequests) {
+        this.requestTemplate = requestTemplate;
+        this.enabled = enabled;
+        this.coalescedRequests = coalescedRequests;
+    }
+
+    public ListenableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> send(TbProtoQueueMsg<TransportApiRequestMsg> request) {
+        if (!enabled) {
+            return requestTemplate.send(request);
+        }
+        TransportApiRequestMsg key = request.getValue();
+        SettableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> future = SettableFuture.create();
+        ListenableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> inFlight = inFlightRequests.putIfAbsent(key, future);
+        if (inFlight != null) {
+            coalescedRequests.increment();
+            log.trace("[{}] Joining in-flight transport API request", request.getKey());
+            return Futures.nonCancellationPropagating(inFlight);
+        }
+        future.addListener(() -> inFlightRequests.remove(key, future), MoreExecutors.directExecutor());
+        try {
+            future.setFuture(requestTemplate.send(request));
+        } catch (Throwable t) {
+            future.setException(t);
+        }
+        return Futures.nonCancellationPropagating(future);
+    }
+
+    public int getInFlightRequestsCount() {
+        return inFlightRequests.size();
+    }
+
+}
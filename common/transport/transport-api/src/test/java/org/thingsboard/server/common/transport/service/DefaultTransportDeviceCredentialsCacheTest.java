@@ -0,0 +1,150 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.transport.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.DeviceTransportType;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.DeviceProfileId;
+import org.thingsboard.server.common.transport.auth.TransportDeviceInfo;
+import org.thingsboard.server.common.transport.auth.ValidateDeviceCredentialsResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DefaultTransportDeviceCredentialsCacheTest {
+
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+    private final DeviceProfileId deviceProfileId = new DeviceProfileId(UUID.randomUUID());
+
+    private DefaultTransportDeviceCredentialsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DefaultTransportDeviceCredentialsCache(true, 60000, 1000);
+    }
+
+    @Test
+    void givenValidatedToken_whenGet_thenReturnCachedResponse() {
+        ValidateDeviceCredentialsResponse response = response(deviceId);
+        cache.put(DeviceTransportType.DEFAULT, "token", response, cache.getVersion());
+
+        assertThat(cache.get(DeviceTransportType.DEFAULT, "token")).isSameAs(response);
+        assertThat(cache.get(DeviceTransportType.DEFAULT, "other")).isNull();
+        assertThat(cache.get(DeviceTransportType.COAP, "token")).isNull();
+    }
+
+    @Test
+    void givenUnknownToken_whenPut_thenNotCached() {
+        cache.put(DeviceTransportType.DEFAULT, "token", ValidateDeviceCredentialsResponse.builder().build(), cache.getVersion());
+
+        assertThat(cache.get(DeviceTransportType.DEFAULT, "token")).isNull();
+    }
+
+    @Test
+    void givenCachedToken_whenDeviceEvicted_thenRemoved() {
+        DeviceId otherDeviceId = new DeviceId(UUID.randomUUID());
+        cache.put(DeviceTransportType.DEFAULT, "token", response(deviceId), cache.getVersion());
+        cache.put(DeviceTransportType.DEFAULT, "other", response(otherDeviceId), cache.getVersion());
+
+        cache.evict(deviceId);
+
+        assertThat(cache.get(DeviceTransportType.DEFAULT, "token")).isNull();
+        assertThat(cache.get(DeviceTransportType.DEFAULT, "other")).isNotNull();
+    }
+
+    @Test
+    void givenCachedToken_whenDeviceProfileEvicted_thenRemoved() {
+        cache.put(DeviceTransportType.DEFAULT, "token", response(deviceId), cache.getVersion());
+
+        cache.evict(deviceProfileId);
+
+        assertThat(cache.get(DeviceTransportType.DEFAULT, "token")).isNull();
+    }
+
+    @Test
+    void givenEvictionDuringValidation_whenPut_thenNotCached() {
+        long version = cache.getVersion();
+        cache.evict(deviceId);
+
+        cache.put(DeviceTransportType.DEFAULT, "token", response(deviceId), version);
+
+        assertThat(cache.get(DeviceTransportType.DEFAULT, "token")).isNull();
+    }
+
+    @Test
+    void givenConcurrentPutsAndSizeEvictions_whenDevicesEvicted_thenNoTokenIsLeft() throws Exception {
+        // About one cached token per device, so the size evictions keep emptying and recreating the per-device token sets
+        cache = new DefaultTransportDeviceCredentialsCache(true, 60000, 64);
+        List<DeviceId> deviceIds = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            deviceIds.add(new DeviceId(UUID.randomUUID()));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 200; round++) {
+                Queue<String> tokens = new ConcurrentLinkedQueue<>();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int thread = 0; thread < 4; thread++) {
+                    String prefix = round + "-" + thread + "-";
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < 1000; i++) {
+                            String token = prefix + i;
+                            tokens.add(token);
+                            cache.put(DeviceTransportType.DEFAULT, token, response(deviceIds.get(i % deviceIds.size())), cache.getVersion());
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+
+                deviceIds.forEach(cache::evict);
+
+                assertThat(tokens).allSatisfy(token -> assertThat(cache.get(DeviceTransportType.DEFAULT, token)).isNull());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void givenDisabledCache_whenPut_thenNotCached() {
+        cache = new DefaultTransportDeviceCredentialsCache(false, 60000, 1000);
+        cache.put(DeviceTransportType.DEFAULT, "token", response(deviceId), cache.getVersion());
+
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(cache.get(DeviceTransportType.DEFAULT, "token")).isNull();
+    }
+
+    private ValidateDeviceCredentialsResponse response(DeviceId deviceId) {
+        TransportDeviceInfo deviceInfo = new TransportDeviceInfo();
+        deviceInfo.setDeviceId(deviceId);
+        deviceInfo.setDeviceProfileId(deviceProfileId);
+        return ValidateDeviceCredentialsResponse.builder().deviceInfo(deviceInfo).credentials("token").build();
+    }
+
+}
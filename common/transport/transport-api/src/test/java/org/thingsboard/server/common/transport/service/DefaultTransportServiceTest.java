@@ -0,0 +1,174 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.transport.service;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.notification.NotificationRuleProcessor;
+import org.thingsboard.server.common.msg.queue.ServiceType;
+import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
+import org.thingsboard.server.common.msg.tools.TbRateLimitsException;
+import org.thingsboard.server.common.stats.MessagesStats;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.common.stats.TbApiUsageReportClient;
+import org.thingsboard.server.common.transport.TransportDeviceCredentialsCache;
+import org.thingsboard.server.common.transport.TransportDeviceProfileCache;
+import org.thingsboard.server.common.transport.TransportResourceCache;
+import org.thingsboard.server.common.transport.TransportServiceCallback;
+import org.thingsboard.server.common.transport.TransportTenantProfileCache;
+import org.thingsboard.server.common.transport.limits.EntityLimitsCache;
+import org.thingsboard.server.common.transport.limits.TransportRateLimitService;
+import org.thingsboard.server.gen.transport.TransportProtos;
+import org.thingsboard.server.gen.transport.TransportProtos.ToRuleEngineMsg;
+import org.thingsboard.server.queue.TbQueueCallback;
+import org.thingsboard.server.queue.TbQueueProducer;
+import org.thingsboard.server.queue.common.TbProtoQueueMsg;
+import org.thingsboard.server.queue.discovery.PartitionService;
+import org.thingsboard.server.queue.discovery.TbServiceInfoProvider;
+import org.thingsboard.server.queue.discovery.TopicService;
+import org.thingsboard.server.queue.provider.TbQueueProducerProvider;
+import org.thingsboard.server.queue.provider.TbTransportQueueFactory;
+import org.thingsboard.server.queue.scheduler.SchedulerComponent;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DefaultTransportServiceTest {
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+    private final DeviceId limitedDeviceId = new DeviceId(UUID.randomUUID());
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    @Mock
+    private PartitionService partitionService;
+    @Mock
+    private TransportRateLimitService rateLimitService;
+    @Mock
+    private NotificationRuleProcessor notificationRuleProcessor;
+    @Mock
+    private TbQueueProducer<TbProtoQueueMsg<ToRuleEngineMsg>> ruleEngineMsgProducer;
+
+    private DefaultTransportService transportService;
+
+    @BeforeEach
+    public void setUp() {
+        transportService = spy(new DefaultTransportService(partitionService, mock(TbServiceInfoProvider.class), mock(TbTransportQueueFactory.class),
+                mock(TbQueueProducerProvider.class), mock(TopicService.class), mock(StatsFactory.class), mock(TransportDeviceProfileCache.class),
+                mock(TransportTenantProfileCache.class), rateLimitService, mock(SchedulerComponent.class), mock(TransportResourceCache.class),
+                mock(ApplicationEventPublisher.class), notificationRuleProcessor, mock(EntityLimitsCache.class), mock(TransportDeviceCredentialsCache.class)));
+        ReflectionTestUtils.setField(transportService, "ruleEngineMsgProducer", ruleEngineMsgProducer);
+        ReflectionTestUtils.setField(transportService, "ruleEngineProducerStats", mock(MessagesStats.class));
+        ReflectionTestUtils.setField(transportService, "transportCallbackExecutor", MoreExecutors.newDirectExecutorService());
+        ReflectionTestUtils.setField(transportService, "apiUsageClient", mock(TbApiUsageReportClient.class));
+        lenient().doNothing().when(transportService).onActivity(any(), any(), anyLong());
+    }
+
+    @Test
+    public void givenRateLimitedSubDevice_whenProcessTelemetryBatch_thenOtherDevicesAreForwardedAndBatchIsNotAcked() {
+        when(rateLimitService.checkLimits(eq(tenantId), eq(limitedDeviceId), anyInt())).thenReturn(EntityType.DEVICE);
+        when(partitionService.resolve(eq(ServiceType.TB_RULE_ENGINE), any(), eq(tenantId), any()))
+                .thenReturn(TopicPartitionInfo.builder().topic("tb_rule_engine.main").partition(0).build());
+        doAnswer(invocation -> {
+            invocation.<TbQueueCallback>getArgument(2).onSuccess(null);
+            return null;
+        }).when(ruleEngineMsgProducer).send(any(), any(), any());
+
+        TransportProtos.PostTelemetryBatchMsg batchMsg = TransportProtos.PostTelemetryBatchMsg.newBuilder()
+                .addMsgs(toDeviceMsg(limitedDeviceId, "limited"))
+                .addMsgs(toDeviceMsg(deviceId, "device"))
+                .build();
+        TransportServiceCallback<Void> callback = mock(TransportServiceCallback.class);
+
+        transportService.process(toSessionInfo(new DeviceId(UUID.randomUUID()), "gateway"), batchMsg, callback);
+
+        ArgumentCaptor<TbProtoQueueMsg<ToRuleEngineMsg>> msgCaptor = ArgumentCaptor.forClass(TbProtoQueueMsg.class);
+        verify(ruleEngineMsgProducer).send(any(), msgCaptor.capture(), any());
+        TbMsg tbMsg = TbMsg.fromBytes(null, msgCaptor.getValue().getValue().getTbMsg().toByteArray(), null);
+        assertThat(tbMsg.getOriginator()).isEqualTo(deviceId);
+        verify(callback, never()).onSuccess(any());
+        verify(callback).onError(any(TbRateLimitsException.class));
+        verify(notificationRuleProcessor).process(any());
+    }
+
+    @Test
+    public void givenRateLimitedTenant_whenProcessTelemetryBatch_thenNothingIsForwardedAndBatchIsNotAcked() {
+        when(rateLimitService.checkLimits(eq(tenantId), any(), anyInt())).thenReturn(EntityType.TENANT);
+
+        TransportProtos.PostTelemetryBatchMsg batchMsg = TransportProtos.PostTelemetryBatchMsg.newBuilder()
+                .addMsgs(toDeviceMsg(limitedDeviceId, "limited"))
+                .addMsgs(toDeviceMsg(deviceId, "device"))
+                .build();
+        TransportServiceCallback<Void> callback = mock(TransportServiceCallback.class);
+
+        transportService.process(toSessionInfo(new DeviceId(UUID.randomUUID()), "gateway"), batchMsg, callback);
+
+        verify(ruleEngineMsgProducer, never()).send(any(), any(), any());
+        verify(callback, never()).onSuccess(any());
+        verify(callback).onError(any(TbRateLimitsException.class));
+    }
+
+    private TransportProtos.DevicePostTelemetryMsg toDeviceMsg(DeviceId deviceId, String deviceName) {
+        return TransportProtos.DevicePostTelemetryMsg.newBuilder()
+                .setSessionInfo(toSessionInfo(deviceId, deviceName))
+                .setMsg(TransportProtos.PostTelemetryMsg.newBuilder()
+                        .addTsKvList(TransportProtos.TsKvListProto.newBuilder()
+                                .setTs(System.currentTimeMillis())
+                                .addKv(TransportProtos.KeyValueProto.newBuilder()
+                                        .setKey("temperature")
+                                        .setType(TransportProtos.KeyValueType.LONG_V)
+                                        .setLongV(42))))
+                .build();
+    }
+
+    private TransportProtos.SessionInfoProto toSessionInfo(DeviceId deviceId, String deviceName) {
+        return TransportProtos.SessionInfoProto.newBuilder()
+                .setSessionIdMSB(UUID.randomUUID().getMostSignificantBits())
+                .setSessionIdLSB(UUID.randomUUID().getLeastSignificantBits())
+                .setTenantIdMSB(tenantId.getId().getMostSignificantBits())
+                .setTenantIdLSB(tenantId.getId().getLeastSignificantBits())
+                .setDeviceIdMSB(deviceId.getId().getMostSignificantBits())
+                .setDeviceIdLSB(deviceId.getId().getLeastSignificantBits())
+                .setDeviceName(deviceName)
+                .setDeviceType("default")
+                .build();
+    }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.transport.service;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.micrometer.core.instrument.Counter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.gen.transport.TransportProtos.TransportApiRequestMsg;
+import org.thingsboard.server.gen.transport.TransportProtos.TransportApiResponseMsg;
+import org.thingsboard.server.gen.transport.TransportProtos.ValidateDeviceTokenRequestMsg;
+import org.thingsboard.server.queue.TbQueueRequestTemplate;
+import org.thingsboard.server.queue.common.TbProtoQueueMsg;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransportApiRequestCoalescerTest {
+
+    private TbQueueRequestTemplate<TbProtoQueueMsg<TransportApiRequestMsg>, TbProtoQueueMsg<TransportApiResponseMsg>> requestTemplate;
+    private SettableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> responseFuture;
+    private DefaultCounter coalescedRequests;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        requestTemplate = mock(TbQueueRequestTemplate.class);
+        responseFuture = SettableFuture.create();
+        when(requestTemplate.send(any())).thenReturn(responseFuture);
+        coalescedRequests = new DefaultCounter(new AtomicInteger(), mock(Counter.class));
+    }
+
+    @Test
+    void givenIdenticalRequestsInFlight_whenSend_thenSentOnceAndResponseShared() throws Exception {
+        TransportApiRequestCoalescer coalescer = new TransportApiRequestCoalescer(requestTemplate, true, coalescedRequests);
+
+        ListenableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> first = coalescer.send(request("token"));
+        ListenableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> second = coalescer.send(request("token"));
+        ListenableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> other = coalescer.send(request("other"));
+
+        verify(requestTemplate, times(2)).send(any());
+        assertThat(coalescedRequests.get()).isEqualTo(1);
+        assertThat(coalescer.getInFlightRequestsCount()).isEqualTo(2);
+
+        TbProtoQueueMsg<TransportApiResponseMsg> response = new TbProtoQueueMsg<>(UUID.randomUUID(), TransportApiResponseMsg.getDefaultInstance());
+        responseFuture.set(response);
+
+        assertThat(first.get()).isSameAs(response);
+        assertThat(second.get()).isSameAs(response);
+        assertThat(other.get()).isSameAs(response);
+        assertThat(coalescer.getInFlightRequestsCount()).isZero();
+    }
+
+    @Test
+    void givenCompletedRequest_whenSendAgain_thenSentAgain() {
+        TransportApiRequestCoalescer coalescer = new TransportApiRequestCoalescer(requestTemplate, true, coalescedRequests);
+
+        coalescer.send(request("token"));
+        responseFuture.setException(new RuntimeException("failed"));
+        coalescer.send(request("token"));
+
+        verify(requestTemplate, times(2)).send(any());
+        assertThat(coalescedRequests.get()).isZero();
+    }
+
+    @Test
+    void givenFailedRequest_whenSend_thenFailurePropagatedToAllCallers() {
+        TransportApiRequestCoalescer coalescer = new TransportApiRequestCoalescer(requestTemplate, true, coalescedRequests);
+
+        ListenableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> first = coalescer.send(request("token"));
+        ListenableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> second = coalescer.send(request("token"));
+        responseFuture.setException(new RuntimeException("failed"));
+
+        assertThatThrownBy(first::get).isInstanceOf(ExecutionException.class).hasRootCauseMessage("failed");
+        assertThatThrownBy(second::get).isInstanceOf(ExecutionException.class).hasRootCauseMessage("failed");
+    }
+
+    @Test
+    void givenCallerCancels_whenSend_thenSharedRequestNotCancelled() {
+        TransportApiRequestCoalescer coalescer = new TransportApiRequestCoalescer(requestTemplate, true, coalescedRequests);
+
+        ListenableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> first = coalescer.send(request("token"));
+        ListenableFuture<TbProtoQueueMsg<TransportApiResponseMsg>> second = coalescer.send(request("token"));
+        first.cancel(true);
+
+        assertThat(responseFuture.isCancelled()).isFalse();
+        assertThat(second.isDone()).isFalse();
+    }
+
+    @Test
+    void givenCoalescingDisabled_whenSend_thenEveryRequestSent() {
+        TransportApiRequestCoalescer coalescer = new TransportApiRequestCoalescer(requestTemplate, false, coalescedRequests);
+
+        coalescer.send(request("token"));
+        coalescer.send(request("token"));
+
+        verify(requestTemplate, times(2)).send(any());
+        assertThat(coalescer.getInFlightRequestsCount()).isZero();
+    }
+
+    private static TbProtoQueueMsg<TransportApiRequestMsg> request(String token) {
+        return new TbProtoQueueMsg<>(UUID.randomUUID(), TransportApiRequestMsg.newBuilder()
+                .setValidateTokenRequestMsg(ValidateDeviceTokenRequestMsg.newBuilder().setToken(token).build())
+                .build());
+    }
+
+}
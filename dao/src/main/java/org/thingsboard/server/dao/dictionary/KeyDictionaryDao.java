@@ -15,11 +15,20 @@
  */
 package org.thingsboard.server.dao.dictionary;
 
+import java.util.Collection;
+import java.util.Map;
 
 public interface KeyDictionaryDao {
 
     Integer getOrSaveKeyId(String strKey);
 
+    /**
+     * Resolves the ids of all keys at once, creating the missing ones.
+     *
+     * @return map of the key to its id
+     */
+    Map<String, Integer> getOrSaveKeyIds(Collection<String> strKeys);
+
     String getKey(Integer keyId);
 
 }
@@ -95,6 +95,14 @@ public class QueueValidator extends DataValidator<Queue> {
         if (submitStrategy.getType() == SubmitStrategyType.BATCH && submitStrategy.getBatchSize() < 1) {
             throw new DataValidationException("Queue submit strategy batch size should be more then 0!");
         }
+        if (submitStrategy.getType() == SubmitStrategyType.PARALLEL_BY_ORIGINATOR) {
+            if (submitStrategy.getLanes() < 1) {
+                throw new DataValidationException("Queue submit strategy lanes should be more then 0!");
+            }
+            if (submitStrategy.getLaneWindowSize() < 1) {
+                throw new DataValidationException("Queue submit strategy lane window size should be more then 0!");
+            }
+        }
         ProcessingStrategy processingStrategy = queue.getProcessingStrategy();
         if (processingStrategy == null) {
             throw new DataValidationException("Queue processing strategy can't be null!");
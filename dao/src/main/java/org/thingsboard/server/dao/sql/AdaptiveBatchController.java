@@ -0,0 +1,82 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tunes the batch size and the linger time of the {@link TbSqlBlockingQueue} using AIMD driven by the save latency.
+ * When the save takes longer than the target latency, the batch size is halved so that each transaction holds its
+ * locks for a shorter time and a slow save delays fewer queued entities. Under a backlog this means more, smaller
+ * transactions, since full batches are saved without lingering. The linger time is doubled as well, which only spaces out
+ * the partial batches once the backlog is drained. Otherwise, the batch size grows by a fixed step while
+ * the batches are full and the linger time shrinks by a fixed step while the queue is drained, which reduces the latency
+ * under light load.
+ */
+class AdaptiveBatchController {
+
+    private static final int STEPS = 10;
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long maxLingerMs;
+    private final long targetLatencyMs;
+    private final int batchSizeStep;
+    private final long lingerStep;
+
+    @Getter
+    private final AtomicInteger batchSize;
+    @Getter
+    private final AtomicLong lingerMs;
+
+    AdaptiveBatchController(TbSqlBlockingQueueParams params) {
+        this.maxBatchSize = params.getBatchSize();
+        this.minBatchSize = Math.max(1, Math.min(params.getAdaptiveBatchMinSize(), maxBatchSize));
+        this.maxLingerMs = params.getMaxDelay();
+        this.targetLatencyMs = params.getAdaptiveBatchTargetLatencyMs();
+        this.batchSizeStep = Math.max(1, maxBatchSize / STEPS);
+        this.lingerStep = Math.max(1, maxLingerMs / STEPS);
+        this.batchSize = new AtomicInteger(maxBatchSize);
+        this.lingerMs = new AtomicLong(maxLingerMs);
+    }
+
+    void onBatchSaved(int savedCount, long latencyMs, int queueSize) {
+        if (latencyMs > targetLatencyMs) {
+            decrease();
+        } else {
+            int currentBatchSize = batchSize.get();
+            if (savedCount >= currentBatchSize && currentBatchSize < maxBatchSize) {
+                batchSize.set(Math.min(maxBatchSize, currentBatchSize + batchSizeStep));
+            }
+            if (queueSize == 0) {
+                lingerMs.set(Math.max(0, lingerMs.get() - lingerStep));
+            }
+        }
+    }
+
+    void onBatchFailed() {
+        decrease();
+    }
+
+    private void decrease() {
+        batchSize.set(Math.max(minBatchSize, batchSize.get() / 2));
+        lingerMs.set(Math.min(maxLingerMs, Math.max(1, lingerMs.get() * 2)));
+    }
+
+}
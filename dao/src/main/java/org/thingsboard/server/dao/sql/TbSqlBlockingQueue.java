@@ -15,10 +15,13 @@
  */
 package org.thingsboard.server.dao.sql;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.common.util.ThingsBoardThreadFactory;
+import org.thingsboard.server.common.data.exception.StorageOverloadedException;
 import org.thingsboard.server.common.stats.MessagesStats;
 
 import java.util.ArrayList;
@@ -29,22 +32,57 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Slf4j
 public class TbSqlBlockingQueue<E> implements TbSqlQueue<E> {
 
-    private final BlockingQueue<TbSqlQueueElement<E>> queue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<TbSqlQueueElement<E>> queue;
     private final TbSqlBlockingQueueParams params;
+    private final ToIntFunction<E> sizeFunction;
 
     private ExecutorService executor;
     private final MessagesStats stats;
+    private final AdaptiveBatchController adaptiveBatchController;
+
+    @Getter
+    private final AtomicInteger batchSize;
+    @Getter
+    private final AtomicLong lingerMs;
+    @Getter
+    private final AtomicInteger queueSize = new AtomicInteger();
+    @Getter
+    private final AtomicLong queueBytes = new AtomicLong();
+    @Getter
+    private final AtomicLong rejectedCount = new AtomicLong();
 
     public TbSqlBlockingQueue(TbSqlBlockingQueueParams params, MessagesStats stats) {
+        this(params, stats, null);
+    }
+
+    /**
+     * @param sizeFunction estimates the heap footprint of the element in bytes;
+     *                     the byte budget of the queue is only enforced when it is set
+     */
+    public TbSqlBlockingQueue(TbSqlBlockingQueueParams params, MessagesStats stats, ToIntFunction<E> sizeFunction) {
         this.params = params;
         this.stats = stats;
+        this.queue = params.getMaxQueueSize() > 0 ? new LinkedBlockingQueue<>(params.getMaxQueueSize()) : new LinkedBlockingQueue<>();
+        this.sizeFunction = params.getMaxQueueBytes() > 0 ? sizeFunction : null;
+        if (params.isAdaptiveBatchEnabled()) {
+            adaptiveBatchController = new AdaptiveBatchController(params);
+            batchSize = adaptiveBatchController.getBatchSize();
+            lingerMs = adaptiveBatchController.getLingerMs();
+        } else {
+            adaptiveBatchController = null;
+            batchSize = new AtomicInteger(params.getBatchSize());
+            lingerMs = new AtomicLong(params.getMaxDelay());
+        }
     }
 
     @Override
@@ -52,33 +90,43 @@ public class TbSqlBlockingQueue<E> implements TbSqlQueue<E> {
         executor = Executors.newSingleThreadExecutor(ThingsBoardThreadFactory.forName("sql-queue-" + index + "-" + params.getLogName().toLowerCase()));
         executor.submit(() -> {
             String logName = params.getLogName();
-            int batchSize = params.getBatchSize();
             long maxDelay = params.getMaxDelay();
-            final List<TbSqlQueueElement<E>> entities = new ArrayList<>(batchSize);
+            final List<TbSqlQueueElement<E>> entities = new ArrayList<>(params.getBatchSize());
             while (!Thread.interrupted()) {
                 try {
+                    int batchSize = this.batchSize.get();
+                    long lingerMs = this.lingerMs.get();
                     long currentTs = System.currentTimeMillis();
                     TbSqlQueueElement<E> attr = queue.poll(maxDelay, TimeUnit.MILLISECONDS);
                     if (attr == null) {
+                        queueSize.set(0);
                         continue;
                     } else {
                         entities.add(attr);
                     }
                     queue.drainTo(entities, batchSize - 1);
+                    if (sizeFunction != null) {
+                        queueBytes.addAndGet(-entities.stream().mapToLong(TbSqlQueueElement::getSize).sum());
+                    }
                     boolean fullPack = entities.size() == batchSize;
                     if (log.isDebugEnabled()) {
                         log.debug("[{}] Going to save {} entities", logName, entities.size());
                         log.trace("[{}] Going to save entities: {}", logName, entities);
                     }
                     Stream<E> entitiesStream = entities.stream().map(TbSqlQueueElement::getEntity);
+                    long saveStartTs = System.currentTimeMillis();
                     saveFunction.accept(
                             (params.isBatchSortEnabled() ? entitiesStream.sorted(batchUpdateComparator) : entitiesStream)
                                     .collect(Collectors.toList())
                     );
                     entities.forEach(v -> v.getFuture().set(null));
                     stats.incrementSuccessful(entities.size());
+                    queueSize.set(queue.size());
+                    if (adaptiveBatchController != null) {
+                        adaptiveBatchController.onBatchSaved(entities.size(), System.currentTimeMillis() - saveStartTs, queueSize.get());
+                    }
                     if (!fullPack) {
-                        long remainingDelay = maxDelay - (System.currentTimeMillis() - currentTs);
+                        long remainingDelay = lingerMs - (System.currentTimeMillis() - currentTs);
                         if (remainingDelay > 0) {
                             Thread.sleep(remainingDelay);
                         }
@@ -89,6 +137,9 @@ public class TbSqlBlockingQueue<E> implements TbSqlQueue<E> {
                         break;
                     } else {
                         log.error("[{}] Failed to save {} entities", logName, entities.size(), t);
+                        if (adaptiveBatchController != null) {
+                            adaptiveBatchController.onBatchFailed();
+                        }
                         try {
                             stats.incrementFailed(entities.size());
                             entities.forEach(entityFutureWrapper -> entityFutureWrapper.getFuture().setException(t));
@@ -105,8 +156,18 @@ public class TbSqlBlockingQueue<E> implements TbSqlQueue<E> {
 
         logExecutor.scheduleAtFixedRate(() -> {
             if (queue.size() > 0 || stats.getTotal() > 0 || stats.getSuccessful() > 0 || stats.getFailed() > 0) {
-                log.info("Queue-{} [{}] queueSize [{}] totalAdded [{}] totalSaved [{}] totalFailed [{}]", index,
-                        params.getLogName(), queue.size(), stats.getTotal(), stats.getSuccessful(), stats.getFailed());
+                long rejected = rejectedCount.getAndSet(0);
+                if (rejected > 0) {
+                    log.warn("Queue-{} [{}] rejected [{}] entities due to the queue overload, queueSize [{}] queueBytes [{}]", index,
+                            params.getLogName(), rejected, queue.size(), queueBytes.get());
+                }
+                if (adaptiveBatchController != null) {
+                    log.info("Queue-{} [{}] queueSize [{}] totalAdded [{}] totalSaved [{}] totalFailed [{}] batchSize [{}] lingerMs [{}]", index,
+                            params.getLogName(), queue.size(), stats.getTotal(), stats.getSuccessful(), stats.getFailed(), batchSize.get(), lingerMs.get());
+                } else {
+                    log.info("Queue-{} [{}] queueSize [{}] totalAdded [{}] totalSaved [{}] totalFailed [{}]", index,
+                            params.getLogName(), queue.size(), stats.getTotal(), stats.getSuccessful(), stats.getFailed());
+                }
                 stats.reset();
             }
         }, params.getStatsPrintIntervalMs(), params.getStatsPrintIntervalMs(), TimeUnit.MILLISECONDS);
@@ -121,9 +182,29 @@ public class TbSqlBlockingQueue<E> implements TbSqlQueue<E> {
 
     @Override
     public ListenableFuture<Void> add(E element) {
+        int size = 0;
+        if (sizeFunction != null) {
+            size = sizeFunction.applyAsInt(element);
+            long bytes = queueBytes.addAndGet(size);
+            // a single element bigger than the whole budget is still accepted by an empty queue
+            if (bytes > params.getMaxQueueBytes() && bytes != size) {
+                queueBytes.addAndGet(-size);
+                return reject();
+            }
+        }
         SettableFuture<Void> future = SettableFuture.create();
-        queue.add(new TbSqlQueueElement<>(future, element));
+        if (!queue.offer(new TbSqlQueueElement<>(future, element, size))) {
+            if (size > 0) {
+                queueBytes.addAndGet(-size);
+            }
+            return reject();
+        }
         stats.incrementTotal();
         return future;
     }
+
+    private ListenableFuture<Void> reject() {
+        rejectedCount.incrementAndGet();
+        return Futures.immediateFailedFuture(new StorageOverloadedException(params.getLogName() + " queue is full"));
+    }
 }
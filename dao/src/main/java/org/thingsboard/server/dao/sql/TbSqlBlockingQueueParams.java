@@ -30,4 +30,9 @@ public class TbSqlBlockingQueueParams {
     private final long statsPrintIntervalMs;
     private final String statsNamePrefix;
     private final boolean batchSortEnabled;
+    private final boolean adaptiveBatchEnabled;
+    private final int adaptiveBatchMinSize;
+    private final long adaptiveBatchTargetLatencyMs;
+    private final int maxQueueSize;
+    private final long maxQueueBytes;
 }
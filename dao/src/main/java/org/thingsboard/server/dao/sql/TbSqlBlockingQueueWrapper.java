@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 @Slf4j
 @Data
@@ -36,6 +37,10 @@ public class TbSqlBlockingQueueWrapper<E> {
     private final Function<E, Integer> hashCodeFunction;
     private final int maxThreads;
     private final StatsFactory statsFactory;
+    /**
+     * Estimates the heap footprint of the queued entity, used to enforce the byte budget of the queues.
+     */
+    private ToIntFunction<E> sizeFunction;
 
     /**
      * Starts TbSqlBlockingQueues.
@@ -47,8 +52,13 @@ public class TbSqlBlockingQueueWrapper<E> {
      */
     public void init(ScheduledLogExecutorComponent logExecutor, Consumer<List<E>> saveFunction, Comparator<E> batchUpdateComparator) {
         for (int i = 0; i < maxThreads; i++) {
-            MessagesStats stats = statsFactory.createMessagesStats(params.getStatsNamePrefix() + ".queue." + i);
-            TbSqlBlockingQueue<E> queue = new TbSqlBlockingQueue<>(params, stats);
+            String statsName = params.getStatsNamePrefix() + ".queue." + i;
+            MessagesStats stats = statsFactory.createMessagesStats(statsName);
+            TbSqlBlockingQueue<E> queue = new TbSqlBlockingQueue<>(params, stats, sizeFunction);
+            statsFactory.createGauge("sqlQueue.batchSize", queue.getBatchSize(), "statsName", statsName);
+            statsFactory.createGauge("sqlQueue.lingerMs", queue.getLingerMs(), "statsName", statsName);
+            statsFactory.createGauge("sqlQueue.size", queue.getQueueSize(), "statsName", statsName);
+            statsFactory.createGauge("sqlQueue.bytes", queue.getQueueBytes(), "statsName", statsName);
             queues.add(queue);
             queue.init(logExecutor, saveFunction, batchUpdateComparator, i);
         }
@@ -25,10 +25,17 @@ public final class TbSqlQueueElement<E> {
     private final SettableFuture<Void> future;
     @Getter
     private final E entity;
+    @Getter
+    private final int size;
 
     public TbSqlQueueElement(SettableFuture<Void> future, E entity) {
+        this(future, entity, 0);
+    }
+
+    public TbSqlQueueElement(SettableFuture<Void> future, E entity, int size) {
         this.future = future;
         this.entity = entity;
+        this.size = size;
     }
 }
 
@@ -0,0 +1,38 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql;
+
+/**
+ * Rough heap footprint of the entities kept in the {@link TbSqlBlockingQueue}, used to enforce the byte budget of the queue.
+ */
+public final class TbSqlQueueElementSize {
+
+    // entity object with the boxed values, UUIDs and the queue node
+    private static final int ENTITY_OVERHEAD = 160;
+    private static final int STRING_OVERHEAD = 40;
+
+    private TbSqlQueueElementSize() {
+    }
+
+    public static int estimate(String strValue, String jsonValue) {
+        return ENTITY_OVERHEAD + estimate(strValue) + estimate(jsonValue);
+    }
+
+    private static int estimate(String value) {
+        return value != null ? STRING_OVERHEAD + value.length() : 0;
+    }
+
+}
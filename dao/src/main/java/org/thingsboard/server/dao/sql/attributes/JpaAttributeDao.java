@@ -43,12 +43,14 @@ import org.thingsboard.server.dao.sql.JpaAbstractDaoListeningExecutorService;
 import org.thingsboard.server.dao.sql.ScheduledLogExecutorComponent;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
+import org.thingsboard.server.dao.sql.TbSqlQueueElementSize;
 import org.thingsboard.server.dao.util.SqlDao;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -88,6 +90,21 @@ public class JpaAttributeDao extends JpaAbstractDaoListeningExecutorService impl
     @Value("${sql.batch_sort:true}")
     private boolean batchSortEnabled;
 
+    @Value("${sql.attributes.max_queue_size:0}")
+    private int maxQueueSize;
+
+    @Value("${sql.attributes.max_queue_bytes:0}")
+    private long maxQueueBytes;
+
+    @Value("${sql.adaptive_batch.enabled:false}")
+    private boolean adaptiveBatchEnabled;
+
+    @Value("${sql.adaptive_batch.min_batch_size:100}")
+    private int adaptiveBatchMinSize;
+
+    @Value("${sql.adaptive_batch.target_latency_ms:50}")
+    private long adaptiveBatchTargetLatencyMs;
+
     private TbSqlBlockingQueueWrapper<AttributeKvEntity> queue;
 
     @PostConstruct
@@ -99,10 +116,16 @@ public class JpaAttributeDao extends JpaAbstractDaoListeningExecutorService impl
                 .statsPrintIntervalMs(statsPrintIntervalMs)
                 .statsNamePrefix("attributes")
                 .batchSortEnabled(batchSortEnabled)
+                .adaptiveBatchEnabled(adaptiveBatchEnabled)
+                .adaptiveBatchMinSize(adaptiveBatchMinSize)
+                .adaptiveBatchTargetLatencyMs(adaptiveBatchTargetLatencyMs)
+                .maxQueueSize(maxQueueSize)
+                .maxQueueBytes(maxQueueBytes)
                 .build();
 
         Function<AttributeKvEntity, Integer> hashcodeFunction = entity -> entity.getId().getEntityId().hashCode();
         queue = new TbSqlBlockingQueueWrapper<>(params, hashcodeFunction, batchThreads, statsFactory);
+        queue.setSizeFunction(entity -> TbSqlQueueElementSize.estimate(entity.getStrValue(), entity.getJsonValue()));
         queue.init(logExecutor, v -> attributeKvInsertRepository.saveOrUpdate(v),
                 Comparator.comparing((AttributeKvEntity attributeKvEntity) -> attributeKvEntity.getId().getEntityId())
                         .thenComparing(attributeKvEntity -> attributeKvEntity.getId().getAttributeType())
@@ -132,11 +155,12 @@ public class JpaAttributeDao extends JpaAbstractDaoListeningExecutorService impl
 
     @Override
     public List<AttributeKvEntry> find(TenantId tenantId, EntityId entityId, AttributeScope attributeScope, Collection<String> attributeKeys) {
+        Map<String, Integer> keyIds = keyDictionaryDao.getOrSaveKeyIds(attributeKeys);
         List<AttributeKvCompositeKey> compositeKeys =
                 attributeKeys
                         .stream()
                         .map(attributeKey ->
-                                getAttributeKvCompositeKey(entityId, attributeScope.getId(), keyDictionaryDao.getOrSaveKeyId(attributeKey)))
+                                getAttributeKvCompositeKey(entityId, attributeScope.getId(), keyIds.get(attributeKey)))
                         .collect(Collectors.toList());
         List<AttributeKvEntity> attributes = attributeKvRepository.findAllById(compositeKeys);
         attributes.forEach(attributeKvEntity -> attributeKvEntity.setStrKey(keyDictionaryDao.getKey(attributeKvEntity.getId().getAttributeKey())));
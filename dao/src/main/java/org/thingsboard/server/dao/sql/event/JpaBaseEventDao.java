@@ -110,6 +110,18 @@ public class JpaBaseEventDao implements EventDao {
     @Value("${sql.batch_sort:true}")
     private boolean batchSortEnabled;
 
+    @Value("${sql.events.max_queue_size:0}")
+    private int maxQueueSize;
+
+    @Value("${sql.adaptive_batch.enabled:false}")
+    private boolean adaptiveBatchEnabled;
+
+    @Value("${sql.adaptive_batch.min_batch_size:100}")
+    private int adaptiveBatchMinSize;
+
+    @Value("${sql.adaptive_batch.target_latency_ms:50}")
+    private long adaptiveBatchTargetLatencyMs;
+
     private TbSqlBlockingQueueWrapper<Event> queue;
 
     private final Map<EventType, EventRepository<?, ?>> repositories = new ConcurrentHashMap<>();
@@ -123,6 +135,10 @@ public class JpaBaseEventDao implements EventDao {
                 .statsPrintIntervalMs(statsPrintIntervalMs)
                 .statsNamePrefix("events")
                 .batchSortEnabled(batchSortEnabled)
+                .adaptiveBatchEnabled(adaptiveBatchEnabled)
+                .adaptiveBatchMinSize(adaptiveBatchMinSize)
+                .adaptiveBatchTargetLatencyMs(adaptiveBatchTargetLatencyMs)
+                .maxQueueSize(maxQueueSize)
                 .build();
         Function<Event, Integer> hashcodeFunction = entity -> Objects.hash(super.hashCode(), entity.getTenantId(), entity.getEntityId());
         queue = new TbSqlBlockingQueueWrapper<>(params, hashcodeFunction, batchThreads, statsFactory);
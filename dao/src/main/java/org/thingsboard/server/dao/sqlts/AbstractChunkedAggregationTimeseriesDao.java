@@ -21,6 +21,7 @@ import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort.Direction;
 import org.thingsboard.server.common.data.id.EntityId;
@@ -38,7 +39,9 @@ import org.thingsboard.server.dao.model.sql.AbstractTsKvEntity;
 import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
+import org.thingsboard.server.dao.sql.TbSqlQueueElementSize;
 import org.thingsboard.server.dao.sqlts.insert.InsertTsRepository;
+import org.thingsboard.server.dao.sqlts.ts.TsKvAggregationRepository;
 import org.thingsboard.server.dao.sqlts.ts.TsKvRepository;
 import org.thingsboard.server.dao.timeseries.TimeseriesDao;
 import org.thingsboard.server.dao.util.TimeUtils;
@@ -57,6 +60,9 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
     @Autowired
     protected TsKvRepository tsKvRepository;
 
+    @Autowired
+    protected TsKvAggregationRepository aggregationRepository;
+
     @Autowired
     protected InsertTsRepository<TsKvEntity> insertRepository;
 
@@ -67,6 +73,9 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
     @Autowired
     private KeyDictionaryDao keyDictionaryDao;
 
+    @Value("${sql.ts.grouped_aggregation_enabled:true}")
+    protected boolean groupedAggregationEnabled;
+
     @PostConstruct
     protected void init() {
         TbSqlBlockingQueueParams tsParams = TbSqlBlockingQueueParams.builder()
@@ -76,10 +85,16 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
                 .statsPrintIntervalMs(tsStatsPrintIntervalMs)
                 .statsNamePrefix("ts")
                 .batchSortEnabled(batchSortEnabled)
+                .adaptiveBatchEnabled(adaptiveBatchEnabled)
+                .adaptiveBatchMinSize(adaptiveBatchMinSize)
+                .adaptiveBatchTargetLatencyMs(adaptiveBatchTargetLatencyMs)
+                .maxQueueSize(tsMaxQueueSize)
+                .maxQueueBytes(tsMaxQueueBytes)
                 .build();
 
         Function<TsKvEntity, Integer> hashcodeFunction = entity -> entity.getEntityId().hashCode();
         tsQueue = new TbSqlBlockingQueueWrapper<>(tsParams, hashcodeFunction, tsBatchThreads, statsFactory);
+        tsQueue.setSizeFunction(entity -> TbSqlQueueElementSize.estimate(entity.getStrValue(), entity.getJsonValue()));
         tsQueue.init(logExecutor, v -> insertRepository.saveOrUpdate(v),
                 Comparator.comparing((Function<TsKvEntity, UUID>) AbstractTsKvEntity::getEntityId)
                         .thenComparing(AbstractTsKvEntity::getKey)
@@ -121,6 +136,8 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
         var aggParams = query.getAggParameters();
         if (Aggregation.NONE.equals(aggParams.getAggregation())) {
             return Futures.immediateFuture(findAllAsyncWithLimit(entityId, query));
+        } else if (groupedAggregationEnabled) {
+            return getReadTsKvQueryResultFuture(query, service.submit(() -> findAllAndAggregate(entityId, query)));
         } else {
             List<ListenableFuture<Optional<TsKvEntity>>> futures = new ArrayList<>();
             var intervalType = aggParams.getIntervalType();
@@ -158,6 +175,30 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
         return new ReadTsKvQueryResult(query.getId(), tsKvEntries, lastTs);
     }
 
+    List<Optional<? extends AbstractTsKvEntity>> findAllAndAggregate(EntityId entityId, ReadTsKvQuery query) {
+        var aggParams = query.getAggParameters();
+        int keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
+        long startTs = query.getStartTs();
+        long endTs = Math.max(query.getStartTs() + 1, query.getEndTs());
+        List<TsKvEntity> entities;
+        if (IntervalType.MILLISECONDS.equals(aggParams.getIntervalType())) {
+            entities = aggregationRepository.findAllAndAggregate(entityId.getId(), keyId, startTs, endTs, aggParams.getInterval(), aggParams.getAggregation());
+        } else {
+            long[] edges = TimeUtils.calculateIntervalEdges(startTs, endTs, aggParams.getIntervalType(), aggParams.getTzId());
+            entities = aggregationRepository.findAllAndAggregate(entityId.getId(), keyId, edges, aggParams.getAggregation());
+        }
+        if (entities.isEmpty()) {
+            // same as the chunked aggregation: the query without data still produces an empty result
+            return List.of(Optional.empty());
+        }
+        List<Optional<? extends AbstractTsKvEntity>> result = new ArrayList<>(entities.size());
+        for (TsKvEntity entity : entities) {
+            entity.setStrKey(query.getKey());
+            result.add(Optional.of(entity));
+        }
+        return result;
+    }
+
     ListenableFuture<Optional<TsKvEntity>> findAndAggregateAsync(EntityId entityId, String key, long startTs, long endTs, long ts, Aggregation aggregation) {
         return service.submit(() -> {
             TsKvEntity entity = switchAggregation(entityId, key, startTs, endTs, aggregation);
@@ -60,12 +60,27 @@ public abstract class AbstractSqlTimeseriesDao extends BaseAbstractSqlTimeseries
     @Value("${sql.ts.batch_threads:4}")
     protected int tsBatchThreads;
 
+    @Value("${sql.ts.max_queue_size:0}")
+    protected int tsMaxQueueSize;
+
+    @Value("${sql.ts.max_queue_bytes:0}")
+    protected long tsMaxQueueBytes;
+
     @Value("${sql.timescale.batch_threads:4}")
     protected int timescaleBatchThreads;
 
     @Value("${sql.batch_sort:true}")
     protected boolean batchSortEnabled;
 
+    @Value("${sql.adaptive_batch.enabled:false}")
+    protected boolean adaptiveBatchEnabled;
+
+    @Value("${sql.adaptive_batch.min_batch_size:100}")
+    protected int adaptiveBatchMinSize;
+
+    @Value("${sql.adaptive_batch.target_latency_ms:50}")
+    protected long adaptiveBatchTargetLatencyMs;
+
     @Value("${sql.ttl.ts.ts_key_value_ttl:0}")
     private long systemTtl;
 
@@ -46,6 +46,7 @@ import org.thingsboard.server.dao.model.sqlts.latest.TsKvLatestEntity;
 import org.thingsboard.server.dao.sql.ScheduledLogExecutorComponent;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
+import org.thingsboard.server.dao.sql.TbSqlQueueElementSize;
 import org.thingsboard.server.dao.sqlts.insert.latest.InsertLatestTsRepository;
 import org.thingsboard.server.dao.sqlts.latest.SearchTsKvLatestRepository;
 import org.thingsboard.server.dao.sqlts.latest.TsKvLatestRepository;
@@ -98,6 +99,21 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
     @Value("${sql.batch_sort:true}")
     protected boolean batchSortEnabled;
 
+    @Value("${sql.ts_latest.max_queue_size:0}")
+    protected int maxQueueSize;
+
+    @Value("${sql.ts_latest.max_queue_bytes:0}")
+    protected long maxQueueBytes;
+
+    @Value("${sql.adaptive_batch.enabled:false}")
+    protected boolean adaptiveBatchEnabled;
+
+    @Value("${sql.adaptive_batch.min_batch_size:100}")
+    protected int adaptiveBatchMinSize;
+
+    @Value("${sql.adaptive_batch.target_latency_ms:50}")
+    protected long adaptiveBatchTargetLatencyMs;
+
     @Autowired
     protected ScheduledLogExecutorComponent logExecutor;
 
@@ -116,10 +132,16 @@ public class SqlTimeseriesLatestDao extends BaseAbstractSqlTimeseriesDao impleme
                 .statsPrintIntervalMs(tsLatestStatsPrintIntervalMs)
                 .statsNamePrefix("ts.latest")
                 .batchSortEnabled(false)
+                .adaptiveBatchEnabled(adaptiveBatchEnabled)
+                .adaptiveBatchMinSize(adaptiveBatchMinSize)
+                .adaptiveBatchTargetLatencyMs(adaptiveBatchTargetLatencyMs)
+                .maxQueueSize(maxQueueSize)
+                .maxQueueBytes(maxQueueBytes)
                 .build();
 
         java.util.function.Function<TsKvLatestEntity, Integer> hashcodeFunction = entity -> entity.getEntityId().hashCode();
         tsLatestQueue = new TbSqlBlockingQueueWrapper<>(tsLatestParams, hashcodeFunction, tsLatestBatchThreads, statsFactory);
+        tsLatestQueue.setSizeFunction(entity -> TbSqlQueueElementSize.estimate(entity.getStrValue(), entity.getJsonValue()));
 
         tsLatestQueue.init(logExecutor, v -> {
             Map<TsKey, TsKvLatestEntity> trueLatest = new HashMap<>();
@@ -16,77 +16,170 @@
 package org.thingsboard.server.dao.sqlts.dictionary;
 
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.thingsboard.server.dao.dictionary.KeyDictionaryDao;
-import org.thingsboard.server.dao.model.sqlts.dictionary.KeyDictionaryCompositeKey;
 import org.thingsboard.server.dao.model.sqlts.dictionary.KeyDictionaryEntry;
 import org.thingsboard.server.dao.sql.JpaAbstractDaoListeningExecutorService;
 import org.thingsboard.server.dao.util.SqlDao;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Caches the whole key dictionary in memory: the dictionary is append-only and the id of the key never changes,
+ * so the cached entries never become stale and don't need invalidation across the cluster.
+ * <p>
+ * Unknown keys are created with INSERT ... ON CONFLICT DO NOTHING followed by a select,
+ * so concurrent creation of the same key on different nodes doesn't need any locking.
+ */
 @Component
 @Slf4j
 @SqlDao
 public class JpaKeyDictionaryDao extends JpaAbstractDaoListeningExecutorService implements KeyDictionaryDao {
 
+    private static final String INSERT_KEY = "INSERT INTO key_dictionary (key) VALUES (?) ON CONFLICT DO NOTHING";
+    private static final int MAX_REVERSE_ARRAY_SIZE = 1 << 22;
+
     private final ConcurrentMap<String, Integer> keyDictionaryMap = new ConcurrentHashMap<>();
-    protected static final ReentrantLock creationLock = new ReentrantLock();
+    // Keys with id above MAX_REVERSE_ARRAY_SIZE. Not expected in practice since the ids are assigned sequentially
+    private final ConcurrentMap<Integer, String> sparseKeys = new ConcurrentHashMap<>();
+    private final Object preloadLock = new Object();
+    private volatile String[] keysById = new String[0];
+    private volatile boolean preloaded;
+
+    @Value("${sql.key_dictionary.preload_enabled:true}")
+    private boolean preloadEnabled;
 
     @Autowired
     private KeyDictionaryRepository keyDictionaryRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Override
     public Integer getOrSaveKeyId(String strKey) {
         Integer keyId = keyDictionaryMap.get(strKey);
         if (keyId == null) {
-            Optional<KeyDictionaryEntry> tsKvDictionaryOptional;
-            tsKvDictionaryOptional = keyDictionaryRepository.findById(new KeyDictionaryCompositeKey(strKey));
-            if (tsKvDictionaryOptional.isEmpty()) {
-                creationLock.lock();
-                try {
-                    keyId = keyDictionaryMap.get(strKey);
-                    if (keyId != null) {
-                        return keyId;
-                    }
-                    tsKvDictionaryOptional = keyDictionaryRepository.findById(new KeyDictionaryCompositeKey(strKey));
-                    if (tsKvDictionaryOptional.isEmpty()) {
-                        KeyDictionaryEntry keyDictionaryEntry = new KeyDictionaryEntry();
-                        keyDictionaryEntry.setKey(strKey);
-                        try {
-                            KeyDictionaryEntry saved = keyDictionaryRepository.save(keyDictionaryEntry);
-                            keyDictionaryMap.put(saved.getKey(), saved.getKeyId());
-                            keyId = saved.getKeyId();
-                        } catch (DataIntegrityViolationException | ConstraintViolationException e) {
-                            tsKvDictionaryOptional = keyDictionaryRepository.findById(new KeyDictionaryCompositeKey(strKey));
-                            KeyDictionaryEntry dictionary = tsKvDictionaryOptional.orElseThrow(() -> new RuntimeException("Failed to get KeyDictionaryEntry entity from DB!"));
-                            keyDictionaryMap.put(dictionary.getKey(), dictionary.getKeyId());
-                            keyId = dictionary.getKeyId();
-                        }
-                    } else {
-                        keyId = tsKvDictionaryOptional.get().getKeyId();
-                    }
-                } finally {
-                    creationLock.unlock();
-                }
+            keyId = getOrSaveKeyIds(List.of(strKey)).get(strKey);
+        }
+        return keyId;
+    }
+
+    @Override
+    public Map<String, Integer> getOrSaveKeyIds(Collection<String> strKeys) {
+        preload();
+        Map<String, Integer> result = new HashMap<>(strKeys.size() * 2);
+        Set<String> missingKeys = null;
+        for (String strKey : strKeys) {
+            Integer keyId = keyDictionaryMap.get(strKey);
+            if (keyId != null) {
+                result.put(strKey, keyId);
             } else {
-                keyId = tsKvDictionaryOptional.get().getKeyId();
-                keyDictionaryMap.put(strKey, keyId);
+                if (missingKeys == null) {
+                    missingKeys = new LinkedHashSet<>();
+                }
+                missingKeys.add(strKey);
             }
         }
-        return keyId;
+        if (missingKeys != null) {
+            findKeyIds(missingKeys, result);
+            if (!missingKeys.isEmpty()) {
+                List<Object[]> batchArgs = new ArrayList<>(missingKeys.size());
+                missingKeys.forEach(strKey -> batchArgs.add(new Object[]{strKey}));
+                jdbcTemplate.batchUpdate(INSERT_KEY, batchArgs);
+                findKeyIds(missingKeys, result);
+                if (!missingKeys.isEmpty()) {
+                    throw new RuntimeException("Failed to get KeyDictionaryEntry entity from DB!");
+                }
+            }
+        }
+        return result;
     }
 
     @Override
     public String getKey(Integer keyId) {
-        Optional<KeyDictionaryEntry> byKeyId = keyDictionaryRepository.findByKeyId(keyId);
-        return byKeyId.map(KeyDictionaryEntry::getKey).orElse(null);
+        String strKey = getCachedKey(keyId);
+        if (strKey == null) {
+            preload();
+            strKey = getCachedKey(keyId);
+            if (strKey == null) {
+                Optional<KeyDictionaryEntry> byKeyId = keyDictionaryRepository.findByKeyId(keyId);
+                strKey = byKeyId.map(this::cache).orElse(null);
+            }
+        }
+        return strKey;
+    }
+
+    private void findKeyIds(Set<String> missingKeys, Map<String, Integer> result) {
+        for (KeyDictionaryEntry entry : keyDictionaryRepository.findAllByKeyIn(missingKeys)) {
+            cache(entry);
+            result.put(entry.getKey(), entry.getKeyId());
+            missingKeys.remove(entry.getKey());
+        }
+    }
+
+    private void preload() {
+        if (preloaded || !preloadEnabled) {
+            return;
+        }
+        synchronized (preloadLock) {
+            if (!preloaded) {
+                try {
+                    List<KeyDictionaryEntry> entries = keyDictionaryRepository.findAll();
+                    entries.forEach(this::cache);
+                    log.info("Preloaded {} keys of the key dictionary", entries.size());
+                } catch (Exception e) {
+                    log.warn("Failed to preload the key dictionary", e);
+                }
+                preloaded = true;
+            }
+        }
+    }
+
+    private String getCachedKey(Integer keyId) {
+        if (keyId == null || keyId < 0) {
+            return null;
+        }
+        String[] keys = keysById;
+        if (keyId < keys.length) {
+            return keys[keyId];
+        }
+        return sparseKeys.get(keyId);
+    }
+
+    private String cache(KeyDictionaryEntry entry) {
+        String strKey = entry.getKey();
+        int keyId = entry.getKeyId();
+        keyDictionaryMap.put(strKey, keyId);
+        if (keyId < 0) {
+            return strKey;
+        }
+        if (keyId >= MAX_REVERSE_ARRAY_SIZE) {
+            sparseKeys.put(keyId, strKey);
+            return strKey;
+        }
+        synchronized (this) {
+            String[] keys = keysById;
+            if (keyId >= keys.length) {
+                keys = Arrays.copyOf(keys, Math.min(MAX_REVERSE_ARRAY_SIZE, Math.max(keyId + 1, keys.length * 2)));
+            }
+            keys[keyId] = strKey;
+            // volatile write publishes the new element to the readers of the array
+            keysById = keys;
+        }
+        return strKey;
     }
 
 }
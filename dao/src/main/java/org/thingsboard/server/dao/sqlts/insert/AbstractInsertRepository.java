@@ -15,12 +15,21 @@
  */
 package org.thingsboard.server.dao.sqlts.insert;
 
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.support.TransactionTemplate;
+import org.thingsboard.server.dao.model.sql.AbstractTsKvEntity;
 
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
 import java.util.regex.Pattern;
 
 @Repository
@@ -29,6 +38,10 @@ public abstract class AbstractInsertRepository {
     private static final ThreadLocal<Pattern> PATTERN_THREAD_LOCAL = ThreadLocal.withInitial(() -> Pattern.compile(String.valueOf(Character.MIN_VALUE)));
     private static final String EMPTY_STR = "";
 
+    protected static final String TS_KV_COLUMNS = "entity_id, key, ts, bool_v, str_v, long_v, dbl_v, json_v";
+    private static final int TS_KV_COLUMNS_COUNT = 8;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     @Value("${sql.remove_null_chars:true}")
     private boolean removeNullChars;
 
@@ -44,4 +57,48 @@ public abstract class AbstractInsertRepository {
         }
         return strValue;
     }
+
+    /**
+     * Creates the session-local staging table with the ts_kv columns, if it does not exist yet.
+     * The rows of the staging table are deleted on commit, so it must be used within a transaction.
+     */
+    protected void createTsKvCopyTable(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE IF NOT EXISTS " + table + " (entity_id uuid NOT NULL, key int NOT NULL, ts bigint NOT NULL, " +
+                    "bool_v boolean, str_v varchar(10000000), long_v bigint, dbl_v double precision, json_v json) ON COMMIT DELETE ROWS");
+        }
+    }
+
+    /**
+     * Streams the entities into the table using <code>COPY ... FROM STDIN (FORMAT binary)</code>.
+     */
+    protected long copyTsKv(Connection connection, String table, Collection<? extends AbstractTsKvEntity> entities) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + table + " (" + TS_KV_COLUMNS + ") FROM STDIN (FORMAT binary)");
+        try {
+            BinaryCopyWriter writer = new BinaryCopyWriter(new PGCopyOutputStream(copyIn, COPY_BUFFER_SIZE));
+            for (AbstractTsKvEntity entity : entities) {
+                writer.startRow(TS_KV_COLUMNS_COUNT);
+                writer.writeUuid(entity.getEntityId());
+                writer.writeInt(entity.getKey());
+                writer.writeLong(entity.getTs());
+                writer.writeBoolean(entity.getBooleanValue());
+                writer.writeText(replaceNullChars(entity.getStrValue()));
+                writer.writeLong(entity.getLongValue());
+                writer.writeDouble(entity.getDoubleValue());
+                writer.writeText(replaceNullChars(entity.getJsonValue()));
+            }
+            writer.close();
+            return copyIn.getHandledRowCount();
+        } catch (IOException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Failed to copy entities to " + table, e);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.insert;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.transaction.annotation.Transactional;
+import org.thingsboard.server.dao.model.sql.AbstractTsKvEntity;
+
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Transactional
+public abstract class AbstractTsInsertRepository<T extends AbstractTsKvEntity> extends AbstractInsertRepository implements InsertTsRepository<T> {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String COPY_TABLE = "ts_kv_copy";
+
+    private static final String MERGE_FROM_COPY_TABLE = "INSERT INTO ts_kv (" + TS_KV_COLUMNS + ") SELECT " + TS_KV_COLUMNS + " FROM " + COPY_TABLE + " " +
+            "ON CONFLICT (entity_id, key, ts) DO UPDATE SET bool_v = excluded.bool_v, str_v = excluded.str_v, long_v = excluded.long_v, " +
+            "dbl_v = excluded.dbl_v, json_v = excluded.json_v";
+
+    @Value("${sql.ts.insert_mode:INSERT}")
+    private SqlInsertMode insertMode;
+
+    @Value("${sql.ts.copy_direct:false}")
+    private boolean copyDirect;
+
+    @Override
+    public void saveOrUpdate(List<T> entities) {
+        if (insertMode == SqlInsertMode.COPY) {
+            copyOrUpdate(entities);
+        } else {
+            insertOrUpdate(entities);
+        }
+    }
+
+    protected abstract void insertOrUpdate(List<T> entities);
+
+    private void copyOrUpdate(List<T> entities) {
+        Collection<T> uniqueEntities = deduplicate(entities);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (copyDirect) {
+                // most of the batches are appends of the new values, so try to copy them to ts_kv as is
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    copyTsKv(connection, "ts_kv", uniqueEntities);
+                    connection.releaseSavepoint(savepoint);
+                    return null;
+                } catch (SQLException e) {
+                    if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                        throw e;
+                    }
+                    log.debug("Batch of {} entities conflicts with the existing values, merging it via the staging table", uniqueEntities.size());
+                    connection.rollback(savepoint);
+                }
+            }
+            createTsKvCopyTable(connection, COPY_TABLE);
+            copyTsKv(connection, COPY_TABLE, uniqueEntities);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(MERGE_FROM_COPY_TABLE);
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Single INSERT ... ON CONFLICT DO UPDATE can't update the same row twice,
+     * so only the last value of the same entity, key and ts is kept, like the batch of separate statements does.
+     */
+    private Collection<T> deduplicate(List<T> entities) {
+        Map<TsKvId, T> uniqueEntities = new LinkedHashMap<>(entities.size() * 2);
+        for (T entity : entities) {
+            uniqueEntities.put(new TsKvId(entity.getEntityId(), entity.getKey(), entity.getTs()), entity);
+        }
+        return uniqueEntities.values();
+    }
+
+    private record TsKvId(UUID entityId, int key, long ts) {}
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.insert;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Writes rows in the PostgreSQL binary COPY format: <code>COPY ... FROM STDIN (FORMAT binary)</code>.
+ * Values are written in the column order of the COPY statement and must match the column types exactly.
+ */
+public class BinaryCopyWriter implements AutoCloseable {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    private final DataOutputStream out;
+
+    public BinaryCopyWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(SIGNATURE);
+        this.out.writeInt(0); // flags
+        this.out.writeInt(0); // header extension length
+    }
+
+    public void startRow(int columns) throws IOException {
+        out.writeShort(columns);
+    }
+
+    public void writeUuid(UUID value) throws IOException {
+        if (value == null) {
+            writeNull();
+        } else {
+            out.writeInt(16);
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    public void writeInt(int value) throws IOException {
+        out.writeInt(4);
+        out.writeInt(value);
+    }
+
+    public void writeLong(Long value) throws IOException {
+        if (value == null) {
+            writeNull();
+        } else {
+            out.writeInt(8);
+            out.writeLong(value);
+        }
+    }
+
+    public void writeBoolean(Boolean value) throws IOException {
+        if (value == null) {
+            writeNull();
+        } else {
+            out.writeInt(1);
+            out.writeBoolean(value);
+        }
+    }
+
+    public void writeDouble(Double value) throws IOException {
+        if (value == null) {
+            writeNull();
+        } else {
+            out.writeInt(8);
+            out.writeDouble(value);
+        }
+    }
+
+    /**
+     * Writes the value of the text, varchar or json column.
+     */
+    public void writeText(String value) throws IOException {
+        if (value == null) {
+            writeNull();
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private void writeNull() throws IOException {
+        out.writeInt(-1);
+    }
+
+    /**
+     * Writes the trailer and closes the underlying stream, which completes the COPY operation.
+     */
+    @Override
+    public void close() throws IOException {
+        out.writeShort(-1);
+        out.close();
+    }
+
+}
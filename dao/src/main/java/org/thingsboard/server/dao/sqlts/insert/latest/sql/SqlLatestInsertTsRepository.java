@@ -17,21 +17,28 @@ package org.thingsboard.server.dao.sqlts.insert.latest.sql;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.thingsboard.server.dao.model.sqlts.latest.TsKvLatestEntity;
 import org.thingsboard.server.dao.sqlts.insert.AbstractInsertRepository;
+import org.thingsboard.server.dao.sqlts.insert.SqlInsertMode;
 import org.thingsboard.server.dao.sqlts.insert.latest.InsertLatestTsRepository;
 import org.thingsboard.server.dao.util.SqlDao;
 import org.thingsboard.server.dao.util.SqlTsLatestAnyDao;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 
 @SqlTsLatestAnyDao
@@ -43,6 +50,9 @@ public class SqlLatestInsertTsRepository extends AbstractInsertRepository implem
     @Value("${sql.ts_latest.update_by_latest_ts:true}")
     private Boolean updateByLatestTs;
 
+    @Value("${sql.ts_latest.insert_mode:INSERT}")
+    private SqlInsertMode insertMode;
+
     private static final String BATCH_UPDATE =
             "UPDATE ts_kv_latest SET ts = ?, bool_v = ?, str_v = ?, long_v = ?, dbl_v = ?, json_v = cast(? AS json) WHERE entity_id = ? AND key = ?";
 
@@ -54,8 +64,49 @@ public class SqlLatestInsertTsRepository extends AbstractInsertRepository implem
 
     private static final String INSERT_OR_UPDATE_BY_LATEST_TS = INSERT_OR_UPDATE + " WHERE ts_kv_latest.ts <= ?";
 
+    private static final String COPY_TABLE = "ts_kv_latest_copy";
+
+    private static final String MERGE_FROM_COPY_TABLE = "INSERT INTO ts_kv_latest (" + TS_KV_COLUMNS + ") SELECT " + TS_KV_COLUMNS + " FROM " + COPY_TABLE + " " +
+            "ON CONFLICT (entity_id, key) DO UPDATE SET ts = excluded.ts, bool_v = excluded.bool_v, str_v = excluded.str_v, " +
+            "long_v = excluded.long_v, dbl_v = excluded.dbl_v, json_v = excluded.json_v";
+
+    private static final String MERGE_FROM_COPY_TABLE_BY_LATEST_TS = MERGE_FROM_COPY_TABLE + " WHERE ts_kv_latest.ts <= excluded.ts";
+
     @Override
     public void saveOrUpdate(List<TsKvLatestEntity> entities) {
+        if (insertMode == SqlInsertMode.COPY) {
+            copyOrUpdate(entities);
+        } else {
+            insertOrUpdate(entities);
+        }
+    }
+
+    private void copyOrUpdate(List<TsKvLatestEntity> entities) {
+        Collection<TsKvLatestEntity> uniqueEntities = deduplicate(entities);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            createTsKvCopyTable(connection, COPY_TABLE);
+            copyTsKv(connection, COPY_TABLE, uniqueEntities);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(updateByLatestTs ? MERGE_FROM_COPY_TABLE_BY_LATEST_TS : MERGE_FROM_COPY_TABLE);
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Single INSERT ... ON CONFLICT DO UPDATE can't update the same row twice, so only one value per entity and key is kept:
+     * the one with the latest ts if update_by_latest_ts is enabled, the last one of the batch otherwise.
+     */
+    private Collection<TsKvLatestEntity> deduplicate(List<TsKvLatestEntity> entities) {
+        Map<TsKvLatestId, TsKvLatestEntity> uniqueEntities = new LinkedHashMap<>(entities.size() * 2);
+        for (TsKvLatestEntity entity : entities) {
+            uniqueEntities.merge(new TsKvLatestId(entity.getEntityId(), entity.getKey()), entity,
+                    (prev, next) -> updateByLatestTs && prev.getTs() > next.getTs() ? prev : next);
+        }
+        return uniqueEntities.values();
+    }
+
+    private void insertOrUpdate(List<TsKvLatestEntity> entities) {
         transactionTemplate.execute(new TransactionCallbackWithoutResult() {
             @Override
             protected void doInTransactionWithoutResult(TransactionStatus status) {
@@ -169,4 +220,7 @@ public class SqlLatestInsertTsRepository extends AbstractInsertRepository implem
             }
         });
     }
+
+    private record TsKvLatestId(UUID entityId, int key) {}
+
 }
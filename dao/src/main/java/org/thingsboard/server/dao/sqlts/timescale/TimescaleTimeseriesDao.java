@@ -41,8 +41,10 @@ import org.thingsboard.server.dao.model.sqlts.timescale.ts.TimescaleTsKvEntity;
 import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
+import org.thingsboard.server.dao.sql.TbSqlQueueElementSize;
 import org.thingsboard.server.dao.sqlts.AbstractSqlTimeseriesDao;
 import org.thingsboard.server.dao.sqlts.insert.InsertTsRepository;
+import org.thingsboard.server.dao.sqlts.ts.TsKvAggregationRepository;
 import org.thingsboard.server.dao.timeseries.TimeseriesDao;
 import org.thingsboard.server.dao.util.TimeUtils;
 import org.thingsboard.server.dao.util.TimescaleDBTsDao;
@@ -68,6 +70,9 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
     @Autowired
     private AggregationRepository aggregationRepository;
 
+    @Autowired
+    private TsKvAggregationRepository tsKvAggregationRepository;
+
     @Autowired
     private StatsFactory statsFactory;
 
@@ -88,10 +93,16 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
                 .statsPrintIntervalMs(tsStatsPrintIntervalMs)
                 .statsNamePrefix("ts.timescale")
                 .batchSortEnabled(batchSortEnabled)
+                .adaptiveBatchEnabled(adaptiveBatchEnabled)
+                .adaptiveBatchMinSize(adaptiveBatchMinSize)
+                .adaptiveBatchTargetLatencyMs(adaptiveBatchTargetLatencyMs)
+                .maxQueueSize(tsMaxQueueSize)
+                .maxQueueBytes(tsMaxQueueBytes)
                 .build();
 
         Function<TimescaleTsKvEntity, Integer> hashcodeFunction = entity -> entity.getEntityId().hashCode();
         tsQueue = new TbSqlBlockingQueueWrapper<>(tsParams, hashcodeFunction, timescaleBatchThreads, statsFactory);
+        tsQueue.setSizeFunction(entity -> TbSqlQueueElementSize.estimate(entity.getStrValue(), entity.getJsonValue()));
 
         tsQueue.init(logExecutor, v -> insertRepository.saveOrUpdate(v),
                 Comparator.comparing((Function<TimescaleTsKvEntity, UUID>) AbstractTsKvEntity::getEntityId)
@@ -162,17 +173,10 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
             List<Optional<? extends AbstractTsKvEntity>> data = findAllAndAggregateAsync(entityId, query.getKey(), startTs, endTs, timeBucket, query.getAggregation());
             return getReadTsKvQueryResultFuture(query, Futures.immediateFuture(data));
         } else {
-            //TODO: @dshvaika improve according to native capabilities of Timescale.
-            long startPeriod = query.getStartTs();
-            long endPeriod = Math.max(query.getStartTs() + 1, query.getEndTs());
-            List<TimescaleTsKvEntity> timescaleTsKvEntities = new ArrayList<>();
-            while (startPeriod < endPeriod) {
-                long startTs = startPeriod;
-                long endTs = Math.min(TimeUtils.calculateIntervalEnd(startTs, intervalType, aggParams.getTzId()), endPeriod);
-                timescaleTsKvEntities.addAll(switchAggregation(query.getKey(), startTs, endTs, endTs - startTs, query.getAggregation(), entityId.getId()));
-                startPeriod = endTs;
-            }
-            return getReadTsKvQueryResultFuture(query, Futures.immediateFuture(toResultList(entityId, query.getKey(), timescaleTsKvEntities)));
+            long startTs = query.getStartTs();
+            long endTs = Math.max(query.getStartTs() + 1, query.getEndTs());
+            long[] edges = TimeUtils.calculateIntervalEdges(startTs, endTs, intervalType, aggParams.getTzId());
+            return getReadTsKvQueryResultFuture(query, service.submit(() -> findAllAndAggregateByEdges(entityId, query.getKey(), edges, query.getAggregation())));
         }
     }
 
@@ -212,6 +216,16 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
         return toResultList(entityId, key, timescaleTsKvEntities);
     }
 
+    private List<Optional<? extends AbstractTsKvEntity>> findAllAndAggregateByEdges(EntityId entityId, String key, long[] edges, Aggregation aggregation) {
+        Integer keyId = keyDictionaryDao.getOrSaveKeyId(key);
+        List<Optional<? extends AbstractTsKvEntity>> result = new ArrayList<>();
+        tsKvAggregationRepository.findAllAndAggregate(entityId.getId(), keyId, edges, aggregation).forEach(entity -> {
+            entity.setStrKey(key);
+            result.add(Optional.of(entity));
+        });
+        return result;
+    }
+
     private static List<Optional<? extends AbstractTsKvEntity>> toResultList(EntityId entityId, String key, List<TimescaleTsKvEntity> timescaleTsKvEntities) {
         if (!CollectionUtils.isEmpty(timescaleTsKvEntities)) {
             List<Optional<? extends AbstractTsKvEntity>> result = new ArrayList<>();
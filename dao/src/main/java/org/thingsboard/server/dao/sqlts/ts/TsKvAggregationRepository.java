@@ -0,0 +1,158 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.ts;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.thingsboard.server.common.data.kv.Aggregation;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+import org.thingsboard.server.dao.util.SqlTsOrTsLatestAnyDao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Computes all aggregation buckets of the time range with a single grouped query per key
+ * instead of issuing a separate aggregation query per interval.
+ */
+@Repository
+@SqlTsOrTsLatestAnyDao
+public class TsKvAggregationRepository {
+
+    private static final String BUCKET_BY_INTERVAL = "(tskv.ts - ?) / ?";
+    private static final String BUCKET_BY_EDGES = "width_bucket(tskv.ts, ?)";
+
+    private static final String COUNT_NUMERIC_COLUMNS =
+            "SUM(CASE WHEN tskv.long_v IS NULL THEN 0 ELSE 1 END) AS long_count, " +
+            "SUM(CASE WHEN tskv.dbl_v IS NULL THEN 0 ELSE 1 END) AS dbl_count";
+
+    private static final String SUM_COLUMNS = "SUM(COALESCE(tskv.long_v, 0)) AS long_value, " +
+            "SUM(COALESCE(tskv.dbl_v, 0.0)) AS dbl_value, " + COUNT_NUMERIC_COLUMNS;
+
+    private static final String MAX_COLUMNS = "MAX(COALESCE(tskv.long_v, -9223372036854775807)) AS long_value, " +
+            "MAX(COALESCE(tskv.dbl_v, -1.79769E+308)) AS dbl_value, " + COUNT_NUMERIC_COLUMNS + ", " +
+            "MAX(tskv.str_v) AS str_value, MAX(CASE WHEN tskv.str_v IS NULL THEN NULL ELSE tskv.ts END) AS str_agg_ts";
+
+    private static final String MIN_COLUMNS = "MIN(COALESCE(tskv.long_v, 9223372036854775807)) AS long_value, " +
+            "MIN(COALESCE(tskv.dbl_v, 1.79769E+308)) AS dbl_value, " + COUNT_NUMERIC_COLUMNS + ", " +
+            "MIN(tskv.str_v) AS str_value, MAX(CASE WHEN tskv.str_v IS NULL THEN NULL ELSE tskv.ts END) AS str_agg_ts";
+
+    private static final String COUNT_COLUMNS = "SUM(CASE WHEN tskv.bool_v IS NULL THEN 0 ELSE 1 END) AS bool_count, " +
+            "SUM(CASE WHEN tskv.str_v IS NULL THEN 0 ELSE 1 END) AS str_count, " +
+            COUNT_NUMERIC_COLUMNS + ", " +
+            "SUM(CASE WHEN tskv.json_v IS NULL THEN 0 ELSE 1 END) AS json_count";
+
+    private static final String FROM_WHERE_CLAUSE = ", MAX(tskv.ts) AS max_agg_ts FROM ts_kv tskv " +
+            "WHERE tskv.entity_id = ? AND tskv.key = ? AND tskv.ts >= ? AND tskv.ts < ? " +
+            "GROUP BY bucket ORDER BY bucket";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Aggregates the [startTs, endTs) range into buckets of a fixed interval.
+     * The last bucket is truncated to endTs.
+     */
+    public List<TsKvEntity> findAllAndAggregate(UUID entityId, int keyId, long startTs, long endTs, long interval, Aggregation aggregation) {
+        String sql = "SELECT " + BUCKET_BY_INTERVAL + " AS bucket, " + getAggregationColumns(aggregation) + FROM_WHERE_CLAUSE;
+        List<TsKvEntity> result = new ArrayList<>();
+        jdbcTemplate.query(sql, ps -> {
+            ps.setLong(1, startTs);
+            ps.setLong(2, interval);
+            ps.setObject(3, entityId);
+            ps.setInt(4, keyId);
+            ps.setLong(5, startTs);
+            ps.setLong(6, endTs);
+        }, rs -> {
+            long bucketStart = startTs + rs.getLong("bucket") * interval;
+            long bucketEnd = Math.min(bucketStart + interval, endTs);
+            addIfNotEmpty(result, toEntity(rs, aggregation), entityId, keyId, bucketStart, bucketEnd);
+        });
+        return result;
+    }
+
+    /**
+     * Aggregates the range into the buckets defined by the edges: bucket N is [edges[N], edges[N + 1]).
+     * Used for calendar intervals (weeks, months, quarters) that have a different length in each time zone.
+     */
+    public List<TsKvEntity> findAllAndAggregate(UUID entityId, int keyId, long[] edges, Aggregation aggregation) {
+        if (edges.length < 2) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT " + BUCKET_BY_EDGES + " AS bucket, " + getAggregationColumns(aggregation) + FROM_WHERE_CLAUSE;
+        Long[] thresholds = Arrays.stream(edges, 0, edges.length - 1).boxed().toArray(Long[]::new);
+        List<TsKvEntity> result = new ArrayList<>();
+        jdbcTemplate.query(sql, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", thresholds));
+            ps.setObject(2, entityId);
+            ps.setInt(3, keyId);
+            ps.setLong(4, edges[0]);
+            ps.setLong(5, edges[edges.length - 1]);
+        }, rs -> {
+            int bucket = rs.getInt("bucket");
+            addIfNotEmpty(result, toEntity(rs, aggregation), entityId, keyId, edges[bucket - 1], edges[bucket]);
+        });
+        return result;
+    }
+
+    private static void addIfNotEmpty(List<TsKvEntity> result, TsKvEntity entity, UUID entityId, int keyId, long bucketStart, long bucketEnd) {
+        if (entity.isNotEmpty()) {
+            entity.setEntityId(entityId);
+            entity.setKey(keyId);
+            entity.setTs(bucketStart + (bucketEnd - bucketStart) / 2);
+            result.add(entity);
+        }
+    }
+
+    private static String getAggregationColumns(Aggregation aggregation) {
+        switch (aggregation) {
+            case AVG:
+            case SUM:
+                return SUM_COLUMNS;
+            case MAX:
+                return MAX_COLUMNS;
+            case MIN:
+                return MIN_COLUMNS;
+            case COUNT:
+                return COUNT_COLUMNS;
+            default:
+                throw new IllegalArgumentException("Not supported aggregation type: " + aggregation);
+        }
+    }
+
+    private static TsKvEntity toEntity(ResultSet rs, Aggregation aggregation) throws SQLException {
+        long maxAggTs = rs.getLong("max_agg_ts");
+        if (Aggregation.COUNT.equals(aggregation)) {
+            return new TsKvEntity(rs.getLong("bool_count"), rs.getLong("str_count"), rs.getLong("long_count"),
+                    rs.getLong("dbl_count"), rs.getLong("json_count"), maxAggTs);
+        }
+        TsKvEntity entity = new TsKvEntity(rs.getLong("long_value"), rs.getDouble("dbl_value"), rs.getLong("long_count"),
+                rs.getLong("dbl_count"), aggregation.name(), maxAggTs);
+        if (!entity.isNotEmpty() && (Aggregation.MAX.equals(aggregation) || Aggregation.MIN.equals(aggregation))) {
+            String strValue = rs.getString("str_value");
+            if (strValue != null) {
+                entity = new TsKvEntity(strValue, rs.getLong("str_agg_ts"));
+            }
+        }
+        return entity;
+    }
+
+}
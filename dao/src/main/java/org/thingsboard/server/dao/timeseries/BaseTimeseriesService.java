@@ -23,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.EntityView;
@@ -56,6 +57,7 @@ import static org.thingsboard.server.common.data.StringUtils.isBlank;
  */
 @SuppressWarnings("UnstableApiUsage")
 @Service
+@ConditionalOnProperty(prefix = "cache.ts_latest", value = "enabled", havingValue = "false", matchIfMissing = true)
 @Slf4j
 public class BaseTimeseriesService implements TimeseriesService {
 
@@ -84,7 +86,7 @@ public class BaseTimeseriesService implements TimeseriesService {
     private TimeseriesDao timeseriesDao;
 
     @Autowired
-    private TimeseriesLatestDao timeseriesLatestDao;
+    protected TimeseriesLatestDao timeseriesLatestDao;
 
     @Autowired
     private EntityViewService entityViewService;
@@ -190,14 +192,18 @@ public class BaseTimeseriesService implements TimeseriesService {
     public ListenableFuture<List<Void>> saveLatest(TenantId tenantId, EntityId entityId, List<TsKvEntry> tsKvEntries) {
         List<ListenableFuture<Void>> futures = new ArrayList<>(tsKvEntries.size());
         for (TsKvEntry tsKvEntry : tsKvEntries) {
-            futures.add(timeseriesLatestDao.saveLatest(tenantId, entityId, tsKvEntry));
+            futures.add(doSaveLatest(tenantId, entityId, tsKvEntry));
         }
         return Futures.allAsList(futures);
     }
 
+    protected ListenableFuture<Void> doSaveLatest(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry) {
+        return timeseriesLatestDao.saveLatest(tenantId, entityId, tsKvEntry);
+    }
+
     private void saveAndRegisterFutures(TenantId tenantId, List<ListenableFuture<Integer>> futures, EntityId entityId, TsKvEntry tsKvEntry, long ttl) {
         doSaveAndRegisterFuturesFor(tenantId, futures, entityId, tsKvEntry, ttl);
-        futures.add(Futures.transform(timeseriesLatestDao.saveLatest(tenantId, entityId, tsKvEntry), v -> 0, MoreExecutors.directExecutor()));
+        futures.add(Futures.transform(doSaveLatest(tenantId, entityId, tsKvEntry), v -> 0, MoreExecutors.directExecutor()));
     }
 
     private void saveWithoutLatestAndRegisterFutures(TenantId tenantId, List<ListenableFuture<Integer>> futures, EntityId entityId, TsKvEntry tsKvEntry, long ttl) {
@@ -248,11 +254,15 @@ public class BaseTimeseriesService implements TimeseriesService {
         List<ListenableFuture<TsKvLatestRemovingResult>> futures = new ArrayList<>(keys.size());
         for (String key : keys) {
             DeleteTsKvQuery query = new BaseDeleteTsKvQuery(key, 0, System.currentTimeMillis(), false);
-            futures.add(timeseriesLatestDao.removeLatest(tenantId, entityId, query));
+            futures.add(doRemoveLatest(tenantId, entityId, query));
         }
         return Futures.allAsList(futures);
     }
 
+    protected ListenableFuture<TsKvLatestRemovingResult> doRemoveLatest(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query) {
+        return timeseriesLatestDao.removeLatest(tenantId, entityId, query);
+    }
+
     @Override
     public ListenableFuture<Collection<String>> removeAllLatest(TenantId tenantId, EntityId entityId) {
         validate(entityId);
@@ -269,11 +279,11 @@ public class BaseTimeseriesService implements TimeseriesService {
     private void deleteAndRegisterFutures(TenantId tenantId, List<ListenableFuture<TsKvLatestRemovingResult>> futures, EntityId entityId, DeleteTsKvQuery query) {
         futures.add(Futures.transform(timeseriesDao.remove(tenantId, entityId, query), v -> null, MoreExecutors.directExecutor()));
         if (query.getDeleteLatest()) {
-            futures.add(timeseriesLatestDao.removeLatest(tenantId, entityId, query));
+            futures.add(doRemoveLatest(tenantId, entityId, query));
         }
     }
 
-    private static void validate(EntityId entityId) {
+    protected static void validate(EntityId entityId) {
         Validator.validateEntityId(entityId, id -> "Incorrect entityId " + id);
     }
 
@@ -0,0 +1,163 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.timeseries;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.thingsboard.server.cache.TbTransactionalCache;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DeleteTsKvQuery;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.kv.TsKvLatestRemovingResult;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.cache.CacheExecutorService;
+import org.thingsboard.server.dao.service.Validator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caches the latest values by entity and key, the same way {@link org.thingsboard.server.dao.attributes.CachedAttributesService} does for attributes.
+ * The saved and removed latest values are evicted from the cache.
+ * The values loaded from the DB are put to the cache within a cache transaction,
+ * so a concurrent save of the same key cancels the put of the stale value.
+ */
+@Service
+@ConditionalOnProperty(prefix = "cache.ts_latest", value = "enabled", havingValue = "true")
+@Primary
+@Slf4j
+public class CachedTimeseriesLatestService extends BaseTimeseriesService {
+    private static final String STATS_NAME = "tsLatest.cache";
+    public static final String LOCAL_CACHE_TYPE = "caffeine";
+
+    private final CacheExecutorService cacheExecutorService;
+    private final DefaultCounter hitCounter;
+    private final DefaultCounter missCounter;
+    private final TbTransactionalCache<TsLatestCacheKey, TsKvEntry> cache;
+    private ListeningExecutorService cacheExecutor;
+
+    @Value("${cache.type:caffeine}")
+    private String cacheType;
+
+    public CachedTimeseriesLatestService(StatsFactory statsFactory,
+                                         CacheExecutorService cacheExecutorService,
+                                         TbTransactionalCache<TsLatestCacheKey, TsKvEntry> cache) {
+        this.cacheExecutorService = cacheExecutorService;
+        this.cache = cache;
+
+        this.hitCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "hit");
+        this.missCounter = statsFactory.createDefaultCounter(STATS_NAME, "result", "miss");
+    }
+
+    @PostConstruct
+    public void init() {
+        this.cacheExecutor = getExecutor(cacheType, cacheExecutorService);
+    }
+
+    /**
+     * DirectExecutor for the local cache, dedicated thread pool for the remote cache IO calls.
+     */
+    ListeningExecutorService getExecutor(String cacheType, CacheExecutorService cacheExecutorService) {
+        if (StringUtils.isEmpty(cacheType) || LOCAL_CACHE_TYPE.equals(cacheType)) {
+            return MoreExecutors.newDirectExecutorService();
+        }
+        return cacheExecutorService.executor();
+    }
+
+    @Override
+    public ListenableFuture<Optional<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, String key) {
+        validate(entityId);
+        return findCachedLatest(tenantId, entityId, key);
+    }
+
+    @Override
+    public ListenableFuture<List<TsKvEntry>> findLatest(TenantId tenantId, EntityId entityId, Collection<String> keys) {
+        validate(entityId);
+        keys.forEach(key -> Validator.validateString(key, k -> "Incorrect key " + k));
+        List<ListenableFuture<TsKvEntry>> futures = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            futures.add(Futures.transform(findCachedLatest(tenantId, entityId, key),
+                    latest -> latest.orElseGet(() -> new BasicTsKvEntry(System.currentTimeMillis(), new StringDataEntry(key, null))),
+                    MoreExecutors.directExecutor()));
+        }
+        return Futures.allAsList(futures);
+    }
+
+    private ListenableFuture<Optional<TsKvEntry>> findCachedLatest(TenantId tenantId, EntityId entityId, String key) {
+        TsLatestCacheKey cacheKey = new TsLatestCacheKey(entityId, key);
+        return Futures.transformAsync(cacheExecutor.submit(() -> cache.get(cacheKey)), cachedLatest -> {
+            if (cachedLatest != null) {
+                hitCounter.increment();
+                return Futures.immediateFuture(Optional.ofNullable(cachedLatest.get()));
+            }
+            missCounter.increment();
+            var cacheTransaction = cache.newTransactionForKey(cacheKey);
+            ListenableFuture<Optional<TsKvEntry>> future = timeseriesLatestDao.findLatestOpt(tenantId, entityId, key);
+            Futures.addCallback(future, new FutureCallback<>() {
+                @Override
+                public void onSuccess(Optional<TsKvEntry> latest) {
+                    try {
+                        cacheTransaction.putIfAbsent(cacheKey, latest.orElse(null));
+                        cacheTransaction.commit();
+                    } catch (Throwable e) {
+                        cacheTransaction.rollback();
+                        log.debug("[{}][{}] Could not put latest to cache", entityId, key, e);
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    cacheTransaction.rollback();
+                }
+            }, cacheExecutor);
+            return future;
+        }, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    protected ListenableFuture<Void> doSaveLatest(TenantId tenantId, EntityId entityId, TsKvEntry tsKvEntry) {
+        return Futures.transform(super.doSaveLatest(tenantId, entityId, tsKvEntry), v -> {
+            // Evicted rather than put: the DB may reject an out-of-order save, so the saved value is not necessarily the latest one
+            cache.evict(new TsLatestCacheKey(entityId, tsKvEntry.getKey()));
+            return v;
+        }, cacheExecutor);
+    }
+
+    @Override
+    protected ListenableFuture<TsKvLatestRemovingResult> doRemoveLatest(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query) {
+        return Futures.transform(super.doRemoveLatest(tenantId, entityId, query), result -> {
+            cache.evict(new TsLatestCacheKey(entityId, query.getKey()));
+            return result;
+        }, cacheExecutor);
+    }
+
+}
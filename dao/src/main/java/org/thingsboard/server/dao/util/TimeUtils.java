@@ -23,6 +23,8 @@ import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.IsoFields;
 import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TimeUtils {
 
@@ -42,4 +44,15 @@ public class TimeUtils {
         }
     }
 
+    public static long[] calculateIntervalEdges(long startTs, long endTs, IntervalType intervalType, ZoneId tzId) {
+        List<Long> edges = new ArrayList<>();
+        long edge = startTs;
+        edges.add(edge);
+        while (edge < endTs) {
+            edge = Math.min(calculateIntervalEnd(edge, intervalType, tzId), endTs);
+            edges.add(edge);
+        }
+        return edges.stream().mapToLong(Long::longValue).toArray();
+    }
+
 }
@@ -0,0 +1,68 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveBatchControllerTest {
+
+    private final AdaptiveBatchController controller = new AdaptiveBatchController(TbSqlBlockingQueueParams.builder()
+            .logName("Test")
+            .batchSize(1000)
+            .maxDelay(100)
+            .adaptiveBatchEnabled(true)
+            .adaptiveBatchMinSize(100)
+            .adaptiveBatchTargetLatencyMs(50)
+            .build());
+
+    @Test
+    public void testSlowSaveDecreasesBatchSizeAndIncreasesLinger() {
+        controller.onBatchSaved(1000, 10, 0);
+        assertThat(controller.getLingerMs().get()).isEqualTo(90);
+
+        controller.onBatchSaved(1000, 200, 5000);
+        assertThat(controller.getBatchSize().get()).isEqualTo(500);
+        assertThat(controller.getLingerMs().get()).isEqualTo(100);
+
+        for (int i = 0; i < 10; i++) {
+            controller.onBatchSaved(500, 200, 5000);
+        }
+        assertThat(controller.getBatchSize().get()).isEqualTo(100);
+    }
+
+    @Test
+    public void testFastSaveIncreasesBatchSizeAndDecreasesLinger() {
+        controller.onBatchFailed();
+        assertThat(controller.getBatchSize().get()).isEqualTo(500);
+
+        controller.onBatchSaved(500, 10, 1000);
+        assertThat(controller.getBatchSize().get()).isEqualTo(600);
+        assertThat(controller.getLingerMs().get()).isEqualTo(100);
+
+        controller.onBatchSaved(300, 10, 0);
+        assertThat(controller.getBatchSize().get()).isEqualTo(600);
+        assertThat(controller.getLingerMs().get()).isEqualTo(90);
+
+        for (int i = 0; i < 20; i++) {
+            controller.onBatchSaved(1000, 10, 0);
+        }
+        assertThat(controller.getBatchSize().get()).isEqualTo(1000);
+        assertThat(controller.getLingerMs().get()).isZero();
+    }
+
+}
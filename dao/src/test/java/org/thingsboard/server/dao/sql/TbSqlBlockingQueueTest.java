@@ -0,0 +1,76 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.exception.StorageOverloadedException;
+import org.thingsboard.server.common.stats.MessagesStats;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class TbSqlBlockingQueueTest {
+
+    @Test
+    public void testAddIsRejectedWhenMaxQueueSizeIsReached() {
+        TbSqlBlockingQueue<String> queue = new TbSqlBlockingQueue<>(params(2, 0), mock(MessagesStats.class));
+
+        assertThat(queue.add("a").isDone()).isFalse();
+        assertThat(queue.add("b").isDone()).isFalse();
+        assertOverloaded(queue.add("c"));
+        assertThat(queue.getRejectedCount().get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAddIsRejectedWhenMaxQueueBytesIsReached() {
+        TbSqlBlockingQueue<String> queue = new TbSqlBlockingQueue<>(params(0, 10), mock(MessagesStats.class), String::length);
+
+        assertThat(queue.add("aaaaaa").isDone()).isFalse();
+        assertOverloaded(queue.add("bbbbbb"));
+        assertThat(queue.add("cccc").isDone()).isFalse();
+        assertThat(queue.getQueueBytes().get()).isEqualTo(10);
+    }
+
+    @Test
+    public void testElementBiggerThanMaxQueueBytesIsAcceptedByEmptyQueue() {
+        TbSqlBlockingQueue<String> queue = new TbSqlBlockingQueue<>(params(0, 3), mock(MessagesStats.class), String::length);
+
+        assertThat(queue.add("aaaaaa").isDone()).isFalse();
+        assertOverloaded(queue.add("b"));
+    }
+
+    private static void assertOverloaded(ListenableFuture<Void> future) {
+        assertThat(future.isDone()).isTrue();
+        assertThatThrownBy(future::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(StorageOverloadedException.class);
+    }
+
+    private static TbSqlBlockingQueueParams params(int maxQueueSize, long maxQueueBytes) {
+        return TbSqlBlockingQueueParams.builder()
+                .logName("Test")
+                .batchSize(1000)
+                .maxDelay(100)
+                .maxQueueSize(maxQueueSize)
+                .maxQueueBytes(maxQueueBytes)
+                .build();
+    }
+
+}
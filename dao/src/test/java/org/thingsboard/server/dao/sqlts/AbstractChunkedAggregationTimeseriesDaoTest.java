@@ -18,23 +18,35 @@ package org.thingsboard.server.dao.sqlts;
 import com.google.common.util.concurrent.Futures;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.kv.AggregationParams;
 import org.thingsboard.server.common.data.kv.BaseReadTsKvQuery;
+import org.thingsboard.server.common.data.kv.IntervalType;
 import org.thingsboard.server.common.data.kv.ReadTsKvQuery;
 import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.dao.dictionary.KeyDictionaryDao;
+import org.thingsboard.server.dao.sqlts.ts.TsKvAggregationRepository;
 
+import java.time.ZoneId;
+import java.util.Collections;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.willCallRealMethod;
 import static org.mockito.BDDMockito.willReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.thingsboard.server.common.data.id.TenantId.SYS_TENANT_ID;
 import static org.thingsboard.server.common.data.kv.Aggregation.COUNT;
 
@@ -146,6 +158,41 @@ public class AbstractChunkedAggregationTimeseriesDaoTest {
         }
     }
 
+    @Test
+    public void givenGroupedAggregation_whenAggregateCount_thenSingleQueryForAllIntervals() {
+        TsKvAggregationRepository aggregationRepository = mock(TsKvAggregationRepository.class);
+        KeyDictionaryDao keyDictionaryDao = mock(KeyDictionaryDao.class);
+        when(keyDictionaryDao.getOrSaveKeyId(TEMP)).thenReturn(7);
+        ReflectionTestUtils.setField(tsDao, "aggregationRepository", aggregationRepository);
+        ReflectionTestUtils.setField(tsDao, "keyDictionaryDao", keyDictionaryDao);
+        willReturn(Collections.emptyList()).given(aggregationRepository).findAllAndAggregate(any(), anyInt(), anyLong(), anyLong(), anyLong(), any());
+
+        ReadTsKvQuery query = new BaseReadTsKvQuery(TEMP, 1, 3000, 3, LIMIT, COUNT, DESC);
+        assertThat(tsDao.findAllAndAggregate(SYS_TENANT_ID, query)).containsExactly(Optional.empty());
+
+        verify(aggregationRepository, times(1)).findAllAndAggregate(SYS_TENANT_ID.getId(), 7, 1, 3000, 3, COUNT);
+        verify(tsDao, never()).findAndAggregateAsync(any(), any(), anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void givenGroupedAggregation_whenAggregateByMonth_thenIntervalEdgesArePassedToSingleQuery() {
+        TsKvAggregationRepository aggregationRepository = mock(TsKvAggregationRepository.class);
+        KeyDictionaryDao keyDictionaryDao = mock(KeyDictionaryDao.class);
+        when(keyDictionaryDao.getOrSaveKeyId(TEMP)).thenReturn(7);
+        ReflectionTestUtils.setField(tsDao, "aggregationRepository", aggregationRepository);
+        ReflectionTestUtils.setField(tsDao, "keyDictionaryDao", keyDictionaryDao);
+        willReturn(Collections.emptyList()).given(aggregationRepository).findAllAndAggregate(any(), anyInt(), any(long[].class), any());
+
+        long startTs = 1704899727000L; // Wednesday, January 10 15:15:27 GMT
+        long endTs = 1709251200000L; // Friday, March 1, 2024 0:00:00 GMT
+        ZoneId tzId = ZoneId.of("Europe/Kyiv");
+        ReadTsKvQuery query = new BaseReadTsKvQuery(TEMP, startTs, endTs, AggregationParams.calendar(COUNT, IntervalType.MONTH, tzId), LIMIT, DESC);
+        tsDao.findAllAndAggregate(SYS_TENANT_ID, query);
+
+        verify(aggregationRepository, times(1)).findAllAndAggregate(eq(SYS_TENANT_ID.getId()), eq(7),
+                aryEq(new long[]{startTs, 1706738400000L, 1709244000000L, endTs}), eq(COUNT));
+    }
+
     long getTsForReadTsKvQuery(long startTs, long endTs) {
         return startTs + (endTs - startTs) / 2L;
     }
@@ -0,0 +1,104 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.dictionary;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.dao.model.sqlts.dictionary.KeyDictionaryEntry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JpaKeyDictionaryDaoTest {
+
+    private JpaKeyDictionaryDao keyDictionaryDao;
+    private KeyDictionaryRepository repository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        keyDictionaryDao = new JpaKeyDictionaryDao();
+        repository = mock(KeyDictionaryRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        ReflectionTestUtils.setField(keyDictionaryDao, "keyDictionaryRepository", repository);
+        ReflectionTestUtils.setField(keyDictionaryDao, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(keyDictionaryDao, "preloadEnabled", true);
+        when(repository.findAll()).thenReturn(List.of(entry("temperature", 1), entry("humidity", 2)));
+    }
+
+    @Test
+    public void givenPreloadedKeys_whenGetOrSaveKeyId_thenNoQueriesPerKey() {
+        assertThat(keyDictionaryDao.getOrSaveKeyId("temperature")).isEqualTo(1);
+        assertThat(keyDictionaryDao.getOrSaveKeyId("humidity")).isEqualTo(2);
+        assertThat(keyDictionaryDao.getKey(1)).isEqualTo("temperature");
+        assertThat(keyDictionaryDao.getKey(2)).isEqualTo("humidity");
+
+        verify(repository, times(1)).findAll();
+        verify(repository, never()).findAllByKeyIn(any());
+        verify(repository, never()).findByKeyId(anyInt());
+    }
+
+    @Test
+    public void givenUnknownKeys_whenGetOrSaveKeyIds_thenCreatedWithSingleBatch() {
+        when(repository.findAllByKeyIn(any()))
+                .thenReturn(List.of(entry("pressure", 3)))
+                .thenReturn(List.of(entry("voltage", 1000)));
+
+        Map<String, Integer> keyIds = keyDictionaryDao.getOrSaveKeyIds(List.of("temperature", "pressure", "voltage"));
+
+        assertThat(keyIds).containsOnly(Map.entry("temperature", 1), Map.entry("pressure", 3), Map.entry("voltage", 1000));
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), argThat((List<Object[]> args) -> args.size() == 1 && "voltage".equals(args.get(0)[0])));
+        assertThat(keyDictionaryDao.getKey(1000)).isEqualTo("voltage");
+        assertThat(keyDictionaryDao.getOrSaveKeyId("pressure")).isEqualTo(3);
+        verify(repository, times(2)).findAllByKeyIn(any());
+    }
+
+    @Test
+    public void givenKeyCreatedByAnotherNode_whenGetKey_thenLoadedFromDb() {
+        when(repository.findByKeyId(5)).thenReturn(Optional.of(entry("current", 5)));
+
+        assertThat(keyDictionaryDao.getKey(5)).isEqualTo("current");
+        assertThat(keyDictionaryDao.getKey(5)).isEqualTo("current");
+        assertThat(keyDictionaryDao.getOrSaveKeyId("current")).isEqualTo(5);
+
+        verify(repository, times(1)).findByKeyId(eq(5));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private static KeyDictionaryEntry entry(String key, int keyId) {
+        KeyDictionaryEntry entry = new KeyDictionaryEntry();
+        entry.setKey(key);
+        entry.setKeyId(keyId);
+        return entry;
+    }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.insert;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinaryCopyWriterTest {
+
+    @Test
+    public void testRowsAreWrittenInBinaryCopyFormat() throws IOException {
+        UUID entityId = UUID.fromString("5a7a2e3a-5c4d-4e10-8bf1-2b7e0b1b4a44");
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        BinaryCopyWriter writer = new BinaryCopyWriter(actual);
+        writer.startRow(6);
+        writer.writeUuid(entityId);
+        writer.writeInt(7);
+        writer.writeLong(1700000000000L);
+        writer.writeBoolean(null);
+        writer.writeText("ü");
+        writer.writeDouble(1.5);
+        writer.close();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(expected);
+        out.write("PGCOPY\n".getBytes(StandardCharsets.US_ASCII));
+        out.write(new byte[]{(byte) 0xFF, '\r', '\n', 0});
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeShort(6);
+        out.writeInt(16);
+        out.writeLong(entityId.getMostSignificantBits());
+        out.writeLong(entityId.getLeastSignificantBits());
+        out.writeInt(4);
+        out.writeInt(7);
+        out.writeInt(8);
+        out.writeLong(1700000000000L);
+        out.writeInt(-1);
+        out.writeInt(2);
+        out.write(new byte[]{(byte) 0xC3, (byte) 0xBC});
+        out.writeInt(8);
+        out.writeDouble(1.5);
+        out.writeShort(-1);
+
+        assertThat(actual.toByteArray()).isEqualTo(expected.toByteArray());
+    }
+
+}
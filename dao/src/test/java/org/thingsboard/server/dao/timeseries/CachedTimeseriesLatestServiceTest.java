@@ -0,0 +1,170 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.timeseries;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.cache.TbTransactionalCache;
+import org.thingsboard.server.common.data.CacheConstants;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DeleteTsKvQuery;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.kv.TsKvLatestRemovingResult;
+import org.thingsboard.server.common.stats.DefaultCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.cache.CacheExecutorService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_MOCKS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class CachedTimeseriesLatestServiceTest {
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    private TimeseriesLatestDao timeseriesLatestDao;
+    private CachedTimeseriesLatestService service;
+
+    @BeforeEach
+    public void setUp() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new CaffeineCache(CacheConstants.TS_LATEST_CACHE, Caffeine.newBuilder().build())));
+        cacheManager.initializeCaches();
+
+        StatsFactory statsFactory = mock(StatsFactory.class);
+        when(statsFactory.createDefaultCounter(anyString(), any(String[].class))).thenReturn(mock(DefaultCounter.class));
+        timeseriesLatestDao = mock(TimeseriesLatestDao.class);
+
+        service = new CachedTimeseriesLatestService(statsFactory, mock(CacheExecutorService.class), new TsLatestCaffeineCache(cacheManager));
+        ReflectionTestUtils.setField(service, "timeseriesLatestDao", timeseriesLatestDao);
+        ReflectionTestUtils.setField(service, "cacheType", "caffeine");
+        service.init();
+    }
+
+    @Test
+    public void givenCachedLatest_whenFindLatest_thenDaoIsCalledOnce() throws Exception {
+        TsKvEntry latest = entry("temperature", 1000L, 25L);
+        when(timeseriesLatestDao.findLatestOpt(tenantId, deviceId, "temperature")).thenReturn(Futures.immediateFuture(Optional.of(latest)));
+
+        assertThat(service.findLatest(tenantId, deviceId, "temperature").get()).contains(latest);
+        assertThat(service.findLatest(tenantId, deviceId, "temperature").get()).contains(latest);
+
+        verify(timeseriesLatestDao, times(1)).findLatestOpt(tenantId, deviceId, "temperature");
+    }
+
+    @Test
+    public void givenMissingLatest_whenFindLatestByKeys_thenEmptyValueIsCached() throws Exception {
+        when(timeseriesLatestDao.findLatestOpt(tenantId, deviceId, "humidity")).thenReturn(Futures.immediateFuture(Optional.empty()));
+
+        for (int i = 0; i < 2; i++) {
+            List<TsKvEntry> result = service.findLatest(tenantId, deviceId, List.of("humidity")).get();
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getKey()).isEqualTo("humidity");
+            assertThat(result.get(0).getValue()).isNull();
+        }
+
+        verify(timeseriesLatestDao, times(1)).findLatestOpt(tenantId, deviceId, "humidity");
+    }
+
+    @Test
+    public void givenCachedLatest_whenSaveLatest_thenCacheIsEvicted() throws Exception {
+        TsKvEntry older = entry("temperature", 1000L, 20L);
+        TsKvEntry latest = entry("temperature", 2000L, 30L);
+        when(timeseriesLatestDao.saveLatest(tenantId, deviceId, latest)).thenReturn(Futures.immediateFuture(null));
+        when(timeseriesLatestDao.findLatestOpt(tenantId, deviceId, "temperature"))
+                .thenReturn(Futures.immediateFuture(Optional.of(older)), Futures.immediateFuture(Optional.of(latest)));
+
+        assertThat(service.findLatest(tenantId, deviceId, "temperature").get()).contains(older);
+        service.saveLatest(tenantId, deviceId, List.of(latest)).get();
+
+        assertThat(service.findLatest(tenantId, deviceId, "temperature").get()).contains(latest);
+        assertThat(service.findLatest(tenantId, deviceId, "temperature").get()).contains(latest);
+        verify(timeseriesLatestDao, times(2)).findLatestOpt(tenantId, deviceId, "temperature");
+    }
+
+    @Test
+    public void givenCachedNewerLatest_whenSaveOlder_thenCacheIsEvicted() throws Exception {
+        TsKvEntry newer = entry("temperature", 2000L, 30L);
+        TsKvEntry older = entry("temperature", 1000L, 20L);
+        when(timeseriesLatestDao.saveLatest(eq(tenantId), eq(deviceId), any())).thenReturn(Futures.immediateFuture(null));
+        when(timeseriesLatestDao.findLatestOpt(tenantId, deviceId, "temperature")).thenReturn(Futures.immediateFuture(Optional.of(newer)));
+
+        service.saveLatest(tenantId, deviceId, List.of(newer)).get();
+        service.saveLatest(tenantId, deviceId, List.of(older)).get();
+
+        assertThat(service.findLatest(tenantId, deviceId, "temperature").get()).contains(newer);
+        verify(timeseriesLatestDao, times(1)).findLatestOpt(tenantId, deviceId, "temperature");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenOutOfOrderSave_whenSaveLatest_thenSavedValueIsNotCached() throws Exception {
+        TbTransactionalCache<TsLatestCacheKey, TsKvEntry> cache = mock(TbTransactionalCache.class);
+        service = new CachedTimeseriesLatestService(mock(StatsFactory.class, RETURNS_MOCKS), mock(CacheExecutorService.class), cache);
+        ReflectionTestUtils.setField(service, "timeseriesLatestDao", timeseriesLatestDao);
+        ReflectionTestUtils.setField(service, "cacheType", "redis");
+        ReflectionTestUtils.setField(service, "cacheExecutor", MoreExecutors.newDirectExecutorService());
+        TsKvEntry older = entry("temperature", 1000L, 20L);
+        // The DB keeps the newer value and ignores the older one, e.g. with sql.ts_latest.update_by_latest_ts
+        when(timeseriesLatestDao.saveLatest(tenantId, deviceId, older)).thenReturn(Futures.immediateFuture(null));
+
+        service.saveLatest(tenantId, deviceId, List.of(older)).get();
+
+        verify(cache).evict(new TsLatestCacheKey(deviceId, "temperature"));
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test
+    public void givenCachedLatest_whenRemoveLatest_thenCacheIsEvicted() throws Exception {
+        TsKvEntry latest = entry("temperature", 1000L, 25L);
+        when(timeseriesLatestDao.saveLatest(tenantId, deviceId, latest)).thenReturn(Futures.immediateFuture(null));
+        when(timeseriesLatestDao.removeLatest(eq(tenantId), eq(deviceId), any(DeleteTsKvQuery.class)))
+                .thenReturn(Futures.immediateFuture(new TsKvLatestRemovingResult("temperature", true)));
+        when(timeseriesLatestDao.findLatestOpt(tenantId, deviceId, "temperature")).thenReturn(Futures.immediateFuture(Optional.empty()));
+
+        service.saveLatest(tenantId, deviceId, List.of(latest)).get();
+        service.removeLatest(tenantId, deviceId, List.of("temperature")).get();
+
+        assertThat(service.findLatest(tenantId, deviceId, "temperature").get()).isEmpty();
+        verify(timeseriesLatestDao, times(1)).findLatestOpt(tenantId, deviceId, "temperature");
+    }
+
+    private static TsKvEntry entry(String key, long ts, long value) {
+        return new BasicTsKvEntry(ts, new LongDataEntry(key, value));
+    }
+
+}
@@ -57,4 +57,15 @@ class TimeUtilsTest {
         assertThat(TimeUtils.calculateIntervalEnd(ts, IntervalType.QUARTER, ZoneId.of("America/New_York"))).isEqualTo(1711944000000L); // Monday, April 1, 2024 7:00:00 GMT+03:00 DST
     }
 
+    @Test
+    void testIntervalEdges() {
+        long ts = 1704899727000L; // Wednesday, January 10 15:15:27 GMT
+        long endTs = 1709251200000L; // Friday, March 1, 2024 0:00:00 GMT
+        assertThat(TimeUtils.calculateIntervalEdges(ts, endTs, IntervalType.MONTH, ZoneId.of("Europe/Kyiv")))
+                .containsExactly(ts, 1706738400000L, 1709244000000L, endTs); // February 1 and March 1, 2024 0:00:00 GMT+02:00
+
+        assertThat(TimeUtils.calculateIntervalEdges(ts, ts + 1, IntervalType.WEEK, ZoneId.of("Europe/Kyiv")))
+                .containsExactly(ts, ts + 1);
+    }
+
 }
@@ -36,6 +36,11 @@ export interface JsInvokeRequest extends TbMessage {
     scriptBody: string;
     timeout: number;
     args: string[];
+    batchArgs?: JsInvokeArgs[];
+}
+
+export interface JsInvokeArgs {
+    args: string[];
 }
 
 export interface JsCompileRequest extends TbMessage {
@@ -59,6 +64,7 @@ export interface JsInvokeResponse {
     result?: string;
     errorCode?: number;
     errorDetails?: string;
+    batchResults?: JsInvokeResponse[];
 }
 
 export interface RemoteJsResponse {
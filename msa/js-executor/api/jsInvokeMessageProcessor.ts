@@ -174,34 +174,21 @@ export class JsInvokeMessageProcessor {
 
         this.getOrCompileScript(scriptId, invokeRequest.scriptBody).then(
             (script) => {
-                this.executor.executeScript(script, invokeRequest.args, invokeRequest.timeout).then(
-                    (result: string | undefined) => {
-                        if (!result || result.length <= maxResultSize) {
-                            const invokeResponse = JsInvokeMessageProcessor.createInvokeResponse(result, true);
-                            this.logger.debug('[%s] Sending success invoke response, scriptId: [%s]', requestId, scriptId);
-                            this.sendResponse(requestId, responseTopic, headers, scriptId, undefined, invokeResponse);
-                        } else {
-                            const err = {
-                                name: 'Error',
-                                message: 'script invocation result exceeds maximum allowed size of ' + maxResultSize + ' symbols'
-                            }
-                            const invokeResponse = JsInvokeMessageProcessor.createInvokeResponse("", false, RUNTIME_ERROR, err);
-                            this.logger.debug('[%s] Script invocation result exceeds maximum allowed size of %s symbols, scriptId: [%s]', requestId, maxResultSize, scriptId);
-                            this.sendResponse(requestId, responseTopic, headers, scriptId, undefined, invokeResponse);
-                        }
-                    },
-                    (err: any) => {
-                        let errorCode;
-                        if (err && isString(err.message) && err.message.includes('Script execution timed out')) {
-                            errorCode = TIMEOUT_ERROR;
-                        } else {
-                            errorCode = RUNTIME_ERROR;
-                        }
-                        const invokeResponse = JsInvokeMessageProcessor.createInvokeResponse("", false, errorCode, err);
-                        this.logger.debug('[%s] Sending failed invoke response, scriptId: [%s], errorCode: [%s]', requestId, scriptId, errorCode);
-                        this.sendResponse(requestId, responseTopic, headers, scriptId, undefined, invokeResponse);
-                    }
-                )
+                let invocation: Promise<JsInvokeResponse>;
+                if (invokeRequest.batchArgs && invokeRequest.batchArgs.length) {
+                    this.executedScriptsCounter += invokeRequest.batchArgs.length - 1;
+                    invocation = Promise.all(invokeRequest.batchArgs.map(
+                        (batchArgs) => this.executeScript(requestId, scriptId, script, batchArgs.args, invokeRequest.timeout))
+                    ).then((batchResults) => {
+                        return {success: true, batchResults: batchResults};
+                    });
+                } else {
+                    invocation = this.executeScript(requestId, scriptId, script, invokeRequest.args, invokeRequest.timeout);
+                }
+                invocation.then((invokeResponse) => {
+                    this.logger.debug('[%s] Sending invoke response, scriptId: [%s], success: [%s]', requestId, scriptId, invokeResponse.success);
+                    this.sendResponse(requestId, responseTopic, headers, scriptId, undefined, invokeResponse);
+                });
             },
             (err: any) => {
                 let errorCode = COMPILATION_ERROR;
@@ -215,6 +202,33 @@ export class JsInvokeMessageProcessor {
         );
     }
 
+    private executeScript(requestId: string, scriptId: string, script: TbScript, args: string[], timeout: number): Promise<JsInvokeResponse> {
+        return this.executor.executeScript(script, args, timeout).then(
+            (result: string | undefined) => {
+                if (!result || result.length <= maxResultSize) {
+                    return JsInvokeMessageProcessor.createInvokeResponse(result, true);
+                } else {
+                    const err = {
+                        name: 'Error',
+                        message: 'script invocation result exceeds maximum allowed size of ' + maxResultSize + ' symbols'
+                    }
+                    this.logger.debug('[%s] Script invocation result exceeds maximum allowed size of %s symbols, scriptId: [%s]', requestId, maxResultSize, scriptId);
+                    return JsInvokeMessageProcessor.createInvokeResponse("", false, RUNTIME_ERROR, err);
+                }
+            },
+            (err: any) => {
+                let errorCode;
+                if (err && isString(err.message) && err.message.includes('Script execution timed out')) {
+                    errorCode = TIMEOUT_ERROR;
+                } else {
+                    errorCode = RUNTIME_ERROR;
+                }
+                this.logger.debug('[%s] Script invocation failed, scriptId: [%s], errorCode: [%s]', requestId, scriptId, errorCode);
+                return JsInvokeMessageProcessor.createInvokeResponse("", false, errorCode, err);
+            }
+        );
+    }
+
     processReleaseRequest(requestId: string, responseTopic: string, headers: any, releaseRequest: JsReleaseRequest) {
         const scriptId = JsInvokeMessageProcessor.getScriptId(releaseRequest);
         this.logger.debug('[%s] Processing release request, scriptId: [%s]', requestId, scriptId);
@@ -42,6 +42,7 @@ public final class MqttClientConfig {
     private boolean cleanSession = true;
     @Nullable private MqttLastWill lastWill;
     private Class<? extends Channel> channelClass = NioSocketChannel.class;
+    private boolean nativeTransport = false;
 
     private boolean reconnect = true;
     private long reconnectDelay = 1L;
@@ -141,6 +142,20 @@ public final class MqttClientConfig {
         this.channelClass = channelClass;
     }
 
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * Use the Linux native epoll transport for the default event loop. Falls back to NIO if epoll is not available.
+     * The default {@link NioSocketChannel} channel class is replaced with the epoll one automatically.
+     * Defaults to false.
+     * @param nativeTransport
+     */
+    public void setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+    }
+
     public SslContext getSslContext() {
         return sslContext;
     }
@@ -24,8 +24,12 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.mqtt.MqttDecoder;
 import io.netty.handler.codec.mqtt.MqttEncoder;
 import io.netty.handler.codec.mqtt.MqttFixedHeader;
@@ -137,14 +141,14 @@ final class MqttClientImpl implements MqttClient {
     private Promise<MqttConnectResult> connect(String host, int port, boolean reconnect) {
         log.trace("[{}] Connecting to server, isReconnect - {}", channel != null ? channel.id() : "UNKNOWN", reconnect);
         if (this.eventLoop == null) {
-            this.eventLoop = new NioEventLoopGroup();
+            this.eventLoop = createEventLoop();
         }
         this.host = host;
         this.port = port;
         Promise<MqttConnectResult> connectFuture = new DefaultPromise<>(this.eventLoop.next());
         Bootstrap bootstrap = new Bootstrap();
         bootstrap.group(this.eventLoop);
-        bootstrap.channel(clientConfig.getChannelClass());
+        bootstrap.channel(getChannelClass());
         bootstrap.remoteAddress(host, port);
         bootstrap.handler(new MqttChannelInitializer(connectFuture, host, port, clientConfig.getSslContext()));
         ChannelFuture future = bootstrap.connect();
@@ -218,7 +222,7 @@ final class MqttClientImpl implements MqttClient {
     }
 
     /**
-     * By default we use the netty {@link NioEventLoopGroup}.
+     * By default we use the netty {@link NioEventLoopGroup}, or {@link EpollEventLoopGroup} if {@link MqttClientConfig#setNativeTransport(boolean)} is enabled.
      * If you change the EventLoopGroup to another type, make sure to change the {@link Channel} class using {@link MqttClientConfig#setChannelClass(Class)}
      * If you want to force the MqttClient to use another {@link EventLoopGroup}, call this function before calling {@link #connect(String, int)}
      *
@@ -229,6 +233,24 @@ final class MqttClientImpl implements MqttClient {
         this.eventLoop = eventLoop;
     }
 
+    private EventLoopGroup createEventLoop() {
+        if (clientConfig.isNativeTransport()) {
+            if (Epoll.isAvailable()) {
+                return new EpollEventLoopGroup();
+            }
+            log.warn("[{}] Native epoll transport is not available, falling back to NIO", clientConfig.getOwnerId(), Epoll.unavailabilityCause());
+        }
+        return new NioEventLoopGroup();
+    }
+
+    private Class<? extends Channel> getChannelClass() {
+        Class<? extends Channel> channelClass = clientConfig.getChannelClass();
+        if (channelClass == NioSocketChannel.class && eventLoop instanceof EpollEventLoopGroup) {
+            return EpollSocketChannel.class;
+        }
+        return channelClass;
+    }
+
     @Override
     public ListeningExecutor getHandlerExecutor() {
         return this.handlerExecutor;
@@ -70,4 +70,10 @@ public @interface RuleNode {
 
     int version() default 0;
 
+    /**
+     * Marks CPU-bound nodes without side effects that always report the result before {@link TbNode#onMsg} returns.
+     * Such nodes may be invoked inline by the rule chain actor instead of going through the rule node actor mailbox.
+     */
+    boolean synchronous() default false;
+
 }
@@ -21,17 +21,36 @@ import org.thingsboard.server.common.msg.TbMsg;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public interface ScriptEngine {
 
     ListenableFuture<List<TbMsg>> executeUpdateAsync(TbMsg msg);
 
+    /**
+     * Batch variant of {@link #executeUpdateAsync(TbMsg)}. Implementations may ship the whole batch
+     * to the script executor at once.
+     *
+     * @return result futures in the order of the messages
+     */
+    default List<ListenableFuture<List<TbMsg>>> executeUpdateAsync(List<TbMsg> msgs) {
+        return msgs.stream().map(this::executeUpdateAsync).collect(Collectors.toList());
+    }
+
     ListenableFuture<TbMsg> executeGenerateAsync(TbMsg prevMsg);
 
     ListenableFuture<Boolean> executeFilterAsync(TbMsg msg);
 
+    default List<ListenableFuture<Boolean>> executeFilterAsync(List<TbMsg> msgs) {
+        return msgs.stream().map(this::executeFilterAsync).collect(Collectors.toList());
+    }
+
     ListenableFuture<Set<String>> executeSwitchAsync(TbMsg msg);
 
+    default List<ListenableFuture<Set<String>>> executeSwitchAsync(List<TbMsg> msgs) {
+        return msgs.stream().map(this::executeSwitchAsync).collect(Collectors.toList());
+    }
+
     ListenableFuture<JsonNode> executeJsonAsync(TbMsg msg);
 
     ListenableFuture<String> executeToStringAsync(TbMsg msg);
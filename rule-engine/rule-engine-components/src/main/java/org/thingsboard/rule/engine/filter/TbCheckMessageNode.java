@@ -36,6 +36,7 @@ import java.util.Map;
         name = "check fields presence",
         relationTypes = {TbNodeConnectionType.TRUE, TbNodeConnectionType.FALSE},
         configClazz = TbCheckMessageNodeConfiguration.class,
+        synchronous = true,
         nodeDescription = "Checks the presence of the specified fields in the message and/or metadata.",
         nodeDetails = "By default, the rule node checks that all specified fields are present. " +
                 "Uncheck the 'Check that all selected fields are present' if the presence of at least one field is sufficient.<br><br>" +
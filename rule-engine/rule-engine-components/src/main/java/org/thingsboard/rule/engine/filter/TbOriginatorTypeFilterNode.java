@@ -32,6 +32,7 @@ import org.thingsboard.server.common.msg.TbMsg;
         type = ComponentType.FILTER,
         name = "entity type filter",
         configClazz = TbOriginatorTypeFilterNodeConfiguration.class,
+        synchronous = true,
         relationTypes = {TbNodeConnectionType.TRUE, TbNodeConnectionType.FALSE},
         nodeDescription = "Filter incoming messages by the type of message originator entity",
         nodeDetails = "Checks that the entity type of the incoming message originator matches one of the values specified in the filter.<br><br>" +
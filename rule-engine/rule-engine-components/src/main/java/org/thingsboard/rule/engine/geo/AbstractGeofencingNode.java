@@ -15,6 +15,7 @@
  */
 package org.thingsboard.rule.engine.geo;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -29,11 +30,14 @@ import org.thingsboard.rule.engine.api.util.TbNodeUtils;
 import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.msg.TbMsg;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 public abstract class AbstractGeofencingNode<T extends TbGpsGeofencingFilterNodeConfiguration> implements TbNode {
 
+    private static final int SPATIAL_INDEX_MIN_PERIMETERS = 16;
+
     protected T config;
     protected JtsSpatialContext jtsCtx;
 
@@ -56,6 +60,9 @@ public abstract class AbstractGeofencingNode<T extends TbGpsGeofencingFilterNode
         double latitude = getValueFromMessageByName(msg, msgDataObj, config.getLatitudeKeyName());
         double longitude = getValueFromMessageByName(msg, msgDataObj, config.getLongitudeKeyName());
         List<Perimeter> perimeters = getPerimeters(msg);
+        if (perimeters.size() >= SPATIAL_INDEX_MIN_PERIMETERS) {
+            return GeoUtil.index(perimeters).anyMatch(latitude, longitude);
+        }
         boolean matches = false;
         for (Perimeter perimeter : perimeters) {
             if (checkMatches(perimeter, latitude, longitude)) {
@@ -108,14 +115,15 @@ public abstract class AbstractGeofencingNode<T extends TbGpsGeofencingFilterNode
                         perimeter.setPolygonsDefinition(perimeterValue);
                         return Collections.singletonList(perimeter);
                     } else {
-                        var circleDef = JacksonUtil.toJsonNode(perimeterValue);
-                        Perimeter perimeter = new Perimeter();
-                        perimeter.setPerimeterType(PerimeterType.CIRCLE);
-                        perimeter.setCenterLatitude(circleDef.get("latitude").asDouble());
-                        perimeter.setCenterLongitude(circleDef.get("longitude").asDouble());
-                        perimeter.setRange(circleDef.get("radius").asDouble());
-                        perimeter.setRangeUnit(circleDef.has("radiusUnit") ? RangeUnit.valueOf(circleDef.get("radiusUnit").asText()) : RangeUnit.METER);
-                        return Collections.singletonList(perimeter);
+                        JsonNode circlesDef = JacksonUtil.toJsonNode(perimeterValue);
+                        if (circlesDef.isArray()) {
+                            List<Perimeter> perimeters = new ArrayList<>(circlesDef.size());
+                            for (JsonNode circleDef : circlesDef) {
+                                perimeters.add(toCirclePerimeter(circleDef));
+                            }
+                            return perimeters;
+                        }
+                        return Collections.singletonList(toCirclePerimeter(circlesDef));
                     }
                 } else {
                     throw new TbNodeException("Missing perimeter definition!");
@@ -133,6 +141,16 @@ public abstract class AbstractGeofencingNode<T extends TbGpsGeofencingFilterNode
         }
     }
 
+    private static Perimeter toCirclePerimeter(JsonNode circleDef) {
+        Perimeter perimeter = new Perimeter();
+        perimeter.setPerimeterType(PerimeterType.CIRCLE);
+        perimeter.setCenterLatitude(circleDef.get("latitude").asDouble());
+        perimeter.setCenterLongitude(circleDef.get("longitude").asDouble());
+        perimeter.setRange(circleDef.get("radius").asDouble());
+        perimeter.setRangeUnit(circleDef.has("radiusUnit") ? RangeUnit.valueOf(circleDef.get("radiusUnit").asText()) : RangeUnit.METER);
+        return perimeter;
+    }
+
     protected Double getValueFromMessageByName(TbMsg msg, JsonObject msgDataObj, String keyName) throws TbNodeException {
         double value;
         if (msgDataObj.has(keyName) && msgDataObj.get(keyName).isJsonPrimitive()) {
@@ -0,0 +1,58 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.geo;
+
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.algorithm.locate.PointOnGeometryLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedPolygon;
+
+/**
+ * Polygons definition compiled into the prepared geometry. Coordinates are (latitude, longitude), as in the definition.
+ * The point locator is taken from the prepared geometry once and warmed up,
+ * because {@link PreparedPolygon} synchronizes every call of its point locator getter.
+ */
+public class GeoPolygon {
+
+    private final PreparedGeometry geometry;
+    private final PointOnGeometryLocator locator;
+    private final Envelope envelope;
+
+    GeoPolygon(Geometry geometry) {
+        this.geometry = PreparedGeometryFactory.prepare(geometry);
+        this.locator = this.geometry instanceof PreparedPolygon polygon ? polygon.getPointLocator() : new IndexedPointInAreaLocator(geometry);
+        this.envelope = geometry.getEnvelopeInternal();
+        this.locator.locate(new Coordinate(envelope.getMinX(), envelope.getMinY()));
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        return envelope.contains(latitude, longitude) && locator.locate(new Coordinate(latitude, longitude)) == Location.INTERIOR;
+    }
+
+    public Envelope getEnvelope() {
+        return envelope;
+    }
+
+    public Geometry getGeometry() {
+        return geometry.getGeometry();
+    }
+
+}
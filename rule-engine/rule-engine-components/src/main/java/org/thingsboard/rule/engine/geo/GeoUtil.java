@@ -15,6 +15,8 @@
  */
 package org.thingsboard.rule.engine.geo;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
@@ -40,10 +42,20 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Polygon definitions are compiled once and cached by the definition string,
+ * so the geofencing of every message only locates the point in the prepared geometry.
+ * All the methods are thread-safe and do not lock.
+ */
 public class GeoUtil {
 
+    private static final int POLYGONS_CACHE_SIZE = 10000;
+    private static final int INDEXES_CACHE_SIZE = 256;
+
     private static final SpatialContext distCtx = SpatialContext.GEO;
     private static final JtsSpatialContext jtsCtx;
+    private static final Cache<String, GeoPolygon> compiledPolygons = Caffeine.newBuilder().maximumSize(POLYGONS_CACHE_SIZE).build();
+    private static final Cache<String, GeofenceIndex> perimeterIndexes = Caffeine.newBuilder().maximumSize(INDEXES_CACHE_SIZE).build();
 
     static {
         JtsSpatialContextFactory factory = new JtsSpatialContextFactory();
@@ -51,27 +63,54 @@ public class GeoUtil {
         jtsCtx = factory.newSpatialContext();
     }
 
-    public static synchronized double distance(Coordinates x, Coordinates y, RangeUnit unit) {
+    public static double distance(Coordinates x, Coordinates y, RangeUnit unit) {
         Point xLL = distCtx.getShapeFactory().pointXY(x.getLongitude(), x.getLatitude());
         Point yLL = distCtx.getShapeFactory().pointXY(y.getLongitude(), y.getLatitude());
         return unit.fromKm(distCtx.getDistCalc().distance(xLL, yLL) * DistanceUtils.DEG_TO_KM);
     }
 
-    public static synchronized boolean contains(@NonNull String polygonInString, @NonNull Coordinates coordinates) {
+    public static boolean contains(@NonNull String polygonInString, @NonNull Coordinates coordinates) {
+        return compile(polygonInString).contains(coordinates.getLatitude(), coordinates.getLongitude());
+    }
+
+    public static GeoPolygon compile(@NonNull String polygonInString) {
         if (polygonInString.isEmpty() || polygonInString.isBlank()) {
             throw new RuntimeException("Polygon string can't be empty or null!");
         }
+        return compiledPolygons.get(polygonInString, GeoUtil::buildGlobalPolygon);
+    }
 
+    /**
+     * Returns the spatial index of the perimeters, cached by the definition of the perimeters.
+     * The definition is captured as a string, so the key is not affected by later changes of the perimeter objects.
+     */
+    public static GeofenceIndex index(@NonNull List<Perimeter> perimeters) {
+        return perimeterIndexes.get(definitionOf(perimeters), definition -> new GeofenceIndex(perimeters));
+    }
+
+    private static String definitionOf(List<Perimeter> perimeters) {
+        StringBuilder definition = new StringBuilder();
+        for (Perimeter perimeter : perimeters) {
+            definition.append(perimeter.getPerimeterType()).append(':');
+            switch (perimeter.getPerimeterType()) {
+                case CIRCLE -> definition.append(perimeter.getCenterLatitude()).append(',')
+                        .append(perimeter.getCenterLongitude()).append(',')
+                        .append(perimeter.getRange()).append(',')
+                        .append(perimeter.getRangeUnit());
+                case POLYGON -> definition.append(perimeter.getPolygonsDefinition());
+            }
+            definition.append(';');
+        }
+        return definition.toString();
+    }
+
+    private static GeoPolygon buildGlobalPolygon(String polygonInString) {
         JsonArray polygonsJson = normalizePolygonsJson(JsonParser.parseString(polygonInString).getAsJsonArray());
         List<Geometry> polygons = buildPolygonsFromJson(polygonsJson);
         Set<Geometry> holes = extractHolesFrom(polygons);
         polygons.removeIf(holes::contains);
 
-        Geometry globalGeometry = unionToGlobalGeometry(polygons, holes);
-        var point = jtsCtx.getShapeFactory().getGeometryFactory()
-                .createPoint(new Coordinate(coordinates.getLatitude(), coordinates.getLongitude()));
-
-        return globalGeometry.contains(point);
+        return new GeoPolygon(unionToGlobalGeometry(polygons, holes));
     }
 
     private static Geometry unionToGlobalGeometry(List<Geometry> polygons, Set<Geometry> holes) {
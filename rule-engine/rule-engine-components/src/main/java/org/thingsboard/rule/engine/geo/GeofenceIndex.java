@@ -0,0 +1,121 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.geo;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * STR-tree of the perimeters' envelopes, used to test a point against many perimeters:
+ * only the perimeters whose envelope contains the point are checked exactly.
+ * The tree is built on creation and is read-only afterwards, so it may be shared between threads.
+ */
+public class GeofenceIndex {
+
+    private final IndexTree tree = new IndexTree();
+
+    public GeofenceIndex(List<Perimeter> perimeters) {
+        for (Perimeter perimeter : perimeters) {
+            Geofence geofence = switch (perimeter.getPerimeterType()) {
+                case CIRCLE -> circle(perimeter);
+                case POLYGON -> polygon(perimeter);
+            };
+            tree.insert(geofence.envelope(), geofence);
+        }
+        tree.build();
+    }
+
+    public boolean anyMatch(double latitude, double longitude) {
+        for (Geofence geofence : query(latitude, longitude)) {
+            if (geofence.contains(latitude, longitude)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Perimeter> findMatching(double latitude, double longitude) {
+        List<Perimeter> result = new ArrayList<>();
+        for (Geofence geofence : query(latitude, longitude)) {
+            if (geofence.contains(latitude, longitude)) {
+                result.add(geofence.perimeter());
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Geofence> query(double latitude, double longitude) {
+        return tree.query(new Envelope(latitude, latitude, longitude, longitude));
+    }
+
+    private static Geofence polygon(Perimeter perimeter) {
+        GeoPolygon polygon = GeoUtil.compile(perimeter.getPolygonsDefinition());
+        return new Geofence(perimeter, polygon.getEnvelope(), polygon::contains);
+    }
+
+    private static Geofence circle(Perimeter perimeter) {
+        double latitude = perimeter.getCenterLatitude();
+        double longitude = perimeter.getCenterLongitude();
+        double rangeDeg = perimeter.getRangeUnit().toKm(perimeter.getRange()) / DistanceUtils.DEG_TO_KM;
+        Rectangle box = DistanceUtils.calcBoxByDistFromPtDEG(latitude, longitude, rangeDeg, SpatialContext.GEO, null);
+        Envelope envelope = box.getCrossesDateLine() ?
+                new Envelope(box.getMinY(), box.getMaxY(), -180, 180) :
+                new Envelope(box.getMinY(), box.getMaxY(), box.getMinX(), box.getMaxX());
+        Coordinates center = new Coordinates(latitude, longitude);
+        double range = perimeter.getRange();
+        RangeUnit rangeUnit = perimeter.getRangeUnit();
+        return new Geofence(perimeter, envelope, (lat, lon) ->
+                range > GeoUtil.distance(new Coordinates(lat, lon), center, rangeUnit));
+    }
+
+    private interface PointMatcher {
+        boolean contains(double latitude, double longitude);
+    }
+
+    private record Geofence(Perimeter perimeter, Envelope envelope, PointMatcher matcher) {
+
+        boolean contains(double latitude, double longitude) {
+            return matcher.contains(latitude, longitude);
+        }
+
+    }
+
+    /**
+     * {@link STRtree} synchronizes the build check on every query. The tree is built in the constructor of the index,
+     * so the check is replaced by the volatile flag.
+     */
+    private static class IndexTree extends STRtree {
+
+        private volatile boolean ready;
+
+        @Override
+        public void build() {
+            if (!ready) {
+                super.build();
+                ready = true;
+            }
+        }
+
+    }
+
+}
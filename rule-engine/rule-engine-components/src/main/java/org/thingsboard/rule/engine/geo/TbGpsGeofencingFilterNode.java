@@ -59,6 +59,8 @@ import org.thingsboard.server.common.msg.TbMsg;
                 "{\"latitude\":  48.198618758582384, \"longitude\": 24.65322245153503, \"radius\":  100.0, \"radiusUnit\": \"METER\" }" +
                 "</br></br>" +
                 "Available radius units: METER, KILOMETER, FOOT, MILE, NAUTICAL_MILE;<br><br>" +
+                "The circle perimeter key may also store a JSON array of such definitions. " +
+                "The message matches if the location is inside any of the circles.<br><br>" +
                 "Output connections: <code>True</code>, <code>False</code>, <code>Failure</code>",
         uiResources = {"static/rulenode/rulenode-core-config.js"},
         configDirective = "tbFilterNodeGpsGeofencingConfig")
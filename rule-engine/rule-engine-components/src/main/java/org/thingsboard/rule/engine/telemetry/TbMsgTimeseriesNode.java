@@ -34,6 +34,7 @@ import org.thingsboard.server.common.msg.TbMsg;
 import org.thingsboard.server.common.adaptor.JsonConverter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -87,10 +88,14 @@ public class TbMsgTimeseriesNode implements TbNode {
             return;
         }
         long ts = computeTs(msg, config.isUseServerTs());
-        String src = msg.getData();
-        Map<Long, List<KvEntry>> tsKvMap = JsonConverter.convertToTelemetry(JsonParser.parseString(src), ts);
+        Map<Long, List<KvEntry>> tsKvMap;
+        if (msg.getKvData() != null) {
+            tsKvMap = msg.getKvData().isEmpty() ? Collections.emptyMap() : Collections.singletonMap(ts, msg.getKvData());
+        } else {
+            tsKvMap = JsonConverter.convertToTelemetry(JsonParser.parseString(msg.getData()), ts);
+        }
         if (tsKvMap.isEmpty()) {
-            ctx.tellFailure(msg, new IllegalArgumentException("Msg body is empty: " + src));
+            ctx.tellFailure(msg, new IllegalArgumentException("Msg body is empty: " + msg.getData()));
             return;
         }
         List<TsKvEntry> tsKvEntryList = new ArrayList<>();
@@ -17,8 +17,11 @@ package org.thingsboard.rule.engine.telemetry;
 
 import com.google.common.util.concurrent.FutureCallback;
 import lombok.Data;
+import org.thingsboard.common.util.ExceptionUtil;
 import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.server.common.data.exception.StorageOverloadedException;
 import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.queue.RuleEngineException;
 
 import jakarta.annotation.Nullable;
 
@@ -37,6 +40,12 @@ class TelemetryNodeCallback implements FutureCallback<Void> {
 
     @Override
     public void onFailure(Throwable t) {
-        ctx.tellFailure(msg, t);
+        if (ExceptionUtil.lookupExceptionInCause(t, StorageOverloadedException.class) != null) {
+            // bypass the Failure relation, so that the queue processing strategy may retry the message once the storage catches up
+            msg.getCallback().onProcessingEnd(ctx.getSelfId());
+            msg.getCallback().onFailure(new RuleEngineException(t.getMessage(), t));
+        } else {
+            ctx.tellFailure(msg, t);
+        }
     }
 }
@@ -42,6 +42,7 @@ import java.util.stream.Collectors;
         name = "copy key-value pairs",
         version = 2,
         configClazz = TbCopyKeysNodeConfiguration.class,
+        synchronous = true,
         nodeDescription = "Copies key-value pairs from message to message metadata or vice-versa.",
         nodeDetails = "Copies key-value pairs from the message to message metadata, or vice-versa, according to the configured direction and keys. " +
                 "Regular expressions can be used to define which keys-value pairs to copy. Any configured key not found in the source will be ignored.<br><br>" +
@@ -69,26 +70,30 @@ public class TbCopyKeysNode extends TbAbstractTransformNodeWithTbMsgSource {
     @Override
     public void onMsg(TbContext ctx, TbMsg msg) throws ExecutionException, InterruptedException, TbNodeException {
         var metaDataCopy = msg.getMetaData().copy();
-        String msgData = msg.getData();
+        JsonNode msgData = msg.getDataAsJson();
         boolean msgChanged = false;
-        JsonNode dataNode = JacksonUtil.toJsonNode(msgData);
-        if (dataNode.isObject()) {
+        if (msgData.isObject()) {
             switch (copyFrom) {
                 case METADATA:
-                    ObjectNode msgDataNode = (ObjectNode) dataNode;
+                    ObjectNode msgDataNode = null;
                     Map<String, String> metaDataMap = metaDataCopy.getData();
                     for (Map.Entry<String, String> entry : metaDataMap.entrySet()) {
                         String mdKey = entry.getKey();
                         String mdValue = entry.getValue();
                         if (matches(mdKey)) {
                             msgChanged = true;
+                            if (msgDataNode == null) {
+                                msgDataNode = msgData.deepCopy();
+                            }
                             msgDataNode.put(mdKey, mdValue);
                         }
                     }
-                    msgData = JacksonUtil.toString(msgDataNode);
+                    if (msgDataNode != null) {
+                        msgData = msgDataNode;
+                    }
                     break;
                 case DATA:
-                    Iterator<Map.Entry<String, JsonNode>> iteratorNode = dataNode.fields();
+                    Iterator<Map.Entry<String, JsonNode>> iteratorNode = msgData.fields();
                     while (iteratorNode.hasNext()) {
                         Map.Entry<String, JsonNode> entry = iteratorNode.next();
                         String msgKey = entry.getKey();
@@ -15,6 +15,7 @@
  */
 package org.thingsboard.rule.engine.transform;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
@@ -67,8 +68,12 @@ public class TbJsonPathNode implements TbNode {
     public void onMsg(TbContext ctx, TbMsg msg) throws ExecutionException, InterruptedException, TbNodeException {
         if (!TbJsonPathNodeConfiguration.DEFAULT_JSON_PATH.equals(this.jsonPathValue)) {
             try {
-                Object jsonPathData = jsonPath.read(msg.getData(), this.configurationJsonPath);
-                ctx.tellSuccess(TbMsg.transformMsgData(msg, JacksonUtil.toString(jsonPathData)));
+                Object jsonPathData = jsonPath.read(msg.getDataAsJson(), this.configurationJsonPath);
+                if (jsonPathData instanceof JsonNode jsonPathNode) {
+                    ctx.tellSuccess(TbMsg.transformMsgData(msg, jsonPathNode));
+                } else {
+                    ctx.tellSuccess(TbMsg.transformMsgData(msg, JacksonUtil.toString(jsonPathData)));
+                }
             } catch (PathNotFoundException e) {
                 ctx.tellFailure(msg, e);
             }
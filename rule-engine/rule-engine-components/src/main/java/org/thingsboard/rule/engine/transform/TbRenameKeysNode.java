@@ -18,7 +18,6 @@ package org.thingsboard.rule.engine.transform;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.extern.slf4j.Slf4j;
-import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.rule.engine.api.RuleNode;
 import org.thingsboard.rule.engine.api.TbContext;
 import org.thingsboard.rule.engine.api.TbNodeConfiguration;
@@ -39,6 +38,7 @@ import java.util.concurrent.ExecutionException;
         name = "rename keys",
         version = 2,
         configClazz = TbRenameKeysNodeConfiguration.class,
+        synchronous = true,
         nodeDescription = "Renames message or message metadata keys.",
         nodeDetails = "Renames keys in the message or message metadata according to the provided mapping. " +
                 "If key to rename doesn't exist in the specified source (message or message metadata) it will be ignored.<br><br>" +
@@ -69,7 +69,7 @@ public class TbRenameKeysNode extends TbAbstractTransformNodeWithTbMsgSource {
     @Override
     public void onMsg(TbContext ctx, TbMsg msg) throws ExecutionException, InterruptedException, TbNodeException {
         TbMsgMetaData metaDataCopy = msg.getMetaData().copy();
-        String data = msg.getData();
+        ObjectNode msgData = null;
         boolean msgChanged = false;
         switch (renameIn) {
             case METADATA:
@@ -87,26 +87,33 @@ public class TbRenameKeysNode extends TbAbstractTransformNodeWithTbMsgSource {
                 metaDataCopy = new TbMsgMetaData(metaDataMap);
                 break;
             case DATA:
-                JsonNode dataNode = JacksonUtil.toJsonNode(data);
+                JsonNode dataNode = msg.getDataAsJson();
                 if (dataNode.isObject()) {
-                    ObjectNode msgData = (ObjectNode) dataNode;
                     for (Map.Entry<String, String> entry : renameKeysMapping.entrySet()) {
                         String currentKeyName = entry.getKey();
                         String newKeyName = entry.getValue();
-                        if (msgData.has(currentKeyName)) {
+                        if ((msgData != null ? msgData : dataNode).has(currentKeyName)) {
                             msgChanged = true;
+                            if (msgData == null) {
+                                msgData = dataNode.deepCopy();
+                            }
                             JsonNode value = msgData.get(currentKeyName);
                             msgData.set(newKeyName, value);
                             msgData.remove(currentKeyName);
                         }
                     }
-                    data = JacksonUtil.toString(msgData);
                 }
                 break;
             default:
                 log.debug("Unexpected RenameIn value: {}. Allowed values: {}", renameIn, TbMsgSource.values());
         }
-        ctx.tellSuccess(msgChanged ? TbMsg.transformMsg(msg, metaDataCopy, data) : msg);
+        if (!msgChanged) {
+            ctx.tellSuccess(msg);
+        } else if (msgData != null) {
+            ctx.tellSuccess(TbMsg.transformMsg(msg, metaDataCopy, msgData));
+        } else {
+            ctx.tellSuccess(TbMsg.transformMsgMetadata(msg, metaDataCopy));
+        }
     }
 
     @Override
@@ -160,4 +160,10 @@ public class GeoUtilTest {
                 );
     }
 
+    @Test
+    public void testCompiledPolygonIsCachedByDefinition() {
+        Assertions.assertSame(GeoUtil.compile(SAND_CLOCK), GeoUtil.compile(new String(SAND_CLOCK.toCharArray())));
+        Assertions.assertNotSame(GeoUtil.compile(SAND_CLOCK), GeoUtil.compile(SIMPLE_RECT));
+    }
+
 }
@@ -0,0 +1,126 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.thingsboard.rule.engine.geo.GeoUtilTest.POINT_INSIDE_SAND_CLOCK_CENTER;
+import static org.thingsboard.rule.engine.geo.GeoUtilTest.POINT_OUTSIDE_SAND_CLOCK_2;
+import static org.thingsboard.rule.engine.geo.GeoUtilTest.POINT_OUTSIDE_SELF_INTERSECTING_3;
+import static org.thingsboard.rule.engine.geo.GeoUtilTest.SAND_CLOCK;
+import static org.thingsboard.rule.engine.geo.GeoUtilTest.SIMPLE_RECT_WITH_HOLE_IN_CENTER;
+
+public class GeofenceIndexTest {
+
+    @Test
+    public void testFindMatchingPolygons() {
+        Perimeter sandClock = polygon(SAND_CLOCK);
+        Perimeter rectWithHole = polygon(SIMPLE_RECT_WITH_HOLE_IN_CENTER);
+        GeofenceIndex index = new GeofenceIndex(List.of(sandClock, rectWithHole));
+
+        assertThat(index.findMatching(POINT_INSIDE_SAND_CLOCK_CENTER.getLatitude(), POINT_INSIDE_SAND_CLOCK_CENTER.getLongitude()))
+                .containsExactly(sandClock);
+        assertThat(index.anyMatch(POINT_OUTSIDE_SAND_CLOCK_2.getLatitude(), POINT_OUTSIDE_SAND_CLOCK_2.getLongitude())).isFalse();
+        assertThat(index.anyMatch(POINT_OUTSIDE_SELF_INTERSECTING_3.getLatitude(), POINT_OUTSIDE_SELF_INTERSECTING_3.getLongitude())).isFalse();
+    }
+
+    @Test
+    public void testFindMatchingCircles() {
+        Perimeter kyiv = circle(50.4501, 30.5234, 10, RangeUnit.KILOMETER);
+        Perimeter dateLine = circle(0, 179.99, 5000, RangeUnit.METER);
+        GeofenceIndex index = new GeofenceIndex(List.of(kyiv, dateLine));
+
+        assertThat(index.findMatching(50.4501, 30.6234)).containsExactly(kyiv);
+        assertThat(index.findMatching(50.4501, 30.9)).isEmpty();
+        assertThat(index.findMatching(0, -179.99)).containsExactly(dateLine);
+    }
+
+    @Test
+    public void testIndexMatchesLinearScan() {
+        Random random = new Random(42);
+        List<Perimeter> perimeters = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            double lat = random.nextDouble() * 120 - 60;
+            double lon = random.nextDouble() * 340 - 170;
+            if (i % 2 == 0) {
+                perimeters.add(circle(lat, lon, 1 + random.nextInt(500), RangeUnit.KILOMETER));
+            } else {
+                double size = 0.5 + random.nextDouble() * 5;
+                perimeters.add(polygon("[[" + lat + "," + lon + "],[" + (lat + size) + "," + (lon + size) + "]]"));
+            }
+        }
+        GeofenceIndex index = new GeofenceIndex(perimeters);
+
+        for (int i = 0; i < 1000; i++) {
+            double lat = random.nextDouble() * 120 - 60;
+            double lon = random.nextDouble() * 340 - 170;
+            List<Perimeter> expected = new ArrayList<>();
+            for (Perimeter perimeter : perimeters) {
+                if (matches(perimeter, lat, lon)) {
+                    expected.add(perimeter);
+                }
+            }
+            assertThat(index.findMatching(lat, lon)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void testIndexIsCachedByDefinition() {
+        Perimeter kyiv = circle(50.4501, 30.5234, 10, RangeUnit.KILOMETER);
+        GeofenceIndex index = GeoUtil.index(List.of(kyiv, polygon("[[0,0],[1,1]]")));
+        assertThat(index.anyMatch(50.4501, 30.7234)).isFalse();
+
+        assertThat(GeoUtil.index(List.of(circle(50.4501, 30.5234, 10, RangeUnit.KILOMETER), polygon("[[0,0],[1,1]]")))).isSameAs(index);
+
+        kyiv.setRange(20.0);
+        assertThat(index.anyMatch(50.4501, 30.7234)).isFalse();
+        GeofenceIndex changedIndex = GeoUtil.index(List.of(kyiv, polygon("[[0,0],[1,1]]")));
+        assertThat(changedIndex).isNotSameAs(index);
+        assertThat(changedIndex.anyMatch(50.4501, 30.7234)).isTrue();
+    }
+
+    private static boolean matches(Perimeter perimeter, double lat, double lon) {
+        Coordinates point = new Coordinates(lat, lon);
+        if (perimeter.getPerimeterType() == PerimeterType.CIRCLE) {
+            Coordinates center = new Coordinates(perimeter.getCenterLatitude(), perimeter.getCenterLongitude());
+            return perimeter.getRange() > GeoUtil.distance(point, center, perimeter.getRangeUnit());
+        }
+        return GeoUtil.contains(perimeter.getPolygonsDefinition(), point);
+    }
+
+    private static Perimeter polygon(String definition) {
+        Perimeter perimeter = new Perimeter();
+        perimeter.setPerimeterType(PerimeterType.POLYGON);
+        perimeter.setPolygonsDefinition(definition);
+        return perimeter;
+    }
+
+    private static Perimeter circle(double lat, double lon, double range, RangeUnit unit) {
+        Perimeter perimeter = new Perimeter();
+        perimeter.setPerimeterType(PerimeterType.CIRCLE);
+        perimeter.setCenterLatitude(lat);
+        perimeter.setCenterLongitude(lon);
+        perimeter.setRange(range);
+        perimeter.setRangeUnit(unit);
+        return perimeter;
+    }
+
+}
@@ -15,11 +15,13 @@
  */
 package org.thingsboard.rule.engine.geo;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
 import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.rule.engine.api.TbContext;
 import org.thingsboard.rule.engine.api.TbNodeConfiguration;
@@ -36,8 +38,11 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -426,6 +431,48 @@ class TbGpsGeofencingFilterNodeTest {
         assertThat(newMsg).isSameAs(msg);
     }
 
+    @Test
+    void givenTypeCircleAndManyCirclesInMetadata_whenOnMsg_thenSpatialIndexIsUsed() throws TbNodeException {
+        // GIVEN
+        var config = new TbGpsGeofencingFilterNodeConfiguration().defaultConfiguration();
+        config.setPerimeterType(PerimeterType.CIRCLE);
+        node.init(ctx, new TbNodeConfiguration(JacksonUtil.valueToTree(config)));
+
+        ArrayNode circles = JacksonUtil.newArrayNode();
+        for (int i = 1; i <= 20; i++) {
+            circles.addObject()
+                    .put("latitude", CIRCLE_CENTER.getLatitude() + i)
+                    .put("longitude", CIRCLE_CENTER.getLongitude())
+                    .put("radius", CIRCLE_RANGE)
+                    .put("radiusUnit", String.valueOf(RangeUnit.KILOMETER));
+        }
+        circles.addObject()
+                .put("latitude", CIRCLE_CENTER.getLatitude())
+                .put("longitude", CIRCLE_CENTER.getLongitude())
+                .put("radius", CIRCLE_RANGE)
+                .put("radiusUnit", String.valueOf(RangeUnit.KILOMETER));
+        var metadata = new TbMsgMetaData();
+        metadata.putValue("ss_perimeter", JacksonUtil.toString(circles));
+
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        TbMsg msgInside = getTbMsg(deviceId, metadata,
+                POINT_INSIDE_CIRCLE.getLatitude(), POINT_INSIDE_CIRCLE.getLongitude());
+        TbMsg msgOutside = getTbMsg(deviceId, metadata,
+                POINT_OUTSIDE_CIRCLE.getLatitude(), POINT_OUTSIDE_CIRCLE.getLongitude());
+
+        // WHEN
+        try (MockedStatic<GeoUtil> geoUtil = mockStatic(GeoUtil.class, CALLS_REAL_METHODS)) {
+            node.onMsg(ctx, msgInside);
+            node.onMsg(ctx, msgOutside);
+
+            // THEN
+            geoUtil.verify(() -> GeoUtil.index(argThat(perimeters -> perimeters.size() == 21)), times(2));
+        }
+        verify(ctx, times(1)).tellNext(msgInside, TbNodeConnectionType.TRUE);
+        verify(ctx, times(1)).tellNext(msgOutside, TbNodeConnectionType.FALSE);
+        verify(ctx, never()).tellFailure(any(), any());
+    }
+
     private TbMsgMetaData getMetadataForOldVersionCirclePerimeter() {
         var metadata = new TbMsgMetaData();
         metadata.putValue("centerLatitude", String.valueOf(CIRCLE_CENTER.getLatitude()));
@@ -0,0 +1,74 @@
+/**
+ * Copyright © 2016-2024 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.telemetry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.server.common.data.exception.StorageOverloadedException;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.RuleNodeId;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+import org.thingsboard.server.common.msg.queue.RuleEngineException;
+import org.thingsboard.server.common.msg.queue.TbMsgCallback;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TelemetryNodeCallbackTest {
+
+    private final RuleNodeId ruleNodeId = new RuleNodeId(UUID.fromString("ca3a1b5e-5c4d-4e10-8bf1-2b7e0b1b4a44"));
+
+    private TbContext ctx;
+    private TbMsgCallback msgCallback;
+    private TbMsg msg;
+
+    @BeforeEach
+    void setUp() {
+        ctx = mock(TbContext.class);
+        when(ctx.getSelfId()).thenReturn(ruleNodeId);
+        msgCallback = mock(TbMsgCallback.class);
+        msg = TbMsg.newMsg(TbMsgType.POST_TELEMETRY_REQUEST, new DeviceId(UUID.randomUUID()), TbMsgMetaData.EMPTY, "{}", msgCallback);
+    }
+
+    @Test
+    void givenStorageOverloaded_whenOnFailure_thenFailMsgForProcessingStrategy() {
+        new TelemetryNodeCallback(ctx, msg).onFailure(new ExecutionException(new StorageOverloadedException("TS queue is full")));
+
+        verify(msgCallback).onProcessingEnd(ruleNodeId);
+        verify(msgCallback).onFailure(any(RuleEngineException.class));
+        verify(ctx, never()).tellFailure(any(), any());
+    }
+
+    @Test
+    void givenOtherError_whenOnFailure_thenTellFailure() {
+        RuntimeException error = new RuntimeException("Failed to save");
+        new TelemetryNodeCallback(ctx, msg).onFailure(error);
+
+        verify(ctx).tellFailure(eq(msg), eq(error));
+        verify(msgCallback, never()).onFailure(any());
+    }
+
+}
@@ -66,6 +66,7 @@ export class QueueFormComponent implements ControlValueAccessor, OnInit, OnDestr
 
   queueFormGroup: UntypedFormGroup;
   hideBatchSize = false;
+  showLanes = false;
 
   queueSubmitStrategyTypes = QueueSubmitStrategyTypes;
   queueProcessingStrategyTypes = QueueProcessingStrategyTypes;
@@ -107,6 +108,8 @@ export class QueueFormComponent implements ControlValueAccessor, OnInit, OnDestr
         submitStrategy: this.fb.group({
           type: [null, [Validators.required]],
           batchSize: [null],
+          lanes: [null],
+          laneWindowSize: [null]
         }),
         processingStrategy: this.fb.group({
           type: [null, [Validators.required]],
@@ -213,5 +216,22 @@ export class QueueFormComponent implements ControlValueAccessor, OnInit, OnDestr
       batchSizeField.updateValueAndValidity({emitEvent: false});
       this.hideBatchSize = false;
     }
+    const lanesField = form.get('lanes');
+    const laneWindowSizeField = form.get('laneWindowSize');
+    if (type === QueueSubmitStrategyTypes.PARALLEL_BY_ORIGINATOR) {
+      lanesField.patchValue(lanesField.value ?? 8, {emitEvent: false});
+      lanesField.setValidators([Validators.min(1), Validators.required]);
+      laneWindowSizeField.patchValue(laneWindowSizeField.value ?? 100, {emitEvent: false});
+      laneWindowSizeField.setValidators([Validators.min(1), Validators.required]);
+      this.showLanes = true;
+    } else {
+      lanesField.patchValue(null, {emitEvent: false});
+      lanesField.clearValidators();
+      laneWindowSizeField.patchValue(null, {emitEvent: false});
+      laneWindowSizeField.clearValidators();
+      this.showLanes = false;
+    }
+    lanesField.updateValueAndValidity({emitEvent: false});
+    laneWindowSizeField.updateValueAndValidity({emitEvent: false});
   }
 }
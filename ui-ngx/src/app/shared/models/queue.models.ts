@@ -31,7 +31,8 @@ export enum QueueSubmitStrategyTypes {
   SEQUENTIAL_BY_TENANT = 'SEQUENTIAL_BY_TENANT',
   SEQUENTIAL = 'SEQUENTIAL',
   BURST = 'BURST',
-  BATCH = 'BATCH'
+  BATCH = 'BATCH',
+  PARALLEL_BY_ORIGINATOR = 'PARALLEL_BY_ORIGINATOR'
 }
 
 export interface QueueStrategyData {
@@ -60,6 +61,10 @@ export const QueueSubmitStrategyTypesMap = new Map<QueueSubmitStrategyTypes, Que
     [QueueSubmitStrategyTypes.BATCH, {
       label: 'queue.strategies.batch-label',
       hint: 'queue.strategies.batch-hint',
+    }],
+    [QueueSubmitStrategyTypes.PARALLEL_BY_ORIGINATOR, {
+      label: 'queue.strategies.parallel-by-originator-label',
+      hint: 'queue.strategies.parallel-by-originator-hint',
     }]
   ]);
 
@@ -117,6 +122,8 @@ export interface QueueInfo extends BaseData<QueueId>, HasTenantId {
   submitStrategy: {
     type: QueueSubmitStrategyTypes,
     batchSize: number,
+    lanes?: number,
+    laneWindowSize?: number
   };
   tenantId?: TenantId;
   topic: string;